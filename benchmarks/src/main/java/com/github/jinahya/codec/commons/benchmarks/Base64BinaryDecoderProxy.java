@@ -0,0 +1,60 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons.benchmarks;
+
+
+import com.github.jinahya.codec.commons.BinaryDecoderProxy;
+import org.apache.commons.codec.binary.Base64;
+
+
+/**
+ * A {@link BinaryDecoderProxy} for {@link Base64}.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class Base64BinaryDecoderProxy extends BinaryDecoderProxy<Base64> {
+
+
+    public static Object newInstance(final Base64 decoder) {
+
+        return newInstance(
+            Base64BinaryDecoderProxy.class, Base64.class, decoder);
+    }
+
+
+    public static Object newAdapter(final Base64 decoder) {
+
+        return newAdapter(
+            Base64BinaryDecoderProxy.class, Base64.class, decoder);
+    }
+
+
+    protected Base64BinaryDecoderProxy(final Base64 decoder) {
+
+        super(decoder);
+    }
+
+
+    @Override
+    protected byte[] decode(final byte[] source) throws Throwable {
+
+        return decoder.decode(source);
+    }
+
+
+}
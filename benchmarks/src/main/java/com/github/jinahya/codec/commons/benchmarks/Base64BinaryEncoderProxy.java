@@ -0,0 +1,60 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons.benchmarks;
+
+
+import com.github.jinahya.codec.commons.BinaryEncoderProxy;
+import org.apache.commons.codec.binary.Base64;
+
+
+/**
+ * A {@link BinaryEncoderProxy} for {@link Base64}.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class Base64BinaryEncoderProxy extends BinaryEncoderProxy<Base64> {
+
+
+    public static Object newInstance(final Base64 encoder) {
+
+        return newInstance(
+            Base64BinaryEncoderProxy.class, Base64.class, encoder);
+    }
+
+
+    public static Object newAdapter(final Base64 encoder) {
+
+        return newAdapter(
+            Base64BinaryEncoderProxy.class, Base64.class, encoder);
+    }
+
+
+    protected Base64BinaryEncoderProxy(final Base64 encoder) {
+
+        super(encoder);
+    }
+
+
+    @Override
+    protected byte[] encode(final byte[] source) throws Throwable {
+
+        return encoder.encode(source);
+    }
+
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons.benchmarks;
+
+
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.codec.BinaryEncoder;
+import org.apache.commons.codec.Encoder;
+import org.apache.commons.codec.EncoderException;
+import org.apache.commons.codec.binary.Base64;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures {@link BinaryEncoder} proxies against direct calls on the delegate.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BinaryEncoderBenchmark {
+
+
+    @Param({"16", "256", "4096", "65536", "1048576", "16777216"})
+    private int size;
+
+
+    private byte[] source;
+
+
+    private Base64 direct;
+
+
+    private BinaryEncoder proxy;
+
+
+    private Encoder proxyAsEncoder;
+
+
+    private BinaryEncoder adapter;
+
+
+    @Setup
+    public void setup() throws Exception {
+
+        direct = new Base64();
+        proxy = (BinaryEncoder) Base64BinaryEncoderProxy.newInstance(direct);
+        proxyAsEncoder = (Encoder) proxy;
+        adapter = (BinaryEncoder) Base64BinaryEncoderProxy.newAdapter(direct);
+        source = Payloads.bytes(size);
+    }
+
+
+    @Benchmark
+    public byte[] direct() throws EncoderException {
+
+        return direct.encode(source);
+    }
+
+
+    @Benchmark
+    public byte[] proxy() throws EncoderException {
+
+        return proxy.encode(source);
+    }
+
+
+    @Benchmark
+    public Object proxyAsEncoder() throws EncoderException {
+
+        return proxyAsEncoder.encode((Object) source);
+    }
+
+
+    @Benchmark
+    public byte[] adapter() throws EncoderException {
+
+        return adapter.encode(source);
+    }
+
+
+}
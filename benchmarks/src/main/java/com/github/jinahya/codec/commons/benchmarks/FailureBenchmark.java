@@ -0,0 +1,131 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons.benchmarks;
+
+
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.codec.Decoder;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Base64;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures the failure path of {@link Decoder#decode(Object)} with a source
+ * of an unsupported type.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FailureBenchmark {
+
+
+    private static Throwable decode(final Decoder decoder,
+                                    final Object source) {
+
+        try {
+            decoder.decode(source);
+            throw new AssertionError("passed: decode(" + source + ")");
+        } catch (final DecoderException de) {
+            return de;
+        }
+    }
+
+
+    private Object source;
+
+
+    private Decoder direct;
+
+
+    private Decoder proxy;
+
+
+    private Decoder stacklessProxy;
+
+
+    private Decoder adapter;
+
+
+    @Setup
+    public void setup() {
+
+        source = new Object();
+        direct = new Base64();
+        proxy = (Decoder) Base64BinaryDecoderProxy.newInstance(new Base64());
+        stacklessProxy = (Decoder) StacklessBase64BinaryDecoderProxy
+            .newInstance(new Base64());
+        adapter = (Decoder) Base64BinaryDecoderProxy.newAdapter(new Base64());
+    }
+
+
+    /**
+     * Measures creating a {@link DecoderException} directly; the baseline.
+     *
+     * @return a new exception.
+     */
+    @Benchmark
+    public Throwable exception() {
+
+        return new DecoderException("source is not an instance of byte[]");
+    }
+
+
+    @Benchmark
+    public Throwable direct() {
+
+        return decode(direct, source);
+    }
+
+
+    @Benchmark
+    public Throwable proxy() {
+
+        return decode(proxy, source);
+    }
+
+
+    @Benchmark
+    public Throwable stacklessProxy() {
+
+        return decode(stacklessProxy, source);
+    }
+
+
+    @Benchmark
+    public Throwable adapter() {
+
+        return decode(adapter, source);
+    }
+
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons.benchmarks;
+
+
+import java.util.Random;
+
+
+/**
+ * Payloads for benchmarks.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+final class Payloads {
+
+
+    /**
+     * The seed for random payloads; fixed for reproducible runs.
+     */
+    private static final long SEED = 0L;
+
+
+    /**
+     * Returns random bytes of given size.
+     *
+     * @param size the size
+     *
+     * @return random bytes.
+     */
+    static byte[] bytes(final int size) {
+
+        final byte[] bytes = new byte[size];
+        new Random(SEED).nextBytes(bytes);
+
+        return bytes;
+    }
+
+
+    /**
+     * Returns a random string of given length mixing characters which are
+     * URL-safe and which are not.
+     *
+     * @param length the length
+     *
+     * @return a random string.
+     */
+    static String string(final int length) {
+
+        final String characters = "abcdefghijklmnopqrstuvwxyz0123456789 /?&=";
+
+        final Random random = new Random(SEED);
+        final char[] chars = new char[length];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = characters.charAt(random.nextInt(characters.length()));
+        }
+
+        return new String(chars);
+    }
+
+
+    private Payloads() {
+
+        super();
+    }
+
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons.benchmarks;
+
+
+import com.github.jinahya.codec.commons.ProxyFactory;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.codec.binary.Base64;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures the throughput of creating proxy instances and adapters with the
+ * static factory methods of a proxy type against a reusable
+ * {@link ProxyFactory}.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ProxyCreationBenchmark {
+
+
+    private Base64 delegate;
+
+
+    private ProxyFactory<Base64BinaryEncoderProxy, Base64> factory;
+
+
+    @Setup
+    public void setup() {
+
+        delegate = new Base64();
+        factory = ProxyFactory.forEncoder(
+            Base64BinaryEncoderProxy.class, Base64.class);
+    }
+
+
+    @Benchmark
+    public Object staticInstance() {
+
+        return Base64BinaryEncoderProxy.newInstance(delegate);
+    }
+
+
+    @Benchmark
+    public Object factoryInstance() {
+
+        return factory.newInstance(delegate);
+    }
+
+
+    @Benchmark
+    public Object staticAdapter() {
+
+        return Base64BinaryEncoderProxy.newAdapter(delegate);
+    }
+
+
+    @Benchmark
+    public Object factoryAdapter() {
+
+        return factory.newAdapter(delegate);
+    }
+
+
+}
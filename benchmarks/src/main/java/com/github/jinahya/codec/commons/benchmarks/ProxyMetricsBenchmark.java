@@ -0,0 +1,126 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons.benchmarks;
+
+
+import com.github.jinahya.codec.commons.AbstractEncoderProxy;
+import com.github.jinahya.codec.commons.ProxyMetrics;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.codec.BinaryEncoder;
+import org.apache.commons.codec.EncoderException;
+import org.apache.commons.codec.binary.Base64;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures the cost of recording calls to {@link ProxyMetrics} against
+ * proxies which record nothing.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ProxyMetricsBenchmark {
+
+
+    private static BinaryEncoder metered(final BinaryEncoder encoder) {
+
+        AbstractEncoderProxy.getEncoderProxy(
+            encoder, Base64BinaryEncoderProxy.class)
+            .setEncoderMetrics(new ProxyMetrics());
+
+        return encoder;
+    }
+
+
+    @Param({"16", "4096"})
+    private int size;
+
+
+    private byte[] source;
+
+
+    private BinaryEncoder proxy;
+
+
+    private BinaryEncoder meteredProxy;
+
+
+    private BinaryEncoder adapter;
+
+
+    private BinaryEncoder meteredAdapter;
+
+
+    @Setup
+    public void setup() {
+
+        final Base64 delegate = new Base64();
+        proxy = (BinaryEncoder) Base64BinaryEncoderProxy.newInstance(delegate);
+        meteredProxy = metered(
+            (BinaryEncoder) Base64BinaryEncoderProxy.newInstance(delegate));
+        adapter = (BinaryEncoder) Base64BinaryEncoderProxy.newAdapter(delegate);
+        meteredAdapter = metered(
+            (BinaryEncoder) Base64BinaryEncoderProxy.newAdapter(delegate));
+        source = Payloads.bytes(size);
+    }
+
+
+    @Benchmark
+    public byte[] proxy() throws EncoderException {
+
+        return proxy.encode(source);
+    }
+
+
+    @Benchmark
+    public byte[] meteredProxy() throws EncoderException {
+
+        return meteredProxy.encode(source);
+    }
+
+
+    @Benchmark
+    public byte[] adapter() throws EncoderException {
+
+        return adapter.encode(source);
+    }
+
+
+    @Benchmark
+    public byte[] meteredAdapter() throws EncoderException {
+
+        return meteredAdapter.encode(source);
+    }
+
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons.benchmarks;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * Runs benchmarks with 1, 2, 4, ... up to N threads, where N is the number of
+ * available processors, and prints the score for each thread count.
+ * <blockquote><pre>
+ * $ java -cp target/benchmarks.jar \
+ *     com.github.jinahya.codec.commons.benchmarks.Scaling \
+ *     BinaryEncoderBenchmark -p size=1024
+ * </pre></blockquote>
+ * Arguments are the same as those of {@link org.openjdk.jmh.Main}; any thread
+ * count given is overridden.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public final class Scaling {
+
+
+    public static void main(final String[] args)
+        throws CommandLineOptionException, RunnerException {
+
+        final Options options = new CommandLineOptions(args);
+
+        final int processors = Runtime.getRuntime().availableProcessors();
+        final List<Integer> counts = new ArrayList<Integer>();
+        for (int threads = 1; threads < processors; threads <<= 1) {
+            counts.add(threads);
+        }
+        counts.add(processors);
+
+        final List<String> lines = new ArrayList<String>();
+        for (final int threads : counts) {
+            final Options scaled = new OptionsBuilder().parent(options)
+                .threads(threads).build();
+            for (final RunResult result : new Runner(scaled).run()) {
+                lines.add(String.format(
+                    "%-64s %-24s threads: %3d %12.3f %s",
+                    result.getParams().getBenchmark(),
+                    result.getParams().getParam("size"), threads,
+                    result.getPrimaryResult().getScore(),
+                    result.getPrimaryResult().getScoreUnit()));
+            }
+        }
+
+        for (final String line : lines) {
+            System.out.println(line);
+        }
+    }
+
+
+    private Scaling() {
+
+        super();
+    }
+
+
+}
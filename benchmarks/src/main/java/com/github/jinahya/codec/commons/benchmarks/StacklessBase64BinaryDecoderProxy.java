@@ -0,0 +1,54 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons.benchmarks;
+
+
+import org.apache.commons.codec.binary.Base64;
+
+
+/**
+ * A {@link Base64BinaryDecoderProxy} reporting failures with stack-less
+ * exceptions.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class StacklessBase64BinaryDecoderProxy
+    extends Base64BinaryDecoderProxy {
+
+
+    public static Object newInstance(final Base64 decoder) {
+
+        return newInstance(
+            StacklessBase64BinaryDecoderProxy.class, Base64.class, decoder);
+    }
+
+
+    protected StacklessBase64BinaryDecoderProxy(final Base64 decoder) {
+
+        super(decoder);
+    }
+
+
+    @Override
+    protected boolean isStackless() {
+
+        return true;
+    }
+
+
+}
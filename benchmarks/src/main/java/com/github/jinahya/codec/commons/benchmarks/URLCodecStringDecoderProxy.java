@@ -0,0 +1,60 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons.benchmarks;
+
+
+import com.github.jinahya.codec.commons.StringDecoderProxy;
+import org.apache.commons.codec.net.URLCodec;
+
+
+/**
+ * A {@link StringDecoderProxy} for {@link URLCodec}.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class URLCodecStringDecoderProxy extends StringDecoderProxy<URLCodec> {
+
+
+    public static Object newInstance(final URLCodec decoder) {
+
+        return newInstance(
+            URLCodecStringDecoderProxy.class, URLCodec.class, decoder);
+    }
+
+
+    public static Object newAdapter(final URLCodec decoder) {
+
+        return newAdapter(
+            URLCodecStringDecoderProxy.class, URLCodec.class, decoder);
+    }
+
+
+    protected URLCodecStringDecoderProxy(final URLCodec decoder) {
+
+        super(decoder);
+    }
+
+
+    @Override
+    protected String decode(final String source) throws Throwable {
+
+        return decoder.decode(source);
+    }
+
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons.benchmarks;
+
+
+import com.github.jinahya.codec.commons.StringEncoderProxy;
+import org.apache.commons.codec.net.URLCodec;
+
+
+/**
+ * A {@link StringEncoderProxy} for {@link URLCodec}.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class URLCodecStringEncoderProxy extends StringEncoderProxy<URLCodec> {
+
+
+    public static Object newInstance(final URLCodec encoder) {
+
+        return newInstance(
+            URLCodecStringEncoderProxy.class, URLCodec.class, encoder);
+    }
+
+
+    public static Object newAdapter(final URLCodec encoder) {
+
+        return newAdapter(
+            URLCodecStringEncoderProxy.class, URLCodec.class, encoder);
+    }
+
+
+    protected URLCodecStringEncoderProxy(final URLCodec encoder) {
+
+        super(encoder);
+    }
+
+
+    @Override
+    protected String encode(final String source) throws Throwable {
+
+        return encoder.encode(source);
+    }
+
+
+}
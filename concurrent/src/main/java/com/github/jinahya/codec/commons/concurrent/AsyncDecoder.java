@@ -0,0 +1,189 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons.concurrent;
+
+
+import com.github.jinahya.codec.commons.BatchBinaryDecoder;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import org.apache.commons.codec.BinaryDecoder;
+import org.apache.commons.codec.Decoder;
+import org.apache.commons.codec.StringDecoder;
+
+
+/**
+ * An asynchronous facade for a {@link Decoder} such as a decoder proxy or
+ * adapter.
+ * <p>
+ * Each operation runs on an executor and returns a {@link CompletableFuture}
+ * of its result. The number of operations submitted but not yet finished is
+ * bounded; once {@code maxInFlight} operations are in flight, further
+ * operations fail right away with a {@link RejectedExecutionException}
+ * rather than queueing up without limit behind a slow delegate.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class AsyncDecoder {
+
+
+    /**
+     * The default maximum number of operations in flight.
+     */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 1024;
+
+
+    /**
+     * Creates a new instance which runs on virtual threads, if available, or
+     * on the common fork/join pool, with {@link #DEFAULT_MAX_IN_FLIGHT}.
+     *
+     * @param decoder the decoder
+     */
+    public AsyncDecoder(final Decoder decoder) {
+
+        this(decoder, DefaultExecutor.INSTANCE, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param decoder the decoder
+     * @param executor the executor on which operations run
+     * @param maxInFlight the maximum number of operations in flight
+     */
+    public AsyncDecoder(final Decoder decoder, final Executor executor,
+                        final int maxInFlight) {
+
+        super();
+
+        if (decoder == null) {
+            throw new NullPointerException("decoder");
+        }
+
+        this.decoder = decoder;
+
+        inFlight = new InFlight(executor, maxInFlight);
+    }
+
+
+    /**
+     * Decodes given source asynchronously with
+     * {@link Decoder#decode(Object)}.
+     *
+     * @param source the source to decode
+     *
+     * @return a future of the decoded output
+     */
+    public CompletableFuture<Object> decode(final Object source) {
+
+        return inFlight.submit(() -> decoder.decode(source));
+    }
+
+
+    /**
+     * Decodes given source asynchronously with
+     * {@link BinaryDecoder#decode(byte[])}, or with
+     * {@link Decoder#decode(Object)} if the decoder is not a
+     * {@link BinaryDecoder}.
+     *
+     * @param source the source to decode
+     *
+     * @return a future of the decoded output
+     */
+    public CompletableFuture<byte[]> decode(final byte[] source) {
+
+        if (decoder instanceof BinaryDecoder) {
+            return inFlight.submit(
+                () -> ((BinaryDecoder) decoder).decode(source));
+        }
+
+        return inFlight.submit(() -> (byte[]) decoder.decode(source));
+    }
+
+
+    /**
+     * Decodes given source asynchronously with
+     * {@link StringDecoder#decode(String)}, or with
+     * {@link Decoder#decode(Object)} if the decoder is not a
+     * {@link StringDecoder}.
+     *
+     * @param source the source to decode
+     *
+     * @return a future of the decoded output
+     */
+    public CompletableFuture<String> decode(final String source) {
+
+        if (decoder instanceof StringDecoder) {
+            return inFlight.submit(
+                () -> ((StringDecoder) decoder).decode(source));
+        }
+
+        return inFlight.submit(() -> (String) decoder.decode(source));
+    }
+
+
+    /**
+     * Decodes given sources asynchronously as a single operation with
+     * {@link BatchBinaryDecoder#decodeAll(byte[][])}, or one by one if the
+     * decoder is not a {@link BatchBinaryDecoder}.
+     *
+     * @param sources the sources to decode
+     *
+     * @return a future of the decoded outputs
+     */
+    public CompletableFuture<byte[][]> decodeAll(final byte[][] sources) {
+
+        if (decoder instanceof BatchBinaryDecoder) {
+            return inFlight.submit(
+                () -> ((BatchBinaryDecoder) decoder).decodeAll(sources));
+        }
+
+        return inFlight.submit(() -> {
+            final byte[][] decoded = new byte[sources.length][];
+            for (int i = 0; i < sources.length; i++) {
+                decoded[i] = decoder instanceof BinaryDecoder
+                             ? ((BinaryDecoder) decoder).decode(sources[i])
+                             : (byte[]) decoder.decode(sources[i]);
+            }
+            return decoded;
+        });
+    }
+
+
+    /**
+     * Returns the number of operations submitted but not yet finished.
+     *
+     * @return the number of operations in flight.
+     */
+    public int getInFlight() {
+
+        return inFlight.get();
+    }
+
+
+    /**
+     * The decoder.
+     */
+    private final Decoder decoder;
+
+
+    private final InFlight inFlight;
+
+
+}
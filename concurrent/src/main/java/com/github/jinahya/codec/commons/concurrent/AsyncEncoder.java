@@ -0,0 +1,189 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons.concurrent;
+
+
+import com.github.jinahya.codec.commons.BatchBinaryEncoder;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import org.apache.commons.codec.BinaryEncoder;
+import org.apache.commons.codec.Encoder;
+import org.apache.commons.codec.StringEncoder;
+
+
+/**
+ * An asynchronous facade for an {@link Encoder} such as an encoder proxy or
+ * adapter.
+ * <p>
+ * Each operation runs on an executor and returns a {@link CompletableFuture}
+ * of its result. The number of operations submitted but not yet finished is
+ * bounded; once {@code maxInFlight} operations are in flight, further
+ * operations fail right away with a {@link RejectedExecutionException}
+ * rather than queueing up without limit behind a slow delegate.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class AsyncEncoder {
+
+
+    /**
+     * The default maximum number of operations in flight.
+     */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 1024;
+
+
+    /**
+     * Creates a new instance which runs on virtual threads, if available, or
+     * on the common fork/join pool, with {@link #DEFAULT_MAX_IN_FLIGHT}.
+     *
+     * @param encoder the encoder
+     */
+    public AsyncEncoder(final Encoder encoder) {
+
+        this(encoder, DefaultExecutor.INSTANCE, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param encoder the encoder
+     * @param executor the executor on which operations run
+     * @param maxInFlight the maximum number of operations in flight
+     */
+    public AsyncEncoder(final Encoder encoder, final Executor executor,
+                        final int maxInFlight) {
+
+        super();
+
+        if (encoder == null) {
+            throw new NullPointerException("encoder");
+        }
+
+        this.encoder = encoder;
+
+        inFlight = new InFlight(executor, maxInFlight);
+    }
+
+
+    /**
+     * Encodes given source asynchronously with
+     * {@link Encoder#encode(Object)}.
+     *
+     * @param source the source to encode
+     *
+     * @return a future of the encoded output
+     */
+    public CompletableFuture<Object> encode(final Object source) {
+
+        return inFlight.submit(() -> encoder.encode(source));
+    }
+
+
+    /**
+     * Encodes given source asynchronously with
+     * {@link BinaryEncoder#encode(byte[])}, or with
+     * {@link Encoder#encode(Object)} if the encoder is not a
+     * {@link BinaryEncoder}.
+     *
+     * @param source the source to encode
+     *
+     * @return a future of the encoded output
+     */
+    public CompletableFuture<byte[]> encode(final byte[] source) {
+
+        if (encoder instanceof BinaryEncoder) {
+            return inFlight.submit(
+                () -> ((BinaryEncoder) encoder).encode(source));
+        }
+
+        return inFlight.submit(() -> (byte[]) encoder.encode(source));
+    }
+
+
+    /**
+     * Encodes given source asynchronously with
+     * {@link StringEncoder#encode(String)}, or with
+     * {@link Encoder#encode(Object)} if the encoder is not a
+     * {@link StringEncoder}.
+     *
+     * @param source the source to encode
+     *
+     * @return a future of the encoded output
+     */
+    public CompletableFuture<String> encode(final String source) {
+
+        if (encoder instanceof StringEncoder) {
+            return inFlight.submit(
+                () -> ((StringEncoder) encoder).encode(source));
+        }
+
+        return inFlight.submit(() -> (String) encoder.encode(source));
+    }
+
+
+    /**
+     * Encodes given sources asynchronously as a single operation with
+     * {@link BatchBinaryEncoder#encodeAll(byte[][])}, or one by one if the
+     * encoder is not a {@link BatchBinaryEncoder}.
+     *
+     * @param sources the sources to encode
+     *
+     * @return a future of the encoded outputs
+     */
+    public CompletableFuture<byte[][]> encodeAll(final byte[][] sources) {
+
+        if (encoder instanceof BatchBinaryEncoder) {
+            return inFlight.submit(
+                () -> ((BatchBinaryEncoder) encoder).encodeAll(sources));
+        }
+
+        return inFlight.submit(() -> {
+            final byte[][] encoded = new byte[sources.length][];
+            for (int i = 0; i < sources.length; i++) {
+                encoded[i] = encoder instanceof BinaryEncoder
+                             ? ((BinaryEncoder) encoder).encode(sources[i])
+                             : (byte[]) encoder.encode(sources[i]);
+            }
+            return encoded;
+        });
+    }
+
+
+    /**
+     * Returns the number of operations submitted but not yet finished.
+     *
+     * @return the number of operations in flight.
+     */
+    public int getInFlight() {
+
+        return inFlight.get();
+    }
+
+
+    /**
+     * The encoder.
+     */
+    private final Encoder encoder;
+
+
+    private final InFlight inFlight;
+
+
+}
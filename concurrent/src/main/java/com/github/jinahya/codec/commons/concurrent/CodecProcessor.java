@@ -0,0 +1,571 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons.concurrent;
+
+
+import com.github.jinahya.codec.commons.BatchBinaryDecoder;
+import com.github.jinahya.codec.commons.BatchBinaryEncoder;
+import com.github.jinahya.codec.commons.BatchStringDecoder;
+import com.github.jinahya.codec.commons.BatchStringEncoder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.codec.BinaryDecoder;
+import org.apache.commons.codec.BinaryEncoder;
+import org.apache.commons.codec.StringDecoder;
+import org.apache.commons.codec.StringEncoder;
+
+
+/**
+ * A {@link Flow.Processor} which encodes or decodes items as a pipeline
+ * stage.
+ * <p>
+ * The processor requests {@code prefetch} items from upstream up front and
+ * replenishes them as they are consumed, so at most {@code prefetch} items
+ * are buffered. Buffered items are handed to the codec in micro-batches of
+ * at most {@code maxBatchSize} items, and never more than the downstream
+ * subscriber has requested. Batches run on an executor; no thread blocks
+ * waiting for demand or items. A failure of the codec cancels upstream and
+ * is signalled downstream with {@code onError}. Only a single downstream
+ * subscriber is supported.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ * @param <T> the type of items received from upstream
+ * @param <R> the type of items emitted downstream
+ */
+public class CodecProcessor<T, R> implements Flow.Processor<T, R> {
+
+
+    /**
+     * A function which encodes or decodes a batch of items.
+     *
+     * @param <T> the type of source items
+     * @param <R> the type of result items
+     */
+    @FunctionalInterface
+    public interface Batch<T, R> {
+
+
+        /**
+         * Encodes or decodes given items.
+         *
+         * @param items the items
+         *
+         * @return a list of results, each at the same index as its item
+         *
+         * @throws Exception if failed to encode or decode.
+         */
+        List<R> apply(List<T> items) throws Exception;
+
+
+    }
+
+
+    /**
+     * The default number of items requested from upstream up front.
+     */
+    public static final int DEFAULT_PREFETCH = 256;
+
+
+    /**
+     * The default maximum number of items in a batch.
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 64;
+
+
+    /**
+     * Returns a batch function which encodes with given encoder. Batches are
+     * passed as a whole if the encoder is a {@link BatchBinaryEncoder}.
+     *
+     * @param encoder the encoder
+     *
+     * @return a batch function
+     */
+    public static Batch<byte[], byte[]> binaryEncoding(
+        final BinaryEncoder encoder) {
+
+        if (encoder == null) {
+            throw new NullPointerException("encoder");
+        }
+
+        if (encoder instanceof BatchBinaryEncoder) {
+            final BatchBinaryEncoder batch = (BatchBinaryEncoder) encoder;
+            return items -> Arrays.asList(
+                batch.encodeAll(items.toArray(new byte[items.size()][])));
+        }
+
+        return items -> {
+            final List<byte[]> results = new ArrayList<>(items.size());
+            for (final byte[] item : items) {
+                results.add(encoder.encode(item));
+            }
+            return results;
+        };
+    }
+
+
+    /**
+     * Returns a batch function which encodes with given encoder. Batches are
+     * passed as a whole if the encoder is a {@link BatchStringEncoder}.
+     *
+     * @param encoder the encoder
+     *
+     * @return a batch function
+     */
+    public static Batch<String, String> stringEncoding(
+        final StringEncoder encoder) {
+
+        if (encoder == null) {
+            throw new NullPointerException("encoder");
+        }
+
+        if (encoder instanceof BatchStringEncoder) {
+            return ((BatchStringEncoder) encoder)::encodeAll;
+        }
+
+        return items -> {
+            final List<String> results = new ArrayList<>(items.size());
+            for (final String item : items) {
+                results.add(encoder.encode(item));
+            }
+            return results;
+        };
+    }
+
+
+    /**
+     * Returns a batch function which decodes with given decoder. Batches are
+     * passed as a whole if the decoder is a {@link BatchBinaryDecoder}.
+     *
+     * @param decoder the decoder
+     *
+     * @return a batch function
+     */
+    public static Batch<byte[], byte[]> binaryDecoding(
+        final BinaryDecoder decoder) {
+
+        if (decoder == null) {
+            throw new NullPointerException("decoder");
+        }
+
+        if (decoder instanceof BatchBinaryDecoder) {
+            final BatchBinaryDecoder batch = (BatchBinaryDecoder) decoder;
+            return items -> Arrays.asList(
+                batch.decodeAll(items.toArray(new byte[items.size()][])));
+        }
+
+        return items -> {
+            final List<byte[]> results = new ArrayList<>(items.size());
+            for (final byte[] item : items) {
+                results.add(decoder.decode(item));
+            }
+            return results;
+        };
+    }
+
+
+    /**
+     * Returns a batch function which decodes with given decoder. Batches are
+     * passed as a whole if the decoder is a {@link BatchStringDecoder}.
+     *
+     * @param decoder the decoder
+     *
+     * @return a batch function
+     */
+    public static Batch<String, String> stringDecoding(
+        final StringDecoder decoder) {
+
+        if (decoder == null) {
+            throw new NullPointerException("decoder");
+        }
+
+        if (decoder instanceof BatchStringDecoder) {
+            return ((BatchStringDecoder) decoder)::decodeAll;
+        }
+
+        return items -> {
+            final List<String> results = new ArrayList<>(items.size());
+            for (final String item : items) {
+                results.add(decoder.decode(item));
+            }
+            return results;
+        };
+    }
+
+
+    /**
+     * Creates a new instance which runs on virtual threads, if available, or
+     * on the common fork/join pool, with {@link #DEFAULT_PREFETCH} and
+     * {@link #DEFAULT_MAX_BATCH_SIZE}.
+     *
+     * @param batch the batch function
+     */
+    public CodecProcessor(final Batch<T, R> batch) {
+
+        this(batch, DefaultExecutor.INSTANCE, DEFAULT_PREFETCH,
+             DEFAULT_MAX_BATCH_SIZE);
+    }
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param batch the batch function
+     * @param executor the executor on which batches run
+     * @param prefetch the number of items requested from upstream up front
+     * @param maxBatchSize the maximum number of items in a batch
+     */
+    public CodecProcessor(final Batch<T, R> batch, final Executor executor,
+                          final int prefetch, final int maxBatchSize) {
+
+        super();
+
+        if (batch == null) {
+            throw new NullPointerException("batch");
+        }
+
+        if (executor == null) {
+            throw new NullPointerException("executor");
+        }
+
+        if (prefetch <= 0) {
+            throw new IllegalArgumentException(
+                "prefetch(" + prefetch + ") <= 0");
+        }
+
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException(
+                "maxBatchSize(" + maxBatchSize + ") <= 0");
+        }
+
+        this.batch = batch;
+        this.executor = executor;
+        this.prefetch = prefetch;
+        this.maxBatchSize = maxBatchSize;
+
+        replenish = Math.max(1, prefetch - (prefetch >> 2));
+    }
+
+
+    // ------------------------------------------------------------ upstream
+    @Override
+    public void onSubscribe(final Flow.Subscription subscription) {
+
+        if (subscription == null) {
+            throw new NullPointerException("subscription");
+        }
+
+        if (upstream != null) {
+            subscription.cancel();
+            return;
+        }
+
+        upstream = subscription;
+        if (cancelled) {
+            subscription.cancel();
+            return;
+        }
+
+        subscription.request(prefetch);
+    }
+
+
+    @Override
+    public void onNext(final T item) {
+
+        if (item == null) {
+            throw new NullPointerException("item");
+        }
+
+        queue.offer(item);
+        schedule();
+    }
+
+
+    @Override
+    public void onError(final Throwable throwable) {
+
+        if (throwable == null) {
+            throw new NullPointerException("throwable");
+        }
+
+        error = throwable;
+        done = true;
+        schedule();
+    }
+
+
+    @Override
+    public void onComplete() {
+
+        done = true;
+        schedule();
+    }
+
+
+    // ---------------------------------------------------------- downstream
+    @Override
+    public void subscribe(final Flow.Subscriber<? super R> subscriber) {
+
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber");
+        }
+
+        if (!subscribed.compareAndSet(0, 1)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(final long n) {
+                }
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException(
+                "only a single subscriber is supported"));
+            return;
+        }
+
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(final long n) {
+                if (n <= 0L) {
+                    invalid = new IllegalArgumentException(
+                        "non-positive request: " + n);
+                    schedule();
+                    return;
+                }
+                for (long r, u; ; ) {
+                    r = requested.get();
+                    u = r + n;
+                    if (u < 0L) {
+                        u = Long.MAX_VALUE;
+                    }
+                    if (requested.compareAndSet(r, u)) {
+                        break;
+                    }
+                }
+                schedule();
+            }
+            @Override
+            public void cancel() {
+                CodecProcessor.this.cancel();
+            }
+        });
+        downstream = subscriber;
+        schedule();
+    }
+
+
+    /**
+     * Cancels this processor and the upstream subscription.
+     */
+    private void cancel() {
+
+        cancelled = true;
+        final Flow.Subscription subscription = upstream;
+        if (subscription != null) {
+            subscription.cancel();
+        }
+        schedule();
+    }
+
+
+    /**
+     * Schedules a drain unless one is scheduled or running already.
+     */
+    private void schedule() {
+
+        if (wip.getAndIncrement() == 0) {
+            executor.execute(this::drain);
+        }
+    }
+
+
+    /**
+     * Delivers batches of buffered items while the downstream subscriber has
+     * demand. Runs by only one thread at a time.
+     */
+    private void drain() {
+
+        int missed = 1;
+        while (true) {
+            final Flow.Subscriber<? super R> subscriber = downstream;
+            if (subscriber != null && !terminated) {
+                drain(subscriber);
+            }
+            if (terminated) {
+                queue.clear();
+            }
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) {
+                return;
+            }
+        }
+    }
+
+
+    private void drain(final Flow.Subscriber<? super R> subscriber) {
+
+        final long r = requested.get();
+        long e = 0L;
+
+        while (true) {
+            if (cancelled) {
+                terminated = true;
+                return;
+            }
+            if (invalid != null) {
+                terminate(subscriber, invalid);
+                return;
+            }
+            final boolean d = done;
+            if (e == r) {
+                if (d && queue.isEmpty()) {
+                    terminate(subscriber, error);
+                    return;
+                }
+                break;
+            }
+            final int n = (int) Math.min(r - e, maxBatchSize);
+            final List<T> items = new ArrayList<>(n);
+            for (T item; items.size() < n && (item = queue.poll()) != null;) {
+                items.add(item);
+            }
+            if (items.isEmpty()) {
+                if (d) {
+                    terminate(subscriber, error);
+                    return;
+                }
+                break;
+            }
+            final List<R> results;
+            try {
+                results = batch.apply(items);
+                if (results.size() != items.size()) {
+                    throw new IllegalStateException(
+                        results.size() + " results for " + items.size()
+                        + " items");
+                }
+            } catch (final Throwable thrown) {
+                upstream.cancel();
+                terminate(subscriber, thrown);
+                return;
+            }
+            for (final R result : results) {
+                subscriber.onNext(result);
+            }
+            e += items.size();
+            consumed += items.size();
+            if (consumed >= replenish) {
+                upstream.request(consumed);
+                consumed = 0;
+            }
+        }
+
+        if (e != 0L && r != Long.MAX_VALUE) {
+            requested.addAndGet(-e);
+        }
+    }
+
+
+    private void terminate(final Flow.Subscriber<? super R> subscriber,
+                           final Throwable throwable) {
+
+        terminated = true;
+        if (throwable != null) {
+            final Flow.Subscription subscription = upstream;
+            if (subscription != null && throwable == invalid) {
+                subscription.cancel();
+            }
+            subscriber.onError(throwable);
+        } else {
+            subscriber.onComplete();
+        }
+    }
+
+
+    private final Batch<T, R> batch;
+
+
+    private final Executor executor;
+
+
+    private final int prefetch;
+
+
+    private final int maxBatchSize;
+
+
+    /**
+     * The number of consumed items after which more items are requested from
+     * upstream.
+     */
+    private final int replenish;
+
+
+    private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+
+
+    private final AtomicLong requested = new AtomicLong();
+
+
+    private final AtomicInteger wip = new AtomicInteger();
+
+
+    private final AtomicInteger subscribed = new AtomicInteger();
+
+
+    private volatile Flow.Subscription upstream;
+
+
+    private volatile Flow.Subscriber<? super R> downstream;
+
+
+    private volatile boolean done;
+
+
+    private volatile Throwable error;
+
+
+    private volatile Throwable invalid;
+
+
+    private volatile boolean cancelled;
+
+
+    /**
+     * Whether a terminal signal has been sent downstream; accessed only by
+     * the draining thread.
+     */
+    private boolean terminated;
+
+
+    /**
+     * The number of items consumed since the last request to upstream;
+     * accessed only by the draining thread.
+     */
+    private int consumed;
+
+
+}
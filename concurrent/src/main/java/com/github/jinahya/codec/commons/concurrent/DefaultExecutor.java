@@ -0,0 +1,63 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons.concurrent;
+
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+
+/**
+ * Holds the default executor of asynchronous facades.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+final class DefaultExecutor {
+
+
+    /**
+     * An executor which starts a new virtual thread for each task if the
+     * runtime supports virtual threads; {@link ForkJoinPool#commonPool()}
+     * otherwise.
+     */
+    static final Executor INSTANCE;
+
+
+    static {
+        Executor executor;
+        try {
+            final Method method = Executors.class.getMethod(
+                "newVirtualThreadPerTaskExecutor");
+            executor = (Executor) method.invoke(null);
+        } catch (final ReflectiveOperationException roe) {
+            // no virtual threads; or they are not enabled
+            executor = ForkJoinPool.commonPool();
+        }
+        INSTANCE = executor;
+    }
+
+
+    private DefaultExecutor() {
+
+        super();
+    }
+
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons.concurrent;
+
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+
+/**
+ * Submits calls to an executor while bounding the number of calls which are
+ * submitted but not yet finished.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+final class InFlight {
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param executor the executor
+     * @param maxInFlight the maximum number of calls in flight
+     */
+    InFlight(final Executor executor, final int maxInFlight) {
+
+        super();
+
+        if (executor == null) {
+            throw new NullPointerException("executor");
+        }
+
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException(
+                "maxInFlight(" + maxInFlight + ") <= 0");
+        }
+
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+
+        permits = new Semaphore(maxInFlight);
+    }
+
+
+    /**
+     * Submits given call. The returned future is completed exceptionally
+     * with a {@link RejectedExecutionException} right away if
+     * {@code maxInFlight} calls are already in flight or the executor rejects
+     * the call.
+     *
+     * @param <R> result type parameter
+     * @param call the call
+     *
+     * @return a future of the result of {@code call}.
+     */
+    <R> CompletableFuture<R> submit(final Callable<R> call) {
+
+        final CompletableFuture<R> future = new CompletableFuture<>();
+
+        if (!permits.tryAcquire()) {
+            future.completeExceptionally(new RejectedExecutionException(
+                "maxInFlight(" + maxInFlight + ") reached"));
+            return future;
+        }
+
+        try {
+            executor.execute(() -> {
+                if (future.isDone()) { // cancelled
+                    permits.release();
+                    return;
+                }
+                R result = null;
+                Throwable thrown = null;
+                try {
+                    result = call.call();
+                } catch (final Throwable t) {
+                    thrown = t;
+                } finally {
+                    permits.release();
+                }
+                if (thrown != null) {
+                    future.completeExceptionally(thrown);
+                } else {
+                    future.complete(result);
+                }
+            });
+        } catch (final RejectedExecutionException ree) {
+            permits.release();
+            future.completeExceptionally(ree);
+        }
+
+        return future;
+    }
+
+
+    /**
+     * Returns the number of calls in flight.
+     *
+     * @return the number of calls in flight.
+     */
+    int get() {
+
+        return maxInFlight - permits.availablePermits();
+    }
+
+
+    private final Executor executor;
+
+
+    private final int maxInFlight;
+
+
+    private final Semaphore permits;
+
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons.concurrent;
+
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.net.URLCodec;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class AsyncDecoderTest {
+
+
+    @Test
+    public void testDecode() throws Exception {
+
+        final AsyncDecoder binary = new AsyncDecoder(new Hex());
+        Assert.assertEquals(binary.decode("01ab".getBytes()).get(),
+                            new byte[]{0x01, (byte) 0xAB});
+
+        final byte[][] decoded = binary.decodeAll(
+            new byte[][]{"00".getBytes(), "7f".getBytes()}).get();
+        Assert.assertEquals(decoded[0], new byte[]{0x00});
+        Assert.assertEquals(decoded[1], new byte[]{0x7F});
+
+        final AsyncDecoder string = new AsyncDecoder(new URLCodec());
+        Assert.assertEquals(string.decode("a+b").get(), "a b");
+    }
+
+
+    @Test
+    public void testFailure() throws InterruptedException {
+
+        final CompletableFuture<byte[]> future =
+            new AsyncDecoder(new Hex()).decode("0".getBytes());
+        try {
+            future.get();
+            Assert.fail("passed: decode an odd number of digits");
+        } catch (final ExecutionException ee) {
+            Assert.assertTrue(ee.getCause() instanceof DecoderException);
+        }
+    }
+
+
+    @Test
+    public void testRejected() throws InterruptedException {
+
+        final AsyncDecoder decoder = new AsyncDecoder(
+            new Hex(), command -> {
+                throw new RejectedExecutionException();
+            }, 1);
+
+        Assert.assertTrue(
+            decoder.decode("00".getBytes()).isCompletedExceptionally());
+        Assert.assertEquals(decoder.getInFlight(), 0);
+    }
+
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons.concurrent;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import org.apache.commons.codec.EncoderException;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.net.URLCodec;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class AsyncEncoderTest {
+
+
+    @Test
+    public void testEncode() throws Exception {
+
+        final AsyncEncoder binary = new AsyncEncoder(new Hex());
+        Assert.assertEquals(
+            new String(binary.encode(new byte[]{0x01, (byte) 0xAB}).get()),
+            "01ab");
+
+        final byte[][] encoded = binary.encodeAll(
+            new byte[][]{new byte[]{0x00}, new byte[]{0x7F}}).get();
+        Assert.assertEquals(new String(encoded[0]), "00");
+        Assert.assertEquals(new String(encoded[1]), "7f");
+
+        final AsyncEncoder string = new AsyncEncoder(new URLCodec());
+        Assert.assertEquals(string.encode("a b").get(), "a+b");
+    }
+
+
+    @Test
+    public void testFailure() throws InterruptedException {
+
+        final CompletableFuture<Object> future =
+            new AsyncEncoder(new Hex()).encode(new Object());
+        try {
+            future.get();
+            Assert.fail("passed: encode(new Object())");
+        } catch (final ExecutionException ee) {
+            Assert.assertTrue(ee.getCause() instanceof EncoderException);
+        }
+    }
+
+
+    @Test
+    public void testMaxInFlight() throws Exception {
+
+        final List<Runnable> deferred = new ArrayList<>();
+        final Executor executor = deferred::add;
+        final AsyncEncoder encoder = new AsyncEncoder(new Hex(), executor, 2);
+
+        final CompletableFuture<byte[]> first = encoder.encode(new byte[1]);
+        final CompletableFuture<byte[]> second = encoder.encode(new byte[1]);
+        Assert.assertEquals(encoder.getInFlight(), 2);
+
+        final CompletableFuture<byte[]> third = encoder.encode(new byte[1]);
+        Assert.assertTrue(third.isCompletedExceptionally());
+        try {
+            third.get();
+            Assert.fail("passed: over maxInFlight");
+        } catch (final ExecutionException ee) {
+            Assert.assertTrue(
+                ee.getCause() instanceof RejectedExecutionException);
+        }
+
+        first.cancel(false);
+        for (final Runnable runnable : deferred) {
+            runnable.run();
+        }
+        Assert.assertEquals(encoder.getInFlight(), 0);
+        Assert.assertTrue(first.isCancelled());
+        Assert.assertEquals(new String(second.get()), "00");
+    }
+
+
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons.concurrent;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.net.URLCodec;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class CodecProcessorTest {
+
+
+    /**
+     * A subscriber which collects items.
+     */
+    private static class Collector<T> implements Flow.Subscriber<T> {
+
+
+        Collector(final long initial) {
+
+            super();
+
+            this.initial = initial;
+        }
+
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+
+            this.subscription = subscription;
+            subscription.request(initial);
+        }
+
+
+        @Override
+        public void onNext(final T item) {
+
+            items.add(item);
+        }
+
+
+        @Override
+        public void onError(final Throwable throwable) {
+
+            error = throwable;
+            latch.countDown();
+        }
+
+
+        @Override
+        public void onComplete() {
+
+            latch.countDown();
+        }
+
+
+        private final long initial;
+
+
+        volatile Flow.Subscription subscription;
+
+
+        final List<T> items = new ArrayList<>();
+
+
+        volatile Throwable error;
+
+
+        final CountDownLatch latch = new CountDownLatch(1);
+
+
+    }
+
+
+    /**
+     * A subscription which records requests.
+     */
+    private static class Upstream implements Flow.Subscription {
+
+
+        @Override
+        public void request(final long n) {
+
+            requested += n;
+        }
+
+
+        @Override
+        public void cancel() {
+
+            cancelled = true;
+        }
+
+
+        long requested;
+
+
+        boolean cancelled;
+
+
+    }
+
+
+    @Test
+    public void testOrder() throws InterruptedException {
+
+        final CodecProcessor<byte[], byte[]> processor =
+            new CodecProcessor<>(CodecProcessor.binaryEncoding(new Hex()));
+        final Collector<byte[]> collector = new Collector<>(Long.MAX_VALUE);
+        processor.subscribe(collector);
+
+        try (SubmissionPublisher<byte[]> publisher =
+                 new SubmissionPublisher<>()) {
+            publisher.subscribe(processor);
+            for (int i = 0; i < 1000; i++) {
+                publisher.submit(new byte[]{(byte) i});
+            }
+        }
+
+        Assert.assertTrue(collector.latch.await(10L, TimeUnit.SECONDS));
+        Assert.assertNull(collector.error);
+        Assert.assertEquals(collector.items.size(), 1000);
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(new String(collector.items.get(i)),
+                                Hex.encodeHexString(new byte[]{(byte) i}));
+        }
+    }
+
+
+    @Test
+    public void testBackpressure() {
+
+        final CodecProcessor<String, String> processor = new CodecProcessor<>(
+            CodecProcessor.stringEncoding(new URLCodec()), Runnable::run, 8, 3);
+        final Upstream upstream = new Upstream();
+        processor.onSubscribe(upstream);
+        Assert.assertEquals(upstream.requested, 8L);
+
+        final Collector<String> collector = new Collector<>(2L);
+        processor.subscribe(collector);
+        for (int i = 0; i < 8; i++) {
+            processor.onNext("a " + i);
+        }
+        Assert.assertEquals(collector.items.size(), 2);
+        Assert.assertEquals(upstream.requested, 8L);
+
+        collector.subscription.request(4L);
+        Assert.assertEquals(collector.items.size(), 6);
+        Assert.assertEquals(upstream.requested, 14L);
+
+        collector.subscription.request(Long.MAX_VALUE);
+        processor.onComplete();
+        Assert.assertEquals(collector.items.size(), 8);
+        Assert.assertEquals(collector.items.get(7), "a+7");
+        Assert.assertEquals(collector.latch.getCount(), 0L);
+    }
+
+
+    @Test
+    public void testFailure() {
+
+        final CodecProcessor<byte[], byte[]> processor = new CodecProcessor<>(
+            CodecProcessor.binaryDecoding(new Hex()), Runnable::run, 8, 8);
+        final Upstream upstream = new Upstream();
+        processor.onSubscribe(upstream);
+        final Collector<byte[]> collector = new Collector<>(Long.MAX_VALUE);
+        processor.subscribe(collector);
+
+        processor.onNext("00".getBytes());
+        processor.onNext("0".getBytes());
+        Assert.assertEquals(collector.items.size(), 1);
+        Assert.assertTrue(collector.error instanceof DecoderException);
+        Assert.assertTrue(upstream.cancelled);
+    }
+
+
+    @Test
+    public void testSingleSubscriber() {
+
+        final CodecProcessor<String, String> processor = new CodecProcessor<>(
+            CodecProcessor.stringDecoding(new URLCodec()), Runnable::run, 8, 8);
+        processor.subscribe(new Collector<>(1L));
+
+        final Collector<String> second = new Collector<>(1L);
+        processor.subscribe(second);
+        Assert.assertTrue(second.error instanceof IllegalStateException);
+    }
+
+
+    @Test
+    public void testNonPositiveRequest() {
+
+        final CodecProcessor<String, String> processor = new CodecProcessor<>(
+            CodecProcessor.stringDecoding(new URLCodec()), Runnable::run, 8, 8);
+        final Upstream upstream = new Upstream();
+        processor.onSubscribe(upstream);
+        final Collector<String> collector = new Collector<>(0L);
+        processor.subscribe(collector);
+        Assert.assertTrue(collector.error instanceof IllegalArgumentException);
+        Assert.assertTrue(upstream.cancelled);
+    }
+
+
+}
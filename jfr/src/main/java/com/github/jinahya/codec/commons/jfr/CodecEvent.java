@@ -0,0 +1,65 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons.jfr;
+
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+
+/**
+ * An abstract event of a call made through a codec proxy. The duration of the
+ * event is the duration of the call.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+@Category({"Commons Codec Proxies"})
+abstract class CodecEvent extends Event {
+
+
+    @Label("Proxy Class")
+    Class<?> proxyClass;
+
+
+    @Label("Delegate Class")
+    @Description("The class of the delegate the proxy called")
+    Class<?> delegateClass;
+
+
+    @Label("Input Size")
+    @Description("The number of bytes or chars given")
+    long inputSize;
+
+
+    @Label("Output Size")
+    @Description("The number of bytes or chars returned")
+    long outputSize;
+
+
+    @Label("Failed")
+    boolean failed;
+
+
+    @Label("Failure Class")
+    @Description("The class of what the call threw, if failed")
+    Class<?> failureClass;
+
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons.jfr;
+
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+
+/**
+ * An event of a call made through a encoder proxy. Calls shorter than the
+ * threshold, {@value #DEFAULT_THRESHOLD} by default, are not recorded; change
+ * the {@code threshold} setting of {@value #NAME} to record more or fewer.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+@Name(EncodeEvent.NAME)
+@Label("Encode")
+@Threshold(EncodeEvent.DEFAULT_THRESHOLD)
+@StackTrace(true)
+final class EncodeEvent extends CodecEvent {
+
+
+    /**
+     * The name of this event type.
+     */
+    static final String NAME = "com.github.jinahya.codec.commons.Encode";
+
+
+    /**
+     * The default threshold of this event type.
+     */
+    static final String DEFAULT_THRESHOLD = "1 ms";
+
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons.jfr;
+
+
+import com.github.jinahya.codec.commons.AbstractDecoderProxy;
+import com.github.jinahya.codec.commons.AbstractEncoderProxy;
+import com.github.jinahya.codec.commons.ProxyListener;
+
+
+/**
+ * A {@link ProxyListener} which emits a JDK Flight Recorder event for each
+ * call longer than the threshold of its event type; an event named
+ * {@code com.github.jinahya.codec.commons.Encode} for encoder proxies and
+ * {@code com.github.jinahya.codec.commons.Decode} for decoder proxies. The
+ * events carry the classes of the proxy and of its delegate, the sizes in and
+ * out, and whether the call failed, so recordings show which codecs and which
+ * payload sizes take time. While no recording has the event types enabled,
+ * this listener does nothing more than checking that.
+ * <pre>
+ * proxy.setEncoderListener(new FlightRecorderListener());
+ * </pre>
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class FlightRecorderListener implements ProxyListener {
+
+
+    private static Class<?> delegateClass(final Object proxy) {
+
+        if (proxy instanceof AbstractEncoderProxy) {
+            return ((AbstractEncoderProxy<?>) proxy).getEncoderClass();
+        }
+
+        if (proxy instanceof AbstractDecoderProxy) {
+            return ((AbstractDecoderProxy<?>) proxy).getDecoderClass();
+        }
+
+        return null;
+    }
+
+
+    @Override
+    public Object callStarted(final Object proxy, final long inputUnits) {
+
+        final CodecEvent event = proxy instanceof AbstractDecoderProxy
+                                 ? new DecodeEvent() : new EncodeEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+
+        event.inputSize = inputUnits;
+        event.begin();
+
+        return event;
+    }
+
+
+    @Override
+    public void callFinished(final Object proxy, final Object context,
+                             final long outputUnits, final Throwable thrown) {
+
+        if (!(context instanceof CodecEvent)) {
+            return;
+        }
+
+        final CodecEvent event = (CodecEvent) context;
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+
+        event.proxyClass = proxy.getClass();
+        event.delegateClass = delegateClass(proxy);
+        event.outputSize = outputUnits;
+        event.failed = thrown != null;
+        event.failureClass = thrown == null ? null : thrown.getClass();
+        event.commit();
+    }
+
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons.jfr;
+
+
+import com.github.jinahya.codec.commons.AbstractDecoderProxy;
+import com.github.jinahya.codec.commons.AbstractEncoderProxy;
+import com.github.jinahya.codec.commons.ByteArrayResultCache;
+import com.github.jinahya.codec.commons.CachingBinaryEncoderProxy;
+import com.github.jinahya.codec.commons.CachingStringDecoderProxy;
+import com.github.jinahya.codec.commons.LfuResultCache;
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.apache.commons.codec.BinaryEncoder;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.StringDecoder;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.net.URLCodec;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class FlightRecorderListenerTest {
+
+
+    private static List<RecordedEvent> record(final Duration threshold)
+        throws Exception {
+
+        final BinaryEncoder encoder = (BinaryEncoder)
+            CachingBinaryEncoderProxy.newAdapter(
+                new Hex(), new ByteArrayResultCache(16));
+        AbstractEncoderProxy.getEncoderProxy(
+            encoder, CachingBinaryEncoderProxy.class)
+            .setEncoderListener(new FlightRecorderListener());
+
+        final StringDecoder decoder = (StringDecoder)
+            CachingStringDecoderProxy.newInstance(
+                new URLCodec(), new LfuResultCache<String, String>(16));
+        AbstractDecoderProxy.getDecoderProxy(
+            decoder, CachingStringDecoderProxy.class)
+            .setDecoderListener(new FlightRecorderListener());
+
+        final File file = File.createTempFile("codec", ".jfr");
+        try {
+            try (Recording recording = new Recording()) {
+                recording.enable(EncodeEvent.NAME).withThreshold(threshold);
+                recording.enable(DecodeEvent.NAME).withThreshold(threshold);
+                recording.start();
+                encoder.encode(new byte[]{1, 2});
+                try {
+                    decoder.decode("%");
+                    Assert.fail("decoded: %");
+                } catch (final DecoderException de) {
+                    // expected
+                }
+                recording.stop();
+                recording.dump(file.toPath());
+            }
+            final List<RecordedEvent> events = new ArrayList<>();
+            for (final RecordedEvent event
+                 : RecordingFile.readAllEvents(file.toPath())) {
+                final String name = event.getEventType().getName();
+                if (name.equals(EncodeEvent.NAME)
+                    || name.equals(DecodeEvent.NAME)) {
+                    events.add(event);
+                }
+            }
+            return events;
+        } finally {
+            file.delete();
+        }
+    }
+
+
+    @Test
+    public void testRecorded() throws Exception {
+
+        final List<RecordedEvent> events = record(Duration.ZERO);
+        Assert.assertEquals(events.size(), 2);
+
+        final RecordedEvent encoded = events.get(0);
+        Assert.assertEquals(encoded.getEventType().getName(), EncodeEvent.NAME);
+        Assert.assertEquals(encoded.getClass("proxyClass").getName(),
+                            CachingBinaryEncoderProxy.class.getName());
+        Assert.assertEquals(encoded.getClass("delegateClass").getName(),
+                            Hex.class.getName());
+        Assert.assertEquals(encoded.getLong("inputSize"), 2L);
+        Assert.assertEquals(encoded.getLong("outputSize"), 4L);
+        Assert.assertFalse(encoded.getBoolean("failed"));
+        Assert.assertNull(encoded.getClass("failureClass"));
+
+        final RecordedEvent decoded = events.get(1);
+        Assert.assertEquals(decoded.getEventType().getName(), DecodeEvent.NAME);
+        Assert.assertEquals(decoded.getClass("delegateClass").getName(),
+                            URLCodec.class.getName());
+        Assert.assertEquals(decoded.getLong("inputSize"), 1L);
+        Assert.assertTrue(decoded.getBoolean("failed"));
+        Assert.assertEquals(decoded.getClass("failureClass").getName(),
+                            DecoderException.class.getName());
+    }
+
+
+    @Test
+    public void testThreshold() throws Exception {
+
+        Assert.assertTrue(record(Duration.ofHours(1L)).isEmpty());
+    }
+
+
+}
@@ -0,0 +1,427 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons.jmx;
+
+
+import com.github.jinahya.codec.commons.ProxyMetrics;
+import com.github.jinahya.codec.commons.ProxyStats;
+import com.github.jinahya.codec.commons.ResultCache;
+import com.github.jinahya.codec.commons.ResultCacheStats;
+
+
+/**
+ * An abstract implementation of {@link CodecProxyMXBean}.
+ * <p>
+ * Counts are the differences from a baseline snapshot taken on construction
+ * and on {@link #reset()}, so resetting a bean doesn't affect other beans or
+ * whoever else reads the same metrics. If the metrics of the proxy are
+ * replaced, counting starts over with the new metrics.
+ * <p>
+ * Windowed values are the differences from a snapshot taken between one and
+ * two sampling intervals ago. Snapshots are taken only while attributes are
+ * read.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+abstract class CodecProxyBean implements CodecProxyMXBean {
+
+
+    /**
+     * The snapshot of no calls.
+     */
+    private static final ProxyStats EMPTY = new ProxyMetrics(1).getStats();
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param name the name of the proxy
+     * @param proxy the proxy
+     * @param cache the cache of the proxy; {@code null} if not caching
+     * @param interval the sampling interval in nanoseconds
+     */
+    CodecProxyBean(final String name, final Object proxy,
+                   final ResultCache<?, ?> cache, final long interval) {
+
+        super();
+
+        if (name == null) {
+            throw new NullPointerException("name");
+        }
+
+        if (proxy == null) {
+            throw new NullPointerException("proxy");
+        }
+
+        if (interval <= 0L) {
+            throw new IllegalArgumentException(
+                "interval(" + interval + ") <= 0");
+        }
+
+        this.name = name;
+        this.proxy = proxy;
+        this.cache = cache;
+        this.interval = interval;
+    }
+
+
+    /**
+     * Returns the metrics the proxy currently records to.
+     *
+     * @return the metrics; {@code null} if not recording
+     */
+    abstract ProxyMetrics metrics();
+
+
+    /**
+     * Returns the class of the current delegate of the proxy.
+     *
+     * @return the class of the delegate; {@code null} if not yet created
+     */
+    abstract Class<?> delegateClass();
+
+
+    /**
+     * Starts counting over from given snapshot of given metrics.
+     *
+     * @param metrics the metrics
+     * @param stats the snapshot
+     */
+    private void rebase(final ProxyMetrics metrics, final ProxyStats stats) {
+
+        sampled = metrics;
+        baseline = stats;
+        older = stats;
+        recent = stats;
+        olderTime = recentTime = System.nanoTime();
+        cacheBaseline = cache == null ? null : cache.getStats();
+    }
+
+
+    /**
+     * Returns a new snapshot of the metrics of the proxy.
+     *
+     * @return a new snapshot
+     */
+    private synchronized ProxyStats current() {
+
+        final ProxyMetrics metrics = metrics();
+        final ProxyStats stats = metrics == null ? EMPTY : metrics.getStats();
+        if (baseline == null || metrics != sampled) {
+            rebase(metrics, stats);
+        }
+
+        return stats;
+    }
+
+
+    /**
+     * Returns what have been recorded since the baseline.
+     *
+     * @return what have been recorded since the baseline
+     */
+    private synchronized ProxyStats counted() {
+
+        return current().since(baseline);
+    }
+
+
+    /**
+     * Returns what have been recorded within the sampling window and updates
+     * {@link #windowNanos}.
+     *
+     * @return what have been recorded within the sampling window
+     */
+    private synchronized ProxyStats windowed() {
+
+        final ProxyStats stats = current();
+        final long time = System.nanoTime();
+        if (time - recentTime >= interval) {
+            older = recent;
+            olderTime = recentTime;
+            recent = stats;
+            recentTime = time;
+        }
+        windowNanos = time - olderTime;
+
+        return stats.since(older);
+    }
+
+
+    private synchronized double perSecond(final long count) {
+
+        if (windowNanos <= 0L) {
+            return 0.0d;
+        }
+
+        return count * 1000000000.0d / windowNanos;
+    }
+
+
+    private synchronized ResultCacheStats cached() {
+
+        if (cache == null) {
+            return null;
+        }
+
+        current();
+        final ResultCacheStats stats = cache.getStats();
+
+        return new ResultCacheStats(
+            stats.getHitCount() - cacheBaseline.getHitCount(),
+            stats.getMissCount() - cacheBaseline.getMissCount(),
+            stats.getEvictionCount() - cacheBaseline.getEvictionCount(),
+            stats.getRejectionCount() - cacheBaseline.getRejectionCount());
+    }
+
+
+    @Override
+    public String getName() {
+
+        return name;
+    }
+
+
+    @Override
+    public String getProxyType() {
+
+        return proxy.getClass().getName();
+    }
+
+
+    @Override
+    public String getDelegateType() {
+
+        final Class<?> delegateClass = delegateClass();
+
+        return delegateClass == null ? null : delegateClass.getName();
+    }
+
+
+    @Override
+    public long getCallCount() {
+
+        return counted().getCallCount();
+    }
+
+
+    @Override
+    public long getErrorCount() {
+
+        return counted().getErrorCount();
+    }
+
+
+    @Override
+    public double getErrorRatio() {
+
+        final ProxyStats stats = counted();
+        if (stats.getCallCount() == 0L) {
+            return 0.0d;
+        }
+
+        return (double) stats.getErrorCount() / stats.getCallCount();
+    }
+
+
+    @Override
+    public long getInputUnits() {
+
+        return counted().getInputUnits();
+    }
+
+
+    @Override
+    public long getOutputUnits() {
+
+        return counted().getOutputUnits();
+    }
+
+
+    @Override
+    public synchronized double getCallRate() {
+
+        return perSecond(windowed().getCallCount());
+    }
+
+
+    @Override
+    public synchronized double getErrorRate() {
+
+        return perSecond(windowed().getErrorCount());
+    }
+
+
+    @Override
+    public synchronized double getInputRate() {
+
+        return perSecond(windowed().getInputUnits());
+    }
+
+
+    @Override
+    public synchronized double getOutputRate() {
+
+        return perSecond(windowed().getOutputUnits());
+    }
+
+
+    @Override
+    public double getMeanLatency() {
+
+        return windowed().getMeanLatency();
+    }
+
+
+    @Override
+    public long get50thPercentileLatency() {
+
+        return windowed().getLatency(0.5d);
+    }
+
+
+    @Override
+    public long get90thPercentileLatency() {
+
+        return windowed().getLatency(0.9d);
+    }
+
+
+    @Override
+    public long get99thPercentileLatency() {
+
+        return windowed().getLatency(0.99d);
+    }
+
+
+    @Override
+    public long get999thPercentileLatency() {
+
+        return windowed().getLatency(0.999d);
+    }
+
+
+    @Override
+    public boolean isCaching() {
+
+        return cache != null;
+    }
+
+
+    @Override
+    public long getCacheHitCount() {
+
+        final ResultCacheStats stats = cached();
+
+        return stats == null ? 0L : stats.getHitCount();
+    }
+
+
+    @Override
+    public long getCacheMissCount() {
+
+        final ResultCacheStats stats = cached();
+
+        return stats == null ? 0L : stats.getMissCount();
+    }
+
+
+    @Override
+    public long getCacheEvictionCount() {
+
+        final ResultCacheStats stats = cached();
+
+        return stats == null ? 0L : stats.getEvictionCount();
+    }
+
+
+    @Override
+    public double getCacheHitRate() {
+
+        final ResultCacheStats stats = cached();
+
+        return stats == null ? 0.0d : stats.getHitRate();
+    }
+
+
+    @Override
+    public synchronized void reset() {
+
+        final ProxyMetrics metrics = metrics();
+        rebase(metrics, metrics == null ? EMPTY : metrics.getStats());
+    }
+
+
+    private final String name;
+
+
+    /**
+     * The proxy.
+     */
+    private final Object proxy;
+
+
+    /**
+     * The cache of the proxy; {@code null} if not caching.
+     */
+    private final ResultCache<?, ?> cache;
+
+
+    /**
+     * The sampling interval in nanoseconds.
+     */
+    private final long interval;
+
+
+    /**
+     * The metrics {@link #baseline} was taken from.
+     */
+    private ProxyMetrics sampled;
+
+
+    private ProxyStats baseline;
+
+
+    private ResultCacheStats cacheBaseline;
+
+
+    /**
+     * The snapshot which the sampling window starts with.
+     */
+    private ProxyStats older;
+
+
+    private long olderTime;
+
+
+    /**
+     * The most recent snapshot taken.
+     */
+    private ProxyStats recent;
+
+
+    private long recentTime;
+
+
+    /**
+     * The length of the last sampling window in nanoseconds.
+     */
+    private long windowNanos;
+
+
+}
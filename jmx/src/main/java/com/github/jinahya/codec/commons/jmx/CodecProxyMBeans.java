@@ -0,0 +1,348 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons.jmx;
+
+
+import com.github.jinahya.codec.commons.AbstractDecoderProxy;
+import com.github.jinahya.codec.commons.AbstractEncoderProxy;
+import com.github.jinahya.codec.commons.CachingBinaryDecoderProxy;
+import com.github.jinahya.codec.commons.CachingBinaryEncoderProxy;
+import com.github.jinahya.codec.commons.CachingStringDecoderProxy;
+import com.github.jinahya.codec.commons.CachingStringEncoderProxy;
+import com.github.jinahya.codec.commons.ProxyMetrics;
+import com.github.jinahya.codec.commons.ResultCache;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+
+/**
+ * Registers {@link CodecProxyMXBean}s for named proxies.
+ * <p>
+ * Each bean is registered as
+ * {@code com.github.jinahya.codec.commons:type=EncoderProxy,name="<name>"}
+ * or {@code ...:type=DecoderProxy,...}. A proxy which records nothing is given
+ * a new {@link ProxyMetrics} on registration. Use
+ * {@link AbstractEncoderProxy#getEncoderProxy(Object, Class)} or
+ * {@link AbstractDecoderProxy#getDecoderProxy(Object, Class)} to get the proxy
+ * behind an instance or an adapter. Beans are unregistered by the names
+ * they were registered with; unregister the beans of proxies which go away,
+ * e.g., when an application is redeployed, so that they don't leak and
+ * their names can be registered again.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public final class CodecProxyMBeans {
+
+
+    /**
+     * The domain of the object names.
+     */
+    public static final String DOMAIN = "com.github.jinahya.codec.commons";
+
+
+    /**
+     * The default sampling interval in nanoseconds.
+     */
+    static final long DEFAULT_INTERVAL = TimeUnit.SECONDS.toNanos(60L);
+
+
+    /**
+     * Returns the object name for given type and name.
+     *
+     * @param type the type
+     * @param name the name
+     *
+     * @return the object name
+     *
+     * @throws JMException if the object name is malformed.
+     */
+    static ObjectName objectName(final String type, final String name)
+        throws JMException {
+
+        if (name == null) {
+            throw new NullPointerException("name");
+        }
+
+        return new ObjectName(
+            DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+    }
+
+
+    /**
+     * Returns the cache of given proxy if it is one of the caching proxies.
+     *
+     * @param proxy the proxy
+     *
+     * @return the cache; {@code null} if not caching
+     */
+    static ResultCache<?, ?> cache(final Object proxy) {
+
+        if (proxy instanceof CachingBinaryEncoderProxy) {
+            return ((CachingBinaryEncoderProxy) proxy).getCache();
+        }
+
+        if (proxy instanceof CachingBinaryDecoderProxy) {
+            return ((CachingBinaryDecoderProxy) proxy).getCache();
+        }
+
+        if (proxy instanceof CachingStringEncoderProxy) {
+            return ((CachingStringEncoderProxy) proxy).getCache();
+        }
+
+        if (proxy instanceof CachingStringDecoderProxy) {
+            return ((CachingStringDecoderProxy) proxy).getCache();
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Creates a new bean for given encoder proxy.
+     *
+     * @param name the name
+     * @param proxy the proxy
+     * @param interval the sampling interval in nanoseconds
+     *
+     * @return a new bean
+     */
+    static CodecProxyBean newBean(final String name,
+                                  final AbstractEncoderProxy<?> proxy,
+                                  final long interval) {
+
+        if (proxy == null) {
+            throw new NullPointerException("proxy");
+        }
+
+        if (proxy.getEncoderMetrics() == null) {
+            proxy.setEncoderMetrics(new ProxyMetrics());
+        }
+
+        final CodecProxyBean bean =
+            new CodecProxyBean(name, proxy, cache(proxy), interval) {
+            @Override
+            ProxyMetrics metrics() {
+                return proxy.getEncoderMetrics();
+            }
+
+            @Override
+            Class<?> delegateClass() {
+                return proxy.getEncoderClass();
+            }
+        };
+        bean.reset();
+
+        return bean;
+    }
+
+
+    /**
+     * Creates a new bean for given decoder proxy.
+     *
+     * @param name the name
+     * @param proxy the proxy
+     * @param interval the sampling interval in nanoseconds
+     *
+     * @return a new bean
+     */
+    static CodecProxyBean newBean(final String name,
+                                  final AbstractDecoderProxy<?> proxy,
+                                  final long interval) {
+
+        if (proxy == null) {
+            throw new NullPointerException("proxy");
+        }
+
+        if (proxy.getDecoderMetrics() == null) {
+            proxy.setDecoderMetrics(new ProxyMetrics());
+        }
+
+        final CodecProxyBean bean =
+            new CodecProxyBean(name, proxy, cache(proxy), interval) {
+            @Override
+            ProxyMetrics metrics() {
+                return proxy.getDecoderMetrics();
+            }
+
+            @Override
+            Class<?> delegateClass() {
+                return proxy.getDecoderClass();
+            }
+        };
+        bean.reset();
+
+        return bean;
+    }
+
+
+    /**
+     * Registers a bean for given encoder proxy to the platform MBean server.
+     *
+     * @param name the name of the proxy
+     * @param proxy the proxy
+     *
+     * @return the object name registered
+     *
+     * @throws JMException if failed to register.
+     */
+    public static ObjectName register(final String name,
+                                      final AbstractEncoderProxy<?> proxy)
+        throws JMException {
+
+        return register(ManagementFactory.getPlatformMBeanServer(), name,
+                        proxy);
+    }
+
+
+    /**
+     * Registers a bean for given encoder proxy to given MBean server.
+     *
+     * @param server the MBean server
+     * @param name the name of the proxy
+     * @param proxy the proxy
+     *
+     * @return the object name registered
+     *
+     * @throws JMException if failed to register.
+     */
+    public static ObjectName register(final MBeanServer server,
+                                      final String name,
+                                      final AbstractEncoderProxy<?> proxy)
+        throws JMException {
+
+        if (server == null) {
+            throw new NullPointerException("server");
+        }
+
+        final ObjectName objectName = objectName("EncoderProxy", name);
+        server.registerMBean(newBean(name, proxy, DEFAULT_INTERVAL),
+                             objectName);
+
+        return objectName;
+    }
+
+
+    /**
+     * Registers a bean for given decoder proxy to the platform MBean server.
+     *
+     * @param name the name of the proxy
+     * @param proxy the proxy
+     *
+     * @return the object name registered
+     *
+     * @throws JMException if failed to register.
+     */
+    public static ObjectName register(final String name,
+                                      final AbstractDecoderProxy<?> proxy)
+        throws JMException {
+
+        return register(ManagementFactory.getPlatformMBeanServer(), name,
+                        proxy);
+    }
+
+
+    /**
+     * Registers a bean for given decoder proxy to given MBean server.
+     *
+     * @param server the MBean server
+     * @param name the name of the proxy
+     * @param proxy the proxy
+     *
+     * @return the object name registered
+     *
+     * @throws JMException if failed to register.
+     */
+    public static ObjectName register(final MBeanServer server,
+                                      final String name,
+                                      final AbstractDecoderProxy<?> proxy)
+        throws JMException {
+
+        if (server == null) {
+            throw new NullPointerException("server");
+        }
+
+        final ObjectName objectName = objectName("DecoderProxy", name);
+        server.registerMBean(newBean(name, proxy, DEFAULT_INTERVAL),
+                             objectName);
+
+        return objectName;
+    }
+
+
+    /**
+     * Unregisters the beans registered with given name from the platform
+     * MBean server.
+     *
+     * @param name the name of the proxy
+     *
+     * @return {@code true} if any bean was unregistered; {@code false}
+     * otherwise.
+     *
+     * @throws JMException if failed to unregister.
+     */
+    public static boolean unregister(final String name) throws JMException {
+
+        return unregister(ManagementFactory.getPlatformMBeanServer(), name);
+    }
+
+
+    /**
+     * Unregisters the beans, of an encoder proxy and a decoder proxy,
+     * registered with given name from given MBean server.
+     *
+     * @param server the MBean server
+     * @param name the name of the proxy
+     *
+     * @return {@code true} if any bean was unregistered; {@code false}
+     * otherwise.
+     *
+     * @throws JMException if failed to unregister.
+     */
+    public static boolean unregister(final MBeanServer server,
+                                     final String name)
+        throws JMException {
+
+        if (server == null) {
+            throw new NullPointerException("server");
+        }
+
+        boolean unregistered = false;
+        for (final String type : new String[]{"EncoderProxy", "DecoderProxy"}) {
+            try {
+                server.unregisterMBean(objectName(type, name));
+                unregistered = true;
+            } catch (final InstanceNotFoundException infe) {
+                // not registered
+            }
+        }
+
+        return unregistered;
+    }
+
+
+    private CodecProxyMBeans() {
+
+        super();
+    }
+
+
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons.jmx;
+
+
+/**
+ * The management interface of a codec proxy.
+ * <p>
+ * Counts, ratios and cache statistics cover the calls made since the bean was
+ * registered or last {@link #reset() reset}. Rates and latencies cover only the
+ * calls made within the most recent sampling window so that a codec turning
+ * slow shows up promptly. Latencies are in nanoseconds; units are bytes or
+ * chars.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ * @see CodecProxyMBeans
+ */
+public interface CodecProxyMXBean {
+
+
+    /**
+     * Returns the name the proxy is registered with.
+     *
+     * @return the name
+     */
+    String getName();
+
+
+    /**
+     * Returns the class name of the proxy.
+     *
+     * @return the class name of the proxy
+     */
+    String getProxyType();
+
+
+    /**
+     * Returns the class name of the current delegate of the proxy.
+     *
+     * @return the class name of the delegate; {@code null} if not yet created
+     */
+    String getDelegateType();
+
+
+    /**
+     * Returns the number of calls finished.
+     *
+     * @return the number of calls
+     */
+    long getCallCount();
+
+
+    /**
+     * Returns the number of calls failed.
+     *
+     * @return the number of errors
+     */
+    long getErrorCount();
+
+
+    /**
+     * Returns the ratio of failed calls to all calls.
+     *
+     * @return the error ratio; {@code 0.0d} if no call has been made
+     */
+    double getErrorRatio();
+
+
+    /**
+     * Returns the number of units given to calls.
+     *
+     * @return the number of units in
+     */
+    long getInputUnits();
+
+
+    /**
+     * Returns the number of units returned by calls.
+     *
+     * @return the number of units out
+     */
+    long getOutputUnits();
+
+
+    /**
+     * Returns the number of calls per second within the sampling window.
+     *
+     * @return the call rate
+     */
+    double getCallRate();
+
+
+    /**
+     * Returns the number of failed calls per second within the sampling window.
+     *
+     * @return the error rate
+     */
+    double getErrorRate();
+
+
+    /**
+     * Returns the number of units given per second within the sampling window.
+     *
+     * @return the input rate
+     */
+    double getInputRate();
+
+
+    /**
+     * Returns the number of units returned per second within the sampling
+     * window.
+     *
+     * @return the output rate
+     */
+    double getOutputRate();
+
+
+    /**
+     * Returns the mean latency within the sampling window.
+     *
+     * @return the mean latency
+     */
+    double getMeanLatency();
+
+
+    /**
+     * Returns the median latency within the sampling window.
+     *
+     * @return the median latency
+     */
+    long get50thPercentileLatency();
+
+
+    /**
+     * Returns the 90th percentile latency within the sampling window.
+     *
+     * @return the 90th percentile latency
+     */
+    long get90thPercentileLatency();
+
+
+    /**
+     * Returns the 99th percentile latency within the sampling window.
+     *
+     * @return the 99th percentile latency
+     */
+    long get99thPercentileLatency();
+
+
+    /**
+     * Returns the 99.9th percentile latency within the sampling window.
+     *
+     * @return the 99.9th percentile latency
+     */
+    long get999thPercentileLatency();
+
+
+    /**
+     * Tells whether the proxy caches its results.
+     *
+     * @return {@code true} if caching; {@code false} otherwise
+     */
+    boolean isCaching();
+
+
+    /**
+     * Returns the number of cache lookups which found a result.
+     *
+     * @return the number of cache hits; {@code 0L} if not caching
+     */
+    long getCacheHitCount();
+
+
+    /**
+     * Returns the number of cache lookups which found no result.
+     *
+     * @return the number of cache misses; {@code 0L} if not caching
+     */
+    long getCacheMissCount();
+
+
+    /**
+     * Returns the number of cached results evicted.
+     *
+     * @return the number of cache evictions; {@code 0L} if not caching
+     */
+    long getCacheEvictionCount();
+
+
+    /**
+     * Returns the ratio of cache hits to cache lookups.
+     *
+     * @return the cache hit rate; {@code 0.0d} if not caching or no lookup has
+     * been made
+     */
+    double getCacheHitRate();
+
+
+    /**
+     * Starts counting over from now.
+     */
+    void reset();
+
+
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons.jmx;
+
+
+import com.github.jinahya.codec.commons.AbstractDecoderProxy;
+import com.github.jinahya.codec.commons.AbstractEncoderProxy;
+import com.github.jinahya.codec.commons.ByteArrayResultCache;
+import com.github.jinahya.codec.commons.CachingBinaryEncoderProxy;
+import com.github.jinahya.codec.commons.CachingStringDecoderProxy;
+import com.github.jinahya.codec.commons.LfuResultCache;
+import java.util.concurrent.TimeUnit;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import org.apache.commons.codec.BinaryEncoder;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.StringDecoder;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.net.URLCodec;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class CodecProxyMBeansTest {
+
+
+    @Test
+    public void testEncoder() throws Exception {
+
+        final BinaryEncoder encoder = (BinaryEncoder)
+            CachingBinaryEncoderProxy.newAdapter(
+                new Hex(), new ByteArrayResultCache(16));
+        final CachingBinaryEncoderProxy proxy =
+            AbstractEncoderProxy.getEncoderProxy(
+                encoder, CachingBinaryEncoderProxy.class);
+
+        final MBeanServer server = MBeanServerFactory.newMBeanServer();
+        final ObjectName name = CodecProxyMBeans.register(server, "hex", proxy);
+        Assert.assertEquals(name.getKeyProperty("type"), "EncoderProxy");
+        Assert.assertNotNull(proxy.getEncoderMetrics());
+
+        for (int i = 0; i < 3; i++) {
+            encoder.encode(new byte[]{1, 2});
+        }
+
+        final CodecProxyMXBean bean =
+            JMX.newMXBeanProxy(server, name, CodecProxyMXBean.class);
+        Assert.assertEquals(bean.getName(), "hex");
+        Assert.assertEquals(bean.getProxyType(),
+                            CachingBinaryEncoderProxy.class.getName());
+        Assert.assertEquals(bean.getDelegateType(), Hex.class.getName());
+        Assert.assertEquals(bean.getCallCount(), 3L);
+        Assert.assertEquals(bean.getErrorCount(), 0L);
+        Assert.assertEquals(bean.getInputUnits(), 6L);
+        Assert.assertEquals(bean.getOutputUnits(), 12L);
+        Assert.assertTrue(bean.getCallRate() > 0.0d);
+        Assert.assertTrue(bean.get999thPercentileLatency()
+                          >= bean.get50thPercentileLatency());
+        Assert.assertTrue(bean.isCaching());
+        Assert.assertEquals(bean.getCacheHitCount(), 2L);
+        Assert.assertEquals(bean.getCacheMissCount(), 1L);
+        Assert.assertEquals(bean.getCacheHitRate(), 2.0d / 3.0d, 0.0001d);
+        Assert.assertEquals(
+            server.getAttribute(name, "CallCount"), Long.valueOf(3L));
+
+        server.invoke(name, "reset", null, null);
+        Assert.assertEquals(bean.getCallCount(), 0L);
+        Assert.assertEquals(bean.getCacheHitCount(), 0L);
+        Assert.assertEquals(bean.getCallRate(), 0.0d);
+
+        try {
+            CodecProxyMBeans.register(server, "hex", proxy);
+            Assert.fail("registered twice");
+        } catch (final InstanceAlreadyExistsException iaee) {
+            // expected
+        }
+
+        server.unregisterMBean(name);
+    }
+
+
+    @Test
+    public void testDecoder() throws Exception {
+
+        final StringDecoder decoder = (StringDecoder)
+            CachingStringDecoderProxy.newInstance(
+                new URLCodec(), new LfuResultCache<String, String>(16));
+        final CachingStringDecoderProxy proxy =
+            AbstractDecoderProxy.getDecoderProxy(
+                decoder, CachingStringDecoderProxy.class);
+
+        final MBeanServer server = MBeanServerFactory.newMBeanServer();
+        final ObjectName name =
+            CodecProxyMBeans.register(server, "url", proxy);
+        Assert.assertEquals(name.getKeyProperty("type"), "DecoderProxy");
+
+        Assert.assertEquals(decoder.decode("a%20b"), "a b");
+        try {
+            decoder.decode("%");
+            Assert.fail("decoded: %");
+        } catch (final DecoderException de) {
+            // expected
+        }
+
+        final CodecProxyMXBean bean =
+            JMX.newMXBeanProxy(server, name, CodecProxyMXBean.class);
+        Assert.assertEquals(bean.getDelegateType(), URLCodec.class.getName());
+        Assert.assertEquals(bean.getCallCount(), 2L);
+        Assert.assertEquals(bean.getErrorCount(), 1L);
+        Assert.assertEquals(bean.getErrorRatio(), 0.5d);
+        Assert.assertEquals(bean.getInputUnits(), 6L);
+        Assert.assertEquals(bean.getOutputUnits(), 3L);
+    }
+
+
+    @Test
+    public void testUnregister() throws Exception {
+
+        final CachingBinaryEncoderProxy encoderProxy =
+            AbstractEncoderProxy.getEncoderProxy(
+                CachingBinaryEncoderProxy.newAdapter(
+                    new Hex(), new ByteArrayResultCache(16)),
+                CachingBinaryEncoderProxy.class);
+        final CachingStringDecoderProxy decoderProxy =
+            AbstractDecoderProxy.getDecoderProxy(
+                CachingStringDecoderProxy.newInstance(
+                    new URLCodec(), new LfuResultCache<String, String>(16)),
+                CachingStringDecoderProxy.class);
+
+        final MBeanServer server = MBeanServerFactory.newMBeanServer();
+        Assert.assertFalse(CodecProxyMBeans.unregister(server, "codec"));
+
+        final ObjectName encoderName =
+            CodecProxyMBeans.register(server, "codec", encoderProxy);
+        final ObjectName decoderName =
+            CodecProxyMBeans.register(server, "codec", decoderProxy);
+        Assert.assertTrue(server.isRegistered(encoderName));
+        Assert.assertTrue(server.isRegistered(decoderName));
+
+        Assert.assertTrue(CodecProxyMBeans.unregister(server, "codec"));
+        Assert.assertFalse(server.isRegistered(encoderName));
+        Assert.assertFalse(server.isRegistered(decoderName));
+        Assert.assertFalse(CodecProxyMBeans.unregister(server, "codec"));
+
+        Assert.assertEquals(
+            CodecProxyMBeans.register(server, "codec", encoderProxy),
+            encoderName);
+        Assert.assertTrue(CodecProxyMBeans.unregister(server, "codec"));
+        Assert.assertFalse(server.isRegistered(encoderName));
+    }
+
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void testUnregisterNullServer() throws Exception {
+
+        CodecProxyMBeans.unregister(null, "codec");
+    }
+
+
+    @Test
+    public void testWindow() throws Exception {
+
+        final BinaryEncoder encoder = (BinaryEncoder)
+            CachingBinaryEncoderProxy.newAdapter(
+                new Hex(), new ByteArrayResultCache(16));
+        final CodecProxyBean bean = CodecProxyMBeans.newBean(
+            "hex", AbstractEncoderProxy.getEncoderProxy(
+                encoder, CachingBinaryEncoderProxy.class),
+            TimeUnit.MILLISECONDS.toNanos(50L));
+        Assert.assertEquals(bean.getCallCount(), 0L);
+
+        encoder.encode(new byte[]{1});
+        Thread.sleep(60L);
+        Assert.assertTrue(bean.getCallRate() > 0.0d);
+
+        // the window moves past the call
+        Thread.sleep(60L);
+        Assert.assertEquals(bean.getCallRate(), 0.0d);
+        Assert.assertEquals(bean.getCallCount(), 1L);
+    }
+
+
+}
@@ -0,0 +1,512 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons.processor;
+
+
+import com.github.jinahya.codec.commons.CodecAdapter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.annotation.Annotation;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+
+/**
+ * An annotation processor which generates adapter classes for delegate classes
+ * annotated with {@link CodecAdapter}.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+@SupportedAnnotationTypes("com.github.jinahya.codec.commons.CodecAdapter")
+public class CodecAdapterProcessor extends AbstractProcessor {
+
+
+    private static final String CODEC_PACKAGE = "org.apache.commons.codec";
+
+
+    /**
+     * Kinds of the values an annotated method handles.
+     */
+    private static enum Kind {
+
+
+        BINARY("byte[]", "Binary"),
+        STRING("java.lang.String", "String"),
+        OBJECT("java.lang.Object", "");
+
+
+        private Kind(final String typeName, final String interfacePrefix) {
+
+            this.typeName = typeName;
+            this.interfacePrefix = interfacePrefix;
+        }
+
+
+        private final String typeName;
+
+
+        private final String interfacePrefix;
+
+
+    }
+
+
+    /**
+     * Directions of an annotated method.
+     */
+    private static enum Direction {
+
+
+        ENCODE(CodecAdapter.Encode.class, "encode", "Encoder"),
+        DECODE(CodecAdapter.Decode.class, "decode", "Decoder");
+
+
+        private Direction(final Class<? extends Annotation> annotationType,
+                          final String methodName, final String typeSuffix) {
+
+            this.annotationType = annotationType;
+            this.methodName = methodName;
+            this.typeSuffix = typeSuffix;
+        }
+
+
+        private String interfaceName(final Kind kind) {
+
+            return CODEC_PACKAGE + "." + kind.interfacePrefix + typeSuffix;
+        }
+
+
+        private String exceptionName() {
+
+            return CODEC_PACKAGE + "." + typeSuffix + "Exception";
+        }
+
+
+        private final Class<? extends Annotation> annotationType;
+
+
+        private final String methodName;
+
+
+        private final String typeSuffix;
+
+
+    }
+
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+
+        return SourceVersion.latestSupported();
+    }
+
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations,
+                           final RoundEnvironment roundEnv) {
+
+        for (final Element element
+             : roundEnv.getElementsAnnotatedWith(CodecAdapter.class)) {
+            if (!(element instanceof TypeElement)) {
+                continue;
+            }
+            process((TypeElement) element);
+        }
+
+        return true;
+    }
+
+
+    private void error(final String message, final Element element) {
+
+        processingEnv.getMessager().printMessage(
+            Diagnostic.Kind.ERROR, message, element);
+    }
+
+
+    private void process(final TypeElement delegateType) {
+
+        if (delegateType.getModifiers().contains(Modifier.PRIVATE)) {
+            error("@CodecAdapter type must not be private", delegateType);
+            return;
+        }
+
+        if (!delegateType.getTypeParameters().isEmpty()) {
+            error("@CodecAdapter type must not be generic", delegateType);
+            return;
+        }
+
+        final Map<Kind, ExecutableElement> encoders =
+            methods(delegateType, Direction.ENCODE);
+        final Map<Kind, ExecutableElement> decoders =
+            methods(delegateType, Direction.DECODE);
+        if (encoders == null || decoders == null) {
+            return;
+        }
+
+        if (encoders.isEmpty() && decoders.isEmpty()) {
+            error("@CodecAdapter type has no @CodecAdapter.Encode nor"
+                  + " @CodecAdapter.Decode methods", delegateType);
+            return;
+        }
+
+        final PackageElement packageElement =
+            processingEnv.getElementUtils().getPackageOf(delegateType);
+        String simpleName = delegateType.getAnnotation(CodecAdapter.class)
+            .value();
+        if (simpleName.length() == 0) {
+            simpleName = delegateType.getSimpleName() + "Adapter";
+        }
+        final String qualifiedName = packageElement.isUnnamed()
+                                     ? simpleName
+                                     : packageElement.getQualifiedName() + "."
+                                       + simpleName;
+
+        try {
+            final JavaFileObject source = processingEnv.getFiler()
+                .createSourceFile(qualifiedName, delegateType);
+            final PrintWriter writer = new PrintWriter(source.openWriter());
+            try {
+                write(writer, packageElement, simpleName, delegateType,
+                      encoders, decoders);
+            } finally {
+                writer.close();
+            }
+        } catch (final IOException ioe) {
+            error("failed to generate " + qualifiedName + ": "
+                  + ioe.getMessage(), delegateType);
+        }
+    }
+
+
+    /**
+     * Collects methods of given type annotated for given direction.
+     *
+     * @param type the type
+     * @param direction the direction
+     *
+     * @return a map of methods; {@code null} if any error reported.
+     */
+    private Map<Kind, ExecutableElement> methods(final TypeElement type,
+                                                 final Direction direction) {
+
+        final Map<Kind, ExecutableElement> methods =
+            new EnumMap<Kind, ExecutableElement>(Kind.class);
+
+        boolean failed = false;
+
+        for (final ExecutableElement method : ElementFilter.methodsIn(
+            processingEnv.getElementUtils().getAllMembers(type))) {
+            if (method.getAnnotation(direction.annotationType) == null) {
+                continue;
+            }
+            final String annotation =
+                "@CodecAdapter." + direction.annotationType.getSimpleName();
+            final Set<Modifier> modifiers = method.getModifiers();
+            if (modifiers.contains(Modifier.STATIC)
+                || modifiers.contains(Modifier.PRIVATE)) {
+                error(annotation + " method must be neither static nor private",
+                      method);
+                failed = true;
+                continue;
+            }
+            if (method.getParameters().size() != 1) {
+                error(annotation + " method must take exactly one argument",
+                      method);
+                failed = true;
+                continue;
+            }
+            final Kind kind = kind(method);
+            if (kind == null) {
+                error(annotation + " method must take and return either"
+                      + " byte[], String or Object", method);
+                failed = true;
+                continue;
+            }
+            if (methods.containsKey(kind)) {
+                error(annotation + " method for " + kind.typeName
+                      + " is already declared by " + methods.get(kind),
+                      method);
+                failed = true;
+                continue;
+            }
+            methods.put(kind, method);
+        }
+
+        return failed ? null : methods;
+    }
+
+
+    private static Kind kind(final ExecutableElement method) {
+
+        final TypeMirror parameterType =
+            method.getParameters().get(0).asType();
+        final TypeMirror returnType = method.getReturnType();
+
+        if (returnType.getKind() == TypeKind.VOID) {
+            return null;
+        }
+
+        for (final Kind kind : Kind.values()) {
+            if (kind.typeName.equals(parameterType.toString())
+                && kind.typeName.equals(returnType.toString())) {
+                return kind;
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Tells whether an invocation of given method must be wrapped to convert
+     * checked exceptions the codec method can't throw.
+     */
+    private boolean wraps(final ExecutableElement method,
+                          final Direction direction) {
+
+        for (final TypeMirror thrown : method.getThrownTypes()) {
+            if (!assignable(thrown, "java.lang.RuntimeException")
+                && !assignable(thrown, "java.lang.Error")
+                && !assignable(thrown, direction.exceptionName())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Tells whether given method may throw the exception of given direction.
+     */
+    private boolean throwsException(final ExecutableElement method,
+                                    final Direction direction) {
+
+        final TypeMirror exception = type(direction.exceptionName());
+
+        for (final TypeMirror thrown : method.getThrownTypes()) {
+            if (processingEnv.getTypeUtils().isAssignable(thrown, exception)
+                || processingEnv.getTypeUtils().isAssignable(
+                exception, thrown)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    private boolean assignable(final TypeMirror type, final String name) {
+
+        return processingEnv.getTypeUtils().isAssignable(type, type(name));
+    }
+
+
+    private TypeMirror type(final String name) {
+
+        final TypeElement element =
+            processingEnv.getElementUtils().getTypeElement(name);
+        if (element == null) {
+            throw new IllegalStateException("type not found: " + name);
+        }
+
+        return element.asType();
+    }
+
+
+    private void write(final PrintWriter writer,
+                       final PackageElement packageElement,
+                       final String simpleName, final TypeElement delegateType,
+                       final Map<Kind, ExecutableElement> encoders,
+                       final Map<Kind, ExecutableElement> decoders) {
+
+        final String delegateName = delegateType.getQualifiedName().toString();
+
+        if (!packageElement.isUnnamed()) {
+            writer.println("package " + packageElement.getQualifiedName()
+                           + ";");
+            writer.println();
+            writer.println();
+        }
+
+        writer.println("/**");
+        writer.println(" * An adapter for {@link " + delegateName + "}.");
+        writer.println(" * <p>");
+        writer.println(" * Generated by " + getClass().getName() + ".");
+        writer.println(" */");
+        writer.print("public final class " + simpleName + " implements ");
+        boolean first = true;
+        for (final Direction direction : Direction.values()) {
+            final Map<Kind, ExecutableElement> methods =
+                direction == Direction.ENCODE ? encoders : decoders;
+            for (final Kind kind : methods.keySet()) {
+                if (kind == Kind.OBJECT && methods.size() > 1) {
+                    continue;
+                }
+                if (!first) {
+                    writer.print(", ");
+                }
+                writer.print(direction.interfaceName(kind));
+                first = false;
+            }
+        }
+        writer.println(" {");
+        writer.println();
+        writer.println();
+
+        writer.println("    public " + simpleName + "(final " + delegateName
+                       + " delegate) {");
+        writer.println();
+        writer.println("        super();");
+        writer.println();
+        writer.println("        if (delegate == null) {");
+        writer.println("            throw new NullPointerException("
+                       + "\"delegate\");");
+        writer.println("        }");
+        writer.println();
+        writer.println("        this.delegate = delegate;");
+        writer.println("    }");
+        writer.println();
+        writer.println();
+
+        for (final Direction direction : Direction.values()) {
+            final Map<Kind, ExecutableElement> methods =
+                direction == Direction.ENCODE ? encoders : decoders;
+            if (methods.isEmpty()) {
+                continue;
+            }
+            for (final Map.Entry<Kind, ExecutableElement> entry
+                 : methods.entrySet()) {
+                if (entry.getKey() == Kind.OBJECT) {
+                    continue;
+                }
+                writeMethod(writer, direction, entry.getKey(),
+                            entry.getValue());
+            }
+            writeObjectMethod(writer, direction, methods);
+        }
+
+        writer.println("    private final " + delegateName + " delegate;");
+        writer.println();
+        writer.println();
+        writer.println("}");
+    }
+
+
+    private void writeMethod(final PrintWriter writer,
+                             final Direction direction, final Kind kind,
+                             final ExecutableElement method) {
+
+        writer.println("    public " + kind.typeName + " "
+                       + direction.methodName + "(final " + kind.typeName
+                       + " source)");
+        writer.println("        throws " + direction.exceptionName() + " {");
+        writer.println();
+        writeInvocation(writer, direction, method);
+        writer.println("    }");
+        writer.println();
+        writer.println();
+    }
+
+
+    private void writeObjectMethod(
+        final PrintWriter writer, final Direction direction,
+        final Map<Kind, ExecutableElement> methods) {
+
+        writer.println("    public java.lang.Object " + direction.methodName
+                       + "(final java.lang.Object source)");
+        writer.println("        throws " + direction.exceptionName() + " {");
+        writer.println();
+
+        boolean first = true;
+        for (final Kind kind : methods.keySet()) {
+            if (kind == Kind.OBJECT) {
+                continue;
+            }
+            writer.println("        if ("
+                           + (first ? "source == null || " : "")
+                           + "source instanceof " + kind.typeName + ") {");
+            writer.println("            return " + direction.methodName
+                           + "((" + kind.typeName + ") source);");
+            writer.println("        }");
+            writer.println();
+            first = false;
+        }
+
+        final ExecutableElement method = methods.get(Kind.OBJECT);
+        if (method != null) {
+            writeInvocation(writer, direction, method);
+        } else {
+            writer.println("        throw new " + direction.exceptionName()
+                           + "(\"unsupported source: \" + source.getClass());");
+        }
+
+        writer.println("    }");
+        writer.println();
+        writer.println();
+    }
+
+
+    private void writeInvocation(final PrintWriter writer,
+                                 final Direction direction,
+                                 final ExecutableElement method) {
+
+        final String invocation = "delegate." + method.getSimpleName()
+                                  + "(source)";
+
+        if (!wraps(method, direction)) {
+            writer.println("        return " + invocation + ";");
+            return;
+        }
+
+        writer.println("        try {");
+        writer.println("            return " + invocation + ";");
+        writer.println("        } catch (final java.lang.RuntimeException re)"
+                       + " {");
+        writer.println("            throw re;");
+        writer.println("        } catch (final java.lang.Error e) {");
+        writer.println("            throw e;");
+        if (throwsException(method, direction)) {
+            writer.println("        } catch (final "
+                           + direction.exceptionName() + " ce) {");
+            writer.println("            throw ce;");
+        }
+        writer.println("        } catch (final java.lang.Throwable t) {");
+        writer.println("            throw new " + direction.exceptionName()
+                       + "(t);");
+        writer.println("        }");
+    }
+
+
+}
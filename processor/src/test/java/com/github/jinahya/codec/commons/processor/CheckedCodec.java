@@ -0,0 +1,44 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons.processor;
+
+
+import com.github.jinahya.codec.commons.CodecAdapter;
+import java.io.IOException;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+@CodecAdapter("CheckedEncoder")
+public class CheckedCodec {
+
+
+    @CodecAdapter.Encode
+    Object encode(final Object source) throws IOException {
+
+        if (source == null) {
+            throw new IOException("null source");
+        }
+
+        return source;
+    }
+
+
+}
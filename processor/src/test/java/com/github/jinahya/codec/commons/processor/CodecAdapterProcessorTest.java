@@ -0,0 +1,130 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons.processor;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import org.apache.commons.codec.BinaryDecoder;
+import org.apache.commons.codec.BinaryEncoder;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.Encoder;
+import org.apache.commons.codec.EncoderException;
+import org.apache.commons.codec.StringDecoder;
+import org.apache.commons.codec.StringEncoder;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class CodecAdapterProcessorTest {
+
+
+    @Test
+    public void testBinaryAndString()
+        throws EncoderException, DecoderException {
+
+        final Object adapter = new ReverseCodecAdapter(new ReverseCodec());
+
+        final byte[] bytes = new byte[]{1, 2, 3};
+        final byte[] encodedBytes = ((BinaryEncoder) adapter).encode(bytes);
+        Assert.assertEquals(encodedBytes, new byte[]{3, 2, 1});
+        Assert.assertEquals(((BinaryDecoder) adapter).decode(encodedBytes),
+                            bytes);
+
+        final String string = "abc";
+        final String encodedString = ((StringEncoder) adapter).encode(string);
+        Assert.assertEquals(encodedString, "cba");
+        Assert.assertEquals(((StringDecoder) adapter).decode(encodedString),
+                            string);
+
+        Assert.assertEquals(((Encoder) adapter).encode((Object) string), "cba");
+
+        try {
+            ((Encoder) adapter).encode(new Object());
+            Assert.fail("passed: encode(new Object())");
+        } catch (final EncoderException ee) {
+            // expected
+        }
+    }
+
+
+    @Test
+    public void testCheckedExceptions() throws EncoderException {
+
+        final Encoder encoder = new CheckedEncoder(new CheckedCodec());
+
+        final Object expected = new Object();
+        Assert.assertSame(encoder.encode(expected), expected);
+
+        try {
+            encoder.encode(null);
+            Assert.fail("passed: encode(null)");
+        } catch (final EncoderException ee) {
+            Assert.assertTrue(ee.getCause() instanceof IOException);
+        }
+    }
+
+
+    @Test
+    public void testInvalidMethod() throws IOException {
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            return;
+        }
+
+        final File directory = new File(
+            "target/" + CodecAdapterProcessorTest.class.getSimpleName());
+        directory.mkdirs();
+        final File source = new File(directory, "InvalidCodec.java");
+        final PrintWriter writer = new PrintWriter(source, "UTF-8");
+        try {
+            writer.println("@com.github.jinahya.codec.commons.CodecAdapter");
+            writer.println("public class InvalidCodec {");
+            writer.println("    @com.github.jinahya.codec.commons"
+                           + ".CodecAdapter.Encode");
+            writer.println("    public int encode(int source) {");
+            writer.println("        return source;");
+            writer.println("    }");
+            writer.println("}");
+        } finally {
+            writer.close();
+        }
+
+        final int result = compiler.run(
+            null, null, null,
+            "-proc:only",
+            "-processor", CodecAdapterProcessor.class.getName(),
+            "-classpath", System.getProperty("java.class.path"),
+            "-s", directory.getPath(),
+            source.getPath());
+        Assert.assertNotEquals(result, 0);
+        Assert.assertFalse(Arrays.asList(directory.list())
+            .contains("InvalidCodecAdapter.java"));
+    }
+
+
+}
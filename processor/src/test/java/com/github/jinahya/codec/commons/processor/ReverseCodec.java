@@ -0,0 +1,71 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons.processor;
+
+
+import com.github.jinahya.codec.commons.CodecAdapter;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+@CodecAdapter
+public class ReverseCodec {
+
+
+    private static byte[] reverse(final byte[] source) {
+
+        final byte[] target = new byte[source.length];
+        for (int i = 0; i < target.length; i++) {
+            target[i] = source[source.length - i - 1];
+        }
+
+        return target;
+    }
+
+
+    @CodecAdapter.Encode
+    public byte[] encode(final byte[] source) {
+
+        return reverse(source);
+    }
+
+
+    @CodecAdapter.Decode
+    public byte[] decode(final byte[] source) {
+
+        return reverse(source);
+    }
+
+
+    @CodecAdapter.Encode
+    public String encode(final String source) {
+
+        return new StringBuilder(source).reverse().toString();
+    }
+
+
+    @CodecAdapter.Decode
+    public String decode(final String source) {
+
+        return new StringBuilder(source).reverse().toString();
+    }
+
+
+}
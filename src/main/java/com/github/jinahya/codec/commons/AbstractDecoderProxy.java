@@ -22,6 +22,11 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Proxy;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -76,25 +81,89 @@ public abstract class AbstractDecoderProxy<T> implements InvocationHandler {
     }
 
 
+    /**
+     * the constructor of {@code DecoderException()}.
+     */
+    private static final Constructor<? extends Throwable>
+        DECODER_EXCEPTION_NOARG;
+
+
+    /**
+     * the constructor of {@code DecoderException(String)}.
+     */
+    private static final Constructor<? extends Throwable>
+        DECODER_EXCEPTION_MESSAGE;
+
+
+    /**
+     * the constructor of {@code DecoderException(String, Throwable)}.
+     */
+    private static final Constructor<? extends Throwable>
+        DECODER_EXCEPTION_MESSAGE_CAUSE;
+
+
+    /**
+     * the constructor of {@code DecoderException(Throwable)}.
+     */
+    private static final Constructor<? extends Throwable>
+        DECODER_EXCEPTION_CAUSE;
+
+
+    static {
+        try {
+            DECODER_EXCEPTION_NOARG = DECODER_EXCEPTION.getConstructor();
+            DECODER_EXCEPTION_MESSAGE =
+                DECODER_EXCEPTION.getConstructor(String.class);
+            DECODER_EXCEPTION_MESSAGE_CAUSE =
+                DECODER_EXCEPTION.getConstructor(String.class, Throwable.class);
+            DECODER_EXCEPTION_CAUSE =
+                DECODER_EXCEPTION.getConstructor(Throwable.class);
+        } catch (final NoSuchMethodException nsme) {
+            throw new InstantiationError(nsme.getMessage());
+        }
+    }
+
+
     /**
      * Creates a new instance of
-     * {@link org.apache.commons.codec.DecoderException}.
+     * {@link org.apache.commons.codec.DecoderException} with one of the
+     * constructors resolved on class initialization.
+     *
+     * @param constructor the constructor
+     * @param initargs the arguments for the constructor
      *
      * @return a new instance of
      * {@link org.apache.commons.codec.DecoderException}.
      */
-    protected static Throwable newDecoderException() {
+    private static Throwable newDecoderException(
+        final Constructor<? extends Throwable> constructor,
+        final Object... initargs) {
 
         try {
-            return DECODER_EXCEPTION.newInstance();
+            return constructor.newInstance(initargs);
         } catch (final InstantiationException ie) {
             throw new RuntimeException(ie);
         } catch (final IllegalAccessException iae) {
             throw new RuntimeException(iae);
+        } catch (final InvocationTargetException ite) {
+            throw new RuntimeException(ite);
         }
     }
 
 
+    /**
+     * Creates a new instance of
+     * {@link org.apache.commons.codec.DecoderException}.
+     *
+     * @return a new instance of
+     * {@link org.apache.commons.codec.DecoderException}.
+     */
+    protected static Throwable newDecoderException() {
+
+        return newDecoderException(DECODER_EXCEPTION_NOARG);
+    }
+
+
     /**
      * Creates a new instance of
      * {@link org.apache.commons.codec.DecoderException} with given
@@ -107,18 +176,7 @@ public abstract class AbstractDecoderProxy<T> implements InvocationHandler {
      */
     protected static Throwable newDecoderException(final String message) {
 
-        try {
-            return DECODER_EXCEPTION.getConstructor(String.class)
-                .newInstance(message);
-        } catch (final NoSuchMethodException nsme) {
-            throw new RuntimeException(nsme);
-        } catch (final InstantiationException ie) {
-            throw new RuntimeException(ie);
-        } catch (final IllegalAccessException iae) {
-            throw new RuntimeException(iae);
-        } catch (final InvocationTargetException ite) {
-            throw new RuntimeException(ite);
-        }
+        return newDecoderException(DECODER_EXCEPTION_MESSAGE, message);
     }
 
 
@@ -136,19 +194,8 @@ public abstract class AbstractDecoderProxy<T> implements InvocationHandler {
     protected static Throwable newDecoderException(final String message,
                                                    final Throwable cause) {
 
-        try {
-            return DECODER_EXCEPTION
-                .getConstructor(String.class, Throwable.class)
-                .newInstance(message, cause);
-        } catch (final NoSuchMethodException nsme) {
-            throw new RuntimeException(nsme);
-        } catch (final InstantiationException ie) {
-            throw new RuntimeException(ie);
-        } catch (final IllegalAccessException iae) {
-            throw new RuntimeException(iae);
-        } catch (final InvocationTargetException ite) {
-            throw new RuntimeException(ite);
-        }
+        return newDecoderException(
+            DECODER_EXCEPTION_MESSAGE_CAUSE, message, cause);
     }
 
 
@@ -164,18 +211,113 @@ public abstract class AbstractDecoderProxy<T> implements InvocationHandler {
      */
     protected static Throwable newDecoderException(final Throwable cause) {
 
-        try {
-            return DECODER_EXCEPTION.getConstructor(Throwable.class)
-                .newInstance(cause);
-        } catch (final NoSuchMethodException nsme) {
-            throw new RuntimeException(nsme);
-        } catch (final InstantiationException ie) {
-            throw new RuntimeException(ie);
-        } catch (final IllegalAccessException iae) {
-            throw new RuntimeException(iae);
-        } catch (final InvocationTargetException ite) {
-            throw new RuntimeException(ite);
+        return newDecoderException(DECODER_EXCEPTION_CAUSE, cause);
+    }
+
+
+    /**
+     * The maximum number of shared stack-less exceptions cached.
+     */
+    private static final int STACKLESS_DECODER_EXCEPTIONS_LIMIT = 256;
+
+
+    /**
+     * An empty stack trace.
+     */
+    private static final StackTraceElement[] EMPTY_STACK_TRACE =
+        new StackTraceElement[0];
+
+
+    /**
+     * Shared stack-less exceptions mapped to their reasons.
+     */
+    private static final ConcurrentMap<String, Throwable>
+        STACKLESS_DECODER_EXCEPTIONS =
+        new ConcurrentHashMap<String, Throwable>();
+
+
+    /**
+     * Returns a shared instance of
+     * {@link org.apache.commons.codec.DecoderException} whose message is
+     * given {@code reason} and whose stack trace is empty. The returned
+     * instance has no cause and can't be given one.
+     *
+     * @param reason the reason; should be a constant.
+     *
+     * @return a shared, stack-less instance of
+     * {@link org.apache.commons.codec.DecoderException}.
+     */
+    protected static Throwable stacklessDecoderException(final String reason) {
+
+        Throwable shared = STACKLESS_DECODER_EXCEPTIONS.get(reason);
+        if (shared == null) {
+            final Throwable created = newDecoderException(reason, null);
+            created.setStackTrace(EMPTY_STACK_TRACE);
+            if (STACKLESS_DECODER_EXCEPTIONS.size()
+                >= STACKLESS_DECODER_EXCEPTIONS_LIMIT) {
+                return created;
+            }
+            shared = STACKLESS_DECODER_EXCEPTIONS.putIfAbsent(reason, created);
+            if (shared == null) {
+                shared = created;
+            }
         }
+
+        return shared;
+    }
+
+
+    /**
+     * The updater of {@link #decoder}.
+     */
+    @SuppressWarnings("unchecked")
+    private static final AtomicReferenceFieldUpdater<
+        AbstractDecoderProxy<?>, Object> DECODER_UPDATER =
+        AtomicReferenceFieldUpdater.newUpdater(
+            (Class<AbstractDecoderProxy<?>>)
+            (Class<?>) AbstractDecoderProxy.class,
+            Object.class, "decoder");
+
+
+    /**
+     * Returns the proxy behind given instance created by one of the
+     * {@code newInstance} or {@code newAdapter} methods.
+     *
+     * @param <P> proxy type parameter
+     * @param instance the instance
+     * @param proxyType the proxy type
+     *
+     * @return the proxy behind {@code instance}.
+     *
+     * @throws IllegalArgumentException if {@code instance} is not backed by an
+     * instance of {@code proxyType}.
+     *
+     * @see #swapDecoder(Object)
+     */
+    public static <P extends AbstractDecoderProxy<?>> P getDecoderProxy(
+        final Object instance, final Class<P> proxyType) {
+
+        if (instance == null) {
+            throw new NullPointerException("instance");
+        }
+
+        if (proxyType == null) {
+            throw new NullPointerException("proxyType");
+        }
+
+        Object handler = null;
+        if (Proxy.isProxyClass(instance.getClass())) {
+            handler = Proxy.getInvocationHandler(instance);
+        } else if (instance instanceof DecoderAdapter) {
+            handler = ((DecoderAdapter<?>) instance).proxy;
+        }
+
+        if (!proxyType.isInstance(handler)) {
+            throw new IllegalArgumentException(
+                "instance(" + instance + ") is not backed by " + proxyType);
+        }
+
+        return proxyType.cast(handler);
     }
 
 
@@ -204,6 +346,25 @@ public abstract class AbstractDecoderProxy<T> implements InvocationHandler {
             throw new NullPointerException("interfaces");
         }
 
+        return Proxy.newProxyInstance(
+            loader, interfaces, newProxy(proxyType, decoderType, decoder));
+    }
+
+
+    /**
+     * Creates a new instance of {@code proxyType} for given {@code decoder}.
+     *
+     * @param <P> proxy type parameter
+     * @param <T> decoder type parameter
+     * @param proxyType proxy type
+     * @param decoderType decoder type
+     * @param decoder decoder
+     *
+     * @return a new instance of {@code proxyType}.
+     */
+    protected static <P extends AbstractDecoderProxy<T>, T> P newProxy(
+        final Class<P> proxyType, final Class<T> decoderType, final T decoder) {
+
         if (proxyType == null) {
             throw new NullPointerException("proxyType");
         }
@@ -223,8 +384,7 @@ public abstract class AbstractDecoderProxy<T> implements InvocationHandler {
                 constructor.setAccessible(true);
             }
             try {
-                return Proxy.newProxyInstance(
-                    loader, interfaces, constructor.newInstance(decoder));
+                return constructor.newInstance(decoder);
             } catch (final InstantiationException ie) {
                 throw new RuntimeException(ie);
             } catch (final IllegalAccessException iae) {
@@ -238,6 +398,35 @@ public abstract class AbstractDecoderProxy<T> implements InvocationHandler {
     }
 
 
+    /**
+     * Creates a new instance of {@code proxyType} whose decoder is created
+     * from given {@code decoderSupplier} on first use rather than now. The
+     * supplier is called at most once successfully; if it fails, the failure
+     * is reported to the caller and the next call tries again.
+     *
+     * @param <P> proxy type parameter
+     * @param <T> decoder type parameter
+     * @param proxyType proxy type
+     * @param decoderType decoder type
+     * @param decoderSupplier the supplier of the decoder
+     *
+     * @return a new instance of {@code proxyType}.
+     */
+    protected static <P extends AbstractDecoderProxy<T>, T> P newLazyProxy(
+        final Class<P> proxyType, final Class<T> decoderType,
+        final Callable<? extends T> decoderSupplier) {
+
+        if (decoderSupplier == null) {
+            throw new NullPointerException("decoderSupplier");
+        }
+
+        final P proxy = newProxy(proxyType, decoderType, null);
+        ((AbstractDecoderProxy<T>) proxy).decoderSupplier = decoderSupplier;
+
+        return proxy;
+    }
+
+
     /**
      * Creates a new instance.
      *
@@ -256,9 +445,447 @@ public abstract class AbstractDecoderProxy<T> implements InvocationHandler {
 
 
     /**
-     * The decoder instance passed in constructor. Maybe {@code null}.
+     * Tells whether this proxy reports its failures with shared stack-less
+     * exceptions. The default implementation returns {@code false}. Proxy
+     * types serving failure-heavy traffic may override this method to return
+     * {@code true}.
+     *
+     * @return {@code true} if failures are reported with shared stack-less
+     * exceptions; {@code false} otherwise.
+     *
+     * @see #decoderFailure(String)
+     */
+    protected boolean isStackless() {
+
+        return false;
+    }
+
+
+    /**
+     * Returns an instance of
+     * {@link org.apache.commons.codec.DecoderException} for given
+     * {@code reason}. If {@link #isStackless()} returns {@code true} a shared
+     * instance with an empty stack trace is returned; otherwise a new instance
+     * is created.
+     *
+     * @param reason the reason of the failure; should be a constant.
+     *
+     * @return an instance of
+     * {@link org.apache.commons.codec.DecoderException}.
+     */
+    protected Throwable decoderFailure(final String reason) {
+
+        if (isStackless()) {
+            return stacklessDecoderException(reason);
+        }
+
+        return newDecoderException(reason);
+    }
+
+
+    /**
+     * Tells whether the delegate of this proxy can be used by multiple
+     * threads concurrently. Batch operations run in parallel only if this
+     * method returns {@code true}. The default implementation returns
+     * {@code false}.
+     *
+     * @return {@code true} if the delegate is thread-safe; {@code false}
+     * otherwise.
+     *
+     * @see #decodeBatch(int, ParallelBatch.Task)
+     */
+    protected boolean isDecoderThreadSafe() {
+
+        return false;
+    }
+
+
+    /**
+     * Returns the executor on which batch operations run in parallel. The
+     * default implementation returns {@code null} which means batch
+     * operations run sequentially in the calling thread.
+     *
+     * @return the executor; may be {@code null}.
+     *
+     * @see #decodeBatch(int, ParallelBatch.Task)
+     */
+    protected Executor getDecoderExecutor() {
+
+        return null;
+    }
+
+
+    /**
+     * Returns the minimum number of elements each partition of a parallel
+     * batch operation processes. The default implementation returns
+     * {@link ParallelBatch#DEFAULT_THRESHOLD}.
+     *
+     * @return the sequential threshold.
+     *
+     * @see #decodeBatch(int, ParallelBatch.Task)
+     */
+    protected int getDecoderBatchThreshold() {
+
+        return ParallelBatch.DEFAULT_THRESHOLD;
+    }
+
+
+    /**
+     * Runs given task over a batch of {@code length} elements. The batch is
+     * split across the threads of {@link #getDecoderExecutor()} if
+     * {@link #isDecoderThreadSafe()} returns {@code true} and the executor is
+     * not {@code null}; otherwise the task runs in the calling thread.
+     *
+     * @param length the number of elements
+     * @param task the task
+     *
+     * @throws Throwable the first error thrown by {@code task}.
+     *
+     * @see ParallelBatch#run(Executor, int, int, ParallelBatch.Task)
+     */
+    protected void decodeBatch(final int length, final ParallelBatch.Task task)
+        throws Throwable {
+
+        final Executor executor =
+            isDecoderThreadSafe() ? getDecoderExecutor() : null;
+
+        ParallelBatch.run(executor, length, getDecoderBatchThreshold(), task);
+    }
+
+
+    /**
+     * Atomically replaces the decoder of this proxy without locking or pausing
+     * calls in progress. Calls which already read the decoder finish with the
+     * previous one; calls which start after this method returns use the new
+     * one. A lazy decoder not yet created won't be created anymore.
+     *
+     * @param decoder the new decoder
+     *
+     * @return the previous decoder; {@code null} if not yet created.
+     */
+    @SuppressWarnings("unchecked")
+    public T swapDecoder(final T decoder) {
+
+        final T previous = (T) DECODER_UPDATER.getAndSet(this, decoder);
+        decoderSupplier = null;
+        decoderSwapped(previous);
+
+        return previous;
+    }
+
+
+    /**
+     * Atomically replaces the decoder of this proxy only if the current one is
+     * {@code expected}.
+     *
+     * @param expected the expected current decoder
+     * @param decoder the new decoder
+     *
+     * @return {@code true} if replaced; {@code false} otherwise.
+     *
+     * @see #swapDecoder(Object)
+     */
+    public boolean compareAndSwapDecoder(final T expected, final T decoder) {
+
+        if (!DECODER_UPDATER.compareAndSet(this, expected, decoder)) {
+            return false;
+        }
+        decoderSupplier = null;
+        decoderSwapped(expected);
+
+        return true;
+    }
+
+
+    /**
+     * Invoked after the decoder of this proxy is replaced by
+     * {@link #swapDecoder(Object)} or
+     * {@link #compareAndSwapDecoder(Object, Object)}. Subclasses holding state
+     * derived from the previous decoder, such as cached outputs, may override
+     * this method to discard it. The default implementation does nothing.
+     *
+     * @param previous the previous decoder; {@code null} if not yet created.
+     */
+    protected void decoderSwapped(final T previous) {
+    }
+
+
+    /**
+     * Returns the class of the current decoder of this proxy.
+     *
+     * @return the class of the decoder; {@code null} if not yet created.
+     */
+    public Class<?> getDecoderClass() {
+
+        final T current = decoder;
+
+        return current == null ? null : current.getClass();
+    }
+
+
+    /**
+     * Returns the metrics which this proxy records its calls to.
+     *
+     * @return the metrics; {@code null} if not recording.
+     *
+     * @see #setDecoderMetrics(ProxyMetrics)
+     */
+    public ProxyMetrics getDecoderMetrics() {
+
+        return decoderMetrics;
+    }
+
+
+    /**
+     * Starts or stops recording the calls of this proxy. A proxy records
+     * nothing by default, and a proxy which neither records nor notifies a
+     * listener costs only a couple of volatile reads per call. The same
+     * metrics may be shared by multiple proxies.
+     *
+     * @param decoderMetrics the metrics to record to; {@code null} to stop
+     * recording
+     */
+    public void setDecoderMetrics(final ProxyMetrics decoderMetrics) {
+
+        this.decoderMetrics = decoderMetrics;
+    }
+
+
+    /**
+     * Returns the listener which this proxy notifies of its calls.
+     *
+     * @return the listener; {@code null} if none.
+     *
+     * @see #setDecoderListener(ProxyListener)
+     */
+    public ProxyListener getDecoderListener() {
+
+        return decoderListener;
+    }
+
+
+    /**
+     * Sets the listener which this proxy notifies of its calls. A proxy
+     * notifies no listener by default.
+     *
+     * @param decoderListener the listener; {@code null} to notify none
+     */
+    public void setDecoderListener(final ProxyListener decoderListener) {
+
+        this.decoderListener = decoderListener;
+    }
+
+
+    /**
+     * Starts measuring a call with given source if recording or notifying.
+     *
+     * @param source the source
+     *
+     * @return the measurement to pass to
+     * {@link #measureEnd(Measurement, Object)} or
+     * {@link #measureFailure(Measurement, Throwable)}; {@code null} if neither
+     * recording nor notifying.
+     */
+    final Measurement measureStart(final Object source) {
+
+        if (decoderMetrics == null && decoderListener == null) {
+            return null;
+        }
+
+        return measurement(ProxyMetrics.units(source));
+    }
+
+
+    /**
+     * Starts measuring an invocation through given invoker if recording or
+     * notifying.
+     *
+     * @param invoker the invoker
+     * @param args the arguments of the invocation
+     *
+     * @return the measurement to pass to
+     * {@link #measureEnd(Measurement, MethodTable.Invoker, Object)} or
+     * {@link #measureFailure(Measurement, Throwable)}; {@code null} if neither
+     * recording nor notifying.
+     */
+    final Measurement measureStart(final MethodTable.Invoker<?> invoker,
+                                   final Object[] args) {
+
+        if (decoderMetrics == null && decoderListener == null) {
+            return null;
+        }
+
+        return measurement(invoker.inputUnits(args));
+    }
+
+
+    /**
+     * Starts measuring a call with a range of given length if recording or
+     * notifying.
+     *
+     * @param sourceLength the length of the source range
+     *
+     * @return the measurement to pass to
+     * {@link #measureRangeEnd(Measurement, int)} or
+     * {@link #measureFailure(Measurement, Throwable)}; {@code null} if neither
+     * recording nor notifying.
+     */
+    final Measurement measureRangeStart(final int sourceLength) {
+
+        if (decoderMetrics == null && decoderListener == null) {
+            return null;
+        }
+
+        return measurement(Math.max(sourceLength, 0));
+    }
+
+
+    private Measurement measurement(final long inputUnits) {
+
+        return new Measurement(
+            this, decoderMetrics, decoderListener, inputUnits);
+    }
+
+
+    /**
+     * Finishes measuring a call which returned given result.
+     *
+     * @param <R> result type parameter
+     * @param measurement the value returned by {@link #measureStart(Object)}
+     * @param result the result
+     *
+     * @return given {@code result}.
+     */
+    final <R> R measureEnd(final Measurement measurement, final R result) {
+
+        if (measurement != null) {
+            measurement.succeeded(ProxyMetrics.units(result));
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Finishes measuring an invocation which returned given result.
+     *
+     * @param measurement the value returned by
+     * {@link #measureStart(MethodTable.Invoker, Object[])}
+     * @param invoker the invoker
+     * @param result the result
+     *
+     * @return given {@code result}.
+     */
+    final Object measureEnd(final Measurement measurement,
+                            final MethodTable.Invoker<?> invoker,
+                            final Object result) {
+
+        if (measurement != null) {
+            measurement.succeeded(invoker.outputUnits(result));
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Finishes measuring a call with a range which wrote given number of
+     * units.
+     *
+     * @param measurement the value returned by {@link #measureRangeStart(int)}
+     * @param written the number of units written
+     *
+     * @return given {@code written}.
+     */
+    final int measureRangeEnd(final Measurement measurement,
+                              final int written) {
+
+        if (measurement != null) {
+            measurement.succeeded(Math.max(written, 0));
+        }
+
+        return written;
+    }
+
+
+    /**
+     * Finishes measuring a call which failed with given {@code thrown}.
+     *
+     * @param measurement the value returned by {@link #measureStart(Object)}
+     * @param thrown the throwable
+     *
+     * @return given {@code thrown}.
+     */
+    final Throwable measureFailure(final Measurement measurement,
+                                   final Throwable thrown) {
+
+        if (measurement != null) {
+            measurement.failed(thrown);
+        }
+
+        return thrown;
+    }
+
+
+    /**
+     * Creates the decoder from the supplier given to
+     * {@link #newLazyProxy(Class, Class, Callable)}, if not yet created. Once
+     * the decoder is created this method costs a single volatile read.
+     *
+     * @throws Throwable if failed to create the decoder.
+     */
+    final void ensureDecoder() throws Throwable {
+
+        final Callable<? extends T> supplier = decoderSupplier;
+        if (supplier == null) {
+            return;
+        }
+
+        synchronized (supplier) {
+            if (decoderSupplier != supplier) {
+                return;
+            }
+            final T created;
+            try {
+                created = supplier.call();
+            } catch (final RuntimeException re) {
+                throw re;
+            } catch (final Exception e) {
+                throw newDecoderException("failed to create the decoder", e);
+            }
+            // keeps the decoder swapped in meanwhile, if any
+            DECODER_UPDATER.compareAndSet(this, null, created);
+            decoderSupplier = null;
+        }
+    }
+
+
+    /**
+     * The decoder instance passed in constructor. Maybe {@code null}. Volatile
+     * so that a decoder swapped in is published safely.
+     *
+     * @see #swapDecoder(Object)
+     */
+    protected volatile T decoder;
+
+
+    /**
+     * The supplier of the decoder not yet created; {@code null} once created or
+     * if not lazy.
+     */
+    private volatile Callable<? extends T> decoderSupplier;
+
+
+    /**
+     * The metrics which calls are recorded to; {@code null} if not recording.
+     */
+    private volatile ProxyMetrics decoderMetrics;
+
+
+    /**
+     * The listener notified of calls; {@code null} if none.
      */
-    protected T decoder;
+    private volatile ProxyListener decoderListener;
 
 
 }
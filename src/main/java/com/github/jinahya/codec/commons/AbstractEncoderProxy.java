@@ -22,6 +22,11 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Proxy;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -74,40 +79,65 @@ public abstract class AbstractEncoderProxy<T> implements InvocationHandler {
 
 
     /**
-     * Creates a new instance of
-     * {@link org.apache.commons.codec.EncoderException}.
-     *
-     * @return a new instance of
-     * {@link org.apache.commons.codec.EncoderException}.
+     * the constructor of {@code EncoderException()}.
      */
-    protected static Throwable newEncoderException() {
+    private static final Constructor<? extends Throwable>
+        ENCODER_EXCEPTION_NOARG;
+
+
+    /**
+     * the constructor of {@code EncoderException(String)}.
+     */
+    private static final Constructor<? extends Throwable>
+        ENCODER_EXCEPTION_MESSAGE;
+
+
+    /**
+     * the constructor of {@code EncoderException(String, Throwable)}.
+     */
+    private static final Constructor<? extends Throwable>
+        ENCODER_EXCEPTION_MESSAGE_CAUSE;
+
+
+    /**
+     * the constructor of {@code EncoderException(Throwable)}.
+     */
+    private static final Constructor<? extends Throwable>
+        ENCODER_EXCEPTION_CAUSE;
 
+
+    static {
         try {
-            return ENCODER_EXCEPTION.newInstance();
-        } catch (final InstantiationException ie) {
-            throw new RuntimeException(ie);
-        } catch (final IllegalAccessException iae) {
-            throw new RuntimeException(iae);
+            ENCODER_EXCEPTION_NOARG = ENCODER_EXCEPTION.getConstructor();
+            ENCODER_EXCEPTION_MESSAGE =
+                ENCODER_EXCEPTION.getConstructor(String.class);
+            ENCODER_EXCEPTION_MESSAGE_CAUSE =
+                ENCODER_EXCEPTION.getConstructor(String.class, Throwable.class);
+            ENCODER_EXCEPTION_CAUSE =
+                ENCODER_EXCEPTION.getConstructor(Throwable.class);
+        } catch (final NoSuchMethodException nsme) {
+            throw new InstantiationError(nsme.getMessage());
         }
     }
 
 
     /**
      * Creates a new instance of
-     * {@link org.apache.commons.codec.EncoderException} with given message.
+     * {@link org.apache.commons.codec.EncoderException} with one of the
+     * constructors resolved on class initialization.
      *
-     * @param message the message
+     * @param constructor the constructor
+     * @param initargs the arguments for the constructor
      *
      * @return a new instance of
-     * {@link org.apache.commons.codec.EncoderException}
+     * {@link org.apache.commons.codec.EncoderException}.
      */
-    protected static Throwable newEncoderException(final String message) {
+    private static Throwable newEncoderException(
+        final Constructor<? extends Throwable> constructor,
+        final Object... initargs) {
 
         try {
-            return ENCODER_EXCEPTION.getConstructor(String.class)
-                .newInstance(message);
-        } catch (final NoSuchMethodException nsme) {
-            throw new RuntimeException(nsme);
+            return constructor.newInstance(initargs);
         } catch (final InstantiationException ie) {
             throw new RuntimeException(ie);
         } catch (final IllegalAccessException iae) {
@@ -118,30 +148,32 @@ public abstract class AbstractEncoderProxy<T> implements InvocationHandler {
     }
 
 
+    /**
+     * Creates a new instance of
+     * {@link org.apache.commons.codec.EncoderException}.
+     *
+     * @return a new instance of
+     * {@link org.apache.commons.codec.EncoderException}.
+     */
+    protected static Throwable newEncoderException() {
+
+        return newEncoderException(ENCODER_EXCEPTION_NOARG);
+    }
+
+
     /**
      * Creates a new instance of
      * {@link org.apache.commons.codec.EncoderException} with given
-     * {@code cause}.
+     * {@code message}.
      *
-     * @param cause the cause
+     * @param message message
      *
      * @return a new instance of
-     * {@link org.apache.commons.codec.EncoderException}
+     * {@link org.apache.commons.codec.EncoderException}.
      */
-    protected static Throwable newEncoderException(final Throwable cause) {
+    protected static Throwable newEncoderException(final String message) {
 
-        try {
-            return ENCODER_EXCEPTION.getConstructor(Throwable.class)
-                .newInstance(cause);
-        } catch (final NoSuchMethodException nsme) {
-            throw new RuntimeException(nsme);
-        } catch (final InstantiationException ie) {
-            throw new RuntimeException(ie);
-        } catch (final IllegalAccessException iae) {
-            throw new RuntimeException(iae);
-        } catch (final InvocationTargetException ite) {
-            throw new RuntimeException(ite);
-        }
+        return newEncoderException(ENCODER_EXCEPTION_MESSAGE, message);
     }
 
 
@@ -150,28 +182,139 @@ public abstract class AbstractEncoderProxy<T> implements InvocationHandler {
      * {@link org.apache.commons.codec.EncoderException} with given
      * {@code message} and {@code cause}.
      *
-     * @param message the message
-     * @param cause the cause
+     * @param message message
+     * @param cause cause
      *
      * @return a new instance of
-     * {@link org.apache.commons.codec.EncoderException}
+     * {@link org.apache.commons.codec.EncoderException}.
      */
     protected static Throwable newEncoderException(final String message,
                                                    final Throwable cause) {
 
-        try {
-            return ENCODER_EXCEPTION
-                .getConstructor(String.class, Throwable.class)
-                .newInstance(message, cause);
-        } catch (final NoSuchMethodException nsme) {
-            throw new RuntimeException(nsme);
-        } catch (final InstantiationException ie) {
-            throw new RuntimeException(ie);
-        } catch (final IllegalAccessException iae) {
-            throw new RuntimeException(iae);
-        } catch (final InvocationTargetException ite) {
-            throw new RuntimeException(ite);
+        return newEncoderException(
+            ENCODER_EXCEPTION_MESSAGE_CAUSE, message, cause);
+    }
+
+
+    /**
+     * Creates a new instance of
+     * {@link org.apache.commons.codec.EncoderException} with given
+     * {@code cause}.
+     *
+     * @param cause cause
+     *
+     * @return a new instance of
+     * {@link org.apache.commons.codec.EncoderException}.
+     */
+    protected static Throwable newEncoderException(final Throwable cause) {
+
+        return newEncoderException(ENCODER_EXCEPTION_CAUSE, cause);
+    }
+
+
+    /**
+     * The maximum number of shared stack-less exceptions cached.
+     */
+    private static final int STACKLESS_ENCODER_EXCEPTIONS_LIMIT = 256;
+
+
+    /**
+     * An empty stack trace.
+     */
+    private static final StackTraceElement[] EMPTY_STACK_TRACE =
+        new StackTraceElement[0];
+
+
+    /**
+     * Shared stack-less exceptions mapped to their reasons.
+     */
+    private static final ConcurrentMap<String, Throwable>
+        STACKLESS_ENCODER_EXCEPTIONS =
+        new ConcurrentHashMap<String, Throwable>();
+
+
+    /**
+     * Returns a shared instance of
+     * {@link org.apache.commons.codec.EncoderException} whose message is
+     * given {@code reason} and whose stack trace is empty. The returned
+     * instance has no cause and can't be given one.
+     *
+     * @param reason the reason; should be a constant.
+     *
+     * @return a shared, stack-less instance of
+     * {@link org.apache.commons.codec.EncoderException}.
+     */
+    protected static Throwable stacklessEncoderException(final String reason) {
+
+        Throwable shared = STACKLESS_ENCODER_EXCEPTIONS.get(reason);
+        if (shared == null) {
+            final Throwable created = newEncoderException(reason, null);
+            created.setStackTrace(EMPTY_STACK_TRACE);
+            if (STACKLESS_ENCODER_EXCEPTIONS.size()
+                >= STACKLESS_ENCODER_EXCEPTIONS_LIMIT) {
+                return created;
+            }
+            shared = STACKLESS_ENCODER_EXCEPTIONS.putIfAbsent(reason, created);
+            if (shared == null) {
+                shared = created;
+            }
         }
+
+        return shared;
+    }
+
+
+    /**
+     * The updater of {@link #encoder}.
+     */
+    @SuppressWarnings("unchecked")
+    private static final AtomicReferenceFieldUpdater<
+        AbstractEncoderProxy<?>, Object> ENCODER_UPDATER =
+        AtomicReferenceFieldUpdater.newUpdater(
+            (Class<AbstractEncoderProxy<?>>)
+            (Class<?>) AbstractEncoderProxy.class,
+            Object.class, "encoder");
+
+
+    /**
+     * Returns the proxy behind given instance created by one of the
+     * {@code newInstance} or {@code newAdapter} methods.
+     *
+     * @param <P> proxy type parameter
+     * @param instance the instance
+     * @param proxyType the proxy type
+     *
+     * @return the proxy behind {@code instance}.
+     *
+     * @throws IllegalArgumentException if {@code instance} is not backed by an
+     * instance of {@code proxyType}.
+     *
+     * @see #swapEncoder(Object)
+     */
+    public static <P extends AbstractEncoderProxy<?>> P getEncoderProxy(
+        final Object instance, final Class<P> proxyType) {
+
+        if (instance == null) {
+            throw new NullPointerException("instance");
+        }
+
+        if (proxyType == null) {
+            throw new NullPointerException("proxyType");
+        }
+
+        Object handler = null;
+        if (Proxy.isProxyClass(instance.getClass())) {
+            handler = Proxy.getInvocationHandler(instance);
+        } else if (instance instanceof EncoderAdapter) {
+            handler = ((EncoderAdapter<?>) instance).proxy;
+        }
+
+        if (!proxyType.isInstance(handler)) {
+            throw new IllegalArgumentException(
+                "instance(" + instance + ") is not backed by " + proxyType);
+        }
+
+        return proxyType.cast(handler);
     }
 
 
@@ -200,6 +343,25 @@ public abstract class AbstractEncoderProxy<T> implements InvocationHandler {
             throw new NullPointerException("interfaces");
         }
 
+        return Proxy.newProxyInstance(
+            loader, interfaces, newProxy(proxyType, encoderType, encoder));
+    }
+
+
+    /**
+     * Creates a new instance of {@code proxyType} for given {@code encoder}.
+     *
+     * @param <P> proxy type parameter
+     * @param <T> encoder type parameter
+     * @param proxyType proxy type
+     * @param encoderType encoder type
+     * @param encoder encoder
+     *
+     * @return a new instance of {@code proxyType}.
+     */
+    protected static <P extends AbstractEncoderProxy<T>, T> P newProxy(
+        final Class<P> proxyType, final Class<T> encoderType, final T encoder) {
+
         if (proxyType == null) {
             throw new NullPointerException("proxyType");
         }
@@ -219,12 +381,11 @@ public abstract class AbstractEncoderProxy<T> implements InvocationHandler {
                 constructor.setAccessible(true);
             }
             try {
-                return Proxy.newProxyInstance(
-                    loader, interfaces, constructor.newInstance(encoder));
-            } catch (final IllegalAccessException iae) {
-                throw new RuntimeException(iae);
+                return constructor.newInstance(encoder);
             } catch (final InstantiationException ie) {
                 throw new RuntimeException(ie);
+            } catch (final IllegalAccessException iae) {
+                throw new RuntimeException(iae);
             } catch (final InvocationTargetException ite) {
                 throw new RuntimeException(ite);
             }
@@ -234,6 +395,35 @@ public abstract class AbstractEncoderProxy<T> implements InvocationHandler {
     }
 
 
+    /**
+     * Creates a new instance of {@code proxyType} whose encoder is created
+     * from given {@code encoderSupplier} on first use rather than now. The
+     * supplier is called at most once successfully; if it fails, the failure
+     * is reported to the caller and the next call tries again.
+     *
+     * @param <P> proxy type parameter
+     * @param <T> encoder type parameter
+     * @param proxyType proxy type
+     * @param encoderType encoder type
+     * @param encoderSupplier the supplier of the encoder
+     *
+     * @return a new instance of {@code proxyType}.
+     */
+    protected static <P extends AbstractEncoderProxy<T>, T> P newLazyProxy(
+        final Class<P> proxyType, final Class<T> encoderType,
+        final Callable<? extends T> encoderSupplier) {
+
+        if (encoderSupplier == null) {
+            throw new NullPointerException("encoderSupplier");
+        }
+
+        final P proxy = newProxy(proxyType, encoderType, null);
+        ((AbstractEncoderProxy<T>) proxy).encoderSupplier = encoderSupplier;
+
+        return proxy;
+    }
+
+
     /**
      * Creates a new instance.
      *
@@ -252,9 +442,447 @@ public abstract class AbstractEncoderProxy<T> implements InvocationHandler {
 
 
     /**
-     * The encoder instance passed in constructor. Maybe {@code null}.
+     * Tells whether this proxy reports its failures with shared stack-less
+     * exceptions. The default implementation returns {@code false}. Proxy
+     * types serving failure-heavy traffic may override this method to return
+     * {@code true}.
+     *
+     * @return {@code true} if failures are reported with shared stack-less
+     * exceptions; {@code false} otherwise.
+     *
+     * @see #encoderFailure(String)
+     */
+    protected boolean isStackless() {
+
+        return false;
+    }
+
+
+    /**
+     * Returns an instance of
+     * {@link org.apache.commons.codec.EncoderException} for given
+     * {@code reason}. If {@link #isStackless()} returns {@code true} a shared
+     * instance with an empty stack trace is returned; otherwise a new instance
+     * is created.
+     *
+     * @param reason the reason of the failure; should be a constant.
+     *
+     * @return an instance of
+     * {@link org.apache.commons.codec.EncoderException}.
+     */
+    protected Throwable encoderFailure(final String reason) {
+
+        if (isStackless()) {
+            return stacklessEncoderException(reason);
+        }
+
+        return newEncoderException(reason);
+    }
+
+
+    /**
+     * Tells whether the delegate of this proxy can be used by multiple
+     * threads concurrently. Batch operations run in parallel only if this
+     * method returns {@code true}. The default implementation returns
+     * {@code false}.
+     *
+     * @return {@code true} if the delegate is thread-safe; {@code false}
+     * otherwise.
+     *
+     * @see #encodeBatch(int, ParallelBatch.Task)
+     */
+    protected boolean isEncoderThreadSafe() {
+
+        return false;
+    }
+
+
+    /**
+     * Returns the executor on which batch operations run in parallel. The
+     * default implementation returns {@code null} which means batch
+     * operations run sequentially in the calling thread.
+     *
+     * @return the executor; may be {@code null}.
+     *
+     * @see #encodeBatch(int, ParallelBatch.Task)
+     */
+    protected Executor getEncoderExecutor() {
+
+        return null;
+    }
+
+
+    /**
+     * Returns the minimum number of elements each partition of a parallel
+     * batch operation processes. The default implementation returns
+     * {@link ParallelBatch#DEFAULT_THRESHOLD}.
+     *
+     * @return the sequential threshold.
+     *
+     * @see #encodeBatch(int, ParallelBatch.Task)
+     */
+    protected int getEncoderBatchThreshold() {
+
+        return ParallelBatch.DEFAULT_THRESHOLD;
+    }
+
+
+    /**
+     * Runs given task over a batch of {@code length} elements. The batch is
+     * split across the threads of {@link #getEncoderExecutor()} if
+     * {@link #isEncoderThreadSafe()} returns {@code true} and the executor is
+     * not {@code null}; otherwise the task runs in the calling thread.
+     *
+     * @param length the number of elements
+     * @param task the task
+     *
+     * @throws Throwable the first error thrown by {@code task}.
+     *
+     * @see ParallelBatch#run(Executor, int, int, ParallelBatch.Task)
+     */
+    protected void encodeBatch(final int length, final ParallelBatch.Task task)
+        throws Throwable {
+
+        final Executor executor =
+            isEncoderThreadSafe() ? getEncoderExecutor() : null;
+
+        ParallelBatch.run(executor, length, getEncoderBatchThreshold(), task);
+    }
+
+
+    /**
+     * Atomically replaces the encoder of this proxy without locking or pausing
+     * calls in progress. Calls which already read the encoder finish with the
+     * previous one; calls which start after this method returns use the new
+     * one. A lazy encoder not yet created won't be created anymore.
+     *
+     * @param encoder the new encoder
+     *
+     * @return the previous encoder; {@code null} if not yet created.
+     */
+    @SuppressWarnings("unchecked")
+    public T swapEncoder(final T encoder) {
+
+        final T previous = (T) ENCODER_UPDATER.getAndSet(this, encoder);
+        encoderSupplier = null;
+        encoderSwapped(previous);
+
+        return previous;
+    }
+
+
+    /**
+     * Atomically replaces the encoder of this proxy only if the current one is
+     * {@code expected}.
+     *
+     * @param expected the expected current encoder
+     * @param encoder the new encoder
+     *
+     * @return {@code true} if replaced; {@code false} otherwise.
+     *
+     * @see #swapEncoder(Object)
+     */
+    public boolean compareAndSwapEncoder(final T expected, final T encoder) {
+
+        if (!ENCODER_UPDATER.compareAndSet(this, expected, encoder)) {
+            return false;
+        }
+        encoderSupplier = null;
+        encoderSwapped(expected);
+
+        return true;
+    }
+
+
+    /**
+     * Invoked after the encoder of this proxy is replaced by
+     * {@link #swapEncoder(Object)} or
+     * {@link #compareAndSwapEncoder(Object, Object)}. Subclasses holding state
+     * derived from the previous encoder, such as cached outputs, may override
+     * this method to discard it. The default implementation does nothing.
+     *
+     * @param previous the previous encoder; {@code null} if not yet created.
+     */
+    protected void encoderSwapped(final T previous) {
+    }
+
+
+    /**
+     * Returns the class of the current encoder of this proxy.
+     *
+     * @return the class of the encoder; {@code null} if not yet created.
+     */
+    public Class<?> getEncoderClass() {
+
+        final T current = encoder;
+
+        return current == null ? null : current.getClass();
+    }
+
+
+    /**
+     * Returns the metrics which this proxy records its calls to.
+     *
+     * @return the metrics; {@code null} if not recording.
+     *
+     * @see #setEncoderMetrics(ProxyMetrics)
+     */
+    public ProxyMetrics getEncoderMetrics() {
+
+        return encoderMetrics;
+    }
+
+
+    /**
+     * Starts or stops recording the calls of this proxy. A proxy records
+     * nothing by default, and a proxy which neither records nor notifies a
+     * listener costs only a couple of volatile reads per call. The same
+     * metrics may be shared by multiple proxies.
+     *
+     * @param encoderMetrics the metrics to record to; {@code null} to stop
+     * recording
+     */
+    public void setEncoderMetrics(final ProxyMetrics encoderMetrics) {
+
+        this.encoderMetrics = encoderMetrics;
+    }
+
+
+    /**
+     * Returns the listener which this proxy notifies of its calls.
+     *
+     * @return the listener; {@code null} if none.
+     *
+     * @see #setEncoderListener(ProxyListener)
+     */
+    public ProxyListener getEncoderListener() {
+
+        return encoderListener;
+    }
+
+
+    /**
+     * Sets the listener which this proxy notifies of its calls. A proxy
+     * notifies no listener by default.
+     *
+     * @param encoderListener the listener; {@code null} to notify none
+     */
+    public void setEncoderListener(final ProxyListener encoderListener) {
+
+        this.encoderListener = encoderListener;
+    }
+
+
+    /**
+     * Starts measuring a call with given source if recording or notifying.
+     *
+     * @param source the source
+     *
+     * @return the measurement to pass to
+     * {@link #measureEnd(Measurement, Object)} or
+     * {@link #measureFailure(Measurement, Throwable)}; {@code null} if neither
+     * recording nor notifying.
+     */
+    final Measurement measureStart(final Object source) {
+
+        if (encoderMetrics == null && encoderListener == null) {
+            return null;
+        }
+
+        return measurement(ProxyMetrics.units(source));
+    }
+
+
+    /**
+     * Starts measuring an invocation through given invoker if recording or
+     * notifying.
+     *
+     * @param invoker the invoker
+     * @param args the arguments of the invocation
+     *
+     * @return the measurement to pass to
+     * {@link #measureEnd(Measurement, MethodTable.Invoker, Object)} or
+     * {@link #measureFailure(Measurement, Throwable)}; {@code null} if neither
+     * recording nor notifying.
+     */
+    final Measurement measureStart(final MethodTable.Invoker<?> invoker,
+                                   final Object[] args) {
+
+        if (encoderMetrics == null && encoderListener == null) {
+            return null;
+        }
+
+        return measurement(invoker.inputUnits(args));
+    }
+
+
+    /**
+     * Starts measuring a call with a range of given length if recording or
+     * notifying.
+     *
+     * @param sourceLength the length of the source range
+     *
+     * @return the measurement to pass to
+     * {@link #measureRangeEnd(Measurement, int)} or
+     * {@link #measureFailure(Measurement, Throwable)}; {@code null} if neither
+     * recording nor notifying.
+     */
+    final Measurement measureRangeStart(final int sourceLength) {
+
+        if (encoderMetrics == null && encoderListener == null) {
+            return null;
+        }
+
+        return measurement(Math.max(sourceLength, 0));
+    }
+
+
+    private Measurement measurement(final long inputUnits) {
+
+        return new Measurement(
+            this, encoderMetrics, encoderListener, inputUnits);
+    }
+
+
+    /**
+     * Finishes measuring a call which returned given result.
+     *
+     * @param <R> result type parameter
+     * @param measurement the value returned by {@link #measureStart(Object)}
+     * @param result the result
+     *
+     * @return given {@code result}.
+     */
+    final <R> R measureEnd(final Measurement measurement, final R result) {
+
+        if (measurement != null) {
+            measurement.succeeded(ProxyMetrics.units(result));
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Finishes measuring an invocation which returned given result.
+     *
+     * @param measurement the value returned by
+     * {@link #measureStart(MethodTable.Invoker, Object[])}
+     * @param invoker the invoker
+     * @param result the result
+     *
+     * @return given {@code result}.
+     */
+    final Object measureEnd(final Measurement measurement,
+                            final MethodTable.Invoker<?> invoker,
+                            final Object result) {
+
+        if (measurement != null) {
+            measurement.succeeded(invoker.outputUnits(result));
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Finishes measuring a call with a range which wrote given number of
+     * units.
+     *
+     * @param measurement the value returned by {@link #measureRangeStart(int)}
+     * @param written the number of units written
+     *
+     * @return given {@code written}.
+     */
+    final int measureRangeEnd(final Measurement measurement,
+                              final int written) {
+
+        if (measurement != null) {
+            measurement.succeeded(Math.max(written, 0));
+        }
+
+        return written;
+    }
+
+
+    /**
+     * Finishes measuring a call which failed with given {@code thrown}.
+     *
+     * @param measurement the value returned by {@link #measureStart(Object)}
+     * @param thrown the throwable
+     *
+     * @return given {@code thrown}.
+     */
+    final Throwable measureFailure(final Measurement measurement,
+                                   final Throwable thrown) {
+
+        if (measurement != null) {
+            measurement.failed(thrown);
+        }
+
+        return thrown;
+    }
+
+
+    /**
+     * Creates the encoder from the supplier given to
+     * {@link #newLazyProxy(Class, Class, Callable)}, if not yet created. Once
+     * the encoder is created this method costs a single volatile read.
+     *
+     * @throws Throwable if failed to create the encoder.
+     */
+    final void ensureEncoder() throws Throwable {
+
+        final Callable<? extends T> supplier = encoderSupplier;
+        if (supplier == null) {
+            return;
+        }
+
+        synchronized (supplier) {
+            if (encoderSupplier != supplier) {
+                return;
+            }
+            final T created;
+            try {
+                created = supplier.call();
+            } catch (final RuntimeException re) {
+                throw re;
+            } catch (final Exception e) {
+                throw newEncoderException("failed to create the encoder", e);
+            }
+            // keeps the encoder swapped in meanwhile, if any
+            ENCODER_UPDATER.compareAndSet(this, null, created);
+            encoderSupplier = null;
+        }
+    }
+
+
+    /**
+     * The encoder instance passed in constructor. Maybe {@code null}. Volatile
+     * so that a encoder swapped in is published safely.
+     *
+     * @see #swapEncoder(Object)
+     */
+    protected volatile T encoder;
+
+
+    /**
+     * The supplier of the encoder not yet created; {@code null} once created or
+     * if not lazy.
+     */
+    private volatile Callable<? extends T> encoderSupplier;
+
+
+    /**
+     * The metrics which calls are recorded to; {@code null} if not recording.
+     */
+    private volatile ProxyMetrics encoderMetrics;
+
+
+    /**
+     * The listener notified of calls; {@code null} if none.
      */
-    protected T encoder;
+    private volatile ProxyListener encoderListener;
 
 
 }
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.util.List;
+import org.apache.commons.codec.EncoderException;
+
+
+/**
+ * An interface for encoders which encode many strings at once.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public interface BatchStringEncoder {
+
+
+    /**
+     * Encodes each of given {@code sources}.
+     *
+     * @param sources the strings to encode
+     *
+     * @return a list of encoded outputs, each at the same index as its source
+     *
+     * @throws EncoderException if failed to encode any of {@code sources}
+     */
+    List<String> encodeAll(List<String> sources) throws EncoderException;
+
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import org.apache.commons.codec.DecoderException;
+
+
+/**
+ * An interface for decoders which decode a range of bytes into a
+ * caller-supplied array.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public interface BinaryArrayDecoder {
+
+
+    /**
+     * Decodes {@code sourceLength} bytes of {@code source} starting at
+     * {@code sourceOffset} into {@code target} starting at
+     * {@code targetOffset}.
+     *
+     * @param source the array of bytes to decode
+     * @param sourceOffset the offset in {@code source}
+     * @param sourceLength the number of bytes to decode
+     * @param target the array to which decoded bytes are written
+     * @param targetOffset the offset in {@code target}
+     *
+     * @return the number of bytes written to {@code target}
+     *
+     * @throws DecoderException if failed to decode
+     * @throws IndexOutOfBoundsException if the ranges are out of bounds or
+     * {@code target} is too small
+     *
+     * @see #maxDecodedLength(int)
+     */
+    int decode(byte[] source, int sourceOffset, int sourceLength,
+               byte[] target, int targetOffset)
+        throws DecoderException;
+
+
+    /**
+     * Returns the maximum number of bytes {@link #decode(byte[], int, int,
+     * byte[], int)} writes for given number of source bytes.
+     *
+     * @param sourceLength the number of source bytes
+     *
+     * @return the maximum number of decoded bytes
+     */
+    int maxDecodedLength(int sourceLength);
+
+
+}
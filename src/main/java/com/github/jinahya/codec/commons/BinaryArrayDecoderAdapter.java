@@ -0,0 +1,106 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.nio.ByteBuffer;
+import org.apache.commons.codec.BinaryDecoder;
+import org.apache.commons.codec.DecoderException;
+
+
+/**
+ * An implementation of {@link BinaryDecoder} and {@link BinaryArrayDecoder}
+ * which calls the typed methods of a {@link BinaryArrayDecoderProxy}
+ * directly.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+final class BinaryArrayDecoderAdapter
+    extends DecoderAdapter<BinaryArrayDecoderProxy<?>>
+    implements BinaryDecoder, ByteBufferDecoder, BatchBinaryDecoder,
+               BinaryArrayDecoder {
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param proxy the proxy to adapt.
+     */
+    BinaryArrayDecoderAdapter(final BinaryArrayDecoderProxy<?> proxy) {
+
+        super(proxy);
+    }
+
+
+    public byte[] decode(final byte[] source) throws DecoderException {
+
+        final Measurement measurement = measureStart(source);
+        try {
+            return proxy.measureEnd(measurement, proxy.decode(source));
+        } catch (final Throwable thrown) {
+            throw decoderException(proxy.measureFailure(measurement, thrown));
+        }
+    }
+
+
+    public byte[][] decodeAll(final byte[][] sources)
+        throws DecoderException {
+
+        final Measurement measurement = measureStart(sources);
+        try {
+            return proxy.measureEnd(measurement, proxy.decodeAll(sources));
+        } catch (final Throwable thrown) {
+            throw decoderException(proxy.measureFailure(measurement, thrown));
+        }
+    }
+
+
+    public ByteBuffer decode(final ByteBuffer source) throws DecoderException {
+
+        final Measurement measurement = measureStart(source);
+        try {
+            return proxy.measureEnd(measurement, proxy.decode(source));
+        } catch (final Throwable thrown) {
+            throw decoderException(proxy.measureFailure(measurement, thrown));
+        }
+    }
+
+
+    public int decode(final byte[] source, final int sourceOffset,
+                      final int sourceLength, final byte[] target,
+                      final int targetOffset)
+        throws DecoderException {
+
+        final Measurement measurement = measureRangeStart(sourceLength);
+        try {
+            return proxy.measureRangeEnd(
+                measurement, proxy.decode(source, sourceOffset, sourceLength,
+                                      target, targetOffset));
+        } catch (final Throwable thrown) {
+            throw decoderException(proxy.measureFailure(measurement, thrown));
+        }
+    }
+
+
+    public int maxDecodedLength(final int sourceLength) {
+
+        return proxy.maxDecodedLength(sourceLength);
+    }
+
+
+}
@@ -0,0 +1,447 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Executor;
+
+
+/**
+ * An abstract class for proxies of
+ * {@link org.apache.commons.codec.BinaryDecoder} which also implement
+ * {@link BinaryArrayDecoder} so that callers can decode ranges of bytes into
+ * arrays they supply.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ * @param <T> decoder type parameter
+ */
+public abstract class BinaryArrayDecoderProxy<T> extends BinaryDecoderProxy<T> {
+
+
+    /**
+     * The default minimum number of source bytes each chunk of a parallel
+     * {@link #decode(byte[])} processes.
+     */
+    public static final int DEFAULT_CHUNK_THRESHOLD = 65536;
+
+
+    private static final String DECODER_NAME =
+        "org.apache.commons.codec.BinaryDecoder";
+
+
+    /**
+     * the class of {@link org.apache.commons.codec.BinaryDecoder}.
+     */
+    private static final Class<?> DECODER;
+
+
+    static {
+        try {
+            DECODER = Class.forName(DECODER_NAME);
+        } catch (final ClassNotFoundException cnfe) {
+            throw new InstantiationError(cnfe.getMessage());
+        }
+    }
+
+
+    /**
+     * the method of {@code decode([BII[BI)I}.
+     */
+    private static final Method DECODE;
+
+
+    /**
+     * the method of {@code maxDecodedLength(I)I}.
+     */
+    private static final Method MAX_DECODED_LENGTH;
+
+
+    static {
+        try {
+            DECODE = BinaryArrayDecoder.class.getMethod(
+                "decode", byte[].class, Integer.TYPE, Integer.TYPE,
+                byte[].class, Integer.TYPE);
+            MAX_DECODED_LENGTH = BinaryArrayDecoder.class.getMethod(
+                "maxDecodedLength", Integer.TYPE);
+        } catch (final NoSuchMethodException nsme) {
+            throw new InstantiationError(nsme.getMessage());
+        }
+    }
+
+
+    static {
+        @SuppressWarnings("unchecked")
+        final Class<BinaryArrayDecoderProxy<?>> handlerType =
+            (Class<BinaryArrayDecoderProxy<?>>) (Class<?>)
+            BinaryArrayDecoderProxy.class;
+        MethodTable.register(
+            DECODE,
+            new MethodTable.Invoker<BinaryArrayDecoderProxy<?>>(handlerType) {
+            @Override
+            Object invoke(final BinaryArrayDecoderProxy<?> handler,
+                          final Object proxy, final Object[] args)
+                throws Throwable {
+                return handler.decode((byte[]) args[0], (Integer) args[1],
+                                      (Integer) args[2], (byte[]) args[3],
+                                      (Integer) args[4]);
+            }
+
+            @Override
+            long inputUnits(final Object[] args) {
+                return Math.max((Integer) args[2], 0);
+            }
+
+            @Override
+            long outputUnits(final Object result) {
+                return Math.max((Integer) result, 0);
+            }
+        });
+        MethodTable.register(
+            MAX_DECODED_LENGTH,
+            new MethodTable.Invoker<BinaryArrayDecoderProxy<?>>(handlerType) {
+            @Override
+            Object invoke(final BinaryArrayDecoderProxy<?> handler,
+                          final Object proxy, final Object[] args) {
+                return handler.maxDecodedLength((Integer) args[0]);
+            }
+
+            @Override
+            boolean isMeasured() {
+                return false;
+            }
+        });
+    }
+
+
+    /**
+     * the interfaces which proxy instances implement.
+     */
+    static final Class<?>[] INTERFACES = {
+        DECODER, ByteBufferDecoder.class,
+        BatchBinaryDecoder.class, BinaryArrayDecoder.class
+    };
+
+
+    /**
+     * Creates a new proxy instance which implements both
+     * {@link org.apache.commons.codec.BinaryDecoder} and
+     * {@link BinaryArrayDecoder}.
+     *
+     * @param <P> proxy type parameter
+     * @param <T> decoder type parameter
+     * @param proxyType proxy type
+     * @param decoderType decoder type
+     * @param decoder decoder
+     *
+     * @return a new proxy instance.
+     */
+    protected static <P extends AbstractDecoderProxy<T>, T> Object newInstance(
+        final Class<P> proxyType, final Class<T> decoderType, final T decoder) {
+
+        if (proxyType == null) {
+            throw new NullPointerException("proxyType");
+        }
+
+        if (!BinaryArrayDecoderProxy.class.isAssignableFrom(proxyType)) {
+            throw new IllegalArgumentException(
+                "proxyType(" + proxyType + ") is not assignable to "
+                + BinaryArrayDecoderProxy.class);
+        }
+
+        return newInstance(BinaryArrayDecoderProxy.class.getClassLoader(),
+                           INTERFACES, proxyType, decoderType, decoder);
+    }
+
+
+    /**
+     * Creates a new adapter instance which implements both
+     * {@link org.apache.commons.codec.BinaryDecoder} and
+     * {@link BinaryArrayDecoder} and calls the typed methods of the proxy
+     * directly rather than through {@link java.lang.reflect.Proxy}.
+     *
+     * @param <P> proxy type parameter
+     * @param <T> decoder type parameter
+     * @param proxyType proxy type
+     * @param decoderType decoder type
+     * @param decoder decoder
+     *
+     * @return a new adapter instance.
+     */
+    protected static <P extends AbstractDecoderProxy<T>, T> Object newAdapter(
+        final Class<P> proxyType, final Class<T> decoderType, final T decoder) {
+
+        if (proxyType == null) {
+            throw new NullPointerException("proxyType");
+        }
+
+        if (!BinaryArrayDecoderProxy.class.isAssignableFrom(proxyType)) {
+            throw new IllegalArgumentException(
+                "proxyType(" + proxyType + ") is not assignable to "
+                + BinaryArrayDecoderProxy.class);
+        }
+
+        return new BinaryArrayDecoderAdapter((BinaryArrayDecoderProxy<?>)
+            newProxy(proxyType, decoderType, decoder));
+    }
+
+
+    /**
+     * Creates a new proxy instance which implements
+     * {@link org.apache.commons.codec.BinaryDecoder} and
+     * {@link BinaryArrayDecoder} with given, already constructed,
+     * {@code proxy} as its handler.
+     *
+     * @param proxy the handler
+     *
+     * @return a new proxy instance.
+     */
+    protected static Object newInstance(
+        final BinaryArrayDecoderProxy<?> proxy) {
+
+        if (proxy == null) {
+            throw new NullPointerException("proxy");
+        }
+
+        return Proxy.newProxyInstance(
+            BinaryArrayDecoderProxy.class.getClassLoader(),
+            INTERFACES, proxy);
+    }
+
+
+    /**
+     * Creates a new adapter instance for given, already constructed,
+     * {@code proxy}.
+     *
+     * @param proxy the proxy
+     *
+     * @return a new adapter instance.
+     */
+    protected static Object newAdapter(final BinaryArrayDecoderProxy<?> proxy) {
+
+        if (proxy == null) {
+            throw new NullPointerException("proxy");
+        }
+
+        return new BinaryArrayDecoderAdapter(proxy);
+    }
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param decoder the decoder to use.
+     */
+    protected BinaryArrayDecoderProxy(final T decoder) {
+
+        super(decoder);
+    }
+
+
+    /**
+     * Decodes given {@code source} into a new array. The default
+     * implementation decodes into an array of
+     * {@link #maxDecodedLength(int)} bytes and trims it if necessary.
+     * <p>
+     * If both {@link #decodingBlockSize()} and {@link #decodedBlockSize()}
+     * are positive, {@code source} is split into block-aligned chunks of at
+     * least {@link #getDecoderChunkThreshold()} bytes which are decoded into
+     * disjoint regions of the target array; in parallel if
+     * {@link #isDecoderThreadSafe()} returns {@code true} and
+     * {@link #getDecoderExecutor()} returns an executor.
+     *
+     * @param source source to decode
+     *
+     * @return decoded output
+     *
+     * @throws Throwable if an error occurs.
+     */
+    @Override
+    protected byte[] decode(final byte[] source) throws Throwable {
+
+        if (source == null) {
+            throw new NullPointerException("source");
+        }
+
+        final byte[] target = new byte[maxDecodedLength(source.length)];
+        final int length;
+        if (decodingBlockSize() > 0 && decodedBlockSize() > 0) {
+            length = decodeInChunks(source, target);
+        } else {
+            length = decode(source, 0, source.length, target, 0);
+        }
+        if (length == target.length) {
+            return target;
+        }
+
+        final byte[] trimmed = new byte[length];
+        System.arraycopy(target, 0, trimmed, 0, length);
+
+        return trimmed;
+    }
+
+
+    /**
+     * Decodes whole {@code source} into {@code target} in block-aligned
+     * chunks.
+     *
+     * @param source the source
+     * @param target the target
+     *
+     * @return the number of bytes written to {@code target}
+     *
+     * @throws Throwable if an error occurs.
+     */
+    private int decodeInChunks(final byte[] source, final byte[] target)
+        throws Throwable {
+
+        final int sourceBlockSize = decodingBlockSize();
+        final int targetBlockSize = decodedBlockSize();
+        final int blocks = source.length / sourceBlockSize;
+        final int threshold =
+            Math.max(1, getDecoderChunkThreshold() / sourceBlockSize);
+        final Executor executor =
+            isDecoderThreadSafe() ? getDecoderExecutor() : null;
+
+        final int[] length = new int[1];
+        final ParallelBatch.Task task = new ParallelBatch.Task() {
+            public void run(final int from, final int to) throws Throwable {
+                final int sourceOffset = from * sourceBlockSize;
+                final int sourceLength = (to == blocks
+                                          ? source.length
+                                          : to * sourceBlockSize)
+                                         - sourceOffset;
+                final int targetOffset = from * targetBlockSize;
+                final int written = decode(source, sourceOffset, sourceLength,
+                                           target, targetOffset);
+                if (to == blocks) {
+                    length[0] = targetOffset + written;
+                } else if (written != (to - from) * targetBlockSize) {
+                    throw new IllegalStateException(
+                        "decoded " + written + " bytes for " + (to - from)
+                        + " blocks of " + sourceBlockSize + " bytes");
+                }
+            }
+        };
+        ParallelBatch.run(executor, blocks, threshold, task);
+
+        return length[0];
+    }
+
+
+    /**
+     * Decodes the remaining bytes of given {@code source}. This method
+     * decodes directly from the backing array of {@code source}, if any, into
+     * an array of {@link #maxDecodedLength(int)} bytes which is wrapped as is.
+     *
+     * @param source the buffer whose remaining bytes are decoded
+     *
+     * @return a buffer of decoded bytes
+     *
+     * @throws Throwable if an error occurs.
+     */
+    @Override
+    protected ByteBuffer decode(final ByteBuffer source) throws Throwable {
+
+        if (source == null) {
+            throw new NullPointerException("source");
+        }
+
+        if (!source.hasArray()) {
+            return super.decode(source);
+        }
+
+        final int sourceLength = source.remaining();
+        final byte[] target = new byte[maxDecodedLength(sourceLength)];
+        final int length = decode(
+            source.array(), source.arrayOffset() + source.position(),
+            sourceLength, target, 0);
+        source.position(source.limit());
+
+        return ByteBuffer.wrap(target, 0, length);
+    }
+
+
+    /**
+     * Decodes {@code sourceLength} bytes of {@code source} starting at
+     * {@code sourceOffset} into {@code target} starting at
+     * {@code targetOffset}.
+     *
+     * @param source the array of bytes to decode
+     * @param sourceOffset the offset in {@code source}
+     * @param sourceLength the number of bytes to decode
+     * @param target the array to which decoded bytes are written
+     * @param targetOffset the offset in {@code target}
+     *
+     * @return the number of bytes written to {@code target}
+     *
+     * @throws Throwable if an error occurs.
+     *
+     * @see BinaryArrayDecoder#decode(byte[], int, int, byte[], int)
+     */
+    protected abstract int decode(byte[] source, int sourceOffset,
+                                  int sourceLength, byte[] target,
+                                  int targetOffset)
+        throws Throwable;
+
+
+    /**
+     * Returns the maximum number of bytes
+     * {@link #decode(byte[], int, int, byte[], int)} writes for given
+     * number of source bytes.
+     *
+     * @param sourceLength the number of source bytes
+     *
+     * @return the maximum number of decoded bytes
+     *
+     * @see BinaryArrayDecoder#maxDecodedLength(int)
+     */
+    protected abstract int maxDecodedLength(int sourceLength);
+
+
+    /**
+     * Returns the number of bytes {@link #decode(byte[], int, int, byte[],
+     * int)} writes for each whole block of {@link #decodingBlockSize()}
+     * source bytes. Declaring both block sizes lets {@link #decode(byte[])}
+     * decode chunks of a large source independently. The default
+     * implementation returns {@code 0} which means not applicable.
+     *
+     * @return the decoded block size; {@code 0} if not applicable.
+     */
+    protected int decodedBlockSize() {
+
+        return 0;
+    }
+
+
+    /**
+     * Returns the minimum number of source bytes each chunk of
+     * {@link #decode(byte[])} processes. The default implementation returns
+     * {@link #DEFAULT_CHUNK_THRESHOLD}.
+     *
+     * @return the chunk threshold.
+     */
+    protected int getDecoderChunkThreshold() {
+
+        return DEFAULT_CHUNK_THRESHOLD;
+    }
+
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import org.apache.commons.codec.EncoderException;
+
+
+/**
+ * An interface for encoders which encode a range of bytes into a
+ * caller-supplied array.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public interface BinaryArrayEncoder {
+
+
+    /**
+     * Encodes {@code sourceLength} bytes of {@code source} starting at
+     * {@code sourceOffset} into {@code target} starting at
+     * {@code targetOffset}.
+     *
+     * @param source the array of bytes to encode
+     * @param sourceOffset the offset in {@code source}
+     * @param sourceLength the number of bytes to encode
+     * @param target the array to which encoded bytes are written
+     * @param targetOffset the offset in {@code target}
+     *
+     * @return the number of bytes written to {@code target}
+     *
+     * @throws EncoderException if failed to encode
+     * @throws IndexOutOfBoundsException if the ranges are out of bounds or
+     * {@code target} is too small
+     *
+     * @see #maxEncodedLength(int)
+     */
+    int encode(byte[] source, int sourceOffset, int sourceLength,
+               byte[] target, int targetOffset)
+        throws EncoderException;
+
+
+    /**
+     * Returns the maximum number of bytes {@link #encode(byte[], int, int,
+     * byte[], int)} writes for given number of source bytes.
+     *
+     * @param sourceLength the number of source bytes
+     *
+     * @return the maximum number of encoded bytes
+     */
+    int maxEncodedLength(int sourceLength);
+
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.nio.ByteBuffer;
+import org.apache.commons.codec.BinaryEncoder;
+import org.apache.commons.codec.EncoderException;
+
+
+/**
+ * An implementation of {@link BinaryEncoder} and {@link BinaryArrayEncoder}
+ * which calls the typed methods of a {@link BinaryArrayEncoderProxy}
+ * directly.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+final class BinaryArrayEncoderAdapter
+    extends EncoderAdapter<BinaryArrayEncoderProxy<?>>
+    implements BinaryEncoder, ByteBufferEncoder, BatchBinaryEncoder,
+               BinaryArrayEncoder {
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param proxy the proxy to adapt.
+     */
+    BinaryArrayEncoderAdapter(final BinaryArrayEncoderProxy<?> proxy) {
+
+        super(proxy);
+    }
+
+
+    public byte[] encode(final byte[] source) throws EncoderException {
+
+        final Measurement measurement = measureStart(source);
+        try {
+            return proxy.measureEnd(measurement, proxy.encode(source));
+        } catch (final Throwable thrown) {
+            throw encoderException(proxy.measureFailure(measurement, thrown));
+        }
+    }
+
+
+    public byte[][] encodeAll(final byte[][] sources)
+        throws EncoderException {
+
+        final Measurement measurement = measureStart(sources);
+        try {
+            return proxy.measureEnd(measurement, proxy.encodeAll(sources));
+        } catch (final Throwable thrown) {
+            throw encoderException(proxy.measureFailure(measurement, thrown));
+        }
+    }
+
+
+    public ByteBuffer encode(final ByteBuffer source) throws EncoderException {
+
+        final Measurement measurement = measureStart(source);
+        try {
+            return proxy.measureEnd(measurement, proxy.encode(source));
+        } catch (final Throwable thrown) {
+            throw encoderException(proxy.measureFailure(measurement, thrown));
+        }
+    }
+
+
+    public int encode(final byte[] source, final int sourceOffset,
+                      final int sourceLength, final byte[] target,
+                      final int targetOffset)
+        throws EncoderException {
+
+        final Measurement measurement = measureRangeStart(sourceLength);
+        try {
+            return proxy.measureRangeEnd(
+                measurement, proxy.encode(source, sourceOffset, sourceLength,
+                                      target, targetOffset));
+        } catch (final Throwable thrown) {
+            throw encoderException(proxy.measureFailure(measurement, thrown));
+        }
+    }
+
+
+    public int maxEncodedLength(final int sourceLength) {
+
+        return proxy.maxEncodedLength(sourceLength);
+    }
+
+
+}
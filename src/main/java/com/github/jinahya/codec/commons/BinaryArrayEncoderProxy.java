@@ -0,0 +1,447 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Executor;
+
+
+/**
+ * An abstract class for proxies of
+ * {@link org.apache.commons.codec.BinaryEncoder} which also implement
+ * {@link BinaryArrayEncoder} so that callers can encode ranges of bytes into
+ * arrays they supply.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ * @param <T> encoder type parameter
+ */
+public abstract class BinaryArrayEncoderProxy<T> extends BinaryEncoderProxy<T> {
+
+
+    /**
+     * The default minimum number of source bytes each chunk of a parallel
+     * {@link #encode(byte[])} processes.
+     */
+    public static final int DEFAULT_CHUNK_THRESHOLD = 65536;
+
+
+    private static final String ENCODER_NAME =
+        "org.apache.commons.codec.BinaryEncoder";
+
+
+    /**
+     * the class of {@link org.apache.commons.codec.BinaryEncoder}.
+     */
+    private static final Class<?> ENCODER;
+
+
+    static {
+        try {
+            ENCODER = Class.forName(ENCODER_NAME);
+        } catch (final ClassNotFoundException cnfe) {
+            throw new InstantiationError(cnfe.getMessage());
+        }
+    }
+
+
+    /**
+     * the method of {@code encode([BII[BI)I}.
+     */
+    private static final Method ENCODE;
+
+
+    /**
+     * the method of {@code maxEncodedLength(I)I}.
+     */
+    private static final Method MAX_ENCODED_LENGTH;
+
+
+    static {
+        try {
+            ENCODE = BinaryArrayEncoder.class.getMethod(
+                "encode", byte[].class, Integer.TYPE, Integer.TYPE,
+                byte[].class, Integer.TYPE);
+            MAX_ENCODED_LENGTH = BinaryArrayEncoder.class.getMethod(
+                "maxEncodedLength", Integer.TYPE);
+        } catch (final NoSuchMethodException nsme) {
+            throw new InstantiationError(nsme.getMessage());
+        }
+    }
+
+
+    static {
+        @SuppressWarnings("unchecked")
+        final Class<BinaryArrayEncoderProxy<?>> handlerType =
+            (Class<BinaryArrayEncoderProxy<?>>) (Class<?>)
+            BinaryArrayEncoderProxy.class;
+        MethodTable.register(
+            ENCODE,
+            new MethodTable.Invoker<BinaryArrayEncoderProxy<?>>(handlerType) {
+            @Override
+            Object invoke(final BinaryArrayEncoderProxy<?> handler,
+                          final Object proxy, final Object[] args)
+                throws Throwable {
+                return handler.encode((byte[]) args[0], (Integer) args[1],
+                                      (Integer) args[2], (byte[]) args[3],
+                                      (Integer) args[4]);
+            }
+
+            @Override
+            long inputUnits(final Object[] args) {
+                return Math.max((Integer) args[2], 0);
+            }
+
+            @Override
+            long outputUnits(final Object result) {
+                return Math.max((Integer) result, 0);
+            }
+        });
+        MethodTable.register(
+            MAX_ENCODED_LENGTH,
+            new MethodTable.Invoker<BinaryArrayEncoderProxy<?>>(handlerType) {
+            @Override
+            Object invoke(final BinaryArrayEncoderProxy<?> handler,
+                          final Object proxy, final Object[] args) {
+                return handler.maxEncodedLength((Integer) args[0]);
+            }
+
+            @Override
+            boolean isMeasured() {
+                return false;
+            }
+        });
+    }
+
+
+    /**
+     * the interfaces which proxy instances implement.
+     */
+    static final Class<?>[] INTERFACES = {
+        ENCODER, ByteBufferEncoder.class,
+        BatchBinaryEncoder.class, BinaryArrayEncoder.class
+    };
+
+
+    /**
+     * Creates a new proxy instance which implements both
+     * {@link org.apache.commons.codec.BinaryEncoder} and
+     * {@link BinaryArrayEncoder}.
+     *
+     * @param <P> proxy type parameter
+     * @param <T> encoder type parameter
+     * @param proxyType proxy type
+     * @param encoderType encoder type
+     * @param encoder encoder
+     *
+     * @return a new proxy instance.
+     */
+    protected static <P extends AbstractEncoderProxy<T>, T> Object newInstance(
+        final Class<P> proxyType, final Class<T> encoderType, final T encoder) {
+
+        if (proxyType == null) {
+            throw new NullPointerException("proxyType");
+        }
+
+        if (!BinaryArrayEncoderProxy.class.isAssignableFrom(proxyType)) {
+            throw new IllegalArgumentException(
+                "proxyType(" + proxyType + ") is not assignable to "
+                + BinaryArrayEncoderProxy.class);
+        }
+
+        return newInstance(BinaryArrayEncoderProxy.class.getClassLoader(),
+                           INTERFACES, proxyType, encoderType, encoder);
+    }
+
+
+    /**
+     * Creates a new adapter instance which implements both
+     * {@link org.apache.commons.codec.BinaryEncoder} and
+     * {@link BinaryArrayEncoder} and calls the typed methods of the proxy
+     * directly rather than through {@link java.lang.reflect.Proxy}.
+     *
+     * @param <P> proxy type parameter
+     * @param <T> encoder type parameter
+     * @param proxyType proxy type
+     * @param encoderType encoder type
+     * @param encoder encoder
+     *
+     * @return a new adapter instance.
+     */
+    protected static <P extends AbstractEncoderProxy<T>, T> Object newAdapter(
+        final Class<P> proxyType, final Class<T> encoderType, final T encoder) {
+
+        if (proxyType == null) {
+            throw new NullPointerException("proxyType");
+        }
+
+        if (!BinaryArrayEncoderProxy.class.isAssignableFrom(proxyType)) {
+            throw new IllegalArgumentException(
+                "proxyType(" + proxyType + ") is not assignable to "
+                + BinaryArrayEncoderProxy.class);
+        }
+
+        return new BinaryArrayEncoderAdapter((BinaryArrayEncoderProxy<?>)
+            newProxy(proxyType, encoderType, encoder));
+    }
+
+
+    /**
+     * Creates a new proxy instance which implements
+     * {@link org.apache.commons.codec.BinaryEncoder} and
+     * {@link BinaryArrayEncoder} with given, already constructed,
+     * {@code proxy} as its handler.
+     *
+     * @param proxy the handler
+     *
+     * @return a new proxy instance.
+     */
+    protected static Object newInstance(
+        final BinaryArrayEncoderProxy<?> proxy) {
+
+        if (proxy == null) {
+            throw new NullPointerException("proxy");
+        }
+
+        return Proxy.newProxyInstance(
+            BinaryArrayEncoderProxy.class.getClassLoader(),
+            INTERFACES, proxy);
+    }
+
+
+    /**
+     * Creates a new adapter instance for given, already constructed,
+     * {@code proxy}.
+     *
+     * @param proxy the proxy
+     *
+     * @return a new adapter instance.
+     */
+    protected static Object newAdapter(final BinaryArrayEncoderProxy<?> proxy) {
+
+        if (proxy == null) {
+            throw new NullPointerException("proxy");
+        }
+
+        return new BinaryArrayEncoderAdapter(proxy);
+    }
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param encoder the encoder to use.
+     */
+    protected BinaryArrayEncoderProxy(final T encoder) {
+
+        super(encoder);
+    }
+
+
+    /**
+     * Encodes given {@code source} into a new array. The default
+     * implementation encodes into an array of
+     * {@link #maxEncodedLength(int)} bytes and trims it if necessary.
+     * <p>
+     * If both {@link #encodingBlockSize()} and {@link #encodedBlockSize()}
+     * are positive, {@code source} is split into block-aligned chunks of at
+     * least {@link #getEncoderChunkThreshold()} bytes which are encoded into
+     * disjoint regions of the target array; in parallel if
+     * {@link #isEncoderThreadSafe()} returns {@code true} and
+     * {@link #getEncoderExecutor()} returns an executor.
+     *
+     * @param source source to encode
+     *
+     * @return encoded output
+     *
+     * @throws Throwable if an error occurs.
+     */
+    @Override
+    protected byte[] encode(final byte[] source) throws Throwable {
+
+        if (source == null) {
+            throw new NullPointerException("source");
+        }
+
+        final byte[] target = new byte[maxEncodedLength(source.length)];
+        final int length;
+        if (encodingBlockSize() > 0 && encodedBlockSize() > 0) {
+            length = encodeInChunks(source, target);
+        } else {
+            length = encode(source, 0, source.length, target, 0);
+        }
+        if (length == target.length) {
+            return target;
+        }
+
+        final byte[] trimmed = new byte[length];
+        System.arraycopy(target, 0, trimmed, 0, length);
+
+        return trimmed;
+    }
+
+
+    /**
+     * Encodes whole {@code source} into {@code target} in block-aligned
+     * chunks.
+     *
+     * @param source the source
+     * @param target the target
+     *
+     * @return the number of bytes written to {@code target}
+     *
+     * @throws Throwable if an error occurs.
+     */
+    private int encodeInChunks(final byte[] source, final byte[] target)
+        throws Throwable {
+
+        final int sourceBlockSize = encodingBlockSize();
+        final int targetBlockSize = encodedBlockSize();
+        final int blocks = source.length / sourceBlockSize;
+        final int threshold =
+            Math.max(1, getEncoderChunkThreshold() / sourceBlockSize);
+        final Executor executor =
+            isEncoderThreadSafe() ? getEncoderExecutor() : null;
+
+        final int[] length = new int[1];
+        final ParallelBatch.Task task = new ParallelBatch.Task() {
+            public void run(final int from, final int to) throws Throwable {
+                final int sourceOffset = from * sourceBlockSize;
+                final int sourceLength = (to == blocks
+                                          ? source.length
+                                          : to * sourceBlockSize)
+                                         - sourceOffset;
+                final int targetOffset = from * targetBlockSize;
+                final int written = encode(source, sourceOffset, sourceLength,
+                                           target, targetOffset);
+                if (to == blocks) {
+                    length[0] = targetOffset + written;
+                } else if (written != (to - from) * targetBlockSize) {
+                    throw new IllegalStateException(
+                        "encoded " + written + " bytes for " + (to - from)
+                        + " blocks of " + sourceBlockSize + " bytes");
+                }
+            }
+        };
+        ParallelBatch.run(executor, blocks, threshold, task);
+
+        return length[0];
+    }
+
+
+    /**
+     * Encodes the remaining bytes of given {@code source}. This method
+     * encodes directly from the backing array of {@code source}, if any, into
+     * an array of {@link #maxEncodedLength(int)} bytes which is wrapped as is.
+     *
+     * @param source the buffer whose remaining bytes are encoded
+     *
+     * @return a buffer of encoded bytes
+     *
+     * @throws Throwable if an error occurs.
+     */
+    @Override
+    protected ByteBuffer encode(final ByteBuffer source) throws Throwable {
+
+        if (source == null) {
+            throw new NullPointerException("source");
+        }
+
+        if (!source.hasArray()) {
+            return super.encode(source);
+        }
+
+        final int sourceLength = source.remaining();
+        final byte[] target = new byte[maxEncodedLength(sourceLength)];
+        final int length = encode(
+            source.array(), source.arrayOffset() + source.position(),
+            sourceLength, target, 0);
+        source.position(source.limit());
+
+        return ByteBuffer.wrap(target, 0, length);
+    }
+
+
+    /**
+     * Encodes {@code sourceLength} bytes of {@code source} starting at
+     * {@code sourceOffset} into {@code target} starting at
+     * {@code targetOffset}.
+     *
+     * @param source the array of bytes to encode
+     * @param sourceOffset the offset in {@code source}
+     * @param sourceLength the number of bytes to encode
+     * @param target the array to which encoded bytes are written
+     * @param targetOffset the offset in {@code target}
+     *
+     * @return the number of bytes written to {@code target}
+     *
+     * @throws Throwable if an error occurs.
+     *
+     * @see BinaryArrayEncoder#encode(byte[], int, int, byte[], int)
+     */
+    protected abstract int encode(byte[] source, int sourceOffset,
+                                  int sourceLength, byte[] target,
+                                  int targetOffset)
+        throws Throwable;
+
+
+    /**
+     * Returns the maximum number of bytes
+     * {@link #encode(byte[], int, int, byte[], int)} writes for given
+     * number of source bytes.
+     *
+     * @param sourceLength the number of source bytes
+     *
+     * @return the maximum number of encoded bytes
+     *
+     * @see BinaryArrayEncoder#maxEncodedLength(int)
+     */
+    protected abstract int maxEncodedLength(int sourceLength);
+
+
+    /**
+     * Returns the number of bytes {@link #encode(byte[], int, int, byte[],
+     * int)} writes for each whole block of {@link #encodingBlockSize()}
+     * source bytes. Declaring both block sizes lets {@link #encode(byte[])}
+     * encode chunks of a large source independently. The default
+     * implementation returns {@code 0} which means not applicable.
+     *
+     * @return the encoded block size; {@code 0} if not applicable.
+     */
+    protected int encodedBlockSize() {
+
+        return 0;
+    }
+
+
+    /**
+     * Returns the minimum number of source bytes each chunk of
+     * {@link #encode(byte[])} processes. The default implementation returns
+     * {@link #DEFAULT_CHUNK_THRESHOLD}.
+     *
+     * @return the chunk threshold.
+     */
+    protected int getEncoderChunkThreshold() {
+
+        return DEFAULT_CHUNK_THRESHOLD;
+    }
+
+
+}
@@ -18,7 +18,11 @@
 package com.github.jinahya.codec.commons;
 
 
+import java.io.InputStream;
 import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
 
 
 /**
@@ -64,6 +68,76 @@ public abstract class BinaryDecoderProxy<T> extends DecoderProxy<T> {
     }
 
 
+    /**
+     * the method of {@code decode(Ljava/nio/ByteBuffer;)Ljava/nio/ByteBuffer;}.
+     */
+    private static final Method DECODE_BUFFER;
+
+
+    /**
+     * the method of {@code decodeAll([[B)[[B}.
+     */
+    private static final Method DECODE_ALL;
+
+
+    static {
+        try {
+            DECODE_BUFFER = ByteBufferDecoder.class.getMethod(
+                "decode", ByteBuffer.class);
+            DECODE_ALL = BatchBinaryDecoder.class.getMethod(
+                "decodeAll", byte[][].class);
+        } catch (final NoSuchMethodException nsme) {
+            throw new InstantiationError(nsme.getMessage());
+        }
+    }
+
+
+    static {
+        @SuppressWarnings("unchecked")
+        final Class<BinaryDecoderProxy<?>> handlerType =
+            (Class<BinaryDecoderProxy<?>>) (Class<?>) BinaryDecoderProxy.class;
+        MethodTable.register(
+            DECODE,
+            new MethodTable.Invoker<BinaryDecoderProxy<?>>(handlerType) {
+            @Override
+            Object invoke(final BinaryDecoderProxy<?> handler,
+                          final Object proxy, final Object[] args)
+                throws Throwable {
+                return handler.decode((byte[]) args[0]);
+            }
+        });
+        MethodTable.register(
+            DECODE_BUFFER,
+            new MethodTable.Invoker<BinaryDecoderProxy<?>>(handlerType) {
+            @Override
+            Object invoke(final BinaryDecoderProxy<?> handler,
+                          final Object proxy, final Object[] args)
+                throws Throwable {
+                return handler.decode((ByteBuffer) args[0]);
+            }
+        });
+        MethodTable.register(
+            DECODE_ALL,
+            new MethodTable.Invoker<BinaryDecoderProxy<?>>(handlerType) {
+            @Override
+            Object invoke(final BinaryDecoderProxy<?> handler,
+                          final Object proxy, final Object[] args)
+                throws Throwable {
+                return handler.decodeAll((byte[][]) args[0]);
+            }
+        });
+    }
+
+
+    /**
+     * the interfaces which proxy instances implement.
+     */
+    static final Class<?>[] INTERFACES = {
+        DECODER, ByteBufferDecoder.class,
+        BatchBinaryDecoder.class
+    };
+
+
     /**
      * Creates a new proxy instance.
      *
@@ -88,38 +162,203 @@ public abstract class BinaryDecoderProxy<T> extends DecoderProxy<T> {
                 + BinaryDecoderProxy.class);
         }
 
-        return newInstance(DECODER.getClassLoader(), new Class<?>[]{DECODER},
-                           proxyType, decoderType, decoder);
+        return newInstance(BinaryDecoderProxy.class.getClassLoader(),
+                           INTERFACES, proxyType, decoderType, decoder);
     }
 
 
     /**
-     * Creates a new instance.
+     * Creates a new adapter instance which implements
+     * {@link org.apache.commons.codec.BinaryDecoder} and calls the typed
+     * methods of the proxy directly rather than through
+     * {@link java.lang.reflect.Proxy}.
      *
-     * @param decoder the decoder to delegate.
+     * @param <P> proxy type parameter
+     * @param <T> decoder type parameter
+     * @param proxyType proxy type
+     * @param decoderType decoder type
+     * @param decoder decoder
+     *
+     * @return a new adapter instance.
      */
-    protected BinaryDecoderProxy(final T decoder) {
+    protected static <P extends AbstractDecoderProxy<T>, T> Object newAdapter(
+        final Class<P> proxyType, final Class<T> decoderType, final T decoder) {
 
-        super(decoder);
+        if (proxyType == null) {
+            throw new NullPointerException("proxyType");
+        }
+
+        if (!BinaryDecoderProxy.class.isAssignableFrom(proxyType)) {
+            throw new IllegalArgumentException(
+                "proxyType(" + proxyType + ") is not assignable to "
+                + BinaryDecoderProxy.class);
+        }
+
+        return new BinaryDecoderAdapter(
+            (BinaryDecoderProxy<?>) newProxy(proxyType, decoderType, decoder));
     }
 
 
-    @Override
-    public Object invoke(final Object proxy, final Method method,
-                         final Object[] args)
-        throws Throwable {
+    /**
+     * Creates a new proxy instance which implements
+     * {@link org.apache.commons.codec.BinaryDecoder}
+     * with given, already constructed, {@code proxy} as its handler. Use
+     * this method for proxies whose constructors take more than the
+     * decoder.
+     *
+     * @param proxy the handler
+     *
+     * @return a new proxy instance.
+     */
+    protected static Object newInstance(final BinaryDecoderProxy<?> proxy) {
+
+        if (proxy == null) {
+            throw new NullPointerException("proxy");
+        }
+
+        return Proxy.newProxyInstance(
+            BinaryDecoderProxy.class.getClassLoader(),
+            INTERFACES, proxy);
+    }
+
+
+    /**
+     * Creates a new adapter instance for given, already constructed,
+     * {@code proxy}.
+     *
+     * @param proxy the proxy
+     *
+     * @return a new adapter instance.
+     */
+    protected static Object newAdapter(final BinaryDecoderProxy<?> proxy) {
+
+        if (proxy == null) {
+            throw new NullPointerException("proxy");
+        }
+
+        return new BinaryDecoderAdapter(proxy);
+    }
+
+
+    /**
+     * Creates a new input stream which reads bytes from specified input
+     * stream and decodes them, in chunks of {@link #decodingBlockSize()}
+     * bytes, with a new proxy instance.
+     *
+     * @param <P> proxy type parameter
+     * @param <T> decoder type parameter
+     * @param proxyType proxy type
+     * @param decoderType decoder type
+     * @param decoder decoder
+     * @param in the input stream from which encoded bytes are read
+     *
+     * @return a new input stream.
+     *
+     * @throws IllegalArgumentException if the proxy doesn't declare a
+     * positive {@link #decodingBlockSize()}.
+     *
+     * @see DecodingInputStream
+     */
+    protected static <P extends AbstractDecoderProxy<T>, T> InputStream
+        newInputStream(final Class<P> proxyType, final Class<T> decoderType,
+                       final T decoder, final InputStream in) {
+
+        if (proxyType == null) {
+            throw new NullPointerException("proxyType");
+        }
+
+        if (!BinaryDecoderProxy.class.isAssignableFrom(proxyType)) {
+            throw new IllegalArgumentException(
+                "proxyType(" + proxyType + ") is not assignable to "
+                + BinaryDecoderProxy.class);
+        }
 
-        if (DECODE.equals(method)) {
-            return decode((byte[]) args[0]);
+        final BinaryDecoderProxy<?> proxy =
+            (BinaryDecoderProxy<?>) newProxy(proxyType, decoderType, decoder);
+
+        return new DecodingInputStream(
+            in, new BinaryDecoderAdapter(proxy), decodingBlockSize(proxy));
+    }
+
+
+    /**
+     * Creates a new channel which reads bytes from specified channel and
+     * decodes them, in chunks of {@link #decodingBlockSize()} bytes, with a
+     * new proxy instance.
+     *
+     * @param <P> proxy type parameter
+     * @param <T> decoder type parameter
+     * @param proxyType proxy type
+     * @param decoderType decoder type
+     * @param decoder decoder
+     * @param channel the channel from which encoded bytes are read
+     *
+     * @return a new channel.
+     *
+     * @throws IllegalArgumentException if the proxy doesn't declare a
+     * positive {@link #decodingBlockSize()}.
+     *
+     * @see DecodingReadableByteChannel
+     */
+    protected static <P extends AbstractDecoderProxy<T>, T>
+        ReadableByteChannel newReadableByteChannel(
+            final Class<P> proxyType, final Class<T> decoderType,
+            final T decoder, final ReadableByteChannel channel) {
+
+        if (proxyType == null) {
+            throw new NullPointerException("proxyType");
         }
 
-        return super.invoke(proxy, method, args);
+        if (!BinaryDecoderProxy.class.isAssignableFrom(proxyType)) {
+            throw new IllegalArgumentException(
+                "proxyType(" + proxyType + ") is not assignable to "
+                + BinaryDecoderProxy.class);
+        }
+
+        final BinaryDecoderProxy<?> proxy =
+            (BinaryDecoderProxy<?>) newProxy(proxyType, decoderType, decoder);
+
+        return new DecodingReadableByteChannel(
+            channel, new BinaryDecoderAdapter(proxy), decodingBlockSize(proxy));
+    }
+
+
+    private static int decodingBlockSize(final BinaryDecoderProxy<?> proxy) {
+
+        final int blockSize = proxy.decodingBlockSize();
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException(
+                "proxyType(" + proxy.getClass() + ") doesn't declare a"
+                + " positive decoding block size");
+        }
+
+        return blockSize;
+    }
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param decoder the decoder to delegate.
+     */
+    protected BinaryDecoderProxy(final T decoder) {
+
+        super(decoder);
     }
 
 
     @Override
     protected Object decode(final Object source) throws Throwable {
 
+        if (source instanceof ByteBuffer) {
+            return decode((ByteBuffer) source);
+        }
+
+        if (source != null && !(source instanceof byte[])) {
+            throw decoderFailure(
+                "source is neither an instance of byte[] nor ByteBuffer");
+        }
+
         try {
             return decode((byte[]) source);
         } catch (final ClassCastException cce) {
@@ -139,5 +378,98 @@ public abstract class BinaryDecoderProxy<T> extends DecoderProxy<T> {
      */
     protected abstract byte[] decode(final byte[] source) throws Throwable;
 
-}
 
+    /**
+     * Decodes each of given {@code sources}. The default implementation
+     * calls {@link #decode(byte[])} for each source through
+     * {@link #decodeBatch(int, ParallelBatch.Task)}, in parallel if
+     * configured so. Override this method to let the delegate decode the
+     * whole batch natively.
+     *
+     * @param sources the arrays of bytes to decode
+     *
+     * @return an array of decoded outputs, each at the same index as its
+     * source
+     *
+     * @throws Throwable if an error occurs.
+     *
+     * @see BatchBinaryDecoder#decodeAll(byte[][])
+     */
+    protected byte[][] decodeAll(final byte[][] sources) throws Throwable {
+
+        if (sources == null) {
+            throw new NullPointerException("sources");
+        }
+
+        final byte[][] decoded = new byte[sources.length][];
+        decodeBatch(sources.length, new ParallelBatch.Task() {
+            public void run(final int from, final int to) throws Throwable {
+                for (int i = from; i < to; i++) {
+                    decoded[i] = decode(sources[i]);
+                }
+            }
+        });
+
+        return decoded;
+    }
+
+
+    /**
+     * Returns the number of source bytes {@link #decode(byte[])} decodes
+     * independently of the bytes around them, so that any number of whole
+     * blocks can be decoded on their own and the decoded chunks concatenated.
+     * Streams created by
+     * {@link #newInputStream(Class, Class, Object, InputStream)} rely on
+     * this value. The default implementation returns {@code 0} which means
+     * the decoder can only decode whole inputs.
+     *
+     * @return the decoding block size; {@code 0} if not applicable.
+     */
+    protected int decodingBlockSize() {
+
+        return 0;
+    }
+
+
+    /**
+     * Decodes the remaining bytes of given {@code source}. The position of
+     * {@code source} is advanced to its limit and the returned buffer is
+     * positioned at zero with its limit set to the number of decoded bytes.
+     * <p>
+     * The default implementation passes the backing array of {@code source}
+     * as is if it exactly covers the remaining bytes, copies the remaining
+     * bytes otherwise, and wraps the result of {@link #decode(byte[])}.
+     * Override this method to work on direct buffers without copying.
+     *
+     * @param source the buffer whose remaining bytes are decoded
+     *
+     * @return a buffer of decoded bytes
+     *
+     * @throws Throwable if an error occurs.
+     *
+     * @see ByteBufferDecoder#decode(ByteBuffer)
+     */
+    protected ByteBuffer decode(final ByteBuffer source) throws Throwable {
+
+        if (source == null) {
+            throw new NullPointerException("source");
+        }
+
+        final byte[] array;
+        if (source.hasArray() && source.arrayOffset() == 0
+            && source.position() == 0
+            && source.limit() == source.array().length) {
+            array = source.array();
+        } else {
+            array = new byte[source.remaining()];
+            source.duplicate().get(array);
+        }
+
+        final byte[] decoded = decode(array);
+        source.position(source.limit());
+
+        return ByteBuffer.wrap(decoded);
+    }
+
+
+}
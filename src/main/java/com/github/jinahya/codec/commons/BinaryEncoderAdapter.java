@@ -0,0 +1,81 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.nio.ByteBuffer;
+import org.apache.commons.codec.BinaryEncoder;
+import org.apache.commons.codec.EncoderException;
+
+
+/**
+ * An implementation of {@link BinaryEncoder} which calls the typed methods of
+ * a {@link BinaryEncoderProxy} directly.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+final class BinaryEncoderAdapter extends EncoderAdapter<BinaryEncoderProxy<?>>
+    implements BinaryEncoder, ByteBufferEncoder, BatchBinaryEncoder {
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param proxy the proxy to adapt.
+     */
+    BinaryEncoderAdapter(final BinaryEncoderProxy<?> proxy) {
+
+        super(proxy);
+    }
+
+
+    public byte[] encode(final byte[] source) throws EncoderException {
+
+        final Measurement measurement = measureStart(source);
+        try {
+            return proxy.measureEnd(measurement, proxy.encode(source));
+        } catch (final Throwable thrown) {
+            throw encoderException(proxy.measureFailure(measurement, thrown));
+        }
+    }
+
+
+    public byte[][] encodeAll(final byte[][] sources)
+        throws EncoderException {
+
+        final Measurement measurement = measureStart(sources);
+        try {
+            return proxy.measureEnd(measurement, proxy.encodeAll(sources));
+        } catch (final Throwable thrown) {
+            throw encoderException(proxy.measureFailure(measurement, thrown));
+        }
+    }
+
+
+    public ByteBuffer encode(final ByteBuffer source) throws EncoderException {
+
+        final Measurement measurement = measureStart(source);
+        try {
+            return proxy.measureEnd(measurement, proxy.encode(source));
+        } catch (final Throwable thrown) {
+            throw encoderException(proxy.measureFailure(measurement, thrown));
+        }
+    }
+
+
+}
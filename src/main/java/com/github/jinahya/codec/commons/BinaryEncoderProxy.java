@@ -18,7 +18,11 @@
 package com.github.jinahya.codec.commons;
 
 
+import java.io.OutputStream;
 import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 
 
 /**
@@ -64,6 +68,76 @@ public abstract class BinaryEncoderProxy<T> extends EncoderProxy<T> {
     }
 
 
+    /**
+     * the method of {@code encode(Ljava/nio/ByteBuffer;)Ljava/nio/ByteBuffer;}.
+     */
+    private static final Method ENCODE_BUFFER;
+
+
+    /**
+     * the method of {@code encodeAll([[B)[[B}.
+     */
+    private static final Method ENCODE_ALL;
+
+
+    static {
+        try {
+            ENCODE_BUFFER = ByteBufferEncoder.class.getMethod(
+                "encode", ByteBuffer.class);
+            ENCODE_ALL = BatchBinaryEncoder.class.getMethod(
+                "encodeAll", byte[][].class);
+        } catch (final NoSuchMethodException nsme) {
+            throw new InstantiationError(nsme.getMessage());
+        }
+    }
+
+
+    static {
+        @SuppressWarnings("unchecked")
+        final Class<BinaryEncoderProxy<?>> handlerType =
+            (Class<BinaryEncoderProxy<?>>) (Class<?>) BinaryEncoderProxy.class;
+        MethodTable.register(
+            ENCODE,
+            new MethodTable.Invoker<BinaryEncoderProxy<?>>(handlerType) {
+            @Override
+            Object invoke(final BinaryEncoderProxy<?> handler,
+                          final Object proxy, final Object[] args)
+                throws Throwable {
+                return handler.encode((byte[]) args[0]);
+            }
+        });
+        MethodTable.register(
+            ENCODE_BUFFER,
+            new MethodTable.Invoker<BinaryEncoderProxy<?>>(handlerType) {
+            @Override
+            Object invoke(final BinaryEncoderProxy<?> handler,
+                          final Object proxy, final Object[] args)
+                throws Throwable {
+                return handler.encode((ByteBuffer) args[0]);
+            }
+        });
+        MethodTable.register(
+            ENCODE_ALL,
+            new MethodTable.Invoker<BinaryEncoderProxy<?>>(handlerType) {
+            @Override
+            Object invoke(final BinaryEncoderProxy<?> handler,
+                          final Object proxy, final Object[] args)
+                throws Throwable {
+                return handler.encodeAll((byte[][]) args[0]);
+            }
+        });
+    }
+
+
+    /**
+     * the interfaces which proxy instances implement.
+     */
+    static final Class<?>[] INTERFACES = {
+        ENCODER, ByteBufferEncoder.class,
+        BatchBinaryEncoder.class
+    };
+
+
     protected static <P extends AbstractEncoderProxy<T>, T> Object newInstance(
         final Class<P> proxyType, final Class<T> encoderType, final T encoder) {
 
@@ -77,38 +151,203 @@ public abstract class BinaryEncoderProxy<T> extends EncoderProxy<T> {
                 + BinaryEncoderProxy.class);
         }
 
-        return newInstance(ENCODER.getClassLoader(), new Class<?>[]{ENCODER},
-                           proxyType, encoderType, encoder);
+        return newInstance(BinaryEncoderProxy.class.getClassLoader(),
+                           INTERFACES, proxyType, encoderType, encoder);
     }
 
 
     /**
-     * Creates a new proxy instance for specified encoder.
+     * Creates a new adapter instance which implements
+     * {@link org.apache.commons.codec.BinaryEncoder} and calls the typed
+     * methods of the proxy directly rather than through
+     * {@link java.lang.reflect.Proxy}.
      *
-     * @param encoder the encoder for which to serve as a proxy
+     * @param <P> proxy type parameter
+     * @param <T> encoder type parameter
+     * @param proxyType proxy type
+     * @param encoderType encoder type
+     * @param encoder encoder
+     *
+     * @return a new adapter instance.
      */
-    protected BinaryEncoderProxy(final T encoder) {
+    protected static <P extends AbstractEncoderProxy<T>, T> Object newAdapter(
+        final Class<P> proxyType, final Class<T> encoderType, final T encoder) {
 
-        super(encoder);
+        if (proxyType == null) {
+            throw new NullPointerException("proxyType");
+        }
+
+        if (!BinaryEncoderProxy.class.isAssignableFrom(proxyType)) {
+            throw new IllegalArgumentException(
+                "proxyType(" + proxyType + ") is not assignable to "
+                + BinaryEncoderProxy.class);
+        }
+
+        return new BinaryEncoderAdapter(
+            (BinaryEncoderProxy<?>) newProxy(proxyType, encoderType, encoder));
     }
 
 
-    @Override
-    public Object invoke(final Object proxy, final Method method,
-                         final Object[] args)
-        throws Throwable {
+    /**
+     * Creates a new proxy instance which implements
+     * {@link org.apache.commons.codec.BinaryEncoder}
+     * with given, already constructed, {@code proxy} as its handler. Use
+     * this method for proxies whose constructors take more than the
+     * encoder.
+     *
+     * @param proxy the handler
+     *
+     * @return a new proxy instance.
+     */
+    protected static Object newInstance(final BinaryEncoderProxy<?> proxy) {
+
+        if (proxy == null) {
+            throw new NullPointerException("proxy");
+        }
+
+        return Proxy.newProxyInstance(
+            BinaryEncoderProxy.class.getClassLoader(),
+            INTERFACES, proxy);
+    }
+
+
+    /**
+     * Creates a new adapter instance for given, already constructed,
+     * {@code proxy}.
+     *
+     * @param proxy the proxy
+     *
+     * @return a new adapter instance.
+     */
+    protected static Object newAdapter(final BinaryEncoderProxy<?> proxy) {
 
-        if (ENCODE.equals(method)) {
-            return encode((byte[]) args[0]);
+        if (proxy == null) {
+            throw new NullPointerException("proxy");
         }
 
-        return super.invoke(proxy, method, args);
+        return new BinaryEncoderAdapter(proxy);
+    }
+
+
+    /**
+     * Creates a new output stream which encodes bytes written to it, in
+     * chunks of {@link #encodingBlockSize()} bytes, with a new proxy instance
+     * and writes encoded bytes to specified output stream.
+     *
+     * @param <P> proxy type parameter
+     * @param <T> encoder type parameter
+     * @param proxyType proxy type
+     * @param encoderType encoder type
+     * @param encoder encoder
+     * @param out the output stream to which encoded bytes are written
+     *
+     * @return a new output stream.
+     *
+     * @throws IllegalArgumentException if the proxy doesn't declare a
+     * positive {@link #encodingBlockSize()}.
+     *
+     * @see EncodingOutputStream
+     */
+    protected static <P extends AbstractEncoderProxy<T>, T> OutputStream
+        newOutputStream(final Class<P> proxyType, final Class<T> encoderType,
+                        final T encoder, final OutputStream out) {
+
+        if (proxyType == null) {
+            throw new NullPointerException("proxyType");
+        }
+
+        if (!BinaryEncoderProxy.class.isAssignableFrom(proxyType)) {
+            throw new IllegalArgumentException(
+                "proxyType(" + proxyType + ") is not assignable to "
+                + BinaryEncoderProxy.class);
+        }
+
+        final BinaryEncoderProxy<?> proxy =
+            (BinaryEncoderProxy<?>) newProxy(proxyType, encoderType, encoder);
+
+        return new EncodingOutputStream(
+            out, new BinaryEncoderAdapter(proxy), encodingBlockSize(proxy));
+    }
+
+
+    /**
+     * Creates a new channel which encodes bytes written to it, in chunks of
+     * {@link #encodingBlockSize()} bytes, with a new proxy instance and
+     * writes encoded bytes to specified channel.
+     *
+     * @param <P> proxy type parameter
+     * @param <T> encoder type parameter
+     * @param proxyType proxy type
+     * @param encoderType encoder type
+     * @param encoder encoder
+     * @param channel the channel to which encoded bytes are written
+     *
+     * @return a new channel.
+     *
+     * @throws IllegalArgumentException if the proxy doesn't declare a
+     * positive {@link #encodingBlockSize()}.
+     *
+     * @see EncodingWritableByteChannel
+     */
+    protected static <P extends AbstractEncoderProxy<T>, T>
+        WritableByteChannel newWritableByteChannel(
+            final Class<P> proxyType, final Class<T> encoderType,
+            final T encoder, final WritableByteChannel channel) {
+
+        if (proxyType == null) {
+            throw new NullPointerException("proxyType");
+        }
+
+        if (!BinaryEncoderProxy.class.isAssignableFrom(proxyType)) {
+            throw new IllegalArgumentException(
+                "proxyType(" + proxyType + ") is not assignable to "
+                + BinaryEncoderProxy.class);
+        }
+
+        final BinaryEncoderProxy<?> proxy =
+            (BinaryEncoderProxy<?>) newProxy(proxyType, encoderType, encoder);
+
+        return new EncodingWritableByteChannel(
+            channel, new BinaryEncoderAdapter(proxy), encodingBlockSize(proxy));
+    }
+
+
+    private static int encodingBlockSize(final BinaryEncoderProxy<?> proxy) {
+
+        final int blockSize = proxy.encodingBlockSize();
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException(
+                "proxyType(" + proxy.getClass() + ") doesn't declare a"
+                + " positive encoding block size");
+        }
+
+        return blockSize;
+    }
+
+
+    /**
+     * Creates a new proxy instance for specified encoder.
+     *
+     * @param encoder the encoder for which to serve as a proxy
+     */
+    protected BinaryEncoderProxy(final T encoder) {
+
+        super(encoder);
     }
 
 
     @Override
     protected Object encode(final Object source) throws Throwable {
 
+        if (source instanceof ByteBuffer) {
+            return encode((ByteBuffer) source);
+        }
+
+        if (source != null && !(source instanceof byte[])) {
+            throw encoderFailure(
+                "source is neither an instance of byte[] nor ByteBuffer");
+        }
+
         try {
             return encode((byte[]) source);
         } catch (final ClassCastException cce) {
@@ -128,5 +367,98 @@ public abstract class BinaryEncoderProxy<T> extends EncoderProxy<T> {
      */
     protected abstract byte[] encode(final byte[] source) throws Throwable;
 
-}
 
+    /**
+     * Encodes each of given {@code sources}. The default implementation
+     * calls {@link #encode(byte[])} for each source through
+     * {@link #encodeBatch(int, ParallelBatch.Task)}, in parallel if
+     * configured so. Override this method to let the delegate encode the
+     * whole batch natively.
+     *
+     * @param sources the arrays of bytes to encode
+     *
+     * @return an array of encoded outputs, each at the same index as its
+     * source
+     *
+     * @throws Throwable if an error occurs.
+     *
+     * @see BatchBinaryEncoder#encodeAll(byte[][])
+     */
+    protected byte[][] encodeAll(final byte[][] sources) throws Throwable {
+
+        if (sources == null) {
+            throw new NullPointerException("sources");
+        }
+
+        final byte[][] encoded = new byte[sources.length][];
+        encodeBatch(sources.length, new ParallelBatch.Task() {
+            public void run(final int from, final int to) throws Throwable {
+                for (int i = from; i < to; i++) {
+                    encoded[i] = encode(sources[i]);
+                }
+            }
+        });
+
+        return encoded;
+    }
+
+
+    /**
+     * Returns the number of source bytes {@link #encode(byte[])} encodes
+     * independently of the bytes around them, so that any number of whole
+     * blocks can be encoded on their own and the encoded chunks concatenated.
+     * Streams created by
+     * {@link #newOutputStream(Class, Class, Object, OutputStream)} rely on
+     * this value. The default implementation returns {@code 0} which means
+     * the encoder can only encode whole inputs.
+     *
+     * @return the encoding block size; {@code 0} if not applicable.
+     */
+    protected int encodingBlockSize() {
+
+        return 0;
+    }
+
+
+    /**
+     * Encodes the remaining bytes of given {@code source}. The position of
+     * {@code source} is advanced to its limit and the returned buffer is
+     * positioned at zero with its limit set to the number of encoded bytes.
+     * <p>
+     * The default implementation passes the backing array of {@code source}
+     * as is if it exactly covers the remaining bytes, copies the remaining
+     * bytes otherwise, and wraps the result of {@link #encode(byte[])}.
+     * Override this method to work on direct buffers without copying.
+     *
+     * @param source the buffer whose remaining bytes are encoded
+     *
+     * @return a buffer of encoded bytes
+     *
+     * @throws Throwable if an error occurs.
+     *
+     * @see ByteBufferEncoder#encode(ByteBuffer)
+     */
+    protected ByteBuffer encode(final ByteBuffer source) throws Throwable {
+
+        if (source == null) {
+            throw new NullPointerException("source");
+        }
+
+        final byte[] array;
+        if (source.hasArray() && source.arrayOffset() == 0
+            && source.position() == 0
+            && source.limit() == source.array().length) {
+            array = source.array();
+        } else {
+            array = new byte[source.remaining()];
+            source.duplicate().get(array);
+        }
+
+        final byte[] encoded = encode(array);
+        source.position(source.limit());
+
+        return ByteBuffer.wrap(encoded);
+    }
+
+
+}
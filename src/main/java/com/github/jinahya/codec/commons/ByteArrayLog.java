@@ -0,0 +1,457 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+
+
+/**
+ * A lock-guarded cache of {@code byte[]} entries written as a circular log
+ * into a {@link ByteBuffer}.
+ * <p>
+ * The buffer starts with the state of the log; the offsets of the head, the
+ * tail and the wrapping limit, and the number of entries. Entries, each of
+ * which is a header followed by the key and the value, are appended at the
+ * head and the oldest entries are evicted from the tail when the head needs
+ * their space. Entries are indexed with an open-addressing table of
+ * primitive arrays mapping key hashes to offsets; lookups compare the stored
+ * key with the given one, so a hash collision never returns a wrong value.
+ * <p>
+ * The state is written back to the buffer whenever it changes so that a log
+ * in a memory-mapped file can be recovered by a later process. Pages of a
+ * mapped file may reach the storage device in any order when the system
+ * crashes, so recovery checks the hash of the value of each entry as well as
+ * the layout and the key; an entry whose value is torn is not indexed.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+final class ByteArrayLog {
+
+
+    /**
+     * The number of bytes of the state of a log.
+     */
+    static final int STATE_SIZE = 16;
+
+
+    /**
+     * The number of bytes of an entry header; the hash of the key, the
+     * length of the key, the length of the value and the hash of the value.
+     */
+    static final int HEADER_SIZE = 24;
+
+
+    /**
+     * Computes a 64-bit hash of given bytes.
+     *
+     * @param bytes the bytes
+     *
+     * @return a non-zero hash
+     */
+    static long hash(final byte[] bytes) {
+
+        long h = 0xCBF29CE484222325L ^ bytes.length;
+        for (int i = 0; i < bytes.length; i++) {
+            h = (h ^ (bytes[i] & 0xFF)) * 0x100000001B3L;
+        }
+
+        // finalization of MurmurHash3
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+
+        return h == 0L ? 1L : h;
+    }
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param arena the buffer to write to
+     * @param recover {@code true} for recovering the entries already written
+     * to {@code arena}; {@code false} for starting empty
+     */
+    ByteArrayLog(final ByteBuffer arena, final boolean recover) {
+
+        super();
+
+        if (arena.capacity() <= STATE_SIZE + HEADER_SIZE) {
+            throw new IllegalArgumentException(
+                "arena.capacity(" + arena.capacity() + ") <= "
+                + (STATE_SIZE + HEADER_SIZE));
+        }
+
+        this.arena = arena;
+        hashes = new long[1024];
+        offsets = new int[hashes.length];
+
+        if (!recover || !recover()) {
+            clear();
+        }
+    }
+
+
+    synchronized byte[] get(final long hash, final byte[] key) {
+
+        final int slot = find(hash);
+        if (slot < 0 || !matches(offsets[slot], key)) {
+            missCount++;
+            return null;
+        }
+
+        hitCount++;
+        final int offset = offsets[slot];
+        final byte[] value = new byte[arena.getInt(offset + 12)];
+        arena.position(offset + HEADER_SIZE + key.length);
+        arena.get(value);
+
+        return value;
+    }
+
+
+    synchronized void put(final long hash, final byte[] key,
+                          final byte[] value) {
+
+        final long size = (long) HEADER_SIZE + key.length + value.length;
+        if (size > arena.capacity() - STATE_SIZE) {
+            rejectionCount++;
+            return;
+        }
+
+        final int slot = find(hash);
+        if (slot >= 0) {
+            if (matches(offsets[slot], key)) {
+                return; // outputs of the same input are equal
+            }
+            remove(slot);
+        }
+
+        final int offset = allocate((int) size);
+        writeState();
+        arena.putLong(offset, hash);
+        arena.putInt(offset + 8, key.length);
+        arena.putInt(offset + 12, value.length);
+        arena.putLong(offset + 16, hash(value));
+        arena.position(offset + HEADER_SIZE);
+        arena.put(key);
+        arena.put(value);
+        head += size;
+        count++;
+        writeState();
+        insert(hash, offset);
+    }
+
+
+    /**
+     * Returns the number of entries which can be looked up.
+     *
+     * @return the number of entries
+     */
+    synchronized int size() {
+
+        return indexed;
+    }
+
+
+    /**
+     * Adds the statistics of this log to given array of hits, misses,
+     * evictions and rejections.
+     *
+     * @param counts the array to add to
+     */
+    synchronized void addCounts(final long[] counts) {
+
+        counts[0] += hitCount;
+        counts[1] += missCount;
+        counts[2] += evictionCount;
+        counts[3] += rejectionCount;
+    }
+
+
+    /**
+     * Forces the changes to the storage device if the arena is
+     * memory-mapped.
+     */
+    synchronized void force() {
+
+        if (arena instanceof MappedByteBuffer) {
+            ((MappedByteBuffer) arena).force();
+        }
+    }
+
+
+    /**
+     * Makes sure there are given number of contiguous bytes at the head of
+     * the log, evicting the oldest entries as needed.
+     *
+     * @param size the number of bytes
+     *
+     * @return the offset of the bytes which is the current head
+     */
+    private int allocate(final int size) {
+
+        while (true) {
+            if (count == 0) {
+                head = STATE_SIZE;
+                tail = STATE_SIZE;
+            }
+            if (count == 0 || head > tail) { // [tail, head) is used
+                if (head + size <= arena.capacity()) {
+                    break;
+                }
+                limit = head;
+                head = STATE_SIZE;
+                continue;
+            }
+            // [tail, limit) and [STATE_SIZE, head) are used
+            if (head + size <= tail) {
+                break;
+            }
+            evict();
+        }
+
+        return head;
+    }
+
+
+    /**
+     * Evicts the oldest entry.
+     */
+    private void evict() {
+
+        final long hash = arena.getLong(tail);
+        final int slot = find(hash);
+        if (slot >= 0 && offsets[slot] == tail) {
+            remove(slot);
+        }
+        tail += HEADER_SIZE + arena.getInt(tail + 8) + arena.getInt(tail + 12);
+        if (tail == limit) {
+            tail = STATE_SIZE;
+        }
+        count--;
+        evictionCount++;
+    }
+
+
+    /**
+     * Removes all entries.
+     */
+    synchronized void clear() {
+
+        hashes = new long[hashes.length];
+        indexed = 0;
+        head = STATE_SIZE;
+        tail = STATE_SIZE;
+        limit = STATE_SIZE;
+        count = 0;
+        writeState();
+    }
+
+
+    private void writeState() {
+
+        arena.putInt(0, head);
+        arena.putInt(4, tail);
+        arena.putInt(8, limit);
+        arena.putInt(12, count);
+    }
+
+
+    /**
+     * Reads the state from the arena and indexes all entries.
+     *
+     * @return {@code true} if recovered; {@code false} if the arena is
+     * inconsistent
+     */
+    private boolean recover() {
+
+        head = arena.getInt(0);
+        tail = arena.getInt(4);
+        limit = arena.getInt(8);
+        count = arena.getInt(12);
+        final int capacity = arena.capacity();
+        if (head < STATE_SIZE || head > capacity || tail < STATE_SIZE
+            || tail > capacity || limit < STATE_SIZE || limit > capacity
+            || count < 0) {
+            return false;
+        }
+
+        int offset = tail;
+        boolean wrapped = count > 0 && head <= tail;
+        for (int i = 0; i < count; i++) {
+            if (wrapped && offset == limit) {
+                offset = STATE_SIZE;
+                wrapped = false;
+            }
+            final int end = wrapped ? limit : head;
+            if (offset + HEADER_SIZE > end) {
+                return false;
+            }
+            final long hash = arena.getLong(offset);
+            final int keyLength = arena.getInt(offset + 8);
+            final int valueLength = arena.getInt(offset + 12);
+            if (keyLength < 0 || valueLength < 0
+                || (long) offset + HEADER_SIZE + keyLength + valueLength
+                   > end) {
+                return false;
+            }
+            final byte[] key = new byte[keyLength];
+            arena.position(offset + HEADER_SIZE);
+            arena.get(key);
+            if (hash(key) != hash) {
+                return false;
+            }
+            final byte[] value = new byte[valueLength];
+            arena.get(value);
+            if (hash(value) == arena.getLong(offset + 16)) {
+                final int slot = find(hash);
+                if (slot >= 0) {
+                    remove(slot); // superseded by a later entry
+                }
+                insert(hash, offset);
+            } // else torn; left unindexed until evicted
+            offset += HEADER_SIZE + keyLength + valueLength;
+        }
+        if (wrapped && offset == limit) {
+            offset = STATE_SIZE;
+        }
+
+        return count == 0 || offset == head;
+    }
+
+
+    private boolean matches(final int offset, final byte[] key) {
+
+        if (arena.getInt(offset + 8) != key.length) {
+            return false;
+        }
+
+        final int start = offset + HEADER_SIZE;
+        for (int i = 0; i < key.length; i++) {
+            if (arena.get(start + i) != key[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    private int find(final long hash) {
+
+        final int mask = hashes.length - 1;
+        for (int i = (int) hash & mask; hashes[i] != 0L; i = (i + 1) & mask) {
+            if (hashes[i] == hash) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+
+    private void insert(final long hash, final int offset) {
+
+        if ((indexed + 1) * 2 > hashes.length) {
+            final long[] oldHashes = hashes;
+            final int[] oldOffsets = offsets;
+            hashes = new long[oldHashes.length * 2];
+            offsets = new int[hashes.length];
+            indexed = 0;
+            for (int i = 0; i < oldHashes.length; i++) {
+                if (oldHashes[i] != 0L) {
+                    insert(oldHashes[i], oldOffsets[i]);
+                }
+            }
+        }
+
+        final int mask = hashes.length - 1;
+        int i = (int) hash & mask;
+        while (hashes[i] != 0L) {
+            i = (i + 1) & mask;
+        }
+        hashes[i] = hash;
+        offsets[i] = offset;
+        indexed++;
+    }
+
+
+    /**
+     * Removes the entry at given slot of the index, shifting following
+     * entries back so that probing stays correct.
+     *
+     * @param slot the slot
+     */
+    private void remove(int slot) {
+
+        final int mask = hashes.length - 1;
+        for (int i = (slot + 1) & mask; hashes[i] != 0L; i = (i + 1) & mask) {
+            final int home = (int) hashes[i] & mask;
+            if (((i - home) & mask) >= ((i - slot) & mask)) {
+                hashes[slot] = hashes[i];
+                offsets[slot] = offsets[i];
+                slot = i;
+            }
+        }
+        hashes[slot] = 0L;
+        indexed--;
+    }
+
+
+    private final ByteBuffer arena;
+
+
+    private long[] hashes;
+
+
+    private int[] offsets;
+
+
+    private int indexed;
+
+
+    private int head;
+
+
+    private int tail;
+
+
+    private int limit;
+
+
+    private int count;
+
+
+    private long hitCount;
+
+
+    private long missCount;
+
+
+    private long evictionCount;
+
+
+    private long rejectionCount;
+
+
+}
+
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+/**
+ * An abstract {@link ResultCache} for {@code byte[]} inputs and outputs
+ * whose entries are spread over {@link ByteArrayLog}s by the strong hashes of
+ * their keys.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+abstract class ByteArrayLogCache implements ResultCache<byte[], byte[]> {
+
+
+    /**
+     * The minimum number of bytes of a log.
+     */
+    static final int MINIMUM_LOG_CAPACITY = 65536;
+
+
+    /**
+     * The maximum number of bytes of a log.
+     */
+    static final int MAXIMUM_LOG_CAPACITY = 1 << 30;
+
+
+    /**
+     * Returns the number of logs for given total capacity and concurrency.
+     * The concurrency is rounded up to a power of two and adjusted so that
+     * each log holds between {@value #MINIMUM_LOG_CAPACITY} and
+     * {@value #MAXIMUM_LOG_CAPACITY} bytes.
+     *
+     * @param capacity the total number of bytes
+     * @param concurrency the expected number of concurrent accessors
+     *
+     * @return the number of logs
+     */
+    static int logCount(final long capacity, final int concurrency) {
+
+        if (capacity <= 0L) {
+            throw new IllegalArgumentException(
+                "capacity(" + capacity + ") <= 0");
+        }
+
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException(
+                "concurrency(" + concurrency + ") <= 0");
+        }
+
+        int count = 1;
+        while (count < concurrency && count < (1 << 16)) {
+            count <<= 1;
+        }
+        while (count > 1 && capacity / count < MINIMUM_LOG_CAPACITY) {
+            count >>= 1;
+        }
+        while (capacity / count > MAXIMUM_LOG_CAPACITY) {
+            count <<= 1;
+        }
+
+        return count;
+    }
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param logs the logs; the length must be a power of two
+     */
+    ByteArrayLogCache(final ByteArrayLog[] logs) {
+
+        super();
+
+        this.logs = logs;
+    }
+
+
+    public byte[] get(final byte[] key) {
+
+        if (key == null) {
+            throw new NullPointerException("key");
+        }
+
+        final long hash = ByteArrayLog.hash(key);
+
+        return log(hash).get(hash, key);
+    }
+
+
+    public void put(final byte[] key, final byte[] value) {
+
+        if (key == null) {
+            throw new NullPointerException("key");
+        }
+
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+
+        final long hash = ByteArrayLog.hash(key);
+
+        log(hash).put(hash, key, value);
+    }
+
+
+    public void clear() {
+
+        for (final ByteArrayLog log : logs) {
+            log.clear();
+        }
+    }
+
+
+    public ResultCacheStats getStats() {
+
+        final long[] counts = new long[4];
+        for (final ByteArrayLog log : logs) {
+            log.addCounts(counts);
+        }
+
+        return new ResultCacheStats(counts[0], counts[1], counts[2], counts[3]);
+    }
+
+
+    /**
+     * Returns the current number of entries.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+
+        int size = 0;
+        for (final ByteArrayLog log : logs) {
+            size += log.size();
+        }
+
+        return size;
+    }
+
+
+    /**
+     * Forces the changes of all logs to their storage devices if they are
+     * memory-mapped.
+     */
+    void force() {
+
+        for (final ByteArrayLog log : logs) {
+            log.force();
+        }
+    }
+
+
+    private ByteArrayLog log(final long hash) {
+
+        return logs[(int) (hash >>> 32) & (logs.length - 1)];
+    }
+
+
+    private final ByteArrayLog[] logs;
+
+
+}
+
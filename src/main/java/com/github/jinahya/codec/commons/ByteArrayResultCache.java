@@ -0,0 +1,162 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.util.Arrays;
+
+
+/**
+ * A {@link LfuResultCache} for {@code byte[]} inputs and outputs. Keys are
+ * hashed and compared by their contents. Keys and values are copied when
+ * stored and values are copied again when returned so that neither callers
+ * nor delegates can modify cached content.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class ByteArrayResultCache implements ResultCache<byte[], byte[]> {
+
+
+    /**
+     * Creates a new instance with
+     * {@link LfuResultCache#DEFAULT_CONCURRENCY}.
+     *
+     * @param capacity the maximum number of entries
+     */
+    public ByteArrayResultCache(final int capacity) {
+
+        this(capacity, LfuResultCache.DEFAULT_CONCURRENCY);
+    }
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param capacity the maximum number of entries
+     * @param concurrency the expected number of concurrent accessors
+     */
+    public ByteArrayResultCache(final int capacity, final int concurrency) {
+
+        super();
+
+        cache = new LfuResultCache<Key, byte[]>(capacity, concurrency);
+    }
+
+
+    public byte[] get(final byte[] key) {
+
+        if (key == null) {
+            throw new NullPointerException("key");
+        }
+
+        final byte[] value = cache.get(new Key(key));
+
+        return value == null ? null : value.clone();
+    }
+
+
+    public void put(final byte[] key, final byte[] value) {
+
+        if (key == null) {
+            throw new NullPointerException("key");
+        }
+
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+
+        cache.put(new Key(key.clone()), value.clone());
+    }
+
+
+    public void clear() {
+
+        cache.clear();
+    }
+
+
+    public ResultCacheStats getStats() {
+
+        return cache.getStats();
+    }
+
+
+    /**
+     * Returns the current number of entries.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+
+        return cache.size();
+    }
+
+
+    /**
+     * A content-hashed wrapper of a {@code byte[]}.
+     */
+    private static final class Key {
+
+
+        Key(final byte[] bytes) {
+
+            super();
+
+            this.bytes = bytes;
+            hash = Arrays.hashCode(bytes);
+        }
+
+
+        @Override
+        public int hashCode() {
+
+            return hash;
+        }
+
+
+        @Override
+        public boolean equals(final Object obj) {
+
+            if (this == obj) {
+                return true;
+            }
+
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            final Key key = (Key) obj;
+
+            return hash == key.hash && Arrays.equals(bytes, key.bytes);
+        }
+
+
+        private final byte[] bytes;
+
+
+        private final int hash;
+
+
+    }
+
+
+    private final LfuResultCache<Key, byte[]> cache;
+
+
+}
+
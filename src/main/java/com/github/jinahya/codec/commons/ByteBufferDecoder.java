@@ -0,0 +1,48 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.nio.ByteBuffer;
+import org.apache.commons.codec.DecoderException;
+
+
+/**
+ * An interface for decoders which decode the remaining bytes of a
+ * {@link ByteBuffer}.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public interface ByteBufferDecoder {
+
+
+    /**
+     * Decodes the remaining bytes of given {@code source}. The position of
+     * {@code source} is advanced to its limit and the returned buffer is
+     * positioned at zero with its limit set to the number of decoded bytes.
+     *
+     * @param source the buffer whose remaining bytes are decoded
+     *
+     * @return a buffer of decoded bytes
+     *
+     * @throws DecoderException if failed to decode
+     */
+    ByteBuffer decode(ByteBuffer source) throws DecoderException;
+
+
+}
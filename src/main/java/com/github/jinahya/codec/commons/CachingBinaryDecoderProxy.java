@@ -0,0 +1,151 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.codec.BinaryDecoder;
+
+
+/**
+ * A proxy of {@link BinaryDecoder} which memoizes the outputs of another
+ * {@link BinaryDecoder} in a {@link ResultCache}. Only non-null sources and
+ * outputs are cached; failures are never cached. Swapping the decoder clears
+ * the cache. Sources are arrays, so the cache must hash and compare them by
+ * content, as {@link ByteArrayResultCache} and
+ * {@link DirectByteArrayResultCache} do.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class CachingBinaryDecoderProxy
+    extends BinaryDecoderProxy<BinaryDecoder> {
+
+
+    /**
+     * Creates a new proxy instance.
+     *
+     * @param decoder the decoder whose outputs are cached
+     * @param cache the cache
+     *
+     * @return a new proxy instance which implements {@link BinaryDecoder}
+     */
+    public static Object newInstance(final BinaryDecoder decoder,
+                                     final ResultCache<byte[], byte[]> cache) {
+
+        return newInstance(new CachingBinaryDecoderProxy(decoder, cache));
+    }
+
+
+    /**
+     * Creates a new adapter instance.
+     *
+     * @param decoder the decoder whose outputs are cached
+     * @param cache the cache
+     *
+     * @return a new adapter instance which implements {@link BinaryDecoder}
+     */
+    public static Object newAdapter(final BinaryDecoder decoder,
+                                    final ResultCache<byte[], byte[]> cache) {
+
+        return newAdapter(new CachingBinaryDecoderProxy(decoder, cache));
+    }
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param decoder the decoder whose outputs are cached
+     * @param cache the cache
+     */
+    protected CachingBinaryDecoderProxy(
+        final BinaryDecoder decoder, final ResultCache<byte[], byte[]> cache) {
+
+        super(decoder);
+
+        if (decoder == null) {
+            throw new NullPointerException("decoder");
+        }
+
+        if (cache == null) {
+            throw new NullPointerException("cache");
+        }
+
+        this.cache = cache;
+    }
+
+
+    @Override
+    protected byte[] decode(final byte[] source) throws Throwable {
+
+        if (source == null) {
+            return decoder.decode(source);
+        }
+
+        byte[] decoded = cache.get(source);
+        if (decoded == null) {
+            final int swapped = swaps.get();
+            decoded = decoder.decode(source);
+            if (decoded != null) {
+                cache.put(source, decoded);
+                if (swaps.get() != swapped) {
+                    // may have been put after the clear of a swap
+                    cache.clear();
+                }
+            }
+        }
+
+        return decoded;
+    }
+
+
+    /**
+     * Clears the cache so that outputs of the previous decoder are not served
+     * anymore. The cache is cleared for every other user of it as well.
+     *
+     * @param previous {@inheritDoc}
+     */
+    @Override
+    protected void decoderSwapped(final BinaryDecoder previous) {
+
+        swaps.incrementAndGet();
+        cache.clear();
+    }
+
+
+    /**
+     * Returns the cache.
+     *
+     * @return the cache
+     */
+    public ResultCache<byte[], byte[]> getCache() {
+
+        return cache;
+    }
+
+
+    private final ResultCache<byte[], byte[]> cache;
+
+
+    /**
+     * The number of swaps of the decoder.
+     */
+    private final AtomicInteger swaps = new AtomicInteger();
+
+
+}
+
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.codec.BinaryEncoder;
+
+
+/**
+ * A proxy of {@link BinaryEncoder} which memoizes the outputs of another
+ * {@link BinaryEncoder} in a {@link ResultCache}. Only non-null sources and
+ * outputs are cached; failures are never cached. Swapping the encoder clears
+ * the cache. Sources are arrays, so the cache must hash and compare them by
+ * content, as {@link ByteArrayResultCache} and
+ * {@link DirectByteArrayResultCache} do.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class CachingBinaryEncoderProxy
+    extends BinaryEncoderProxy<BinaryEncoder> {
+
+
+    /**
+     * Creates a new proxy instance.
+     *
+     * @param encoder the encoder whose outputs are cached
+     * @param cache the cache
+     *
+     * @return a new proxy instance which implements {@link BinaryEncoder}
+     */
+    public static Object newInstance(final BinaryEncoder encoder,
+                                     final ResultCache<byte[], byte[]> cache) {
+
+        return newInstance(new CachingBinaryEncoderProxy(encoder, cache));
+    }
+
+
+    /**
+     * Creates a new adapter instance.
+     *
+     * @param encoder the encoder whose outputs are cached
+     * @param cache the cache
+     *
+     * @return a new adapter instance which implements {@link BinaryEncoder}
+     */
+    public static Object newAdapter(final BinaryEncoder encoder,
+                                    final ResultCache<byte[], byte[]> cache) {
+
+        return newAdapter(new CachingBinaryEncoderProxy(encoder, cache));
+    }
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param encoder the encoder whose outputs are cached
+     * @param cache the cache
+     */
+    protected CachingBinaryEncoderProxy(
+        final BinaryEncoder encoder, final ResultCache<byte[], byte[]> cache) {
+
+        super(encoder);
+
+        if (encoder == null) {
+            throw new NullPointerException("encoder");
+        }
+
+        if (cache == null) {
+            throw new NullPointerException("cache");
+        }
+
+        this.cache = cache;
+    }
+
+
+    @Override
+    protected byte[] encode(final byte[] source) throws Throwable {
+
+        if (source == null) {
+            return encoder.encode(source);
+        }
+
+        byte[] encoded = cache.get(source);
+        if (encoded == null) {
+            final int swapped = swaps.get();
+            encoded = encoder.encode(source);
+            if (encoded != null) {
+                cache.put(source, encoded);
+                if (swaps.get() != swapped) {
+                    // may have been put after the clear of a swap
+                    cache.clear();
+                }
+            }
+        }
+
+        return encoded;
+    }
+
+
+    /**
+     * Clears the cache so that outputs of the previous encoder are not served
+     * anymore. The cache is cleared for every other user of it as well.
+     *
+     * @param previous {@inheritDoc}
+     */
+    @Override
+    protected void encoderSwapped(final BinaryEncoder previous) {
+
+        swaps.incrementAndGet();
+        cache.clear();
+    }
+
+
+    /**
+     * Returns the cache.
+     *
+     * @return the cache
+     */
+    public ResultCache<byte[], byte[]> getCache() {
+
+        return cache;
+    }
+
+
+    private final ResultCache<byte[], byte[]> cache;
+
+
+    /**
+     * The number of swaps of the encoder.
+     */
+    private final AtomicInteger swaps = new AtomicInteger();
+
+
+}
+
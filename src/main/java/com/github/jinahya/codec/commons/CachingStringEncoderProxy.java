@@ -0,0 +1,149 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.codec.StringEncoder;
+
+
+/**
+ * A proxy of {@link StringEncoder} which memoizes the outputs of another
+ * {@link StringEncoder} in a {@link ResultCache}. Only non-null sources and
+ * outputs are cached; failures are never cached. Swapping the encoder clears
+ * the cache.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class CachingStringEncoderProxy
+    extends StringEncoderProxy<StringEncoder> {
+
+
+    /**
+     * Creates a new proxy instance.
+     *
+     * @param encoder the encoder whose outputs are cached
+     * @param cache the cache
+     *
+     * @return a new proxy instance which implements {@link StringEncoder}
+     */
+    public static Object newInstance(final StringEncoder encoder,
+                                     final ResultCache<String, String> cache) {
+
+        return newInstance(new CachingStringEncoderProxy(encoder, cache));
+    }
+
+
+    /**
+     * Creates a new adapter instance.
+     *
+     * @param encoder the encoder whose outputs are cached
+     * @param cache the cache
+     *
+     * @return a new adapter instance which implements {@link StringEncoder}
+     */
+    public static Object newAdapter(final StringEncoder encoder,
+                                    final ResultCache<String, String> cache) {
+
+        return newAdapter(new CachingStringEncoderProxy(encoder, cache));
+    }
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param encoder the encoder whose outputs are cached
+     * @param cache the cache
+     */
+    protected CachingStringEncoderProxy(
+        final StringEncoder encoder, final ResultCache<String, String> cache) {
+
+        super(encoder);
+
+        if (encoder == null) {
+            throw new NullPointerException("encoder");
+        }
+
+        if (cache == null) {
+            throw new NullPointerException("cache");
+        }
+
+        this.cache = cache;
+    }
+
+
+    @Override
+    protected String encode(final String source) throws Throwable {
+
+        if (source == null) {
+            return encoder.encode(source);
+        }
+
+        String encoded = cache.get(source);
+        if (encoded == null) {
+            final int swapped = swaps.get();
+            encoded = encoder.encode(source);
+            if (encoded != null) {
+                cache.put(source, encoded);
+                if (swaps.get() != swapped) {
+                    // may have been put after the clear of a swap
+                    cache.clear();
+                }
+            }
+        }
+
+        return encoded;
+    }
+
+
+    /**
+     * Clears the cache so that outputs of the previous encoder are not served
+     * anymore. The cache is cleared for every other user of it as well.
+     *
+     * @param previous {@inheritDoc}
+     */
+    @Override
+    protected void encoderSwapped(final StringEncoder previous) {
+
+        swaps.incrementAndGet();
+        cache.clear();
+    }
+
+
+    /**
+     * Returns the cache.
+     *
+     * @return the cache
+     */
+    public ResultCache<String, String> getCache() {
+
+        return cache;
+    }
+
+
+    private final ResultCache<String, String> cache;
+
+
+    /**
+     * The number of swaps of the encoder.
+     */
+    private final AtomicInteger swaps = new AtomicInteger();
+
+
+}
+
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+/**
+ * Marks a delegate class for which an adapter is generated at compile time.
+ * <p>
+ * The adapter is a plain class named {@link #value()} in the package of the
+ * delegate. It takes a delegate instance in its constructor and implements
+ * {@link org.apache.commons.codec.BinaryEncoder},
+ * {@link org.apache.commons.codec.StringEncoder},
+ * {@link org.apache.commons.codec.Encoder} and their decoding counterparts
+ * according to the signatures of the methods annotated with {@link Encode}
+ * and {@link Decode}.
+ * <blockquote><pre>
+ * &#64;CodecAdapter
+ * public class MyCodec {
+ *
+ *     &#64;CodecAdapter.Encode
+ *     public byte[] encode(byte[] source) { ... }
+ *
+ *     &#64;CodecAdapter.Decode
+ *     public byte[] decode(byte[] source) { ... }
+ * }
+ *
+ * final BinaryEncoder encoder = new MyCodecAdapter(new MyCodec());
+ * </pre></blockquote>
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface CodecAdapter {
+
+
+    /**
+     * Marks a method to which the generated adapter delegates encoding. The
+     * method must take one argument and its parameter and return types must
+     * both be {@code byte[]}, {@code String} or {@code Object}.
+     */
+    @Documented
+    @Retention(RetentionPolicy.CLASS)
+    @Target(ElementType.METHOD)
+    public @interface Encode {
+    }
+
+
+    /**
+     * Marks a method to which the generated adapter delegates decoding. The
+     * method must take one argument and its parameter and return types must
+     * both be {@code byte[]}, {@code String} or {@code Object}.
+     */
+    @Documented
+    @Retention(RetentionPolicy.CLASS)
+    @Target(ElementType.METHOD)
+    public @interface Decode {
+    }
+
+
+    /**
+     * The simple name of the generated adapter class. An empty value, which
+     * is the default, means the simple name of the delegate class followed by
+     * {@code Adapter}.
+     *
+     * @return the simple name of the generated adapter class.
+     */
+    String value() default "";
+
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.lang.reflect.UndeclaredThrowableException;
+import org.apache.commons.codec.Decoder;
+import org.apache.commons.codec.DecoderException;
+
+
+/**
+ * An implementation of {@link Decoder} which calls the typed methods of a
+ * {@link DecoderProxy} directly instead of going through
+ * {@link java.lang.reflect.Proxy}.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ * @param <P> proxy type parameter
+ */
+class DecoderAdapter<P extends DecoderProxy<?>> implements Decoder {
+
+
+    /**
+     * Translates given {@code thrown} into what a {@link Decoder} method can
+     * throw. Unchecked exceptions are rethrown as they are and undeclared
+     * checked exceptions are wrapped in an
+     * {@link UndeclaredThrowableException} just as
+     * {@link java.lang.reflect.Proxy} does.
+     *
+     * @param thrown the throwable thrown by a proxy method
+     *
+     * @return given {@code thrown} as a {@link DecoderException}
+     */
+    static DecoderException decoderException(final Throwable thrown) {
+
+        if (thrown instanceof RuntimeException) {
+            throw (RuntimeException) thrown;
+        }
+
+        if (thrown instanceof Error) {
+            throw (Error) thrown;
+        }
+
+        if (thrown instanceof DecoderException) {
+            return (DecoderException) thrown;
+        }
+
+        throw new UndeclaredThrowableException(thrown);
+    }
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param proxy the proxy to adapt.
+     */
+    DecoderAdapter(final P proxy) {
+
+        super();
+
+        if (proxy == null) {
+            throw new NullPointerException("proxy");
+        }
+
+        this.proxy = proxy;
+    }
+
+
+    public Object decode(final Object source) throws DecoderException {
+
+        final Measurement measurement = measureStart(source);
+        try {
+            return proxy.measureEnd(measurement, proxy.decode(source));
+        } catch (final Throwable thrown) {
+            throw decoderException(proxy.measureFailure(measurement, thrown));
+        }
+    }
+
+
+    /**
+     * Makes sure the decoder of the proxy is created and starts measuring a
+     * call with given source. The decoder is created first so that, as through
+     * a proxy instance, creating it is neither timed nor recorded as a call.
+     *
+     * @param source the source
+     *
+     * @return the measurement
+     *
+     * @throws DecoderException if failed to create the decoder.
+     */
+    final Measurement measureStart(final Object source)
+        throws DecoderException {
+
+        ensureDecoder();
+
+        return proxy.measureStart(source);
+    }
+
+
+    /**
+     * Makes sure the decoder of the proxy is created and starts measuring a
+     * call with a range of given length.
+     *
+     * @param sourceLength the length of the source range
+     *
+     * @return the measurement
+     *
+     * @throws DecoderException if failed to create the decoder.
+     *
+     * @see #measureStart(Object)
+     */
+    final Measurement measureRangeStart(final int sourceLength)
+        throws DecoderException {
+
+        ensureDecoder();
+
+        return proxy.measureRangeStart(sourceLength);
+    }
+
+
+    private void ensureDecoder() throws DecoderException {
+
+        try {
+            proxy.ensureDecoder();
+        } catch (final Throwable thrown) {
+            throw decoderException(thrown);
+        }
+    }
+
+
+    /**
+     * The proxy adapted.
+     */
+    final P proxy;
+
+
+}
@@ -19,6 +19,7 @@ package com.github.jinahya.codec.commons;
 
 
 import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 
 
 /**
@@ -64,6 +65,29 @@ public abstract class DecoderProxy<T> extends AbstractDecoderProxy<T> {
     }
 
 
+    static {
+        @SuppressWarnings("unchecked")
+        final Class<DecoderProxy<?>> handlerType =
+            (Class<DecoderProxy<?>>) (Class<?>) DecoderProxy.class;
+        MethodTable.register(
+            DECODE,
+            new MethodTable.Invoker<DecoderProxy<?>>(handlerType) {
+            @Override
+            Object invoke(final DecoderProxy<?> handler, final Object proxy,
+                          final Object[] args)
+                throws Throwable {
+                return handler.decode(args[0]);
+            }
+        });
+    }
+
+
+    /**
+     * the interfaces which proxy instances implement.
+     */
+    static final Class<?>[] INTERFACES = {DECODER};
+
+
     /**
      * Creates a new proxy instance for
      * {@link org.apache.commons.codec.Decoder}.
@@ -89,11 +113,82 @@ public abstract class DecoderProxy<T> extends AbstractDecoderProxy<T> {
                 + DecoderProxy.class);
         }
 
-        return newInstance(DECODER.getClassLoader(), new Class<?>[]{DECODER},
+        return newInstance(DECODER.getClassLoader(), INTERFACES,
                            proxyType, decoderType, decoder);
     }
 
 
+    /**
+     * Creates a new adapter instance which implements
+     * {@link org.apache.commons.codec.Decoder} and calls the typed
+     * methods of the proxy directly rather than through
+     * {@link java.lang.reflect.Proxy}.
+     *
+     * @param <P> proxy type parameter
+     * @param <T> decoder type parameter
+     * @param proxyType proxy type
+     * @param decoderType decoder type
+     * @param decoder decoder
+     *
+     * @return a new adapter instance.
+     */
+    protected static <P extends AbstractDecoderProxy<T>, T> Object newAdapter(
+        final Class<P> proxyType, final Class<T> decoderType, final T decoder) {
+
+        if (proxyType == null) {
+            throw new NullPointerException("proxyType");
+        }
+
+        if (!DecoderProxy.class.isAssignableFrom(proxyType)) {
+            throw new IllegalArgumentException(
+                "proxyType(" + proxyType + ") is not assignable to "
+                + DecoderProxy.class);
+        }
+
+        return new DecoderAdapter<DecoderProxy<?>>(
+            (DecoderProxy<?>) newProxy(proxyType, decoderType, decoder));
+    }
+
+
+    /**
+     * Creates a new proxy instance which implements
+     * {@link org.apache.commons.codec.Decoder} with given, already constructed,
+     * {@code proxy} as its handler.
+     *
+     * @param proxy the handler
+     *
+     * @return a new proxy instance.
+     */
+    protected static Object newInstance(final DecoderProxy<?> proxy) {
+
+        if (proxy == null) {
+            throw new NullPointerException("proxy");
+        }
+
+        return Proxy.newProxyInstance(
+            DECODER.getClassLoader(),
+            INTERFACES, proxy);
+    }
+
+
+    /**
+     * Creates a new adapter instance for given, already constructed,
+     * {@code proxy}.
+     *
+     * @param proxy the proxy
+     *
+     * @return a new adapter instance.
+     */
+    protected static Object newAdapter(final DecoderProxy<?> proxy) {
+
+        if (proxy == null) {
+            throw new NullPointerException("proxy");
+        }
+
+        return new DecoderAdapter<DecoderProxy<?>>(proxy);
+    }
+
+
     /**
      * Creates a new instance.
      *
@@ -110,11 +205,23 @@ public abstract class DecoderProxy<T> extends AbstractDecoderProxy<T> {
                          final Object[] args)
         throws Throwable {
 
-        if (DECODE.equals(method)) {
-            return decode(args[0]);
+        final MethodTable.Invoker<?> invoker =
+            MethodTable.invoker(this, method);
+        if (!invoker.isMeasured()) {
+            // Object methods and the like don't need the decoder
+            return MethodTable.invoke(invoker, this, proxy, args);
         }
 
-        throw new UnsupportedOperationException("unsupported: " + method);
+        ensureDecoder();
+
+        final Measurement measurement = measureStart(invoker, args);
+        try {
+            return measureEnd(
+                measurement, invoker,
+                MethodTable.invoke(invoker, this, proxy, args));
+        } catch (final Throwable thrown) {
+            throw measureFailure(measurement, thrown);
+        }
     }
 
 
@@ -0,0 +1,339 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import org.apache.commons.codec.BinaryDecoder;
+import org.apache.commons.codec.DecoderException;
+
+
+/**
+ * An input stream which reads bytes from an underlying input stream in
+ * bounded chunks and decodes them.
+ * <p>
+ * The decoder must decode each block of {@code blockSize} bytes independently
+ * of the bytes around it, so that a chunk of any number of whole blocks can be
+ * decoded on its own. Bytes of a partial block are carried over to the next
+ * chunk and the final, possibly partial, block is decoded when the underlying
+ * input stream reaches its end. The memory used is thus bounded by the buffer
+ * size regardless of the number of bytes read.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class DecodingInputStream extends FilterInputStream {
+
+
+    /**
+     * The default buffer size.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+
+    private static final byte[] EMPTY = new byte[0];
+
+
+    /**
+     * Creates a new instance with {@link #DEFAULT_BUFFER_SIZE}.
+     *
+     * @param in the underlying input stream
+     * @param decoder the decoder
+     * @param blockSize the number of bytes the decoder decodes independently
+     */
+    public DecodingInputStream(final InputStream in,
+                               final BinaryDecoder decoder,
+                               final int blockSize) {
+
+        this(in, decoder, blockSize, DEFAULT_BUFFER_SIZE);
+    }
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param in the underlying input stream
+     * @param decoder the decoder
+     * @param blockSize the number of bytes the decoder decodes independently
+     * @param bufferSize the number of bytes to buffer; rounded down to a
+     * multiple of {@code blockSize} but not less than {@code blockSize}
+     */
+    public DecodingInputStream(final InputStream in,
+                               final BinaryDecoder decoder,
+                               final int blockSize, final int bufferSize) {
+
+        super(in);
+
+        if (in == null) {
+            throw new NullPointerException("in");
+        }
+
+        if (decoder == null) {
+            throw new NullPointerException("decoder");
+        }
+
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException(
+                "blockSize(" + blockSize + ") <= 0");
+        }
+
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException(
+                "bufferSize(" + bufferSize + ") <= 0");
+        }
+
+        this.decoder = decoder;
+        this.blockSize = blockSize;
+
+        buffer = new byte[Math.max(blockSize,
+                                   bufferSize / blockSize * blockSize)];
+    }
+
+
+    @Override
+    public int read() throws IOException {
+
+        if (read(single, 0, 1) == -1) {
+            return -1;
+        }
+
+        return single[0] & 0xFF;
+    }
+
+
+    @Override
+    public int read(final byte[] b, final int off, final int len)
+        throws IOException {
+
+        if (b == null) {
+            throw new NullPointerException("b");
+        }
+
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        ensureOpen();
+
+        if (len == 0) {
+            return 0;
+        }
+
+        while (decodedIndex == decoded.length) {
+            if (eof) {
+                return -1;
+            }
+            fill();
+        }
+
+        final int copied = Math.min(len, decoded.length - decodedIndex);
+        System.arraycopy(decoded, decodedIndex, b, off, copied);
+        decodedIndex += copied;
+
+        return copied;
+    }
+
+
+    @Override
+    public long skip(final long n) throws IOException {
+
+        ensureOpen();
+
+        long skipped = 0L;
+        while (skipped < n) {
+            if (decodedIndex == decoded.length) {
+                if (eof) {
+                    break;
+                }
+                fill();
+                continue;
+            }
+            final int s = (int) Math.min(n - skipped,
+                                         decoded.length - decodedIndex);
+            decodedIndex += s;
+            skipped += s;
+        }
+
+        return skipped;
+    }
+
+
+    /**
+     * Returns the number of decoded bytes which can be read without
+     * blocking.
+     *
+     * @return the number of decoded bytes available
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    @Override
+    public int available() throws IOException {
+
+        ensureOpen();
+
+        return decoded.length - decodedIndex;
+    }
+
+
+    @Override
+    public boolean markSupported() {
+
+        return false;
+    }
+
+
+    @Override
+    public void mark(final int readlimit) {
+        // not supported
+    }
+
+
+    @Override
+    public void reset() throws IOException {
+
+        throw new IOException("mark/reset not supported");
+    }
+
+
+    @Override
+    public void close() throws IOException {
+
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        decoded = EMPTY;
+        in.close();
+    }
+
+
+    /**
+     * Reads a chunk from the underlying input stream and decodes buffered
+     * whole blocks, or all buffered bytes if the end of the underlying input
+     * stream is reached.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    private void fill() throws IOException {
+
+        final int read = in.read(buffer, count, buffer.length - count);
+        if (read == -1) {
+            eof = true;
+            decode(count);
+            return;
+        }
+
+        count += read;
+        decode(count / blockSize * blockSize);
+    }
+
+
+    /**
+     * Decodes first {@code length} buffered bytes and moves the rest to the
+     * start of the buffer.
+     *
+     * @param length the number of bytes to decode
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    private void decode(final int length) throws IOException {
+
+        if (length == 0) {
+            return;
+        }
+
+        final byte[] source = new byte[length];
+        System.arraycopy(buffer, 0, source, 0, length);
+
+        try {
+            decoded = decoder.decode(source);
+        } catch (final DecoderException de) {
+            throw (IOException) new IOException(de.getMessage()).initCause(de);
+        }
+        decodedIndex = 0;
+
+        count -= length;
+        System.arraycopy(buffer, length, buffer, 0, count);
+    }
+
+
+    private void ensureOpen() throws IOException {
+
+        if (closed) {
+            throw new IOException("closed");
+        }
+    }
+
+
+    /**
+     * The decoder.
+     */
+    private final BinaryDecoder decoder;
+
+
+    /**
+     * The number of bytes the decoder decodes independently.
+     */
+    private final int blockSize;
+
+
+    /**
+     * The buffer of bytes to decode.
+     */
+    private final byte[] buffer;
+
+
+    /**
+     * The buffer of a single byte for {@link #read()}.
+     */
+    private final byte[] single = new byte[1];
+
+
+    /**
+     * The number of bytes in {@link #buffer}.
+     */
+    private int count;
+
+
+    /**
+     * The last decoded bytes.
+     */
+    private byte[] decoded = EMPTY;
+
+
+    /**
+     * The index of the next byte to read in {@link #decoded}.
+     */
+    private int decodedIndex;
+
+
+    /**
+     * A flag for the end of the underlying input stream.
+     */
+    private boolean eof;
+
+
+    /**
+     * A flag for closed state.
+     */
+    private boolean closed;
+
+
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import org.apache.commons.codec.DecoderException;
+
+
+/**
+ * A readable byte channel which reads bytes from an underlying channel and
+ * decodes them.
+ * <p>
+ * Bytes are read into an internal buffer which is reused for the lifetime of
+ * this channel, and whole blocks of it are decoded at once. See
+ * {@link DecodingInputStream} for the block contract.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class DecodingReadableByteChannel implements ReadableByteChannel {
+
+
+    /**
+     * The default buffer size.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+
+    /**
+     * Creates a new instance with {@link #DEFAULT_BUFFER_SIZE}.
+     *
+     * @param channel the underlying channel
+     * @param decoder the decoder
+     * @param blockSize the number of bytes the decoder decodes independently
+     */
+    public DecodingReadableByteChannel(final ReadableByteChannel channel,
+                                       final ByteBufferDecoder decoder,
+                                       final int blockSize) {
+
+        this(channel, decoder, blockSize, DEFAULT_BUFFER_SIZE);
+    }
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param channel the underlying channel
+     * @param decoder the decoder
+     * @param blockSize the number of bytes the decoder decodes independently
+     * @param bufferSize the number of bytes to buffer; rounded down to a
+     * multiple of {@code blockSize} but not less than {@code blockSize}
+     */
+    public DecodingReadableByteChannel(final ReadableByteChannel channel,
+                                       final ByteBufferDecoder decoder,
+                                       final int blockSize,
+                                       final int bufferSize) {
+
+        super();
+
+        if (channel == null) {
+            throw new NullPointerException("channel");
+        }
+
+        if (decoder == null) {
+            throw new NullPointerException("decoder");
+        }
+
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException(
+                "blockSize(" + blockSize + ") <= 0");
+        }
+
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException(
+                "bufferSize(" + bufferSize + ") <= 0");
+        }
+
+        this.channel = channel;
+        this.decoder = decoder;
+        this.blockSize = blockSize;
+
+        buffer = ByteBuffer.allocateDirect(
+            Math.max(blockSize, bufferSize / blockSize * blockSize));
+    }
+
+
+    public int read(final ByteBuffer dst) throws IOException {
+
+        if (dst == null) {
+            throw new NullPointerException("dst");
+        }
+
+        ensureOpen();
+
+        while (!decoded.hasRemaining()) {
+            if (eof) {
+                return -1;
+            }
+            if (fill() == 0 && !decoded.hasRemaining()) {
+                return 0;
+            }
+        }
+
+        final int copied = Math.min(dst.remaining(), decoded.remaining());
+        final ByteBuffer copying = decoded.slice();
+        copying.limit(copied);
+        dst.put(copying);
+        decoded.position(decoded.position() + copied);
+
+        return copied;
+    }
+
+
+    public boolean isOpen() {
+
+        return !closed;
+    }
+
+
+    public void close() throws IOException {
+
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        channel.close();
+    }
+
+
+    /**
+     * Reads bytes from the underlying channel and decodes pending whole
+     * blocks, or all pending bytes if the end of the underlying channel is
+     * reached.
+     *
+     * @return the number of bytes read from the underlying channel; possibly
+     * {@code 0} for a channel in non-blocking mode, or {@code -1} if the end
+     * of the underlying channel is reached.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    private int fill() throws IOException {
+
+        final int read = channel.read(buffer);
+        if (read == -1) {
+            eof = true;
+        }
+
+        buffer.flip();
+        final int limit = buffer.limit();
+        if (!eof) {
+            buffer.limit(limit / blockSize * blockSize);
+        }
+
+        if (buffer.hasRemaining()) {
+            try {
+                decoded = decoder.decode(buffer);
+            } catch (final DecoderException de) {
+                throw (IOException) new IOException(de.getMessage())
+                    .initCause(de);
+            }
+        }
+
+        buffer.limit(limit);
+        buffer.compact();
+
+        return read;
+    }
+
+
+    private void ensureOpen() throws IOException {
+
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+    }
+
+
+    /**
+     * The underlying channel.
+     */
+    private final ReadableByteChannel channel;
+
+
+    /**
+     * The decoder.
+     */
+    private final ByteBufferDecoder decoder;
+
+
+    /**
+     * The number of bytes the decoder decodes independently.
+     */
+    private final int blockSize;
+
+
+    /**
+     * The buffer of pending bytes.
+     */
+    private final ByteBuffer buffer;
+
+
+    /**
+     * The last decoded bytes.
+     */
+    private ByteBuffer decoded = ByteBuffer.allocate(0);
+
+
+    /**
+     * A flag for the end of the underlying channel.
+     */
+    private boolean eof;
+
+
+    /**
+     * A flag for closed state.
+     */
+    private boolean closed;
+
+
+}
@@ -0,0 +1,366 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+
+/**
+ * A bounded, lock-free pool of delegates which are not thread-safe.
+ * <p>
+ * Idle delegates are kept in a fixed number of slots. A thread borrows from
+ * and releases to the slots starting at an index derived from its identity,
+ * so that a thread mostly reuses the same delegate and threads rarely
+ * contend for a slot. A delegate is created when no idle one is found and is
+ * disposed when released to a full or closed pool. Both borrowing and
+ * releasing only take and put slots with atomic operations.
+ * <p>
+ * The number of idle delegates is bounded by the capacity of the pool. The
+ * number of live delegates, idle or borrowed, is bounded only if a maximum
+ * is given; when that many are live, borrowing blocks until another thread
+ * releases or discards one.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ * @param <T> delegate type parameter
+ */
+public class DelegatePool<T> {
+
+
+    /**
+     * The number of milliseconds a borrowing thread waits before looking
+     * for a delegate again.
+     */
+    private static final long WAIT_MILLIS = 10L;
+
+
+    /**
+     * Creates and disposes delegates.
+     *
+     * @param <T> delegate type parameter
+     */
+    public static interface Factory<T> {
+
+
+        /**
+         * Creates a new delegate.
+         *
+         * @return a new delegate
+         *
+         * @throws Exception if failed to create.
+         */
+        T create() throws Exception;
+
+
+        /**
+         * Disposes given delegate which won't be used anymore.
+         *
+         * @param delegate the delegate
+         */
+        void dispose(T delegate);
+
+
+    }
+
+
+    /**
+     * Returns the default number of idle delegates kept; twice the number of
+     * available processors.
+     *
+     * @return the default capacity
+     */
+    public static int defaultCapacity() {
+
+        return Runtime.getRuntime().availableProcessors() * 2;
+    }
+
+
+    /**
+     * Creates a new instance with {@link #defaultCapacity()}.
+     *
+     * @param factory the factory of delegates
+     */
+    public DelegatePool(final Factory<T> factory) {
+
+        this(factory, defaultCapacity());
+    }
+
+
+    /**
+     * Creates a new instance which doesn't bound the number of live
+     * delegates.
+     *
+     * @param factory the factory of delegates
+     * @param capacity the maximum number of idle delegates kept
+     */
+    public DelegatePool(final Factory<T> factory, final int capacity) {
+
+        this(factory, capacity, Integer.MAX_VALUE);
+    }
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param factory the factory of delegates
+     * @param capacity the maximum number of idle delegates kept
+     * @param maximum the maximum number of live delegates, idle or borrowed
+     */
+    public DelegatePool(final Factory<T> factory, final int capacity,
+                        final int maximum) {
+
+        super();
+
+        if (factory == null) {
+            throw new NullPointerException("factory");
+        }
+
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(
+                "capacity(" + capacity + ") <= 0");
+        }
+
+        if (maximum <= 0) {
+            throw new IllegalArgumentException(
+                "maximum(" + maximum + ") <= 0");
+        }
+
+        this.factory = factory;
+        slots = new AtomicReferenceArray<T>(capacity);
+        this.maximum = maximum;
+    }
+
+
+    /**
+     * Borrows a delegate; an idle one if any, a new one otherwise. If the
+     * maximum number of delegates are live, this method blocks until one is
+     * released or discarded. The delegate must be either
+     * {@link #release(Object) released} or {@link #discard(Object) discarded}
+     * after use.
+     *
+     * @return a delegate for exclusive use by the calling thread
+     *
+     * @throws InterruptedException if interrupted while waiting.
+     * @throws Exception if failed to create a new delegate.
+     */
+    public T borrow() throws Exception {
+
+        while (true) {
+            final int length = slots.length();
+            final int start = start();
+            for (int i = 0; i < length; i++) {
+                final T idle = slots.getAndSet((start + i) % length, null);
+                if (idle != null) {
+                    return idle;
+                }
+            }
+
+            if (live.incrementAndGet() <= maximum) {
+                T created = null;
+                try {
+                    created = factory.create();
+                    if (created == null) {
+                        throw new NullPointerException("created");
+                    }
+                    return created;
+                } finally {
+                    if (created == null) {
+                        live.decrementAndGet();
+                        signal();
+                    }
+                }
+            }
+            live.decrementAndGet();
+
+            synchronized (lock) {
+                waiting++;
+                try {
+                    // timed; a release may slip in between the scan and here
+                    lock.wait(WAIT_MILLIS);
+                } finally {
+                    waiting--;
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Returns given delegate to this pool. The delegate is disposed if this
+     * pool is full or closed.
+     *
+     * @param delegate the delegate borrowed from this pool
+     */
+    public void release(final T delegate) {
+
+        if (delegate == null) {
+            throw new NullPointerException("delegate");
+        }
+
+        if (!closed) {
+            final int length = slots.length();
+            final int start = start();
+            for (int i = 0; i < length; i++) {
+                final int index = (start + i) % length;
+                if (slots.compareAndSet(index, null, delegate)) {
+                    if (closed && slots.compareAndSet(index, delegate, null)) {
+                        break; // closed meanwhile
+                    }
+                    signal();
+                    return;
+                }
+            }
+        }
+
+        dispose(delegate);
+    }
+
+
+    /**
+     * Disposes given delegate rather than returning it to this pool. Use
+     * this method for a delegate whose state is unknown, e.g., after it
+     * failed.
+     *
+     * @param delegate the delegate borrowed from this pool
+     */
+    public void discard(final T delegate) {
+
+        if (delegate == null) {
+            throw new NullPointerException("delegate");
+        }
+
+        dispose(delegate);
+    }
+
+
+    /**
+     * Closes this pool and disposes all idle delegates. Delegates released
+     * afterwards are disposed.
+     */
+    public void close() {
+
+        closed = true;
+
+        for (int i = 0; i < slots.length(); i++) {
+            final T idle = slots.getAndSet(i, null);
+            if (idle != null) {
+                dispose(idle);
+            }
+        }
+    }
+
+
+    /**
+     * Returns the number of idle delegates.
+     *
+     * @return the number of idle delegates
+     */
+    public int getIdleCount() {
+
+        int count = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+
+    /**
+     * Returns the number of live delegates, idle or borrowed.
+     *
+     * @return the number of live delegates
+     */
+    public int getLiveCount() {
+
+        return live.get();
+    }
+
+
+    private void dispose(final T delegate) {
+
+        try {
+            factory.dispose(delegate);
+        } finally {
+            live.decrementAndGet();
+            signal();
+        }
+    }
+
+
+    /**
+     * Wakes up threads waiting for a delegate, if any.
+     */
+    private void signal() {
+
+        if (waiting > 0) {
+            synchronized (lock) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+
+    private int start() {
+
+        final long id = Thread.currentThread().getId();
+        int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        h ^= h >>> 16;
+
+        return (h & 0x7FFFFFFF) % slots.length();
+    }
+
+
+    private final Factory<T> factory;
+
+
+    private final AtomicReferenceArray<T> slots;
+
+
+    private volatile boolean closed;
+
+
+    /**
+     * The maximum number of live delegates.
+     */
+    private final int maximum;
+
+
+    /**
+     * The number of live delegates.
+     */
+    private final AtomicInteger live = new AtomicInteger();
+
+
+    /**
+     * The monitor of threads waiting for a delegate.
+     */
+    private final Object lock = new Object();
+
+
+    /**
+     * The number of threads waiting on {@link #lock}.
+     */
+    private volatile int waiting;
+
+
+}
+
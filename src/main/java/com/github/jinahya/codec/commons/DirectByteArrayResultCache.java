@@ -0,0 +1,98 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * A {@link ResultCache} for {@code byte[]} inputs and outputs which stores
+ * the keys and values of its entries in direct (off-heap) memory so that
+ * cached results create no objects for the garbage collector to trace. Only
+ * this storage is off-heap; the index of the entries, a {@code long[]} and
+ * an {@code int[]} per segment which grow with the number of entries, is
+ * kept on the heap.
+ * <p>
+ * The memory is split into independently locked segments selected by a
+ * strong, 64-bit hash of the key. Each segment is an arena written as a
+ * circular log: entries, each of which is a header followed by the key and
+ * the value, are appended at the head and the oldest entries are evicted
+ * from the tail when the head needs their space. Each segment indexes its
+ * entries with an open-addressing table of primitive arrays mapping key
+ * hashes to offsets in the arena; lookups compare the stored key with the
+ * given one, so a hash collision never returns a wrong value.
+ * <p>
+ * Values are copied into the arena when stored and out of it when
+ * returned. Entries larger than a segment are rejected. The memory is
+ * released when the cache itself is garbage collected.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class DirectByteArrayResultCache extends ByteArrayLogCache {
+
+
+    /**
+     * The default number of segments.
+     */
+    public static final int DEFAULT_CONCURRENCY = 16;
+
+
+    private static ByteArrayLog[] logs(final long capacity,
+                                       final int concurrency) {
+
+        final ByteArrayLog[] logs =
+            new ByteArrayLog[logCount(capacity, concurrency)];
+        final int logCapacity = (int) (capacity / logs.length);
+        for (int i = 0; i < logs.length; i++) {
+            logs[i] = new ByteArrayLog(
+                ByteBuffer.allocateDirect(logCapacity), false);
+        }
+
+        return logs;
+    }
+
+
+    /**
+     * Creates a new instance with {@link #DEFAULT_CONCURRENCY}.
+     *
+     * @param capacity the number of bytes of direct memory to allocate
+     */
+    public DirectByteArrayResultCache(final long capacity) {
+
+        this(capacity, DEFAULT_CONCURRENCY);
+    }
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param capacity the number of bytes of direct memory to allocate
+     * @param concurrency the expected number of concurrent accessors; rounded
+     * up to a power of two and adjusted so that each segment holds between
+     * 64 KiB and 1 GiB
+     */
+    public DirectByteArrayResultCache(final long capacity,
+                                      final int concurrency) {
+
+        super(logs(capacity, concurrency));
+    }
+
+
+}
+
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.lang.reflect.UndeclaredThrowableException;
+import org.apache.commons.codec.Encoder;
+import org.apache.commons.codec.EncoderException;
+
+
+/**
+ * An implementation of {@link Encoder} which calls the typed methods of a
+ * {@link EncoderProxy} directly instead of going through
+ * {@link java.lang.reflect.Proxy}.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ * @param <P> proxy type parameter
+ */
+class EncoderAdapter<P extends EncoderProxy<?>> implements Encoder {
+
+
+    /**
+     * Translates given {@code thrown} into what a {@link Encoder} method can
+     * throw. Unchecked exceptions are rethrown as they are and undeclared
+     * checked exceptions are wrapped in an
+     * {@link UndeclaredThrowableException} just as
+     * {@link java.lang.reflect.Proxy} does.
+     *
+     * @param thrown the throwable thrown by a proxy method
+     *
+     * @return given {@code thrown} as a {@link EncoderException}
+     */
+    static EncoderException encoderException(final Throwable thrown) {
+
+        if (thrown instanceof RuntimeException) {
+            throw (RuntimeException) thrown;
+        }
+
+        if (thrown instanceof Error) {
+            throw (Error) thrown;
+        }
+
+        if (thrown instanceof EncoderException) {
+            return (EncoderException) thrown;
+        }
+
+        throw new UndeclaredThrowableException(thrown);
+    }
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param proxy the proxy to adapt.
+     */
+    EncoderAdapter(final P proxy) {
+
+        super();
+
+        if (proxy == null) {
+            throw new NullPointerException("proxy");
+        }
+
+        this.proxy = proxy;
+    }
+
+
+    public Object encode(final Object source) throws EncoderException {
+
+        final Measurement measurement = measureStart(source);
+        try {
+            return proxy.measureEnd(measurement, proxy.encode(source));
+        } catch (final Throwable thrown) {
+            throw encoderException(proxy.measureFailure(measurement, thrown));
+        }
+    }
+
+
+    /**
+     * Makes sure the encoder of the proxy is created and starts measuring a
+     * call with given source. The encoder is created first so that, as through
+     * a proxy instance, creating it is neither timed nor recorded as a call.
+     *
+     * @param source the source
+     *
+     * @return the measurement
+     *
+     * @throws EncoderException if failed to create the encoder.
+     */
+    final Measurement measureStart(final Object source)
+        throws EncoderException {
+
+        ensureEncoder();
+
+        return proxy.measureStart(source);
+    }
+
+
+    /**
+     * Makes sure the encoder of the proxy is created and starts measuring a
+     * call with a range of given length.
+     *
+     * @param sourceLength the length of the source range
+     *
+     * @return the measurement
+     *
+     * @throws EncoderException if failed to create the encoder.
+     *
+     * @see #measureStart(Object)
+     */
+    final Measurement measureRangeStart(final int sourceLength)
+        throws EncoderException {
+
+        ensureEncoder();
+
+        return proxy.measureRangeStart(sourceLength);
+    }
+
+
+    private void ensureEncoder() throws EncoderException {
+
+        try {
+            proxy.ensureEncoder();
+        } catch (final Throwable thrown) {
+            throw encoderException(thrown);
+        }
+    }
+
+
+    /**
+     * The proxy adapted.
+     */
+    final P proxy;
+
+
+}
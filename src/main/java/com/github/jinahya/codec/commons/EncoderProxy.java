@@ -19,6 +19,7 @@ package com.github.jinahya.codec.commons;
 
 
 import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 
 
 /**
@@ -64,6 +65,29 @@ public abstract class EncoderProxy<T> extends AbstractEncoderProxy<T> {
     }
 
 
+    static {
+        @SuppressWarnings("unchecked")
+        final Class<EncoderProxy<?>> handlerType =
+            (Class<EncoderProxy<?>>) (Class<?>) EncoderProxy.class;
+        MethodTable.register(
+            ENCODE,
+            new MethodTable.Invoker<EncoderProxy<?>>(handlerType) {
+            @Override
+            Object invoke(final EncoderProxy<?> handler, final Object proxy,
+                          final Object[] args)
+                throws Throwable {
+                return handler.encode(args[0]);
+            }
+        });
+    }
+
+
+    /**
+     * the interfaces which proxy instances implement.
+     */
+    static final Class<?>[] INTERFACES = {ENCODER};
+
+
     /**
      * Creates a new proxy instance for
      * {@link org.apache.commons.codec.Encoder}.
@@ -89,11 +113,82 @@ public abstract class EncoderProxy<T> extends AbstractEncoderProxy<T> {
                 + EncoderProxy.class);
         }
 
-        return newInstance(ENCODER.getClassLoader(), new Class<?>[]{ENCODER},
+        return newInstance(ENCODER.getClassLoader(), INTERFACES,
                            proxyType, encoderType, encoder);
     }
 
 
+    /**
+     * Creates a new adapter instance which implements
+     * {@link org.apache.commons.codec.Encoder} and calls the typed
+     * methods of the proxy directly rather than through
+     * {@link java.lang.reflect.Proxy}.
+     *
+     * @param <P> proxy type parameter
+     * @param <T> encoder type parameter
+     * @param proxyType proxy type
+     * @param encoderType encoder type
+     * @param encoder encoder
+     *
+     * @return a new adapter instance.
+     */
+    protected static <P extends AbstractEncoderProxy<T>, T> Object newAdapter(
+        final Class<P> proxyType, final Class<T> encoderType, final T encoder) {
+
+        if (proxyType == null) {
+            throw new NullPointerException("proxyType");
+        }
+
+        if (!EncoderProxy.class.isAssignableFrom(proxyType)) {
+            throw new IllegalArgumentException(
+                "proxyType(" + proxyType + ") is not assignable to "
+                + EncoderProxy.class);
+        }
+
+        return new EncoderAdapter<EncoderProxy<?>>(
+            (EncoderProxy<?>) newProxy(proxyType, encoderType, encoder));
+    }
+
+
+    /**
+     * Creates a new proxy instance which implements
+     * {@link org.apache.commons.codec.Encoder} with given, already constructed,
+     * {@code proxy} as its handler.
+     *
+     * @param proxy the handler
+     *
+     * @return a new proxy instance.
+     */
+    protected static Object newInstance(final EncoderProxy<?> proxy) {
+
+        if (proxy == null) {
+            throw new NullPointerException("proxy");
+        }
+
+        return Proxy.newProxyInstance(
+            ENCODER.getClassLoader(),
+            INTERFACES, proxy);
+    }
+
+
+    /**
+     * Creates a new adapter instance for given, already constructed,
+     * {@code proxy}.
+     *
+     * @param proxy the proxy
+     *
+     * @return a new adapter instance.
+     */
+    protected static Object newAdapter(final EncoderProxy<?> proxy) {
+
+        if (proxy == null) {
+            throw new NullPointerException("proxy");
+        }
+
+        return new EncoderAdapter<EncoderProxy<?>>(proxy);
+    }
+
+
     /**
      * Creates a new instance.
      *
@@ -110,11 +205,23 @@ public abstract class EncoderProxy<T> extends AbstractEncoderProxy<T> {
                          final Object[] args)
         throws Throwable {
 
-        if (ENCODE.equals(method)) {
-            return encode(args[0]);
+        final MethodTable.Invoker<?> invoker =
+            MethodTable.invoker(this, method);
+        if (!invoker.isMeasured()) {
+            // Object methods and the like don't need the encoder
+            return MethodTable.invoke(invoker, this, proxy, args);
         }
 
-        throw new UnsupportedOperationException("unsupported: " + method);
+        ensureEncoder();
+
+        final Measurement measurement = measureStart(invoker, args);
+        try {
+            return measureEnd(
+                measurement, invoker,
+                MethodTable.invoke(invoker, this, proxy, args));
+        } catch (final Throwable thrown) {
+            throw measureFailure(measurement, thrown);
+        }
     }
 
 
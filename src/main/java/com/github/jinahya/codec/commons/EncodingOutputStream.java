@@ -0,0 +1,252 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import org.apache.commons.codec.BinaryEncoder;
+import org.apache.commons.codec.EncoderException;
+
+
+/**
+ * An output stream which encodes bytes written to it in bounded chunks and
+ * writes encoded bytes to an underlying output stream.
+ * <p>
+ * The encoder must encode each block of {@code blockSize} bytes independently
+ * of the bytes around it, so that a chunk of any number of whole blocks can be
+ * encoded on its own. Bytes of a partial block are carried over to the next
+ * chunk and the final, possibly partial, block is encoded when this stream is
+ * closed. The memory used is thus bounded by the buffer size regardless of
+ * the number of bytes written.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class EncodingOutputStream extends FilterOutputStream {
+
+
+    /**
+     * The default buffer size.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+
+    /**
+     * Creates a new instance with {@link #DEFAULT_BUFFER_SIZE}.
+     *
+     * @param out the underlying output stream
+     * @param encoder the encoder
+     * @param blockSize the number of bytes the encoder encodes independently
+     */
+    public EncodingOutputStream(final OutputStream out,
+                                final BinaryEncoder encoder,
+                                final int blockSize) {
+
+        this(out, encoder, blockSize, DEFAULT_BUFFER_SIZE);
+    }
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param out the underlying output stream
+     * @param encoder the encoder
+     * @param blockSize the number of bytes the encoder encodes independently
+     * @param bufferSize the number of bytes to buffer; rounded down to a
+     * multiple of {@code blockSize} but not less than {@code blockSize}
+     */
+    public EncodingOutputStream(final OutputStream out,
+                                final BinaryEncoder encoder,
+                                final int blockSize, final int bufferSize) {
+
+        super(out);
+
+        if (out == null) {
+            throw new NullPointerException("out");
+        }
+
+        if (encoder == null) {
+            throw new NullPointerException("encoder");
+        }
+
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException(
+                "blockSize(" + blockSize + ") <= 0");
+        }
+
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException(
+                "bufferSize(" + bufferSize + ") <= 0");
+        }
+
+        this.encoder = encoder;
+        this.blockSize = blockSize;
+
+        buffer = new byte[Math.max(blockSize,
+                                   bufferSize / blockSize * blockSize)];
+    }
+
+
+    @Override
+    public void write(final int b) throws IOException {
+
+        ensureOpen();
+
+        buffer[count++] = (byte) b;
+        if (count == buffer.length) {
+            encode(count);
+        }
+    }
+
+
+    @Override
+    public void write(final byte[] b, int off, int len) throws IOException {
+
+        if (b == null) {
+            throw new NullPointerException("b");
+        }
+
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        ensureOpen();
+
+        while (len > 0) {
+            final int copied = Math.min(len, buffer.length - count);
+            System.arraycopy(b, off, buffer, count, copied);
+            count += copied;
+            off += copied;
+            len -= copied;
+            if (count == buffer.length) {
+                encode(count);
+            }
+        }
+    }
+
+
+    /**
+     * Encodes and writes all buffered whole blocks and flushes the underlying
+     * output stream. Bytes of a partial block remain buffered.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    @Override
+    public void flush() throws IOException {
+
+        ensureOpen();
+
+        encode(count / blockSize * blockSize);
+        out.flush();
+    }
+
+
+    /**
+     * Encodes and writes all buffered bytes, including the final partial
+     * block, and closes the underlying output stream.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    @Override
+    public void close() throws IOException {
+
+        if (closed) {
+            return;
+        }
+
+        try {
+            encode(count);
+            out.flush();
+        } finally {
+            closed = true;
+            out.close();
+        }
+    }
+
+
+    /**
+     * Encodes and writes first {@code length} buffered bytes and moves the
+     * rest to the start of the buffer.
+     *
+     * @param length the number of bytes to encode
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    private void encode(final int length) throws IOException {
+
+        if (length == 0) {
+            return;
+        }
+
+        final byte[] source = new byte[length];
+        System.arraycopy(buffer, 0, source, 0, length);
+
+        final byte[] encoded;
+        try {
+            encoded = encoder.encode(source);
+        } catch (final EncoderException ee) {
+            throw (IOException) new IOException(ee.getMessage()).initCause(ee);
+        }
+
+        out.write(encoded);
+
+        count -= length;
+        System.arraycopy(buffer, length, buffer, 0, count);
+    }
+
+
+    private void ensureOpen() throws IOException {
+
+        if (closed) {
+            throw new IOException("closed");
+        }
+    }
+
+
+    /**
+     * The encoder.
+     */
+    private final BinaryEncoder encoder;
+
+
+    /**
+     * The number of bytes the encoder encodes independently.
+     */
+    private final int blockSize;
+
+
+    /**
+     * The buffer of bytes to encode.
+     */
+    private final byte[] buffer;
+
+
+    /**
+     * The number of bytes in {@link #buffer}.
+     */
+    private int count;
+
+
+    /**
+     * A flag for closed state.
+     */
+    private boolean closed;
+
+
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+import org.apache.commons.codec.EncoderException;
+
+
+/**
+ * A writable byte channel which encodes bytes written to it and writes
+ * encoded bytes to an underlying channel.
+ * <p>
+ * Whole blocks of a buffer passed to {@link #write(ByteBuffer)} are encoded
+ * in place, without being copied, whenever no bytes are pending. Otherwise
+ * bytes are collected in an internal buffer which is reused for the lifetime
+ * of this channel. See {@link EncodingOutputStream} for the block contract.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class EncodingWritableByteChannel implements WritableByteChannel {
+
+
+    /**
+     * The default buffer size.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+
+    /**
+     * Creates a new instance with {@link #DEFAULT_BUFFER_SIZE}.
+     *
+     * @param channel the underlying channel
+     * @param encoder the encoder
+     * @param blockSize the number of bytes the encoder encodes independently
+     */
+    public EncodingWritableByteChannel(final WritableByteChannel channel,
+                                       final ByteBufferEncoder encoder,
+                                       final int blockSize) {
+
+        this(channel, encoder, blockSize, DEFAULT_BUFFER_SIZE);
+    }
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param channel the underlying channel
+     * @param encoder the encoder
+     * @param blockSize the number of bytes the encoder encodes independently
+     * @param bufferSize the number of bytes to buffer; rounded down to a
+     * multiple of {@code blockSize} but not less than {@code blockSize}
+     */
+    public EncodingWritableByteChannel(final WritableByteChannel channel,
+                                       final ByteBufferEncoder encoder,
+                                       final int blockSize,
+                                       final int bufferSize) {
+
+        super();
+
+        if (channel == null) {
+            throw new NullPointerException("channel");
+        }
+
+        if (encoder == null) {
+            throw new NullPointerException("encoder");
+        }
+
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException(
+                "blockSize(" + blockSize + ") <= 0");
+        }
+
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException(
+                "bufferSize(" + bufferSize + ") <= 0");
+        }
+
+        this.channel = channel;
+        this.encoder = encoder;
+        this.blockSize = blockSize;
+
+        buffer = ByteBuffer.allocateDirect(
+            Math.max(blockSize, bufferSize / blockSize * blockSize));
+    }
+
+
+    public int write(final ByteBuffer src) throws IOException {
+
+        if (src == null) {
+            throw new NullPointerException("src");
+        }
+
+        ensureOpen();
+
+        final int remaining = src.remaining();
+
+        while (src.hasRemaining()) {
+            if (buffer.position() == 0 && src.remaining() >= blockSize) {
+                final ByteBuffer blocks = src.slice();
+                blocks.limit(src.remaining() / blockSize * blockSize);
+                src.position(src.position() + blocks.limit());
+                encode(blocks);
+                continue;
+            }
+            final int copied = Math.min(src.remaining(), buffer.remaining());
+            final ByteBuffer copying = src.slice();
+            copying.limit(copied);
+            buffer.put(copying);
+            src.position(src.position() + copied);
+            if (!buffer.hasRemaining()) {
+                buffer.flip();
+                encode(buffer);
+                buffer.clear();
+            }
+        }
+
+        return remaining;
+    }
+
+
+    public boolean isOpen() {
+
+        return !closed;
+    }
+
+
+    /**
+     * Encodes and writes all pending bytes, including the final partial
+     * block, and closes the underlying channel.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    public void close() throws IOException {
+
+        if (closed) {
+            return;
+        }
+
+        try {
+            buffer.flip();
+            encode(buffer);
+        } finally {
+            closed = true;
+            channel.close();
+        }
+    }
+
+
+    /**
+     * Encodes the remaining bytes of given buffer and writes encoded bytes
+     * fully to the underlying channel.
+     *
+     * @param source the buffer to encode
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    private void encode(final ByteBuffer source) throws IOException {
+
+        if (!source.hasRemaining()) {
+            return;
+        }
+
+        final ByteBuffer encoded;
+        try {
+            encoded = encoder.encode(source);
+        } catch (final EncoderException ee) {
+            throw (IOException) new IOException(ee.getMessage()).initCause(ee);
+        }
+
+        while (encoded.hasRemaining()) {
+            channel.write(encoded);
+        }
+    }
+
+
+    private void ensureOpen() throws IOException {
+
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+    }
+
+
+    /**
+     * The underlying channel.
+     */
+    private final WritableByteChannel channel;
+
+
+    /**
+     * The encoder.
+     */
+    private final ByteBufferEncoder encoder;
+
+
+    /**
+     * The number of bytes the encoder encodes independently.
+     */
+    private final int blockSize;
+
+
+    /**
+     * The buffer of pending bytes.
+     */
+    private final ByteBuffer buffer;
+
+
+    /**
+     * A flag for closed state.
+     */
+    private boolean closed;
+
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+/**
+ * A count-min sketch estimating how often hashes have been seen recently.
+ * Counters saturate at {@value #MAXIMUM_COUNT} and all of them are halved
+ * once the number of increments reaches a sample size proportional to the
+ * capacity, so that the estimates favor recent popularity. Instances are
+ * not thread-safe.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+final class FrequencySketch {
+
+
+    /**
+     * The maximum value of each counter.
+     */
+    static final int MAXIMUM_COUNT = 15;
+
+
+    /**
+     * The multipliers for deriving one index per row from a hash.
+     */
+    private static final int[] SEEDS = {
+        0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F
+    };
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param capacity the maximum number of entries of the cache using the
+     * new sketch
+     */
+    FrequencySketch(final int capacity) {
+
+        super();
+
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(
+                "capacity(" + capacity + ") <= 0");
+        }
+
+        int width = 16;
+        while (width < capacity && width < (1 << 24)) {
+            width <<= 1;
+        }
+        this.width = width;
+        table = new byte[SEEDS.length * width];
+        sampleSize = (int) Math.min(10L * capacity, Integer.MAX_VALUE);
+    }
+
+
+    /**
+     * Records an occurrence of given hash.
+     *
+     * @param hash the hash
+     */
+    void increment(final int hash) {
+
+        for (int i = 0; i < SEEDS.length; i++) {
+            final int index = index(hash, i);
+            if (table[index] < MAXIMUM_COUNT) {
+                table[index]++;
+            }
+        }
+
+        if (++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+
+    /**
+     * Returns the estimated number of recent occurrences of given hash.
+     *
+     * @param hash the hash
+     *
+     * @return the estimated frequency
+     */
+    int frequency(final int hash) {
+
+        int frequency = MAXIMUM_COUNT;
+        for (int i = 0; i < SEEDS.length; i++) {
+            frequency = Math.min(frequency, table[index(hash, i)]);
+        }
+
+        return frequency;
+    }
+
+
+    /**
+     * Halves all counters.
+     */
+    private void reset() {
+
+        for (int i = 0; i < table.length; i++) {
+            table[i] >>>= 1;
+        }
+        additions >>>= 1;
+    }
+
+
+    private int index(final int hash, final int row) {
+
+        int h = hash * SEEDS[row];
+        h ^= h >>> 16;
+
+        return row * width + (h & (width - 1));
+    }
+
+
+    private final int width;
+
+
+    private final byte[] table;
+
+
+    private final int sampleSize;
+
+
+    private int additions;
+
+
+}
+
@@ -0,0 +1,299 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * A size-bounded, in-memory {@link ResultCache} with least-recently-used
+ * eviction and a frequency-aware (TinyLFU) admission policy.
+ * <p>
+ * Entries are spread over independently locked segments by the hashes of
+ * their keys. Each segment keeps its entries in access order along with a
+ * {@link FrequencySketch} of the keys recently looked up. When a full
+ * segment is offered a new entry, the entry is admitted, evicting the least
+ * recently used one, only if its key has been looked up more often than the
+ * key of the victim; otherwise the new entry is rejected. One-off inputs
+ * therefore can't flush frequently used results out of the cache.
+ * <p>
+ * Keys must implement {@link Object#hashCode()} and
+ * {@link Object#equals(Object)} by content; see {@link ByteArrayResultCache}
+ * for {@code byte[]} keys.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ * @param <K> key type parameter
+ * @param <V> value type parameter
+ */
+public class LfuResultCache<K, V> implements ResultCache<K, V> {
+
+
+    /**
+     * The default number of segments.
+     */
+    public static final int DEFAULT_CONCURRENCY = 16;
+
+
+    /**
+     * The minimum number of entries of a segment.
+     */
+    private static final int MINIMUM_SEGMENT_CAPACITY = 16;
+
+
+    private static int spread(final int hashCode) {
+
+        final int h = hashCode * 0x9E3779B9;
+
+        return h ^ (h >>> 16);
+    }
+
+
+    /**
+     * Creates a new instance with {@link #DEFAULT_CONCURRENCY}.
+     *
+     * @param capacity the maximum number of entries
+     */
+    public LfuResultCache(final int capacity) {
+
+        this(capacity, DEFAULT_CONCURRENCY);
+    }
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param capacity the maximum number of entries
+     * @param concurrency the expected number of concurrent accessors; rounded
+     * up to a power of two and capped so that each segment holds at least
+     * {@value #MINIMUM_SEGMENT_CAPACITY} entries
+     */
+    public LfuResultCache(final int capacity, final int concurrency) {
+
+        super();
+
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(
+                "capacity(" + capacity + ") <= 0");
+        }
+
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException(
+                "concurrency(" + concurrency + ") <= 0");
+        }
+
+        int count = 1;
+        while (count < concurrency && count < (1 << 16)
+               && (count << 1) * MINIMUM_SEGMENT_CAPACITY <= capacity) {
+            count <<= 1;
+        }
+        // arrays of generic types can't be created; every element is set to
+        // a Segment<K, V> below and the array never leaves this instance
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        final Segment<K, V>[] created = new Segment[count];
+        segments = created;
+        final int segmentCapacity = (capacity + count - 1) / count;
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment<K, V>(segmentCapacity);
+        }
+        this.capacity = capacity;
+    }
+
+
+    public V get(final K key) {
+
+        if (key == null) {
+            throw new NullPointerException("key");
+        }
+
+        final int hash = spread(key.hashCode());
+
+        return segment(hash).get(key, hash);
+    }
+
+
+    public void put(final K key, final V value) {
+
+        if (key == null) {
+            throw new NullPointerException("key");
+        }
+
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+
+        final int hash = spread(key.hashCode());
+
+        segment(hash).put(key, hash, value);
+    }
+
+
+    public void clear() {
+
+        for (final Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.entries.clear();
+            }
+        }
+    }
+
+
+    public ResultCacheStats getStats() {
+
+        long hitCount = 0L;
+        long missCount = 0L;
+        long evictionCount = 0L;
+        long rejectionCount = 0L;
+        for (final Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                hitCount += segment.hitCount;
+                missCount += segment.missCount;
+                evictionCount += segment.evictionCount;
+                rejectionCount += segment.rejectionCount;
+            }
+        }
+
+        return new ResultCacheStats(
+            hitCount, missCount, evictionCount, rejectionCount);
+    }
+
+
+    /**
+     * Returns the maximum number of entries.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+
+        return capacity;
+    }
+
+
+    /**
+     * Returns the current number of entries.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+
+        int size = 0;
+        for (final Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.entries.size();
+            }
+        }
+
+        return size;
+    }
+
+
+    private Segment<K, V> segment(final int hash) {
+
+        return segments[(hash >>> 16) & (segments.length - 1)];
+    }
+
+
+    /**
+     * A lock-guarded portion of the cache.
+     *
+     * @param <K> key type parameter
+     * @param <V> value type parameter
+     */
+    private static final class Segment<K, V> {
+
+
+        Segment(final int capacity) {
+
+            super();
+
+            this.capacity = capacity;
+            entries = new LinkedHashMap<K, V>(16, .75f, true);
+            sketch = new FrequencySketch(capacity);
+        }
+
+
+        synchronized V get(final K key, final int hash) {
+
+            sketch.increment(hash);
+
+            final V value = entries.get(key);
+            if (value == null) {
+                missCount++;
+            } else {
+                hitCount++;
+            }
+
+            return value;
+        }
+
+
+        synchronized void put(final K key, final int hash, final V value) {
+
+            if (entries.size() < capacity || entries.containsKey(key)) {
+                entries.put(key, value);
+                return;
+            }
+
+            final Iterator<Map.Entry<K, V>> i = entries.entrySet().iterator();
+            final K victim = i.next().getKey();
+            if (sketch.frequency(hash)
+                <= sketch.frequency(spread(victim.hashCode()))) {
+                rejectionCount++;
+                return;
+            }
+
+            i.remove();
+            evictionCount++;
+            entries.put(key, value);
+        }
+
+
+        private final int capacity;
+
+
+        private final LinkedHashMap<K, V> entries;
+
+
+        private final FrequencySketch sketch;
+
+
+        private long hitCount;
+
+
+        private long missCount;
+
+
+        private long evictionCount;
+
+
+        private long rejectionCount;
+
+
+    }
+
+
+    private final Segment<K, V>[] segments;
+
+
+    private final int capacity;
+
+
+}
+
@@ -0,0 +1,342 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+
+
+/**
+ * A {@link ResultCache} for {@code byte[]} inputs and outputs whose entries
+ * are kept in a memory-mapped file and survive restarts of the process.
+ * <p>
+ * The file is laid out like the memory of a
+ * {@link DirectByteArrayResultCache}, after a header which records the
+ * layout and a version. When a file is opened, the entries written by an
+ * earlier process are indexed again, so the cache is warm right away. A file
+ * whose header doesn't match the requested layout or version, or whose
+ * entries are inconsistent, is cleared. Use {@link #version(Class)} to key
+ * the version to the delegate type so that a change of its code invalidates
+ * the entries.
+ * <p>
+ * Changes reach the file when the operating system writes the mapped pages
+ * back; {@link #flush()} and {@link #close()} force them. A file is locked
+ * while it is open so that it is never shared by more than one cache, even
+ * when an old and a new process overlap during a deploy; opening a file
+ * which is locked fails rather than waits.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class MappedByteArrayResultCache extends ByteArrayLogCache
+    implements Closeable {
+
+
+    /**
+     * The default number of segments.
+     */
+    public static final int DEFAULT_CONCURRENCY =
+        DirectByteArrayResultCache.DEFAULT_CONCURRENCY;
+
+
+    private static final long MAGIC = 0x434F44454343484CL; // "CODECCHL"
+
+
+    private static final int FORMAT = 2;
+
+
+    private static final int FILE_HEADER_SIZE = 32;
+
+
+    /**
+     * Returns a version of given type which changes whenever its name or its
+     * class file changes. Note that changes of classes which the type only
+     * depends on are not detected; use an explicit version for those.
+     *
+     * @param type the type
+     *
+     * @return a version of {@code type}
+     */
+    public static String version(final Class<?> type) {
+
+        if (type == null) {
+            throw new NullPointerException("type");
+        }
+
+        final String name = type.getName();
+        final String resource = name.replace('.', '/') + ".class";
+        final ClassLoader loader = type.getClassLoader();
+        final InputStream input =
+            loader == null ? ClassLoader.getSystemResourceAsStream(resource)
+            : loader.getResourceAsStream(resource);
+        if (input == null) {
+            return name;
+        }
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            try {
+                final byte[] buffer = new byte[8192];
+                for (int read; (read = input.read(buffer)) != -1;) {
+                    output.write(buffer, 0, read);
+                }
+            } finally {
+                input.close();
+            }
+        } catch (final IOException ioe) {
+            return name;
+        }
+
+        return name + "@"
+               + Long.toHexString(ByteArrayLog.hash(output.toByteArray()));
+    }
+
+
+    /**
+     * Opens a cache file whose version is keyed to given delegate type.
+     *
+     * @param file the file
+     * @param capacity the number of bytes of the entries
+     * @param delegateType the type of the delegate whose outputs are cached
+     *
+     * @return an open cache
+     *
+     * @throws IOException if an I/O error occurs.
+     *
+     * @see #version(Class)
+     */
+    public static MappedByteArrayResultCache open(
+        final File file, final long capacity, final Class<?> delegateType)
+        throws IOException {
+
+        return new MappedByteArrayResultCache(
+            file, capacity, DEFAULT_CONCURRENCY, version(delegateType));
+    }
+
+
+    /**
+     * Maps all logs of given file, reusing the existing entries if the file
+     * header matches.
+     */
+    private static ByteArrayLog[] logs(final FileChannel channel,
+                                       final RandomAccessFile raf,
+                                       final long capacity,
+                                       final int concurrency,
+                                       final long version)
+        throws IOException {
+
+        final ByteArrayLog[] logs =
+            new ByteArrayLog[logCount(capacity, concurrency)];
+        final int logCapacity = (int) (capacity / logs.length);
+        final long length = FILE_HEADER_SIZE + (long) logCapacity * logs.length;
+
+        final MappedByteBuffer header = channel.map(
+            FileChannel.MapMode.READ_WRITE, 0L, FILE_HEADER_SIZE);
+        final boolean recover = raf.length() == length
+                                && header.getLong(0) == MAGIC
+                                && header.getInt(8) == FORMAT
+                                && header.getInt(12) == logs.length
+                                && header.getInt(16) == logCapacity
+                                && header.getLong(24) == version;
+        if (!recover) {
+            raf.setLength(FILE_HEADER_SIZE);
+            raf.setLength(length);
+            header.putLong(0, 0L); // invalid until all logs are cleared
+            header.force();
+        }
+
+        for (int i = 0; i < logs.length; i++) {
+            final ByteBuffer arena = channel.map(
+                FileChannel.MapMode.READ_WRITE,
+                FILE_HEADER_SIZE + (long) logCapacity * i, logCapacity);
+            logs[i] = new ByteArrayLog(arena, recover);
+        }
+
+        if (!recover) {
+            header.putInt(8, FORMAT);
+            header.putInt(12, logs.length);
+            header.putInt(16, logCapacity);
+            header.putLong(24, version);
+            header.putLong(0, MAGIC);
+            header.force();
+        }
+
+        return logs;
+    }
+
+
+    /**
+     * Opens a cache file with {@link #DEFAULT_CONCURRENCY}.
+     *
+     * @param file the file
+     * @param capacity the number of bytes of the entries
+     * @param version the version of the entries
+     *
+     * @throws IOException if an I/O error occurs or the file is locked by
+     * another cache.
+     */
+    public MappedByteArrayResultCache(final File file, final long capacity,
+                                      final String version)
+        throws IOException {
+
+        this(file, capacity, DEFAULT_CONCURRENCY, version);
+    }
+
+
+    /**
+     * Opens a cache file. The layout of the file depends on
+     * {@code capacity} and {@code concurrency}; changing either of them
+     * clears the file.
+     *
+     * @param file the file
+     * @param capacity the number of bytes of the entries
+     * @param concurrency the expected number of concurrent accessors
+     * @param version the version of the entries
+     *
+     * @throws IOException if an I/O error occurs or the file is locked by
+     * another cache.
+     */
+    public MappedByteArrayResultCache(final File file, final long capacity,
+                                      final int concurrency,
+                                      final String version)
+        throws IOException {
+
+        this(new RandomAccessFile(file, "rw"), capacity, concurrency,
+             version);
+    }
+
+
+    private MappedByteArrayResultCache(final RandomAccessFile raf,
+                                       final long capacity,
+                                       final int concurrency,
+                                       final String version)
+        throws IOException {
+
+        this(raf, lock(raf), capacity, concurrency, version);
+    }
+
+
+    private MappedByteArrayResultCache(final RandomAccessFile raf,
+                                       final FileLock lock,
+                                       final long capacity,
+                                       final int concurrency,
+                                       final String version)
+        throws IOException {
+
+        super(logs(raf, capacity, concurrency, version));
+
+        this.raf = raf;
+        this.lock = lock;
+    }
+
+
+    /**
+     * Locks given file exclusively, closing it if failed.
+     */
+    private static FileLock lock(final RandomAccessFile raf)
+        throws IOException {
+
+        FileLock lock = null;
+        try {
+            lock = raf.getChannel().tryLock();
+        } catch (final OverlappingFileLockException ofle) {
+            // locked by another cache of this process
+        } finally {
+            if (lock == null) {
+                raf.close();
+            }
+        }
+        if (lock == null) {
+            throw new IOException("locked by another cache");
+        }
+
+        return lock;
+    }
+
+
+    private static ByteArrayLog[] logs(final RandomAccessFile raf,
+                                       final long capacity,
+                                       final int concurrency,
+                                       final String version)
+        throws IOException {
+
+        try {
+            if (version == null) {
+                throw new NullPointerException("version");
+            }
+            return logs(raf.getChannel(), raf, capacity, concurrency,
+                        ByteArrayLog.hash(StringResultCache.bytes(version)));
+        } catch (final IOException ioe) {
+            raf.close();
+            throw ioe;
+        } catch (final RuntimeException re) {
+            raf.close();
+            throw re;
+        }
+    }
+
+
+    /**
+     * Forces the changes of the entries to the file.
+     */
+    public void flush() {
+
+        force();
+    }
+
+
+    /**
+     * Forces the changes, releases the lock and closes the file. The mapped
+     * memory stays valid until it is garbage collected, but the cache should
+     * not be used after being closed.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    public void close() throws IOException {
+
+        try {
+            flush();
+        } finally {
+            try {
+                if (lock.isValid()) {
+                    lock.release();
+                }
+            } finally {
+                raf.close();
+            }
+        }
+    }
+
+
+    private final RandomAccessFile raf;
+
+
+    private final FileLock lock;
+
+
+}
+
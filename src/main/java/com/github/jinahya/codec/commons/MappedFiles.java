@@ -0,0 +1,213 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.EncoderException;
+
+
+/**
+ * A utility class for encoding or decoding whole files through memory-mapped
+ * regions.
+ * <p>
+ * Each region is mapped with {@link FileChannel#map(FileChannel.MapMode,
+ * long, long)} and passed to the codec as a direct buffer, so a codec which
+ * works on direct buffers reads file contents without copying them. Regions
+ * are multiples of the codec's block size; see {@link EncodingOutputStream}
+ * for the block contract.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public final class MappedFiles {
+
+
+    /**
+     * The default region size.
+     */
+    public static final int DEFAULT_REGION_SIZE = 16 * 1024 * 1024;
+
+
+    /**
+     * Encodes the whole content of given file into given channel with
+     * {@link #DEFAULT_REGION_SIZE}.
+     *
+     * @param source the file to encode
+     * @param target the channel to which encoded bytes are written
+     * @param encoder the encoder
+     * @param blockSize the number of bytes the encoder encodes independently
+     *
+     * @return the number of encoded bytes written
+     *
+     * @throws IOException if an I/O error occurs.
+     * @throws EncoderException if failed to encode.
+     */
+    public static long encode(final FileChannel source,
+                              final WritableByteChannel target,
+                              final ByteBufferEncoder encoder,
+                              final int blockSize)
+        throws IOException, EncoderException {
+
+        return encode(source, target, encoder, blockSize, DEFAULT_REGION_SIZE);
+    }
+
+
+    /**
+     * Encodes the whole content of given file into given channel.
+     *
+     * @param source the file to encode
+     * @param target the channel to which encoded bytes are written
+     * @param encoder the encoder
+     * @param blockSize the number of bytes the encoder encodes independently
+     * @param regionSize the number of bytes to map at once; rounded down to a
+     * multiple of {@code blockSize} but not less than {@code blockSize}
+     *
+     * @return the number of encoded bytes written
+     *
+     * @throws IOException if an I/O error occurs.
+     * @throws EncoderException if failed to encode.
+     */
+    public static long encode(final FileChannel source,
+                              final WritableByteChannel target,
+                              final ByteBufferEncoder encoder,
+                              final int blockSize, final int regionSize)
+        throws IOException, EncoderException {
+
+        if (encoder == null) {
+            throw new NullPointerException("encoder");
+        }
+
+        final long size = source.size();
+        final int region = region(blockSize, regionSize);
+
+        long written = 0L;
+        for (long position = 0L; position < size; position += region) {
+            final ByteBuffer mapped = source.map(
+                FileChannel.MapMode.READ_ONLY, position,
+                Math.min(region, size - position));
+            written += write(target, encoder.encode(mapped));
+        }
+
+        return written;
+    }
+
+
+    /**
+     * Decodes the whole content of given file into given channel with
+     * {@link #DEFAULT_REGION_SIZE}.
+     *
+     * @param source the file to decode
+     * @param target the channel to which decoded bytes are written
+     * @param decoder the decoder
+     * @param blockSize the number of bytes the decoder decodes independently
+     *
+     * @return the number of decoded bytes written
+     *
+     * @throws IOException if an I/O error occurs.
+     * @throws DecoderException if failed to decode.
+     */
+    public static long decode(final FileChannel source,
+                              final WritableByteChannel target,
+                              final ByteBufferDecoder decoder,
+                              final int blockSize)
+        throws IOException, DecoderException {
+
+        return decode(source, target, decoder, blockSize, DEFAULT_REGION_SIZE);
+    }
+
+
+    /**
+     * Decodes the whole content of given file into given channel.
+     *
+     * @param source the file to decode
+     * @param target the channel to which decoded bytes are written
+     * @param decoder the decoder
+     * @param blockSize the number of bytes the decoder decodes independently
+     * @param regionSize the number of bytes to map at once; rounded down to a
+     * multiple of {@code blockSize} but not less than {@code blockSize}
+     *
+     * @return the number of decoded bytes written
+     *
+     * @throws IOException if an I/O error occurs.
+     * @throws DecoderException if failed to decode.
+     */
+    public static long decode(final FileChannel source,
+                              final WritableByteChannel target,
+                              final ByteBufferDecoder decoder,
+                              final int blockSize, final int regionSize)
+        throws IOException, DecoderException {
+
+        if (decoder == null) {
+            throw new NullPointerException("decoder");
+        }
+
+        final long size = source.size();
+        final int region = region(blockSize, regionSize);
+
+        long written = 0L;
+        for (long position = 0L; position < size; position += region) {
+            final ByteBuffer mapped = source.map(
+                FileChannel.MapMode.READ_ONLY, position,
+                Math.min(region, size - position));
+            written += write(target, decoder.decode(mapped));
+        }
+
+        return written;
+    }
+
+
+    private static int region(final int blockSize, final int regionSize) {
+
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException(
+                "blockSize(" + blockSize + ") <= 0");
+        }
+
+        if (regionSize <= 0) {
+            throw new IllegalArgumentException(
+                "regionSize(" + regionSize + ") <= 0");
+        }
+
+        return Math.max(blockSize, regionSize / blockSize * blockSize);
+    }
+
+
+    private static long write(final WritableByteChannel target,
+                              final ByteBuffer buffer)
+        throws IOException {
+
+        long written = 0L;
+        while (buffer.hasRemaining()) {
+            written += target.write(buffer);
+        }
+
+        return written;
+    }
+
+
+    private MappedFiles() {
+
+        super();
+    }
+
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * A call being measured for the {@link ProxyMetrics} and the
+ * {@link ProxyListener} of a proxy. An instance is created only if the proxy
+ * has either of them when the call starts, and the call is recorded to those
+ * same ones when it finishes.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+final class Measurement {
+
+
+    private static final Logger LOGGER =
+        LoggerFactory.getLogger(Measurement.class);
+
+
+    /**
+     * Starts measuring a call.
+     *
+     * @param proxy the proxy
+     * @param metrics the metrics to record to; may be {@code null}
+     * @param listener the listener to notify; may be {@code null}
+     * @param inputUnits the number of units given to the call
+     */
+    Measurement(final Object proxy, final ProxyMetrics metrics,
+                final ProxyListener listener, final long inputUnits) {
+
+        super();
+
+        this.proxy = proxy;
+        this.metrics = metrics;
+        this.listener = listener;
+
+        if (metrics != null) {
+            metrics.started(inputUnits);
+        }
+
+        Object started = null;
+        if (listener != null) {
+            try {
+                started = listener.callStarted(proxy, inputUnits);
+            } catch (final RuntimeException re) {
+                LOGGER.warn("failed to notify {}", listener, re);
+            }
+        }
+        context = started;
+
+        start = System.nanoTime();
+    }
+
+
+    /**
+     * Finishes measuring the call which succeeded.
+     *
+     * @param outputUnits the number of units returned by the call
+     */
+    void succeeded(final long outputUnits) {
+
+        final long nanos = System.nanoTime() - start;
+
+        if (metrics != null) {
+            metrics.succeeded(nanos, outputUnits);
+        }
+
+        finished(outputUnits, null);
+    }
+
+
+    /**
+     * Finishes measuring the call which threw given {@code thrown}.
+     *
+     * @param thrown the throwable
+     */
+    void failed(final Throwable thrown) {
+
+        final long nanos = System.nanoTime() - start;
+
+        if (metrics != null) {
+            metrics.failed(nanos);
+        }
+
+        finished(0L, thrown);
+    }
+
+
+    private void finished(final long outputUnits, final Throwable thrown) {
+
+        if (listener == null) {
+            return;
+        }
+
+        try {
+            listener.callFinished(proxy, context, outputUnits, thrown);
+        } catch (final RuntimeException re) {
+            LOGGER.warn("failed to notify {}", listener, re);
+        }
+    }
+
+
+    private final Object proxy;
+
+
+    private final ProxyMetrics metrics;
+
+
+    private final ProxyListener listener;
+
+
+    /**
+     * The context returned by the listener.
+     */
+    private final Object context;
+
+
+    /**
+     * The start time in nanoseconds.
+     */
+    private final long start;
+
+
+}
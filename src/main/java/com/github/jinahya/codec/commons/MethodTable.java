@@ -0,0 +1,327 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+
+/**
+ * A dispatch table which maps interface methods to {@link Invoker}s.
+ * <p>
+ * Each proxy type registers invokers for the methods of its interface while
+ * its class is initialized. {@link java.lang.reflect.Proxy} classes hand their
+ * own copies of those methods to invocation handlers, so each copy is
+ * resolved once with {@link Method#equals(Object)} and then found by
+ * identity on every following invocation.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+final class MethodTable {
+
+
+    /**
+     * An invoker for a single method.
+     *
+     * @param <H> invocation handler type parameter
+     */
+    abstract static class Invoker<H> {
+
+
+        /**
+         * Creates a new instance.
+         *
+         * @param handlerType the handler type this invoker accepts.
+         */
+        Invoker(final Class<H> handlerType) {
+
+            super();
+
+            if (handlerType == null) {
+                throw new NullPointerException("handlerType");
+            }
+
+            this.handlerType = handlerType;
+        }
+
+
+        /**
+         * Invokes the method on given {@code handler}.
+         *
+         * @param handler the invocation handler
+         * @param proxy the proxy instance
+         * @param args the arguments
+         *
+         * @return the result of the invocation
+         *
+         * @throws Throwable if an error occurs.
+         */
+        abstract Object invoke(H handler, Object proxy, Object[] args)
+            throws Throwable;
+
+
+        /**
+         * Tells whether invocations of the method are recorded to the
+         * {@link ProxyMetrics} and notified to the {@link ProxyListener} of
+         * the handler. The default implementation returns {@code true}.
+         *
+         * @return {@code true} if recorded; {@code false} otherwise.
+         */
+        boolean isMeasured() {
+
+            return true;
+        }
+
+
+        /**
+         * Returns the number of units given to the invocation. The default
+         * implementation counts the units of the first argument.
+         *
+         * @param args the arguments
+         *
+         * @return the number of units given
+         *
+         * @see ProxyMetrics#units(Object)
+         */
+        long inputUnits(final Object[] args) {
+
+            return args == null || args.length == 0
+                   ? 0L : ProxyMetrics.units(args[0]);
+        }
+
+
+        /**
+         * Returns the number of units returned by the invocation. The
+         * default implementation counts the units of the result.
+         *
+         * @param result the result of the invocation
+         *
+         * @return the number of units returned
+         *
+         * @see ProxyMetrics#units(Object)
+         */
+        long outputUnits(final Object result) {
+
+            return ProxyMetrics.units(result);
+        }
+
+
+        /**
+         * The handler type this invoker accepts.
+         */
+        final Class<H> handlerType;
+
+
+    }
+
+
+    /**
+     * Registers an invoker for given method.
+     *
+     * @param method the method
+     * @param invoker the invoker
+     */
+    static synchronized void register(final Method method,
+                                      final Invoker<?> invoker) {
+
+        if (method == null) {
+            throw new NullPointerException("method");
+        }
+
+        if (invoker == null) {
+            throw new NullPointerException("invoker");
+        }
+
+        final Map<Method, Invoker<?>> copy =
+            new HashMap<Method, Invoker<?>>(registered);
+        copy.put(method, invoker);
+        registered = copy;
+
+        resolved = new IdentityHashMap<Method, Invoker<?>>();
+    }
+
+
+    /**
+     * Resolves the invoker for given method and caches it by identity.
+     *
+     * @param method the method
+     *
+     * @return the invoker for the method or {@code null} if not registered.
+     */
+    private static synchronized Invoker<?> resolve(final Method method) {
+
+        Invoker<?> invoker = resolved.get(method);
+        if (invoker != null) {
+            return invoker;
+        }
+
+        invoker = registered.get(method);
+        if (invoker == null) {
+            return null;
+        }
+
+        final Map<Method, Invoker<?>> copy =
+            new IdentityHashMap<Method, Invoker<?>>(resolved);
+        copy.put(method, invoker);
+        resolved = copy;
+
+        return invoker;
+    }
+
+
+    /**
+     * Invokes given {@code method} on given {@code handler}.
+     *
+     * @param handler the invocation handler
+     * @param proxy the proxy instance
+     * @param method the method
+     * @param args the arguments
+     *
+     * @return the result of the invocation
+     *
+     * @throws Throwable if an error occurs.
+     */
+    static Object invoke(final Object handler, final Object proxy,
+                         final Method method, final Object[] args)
+        throws Throwable {
+
+        return invoke(invoker(handler, method), handler, proxy, args);
+    }
+
+
+    /**
+     * Returns the invoker of given {@code method} for given {@code handler}.
+     *
+     * @param handler the invocation handler
+     * @param method the method
+     *
+     * @return the invoker
+     *
+     * @throws UnsupportedOperationException if no invoker is registered for
+     * the method or the invoker doesn't accept the handler.
+     */
+    static Invoker<?> invoker(final Object handler, final Method method) {
+
+        Invoker<?> invoker = resolved.get(method);
+        if (invoker == null) {
+            invoker = resolve(method);
+        }
+
+        if (invoker == null || !invoker.handlerType.isInstance(handler)) {
+            throw new UnsupportedOperationException("unsupported: " + method);
+        }
+
+        return invoker;
+    }
+
+
+    /**
+     * Invokes given {@code invoker} on given {@code handler}.
+     *
+     * @param <H> invocation handler type parameter
+     * @param invoker the invoker returned by {@link #invoker(Object, Method)}
+     * @param handler the invocation handler
+     * @param proxy the proxy instance
+     * @param args the arguments
+     *
+     * @return the result of the invocation
+     *
+     * @throws Throwable if an error occurs.
+     */
+    static <H> Object invoke(final Invoker<H> invoker, final Object handler,
+                             final Object proxy, final Object[] args)
+        throws Throwable {
+
+        return invoker.invoke(
+            invoker.handlerType.cast(handler), proxy, args);
+    }
+
+
+    /**
+     * Invokers for methods registered; mapped by {@link Method#equals(Object)}.
+     */
+    private static volatile Map<Method, Invoker<?>> registered =
+        new HashMap<Method, Invoker<?>>();
+
+
+    /**
+     * Invokers for methods resolved; mapped by identity.
+     */
+    private static volatile Map<Method, Invoker<?>> resolved =
+        new IdentityHashMap<Method, Invoker<?>>();
+
+
+    static {
+        try {
+            register(Object.class.getMethod("hashCode"),
+                     new Invoker<Object>(Object.class) {
+                @Override
+                Object invoke(final Object handler, final Object proxy,
+                              final Object[] args) {
+                    return System.identityHashCode(proxy);
+                }
+
+                @Override
+                boolean isMeasured() {
+                    return false;
+                }
+            });
+            register(Object.class.getMethod("equals", Object.class),
+                     new Invoker<Object>(Object.class) {
+                @Override
+                Object invoke(final Object handler, final Object proxy,
+                              final Object[] args) {
+                    return proxy == args[0];
+                }
+
+                @Override
+                boolean isMeasured() {
+                    return false;
+                }
+            });
+            register(Object.class.getMethod("toString"),
+                     new Invoker<Object>(Object.class) {
+                @Override
+                Object invoke(final Object handler, final Object proxy,
+                              final Object[] args) {
+                    final String hash =
+                        Integer.toHexString(System.identityHashCode(proxy));
+                    return handler.getClass().getName() + "@" + hash;
+                }
+
+                @Override
+                boolean isMeasured() {
+                    return false;
+                }
+            });
+        } catch (final NoSuchMethodException nsme) {
+            throw new InstantiationError(nsme.getMessage());
+        }
+    }
+
+
+    private MethodTable() {
+
+        super();
+    }
+
+
+}
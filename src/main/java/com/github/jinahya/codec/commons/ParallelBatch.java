@@ -0,0 +1,166 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+
+/**
+ * A utility class for running a batch of indexed work across the threads of
+ * an {@link Executor}.
+ * <p>
+ * A batch of {@code length} elements is split into flat, contiguous
+ * partitions of at least {@code threshold} elements each, at most one per
+ * available processor. The calling thread and the helpers submitted to the
+ * executor claim partitions one by one until none is left, so the calling
+ * thread only waits for partitions which are actually running; a saturated
+ * or rejecting executor degrades to sequential processing rather than
+ * deadlocking. Each partition covers its own range of indices, so writing
+ * results by index preserves the order of the batch.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public final class ParallelBatch {
+
+
+    /**
+     * The default minimum number of elements of a partition.
+     */
+    public static final int DEFAULT_THRESHOLD = 1024;
+
+
+    /**
+     * A unit of work on a range of indices.
+     */
+    public static interface Task {
+
+
+        /**
+         * Processes elements from {@code from} (inclusive) to {@code to}
+         * (exclusive).
+         *
+         * @param from the first index, inclusive
+         * @param to the last index, exclusive
+         *
+         * @throws Throwable if an error occurs.
+         */
+        void run(int from, int to) throws Throwable;
+
+
+    }
+
+
+    /**
+     * Runs given task over {@code length} elements.
+     *
+     * @param executor the executor for helper threads; {@code null} for
+     * running sequentially in the calling thread
+     * @param length the number of elements
+     * @param threshold the minimum number of elements of a partition
+     * @param task the task
+     *
+     * @throws Throwable the first error thrown by {@code task}.
+     */
+    public static void run(final Executor executor, final int length,
+                           final int threshold, final Task task)
+        throws Throwable {
+
+        if (length < 0) {
+            throw new IllegalArgumentException("length(" + length + ") < 0");
+        }
+
+        if (threshold <= 0) {
+            throw new IllegalArgumentException(
+                "threshold(" + threshold + ") <= 0");
+        }
+
+        if (task == null) {
+            throw new NullPointerException("task");
+        }
+
+        final int count = Math.min(
+            length / threshold, Runtime.getRuntime().availableProcessors());
+        if (executor == null || count < 2) {
+            task.run(0, length);
+            return;
+        }
+
+        final AtomicInteger next = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(count);
+        final AtomicReference<Throwable> failure =
+            new AtomicReference<Throwable>();
+
+        final Runnable worker = new Runnable() {
+            public void run() {
+                for (int i; (i = next.getAndIncrement()) < count;) {
+                    try {
+                        if (failure.get() == null) {
+                            task.run((int) ((long) length * i / count),
+                                     (int) ((long) length * (i + 1) / count));
+                        }
+                    } catch (final Throwable thrown) {
+                        failure.compareAndSet(null, thrown);
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }
+        };
+
+        for (int i = 1; i < count; i++) {
+            try {
+                executor.execute(worker);
+            } catch (final RejectedExecutionException ree) {
+                break;
+            }
+        }
+
+        worker.run();
+
+        boolean interrupted = false;
+        while (true) {
+            try {
+                done.await();
+                break;
+            } catch (final InterruptedException ie) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        final Throwable thrown = failure.get();
+        if (thrown != null) {
+            throw thrown;
+        }
+    }
+
+
+    private ParallelBatch() {
+
+        super();
+    }
+
+
+}
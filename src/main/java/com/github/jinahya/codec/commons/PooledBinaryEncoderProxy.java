@@ -0,0 +1,112 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import org.apache.commons.codec.BinaryEncoder;
+import org.apache.commons.codec.EncoderException;
+
+
+/**
+ * A proxy of {@link BinaryEncoder} which encodes with delegates borrowed
+ * from a {@link DelegatePool}, so that delegates which are not thread-safe
+ * can be used by many threads without locking. A delegate is returned to
+ * the pool after it succeeds or throws {@link EncoderException}; a delegate
+ * which throws anything else is discarded, since its state is unknown.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class PooledBinaryEncoderProxy
+    extends BinaryEncoderProxy<DelegatePool<BinaryEncoder>> {
+
+
+    /**
+     * Creates a new proxy instance.
+     *
+     * @param pool the pool of encoders
+     *
+     * @return a new proxy instance which implements {@link BinaryEncoder}
+     */
+    public static Object newInstance(final DelegatePool<BinaryEncoder> pool) {
+
+        return newInstance(new PooledBinaryEncoderProxy(pool));
+    }
+
+
+    /**
+     * Creates a new adapter instance.
+     *
+     * @param pool the pool of encoders
+     *
+     * @return a new adapter instance which implements {@link BinaryEncoder}
+     */
+    public static Object newAdapter(final DelegatePool<BinaryEncoder> pool) {
+
+        return newAdapter(new PooledBinaryEncoderProxy(pool));
+    }
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param pool the pool of encoders
+     */
+    protected PooledBinaryEncoderProxy(final DelegatePool<BinaryEncoder> pool) {
+
+        super(pool);
+
+        if (pool == null) {
+            throw new NullPointerException("pool");
+        }
+    }
+
+
+    @Override
+    protected byte[] encode(final byte[] source) throws Throwable {
+
+        final BinaryEncoder delegate = encoder.borrow();
+        final byte[] encoded;
+        try {
+            encoded = delegate.encode(source);
+        } catch (final EncoderException ee) {
+            encoder.release(delegate); // rejected the source; still usable
+            throw ee;
+        } catch (final Throwable thrown) {
+            encoder.discard(delegate);
+            throw thrown;
+        }
+        encoder.release(delegate);
+
+        return encoded;
+    }
+
+
+    /**
+     * Returns {@code true}; each thread encodes with its own delegate.
+     *
+     * @return {@code true}
+     */
+    @Override
+    protected boolean isEncoderThreadSafe() {
+
+        return true;
+    }
+
+
+}
+
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.StringDecoder;
+
+
+/**
+ * A proxy of {@link StringDecoder} which decodes with delegates borrowed
+ * from a {@link DelegatePool}, so that delegates which are not thread-safe
+ * can be used by many threads without locking. A delegate is returned to
+ * the pool after it succeeds or throws {@link DecoderException}; a delegate
+ * which throws anything else is discarded, since its state is unknown.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class PooledStringDecoderProxy
+    extends StringDecoderProxy<DelegatePool<StringDecoder>> {
+
+
+    /**
+     * Creates a new proxy instance.
+     *
+     * @param pool the pool of decoders
+     *
+     * @return a new proxy instance which implements {@link StringDecoder}
+     */
+    public static Object newInstance(final DelegatePool<StringDecoder> pool) {
+
+        return newInstance(new PooledStringDecoderProxy(pool));
+    }
+
+
+    /**
+     * Creates a new adapter instance.
+     *
+     * @param pool the pool of decoders
+     *
+     * @return a new adapter instance which implements {@link StringDecoder}
+     */
+    public static Object newAdapter(final DelegatePool<StringDecoder> pool) {
+
+        return newAdapter(new PooledStringDecoderProxy(pool));
+    }
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param pool the pool of decoders
+     */
+    protected PooledStringDecoderProxy(final DelegatePool<StringDecoder> pool) {
+
+        super(pool);
+
+        if (pool == null) {
+            throw new NullPointerException("pool");
+        }
+    }
+
+
+    @Override
+    protected String decode(final String source) throws Throwable {
+
+        final StringDecoder delegate = decoder.borrow();
+        final String decoded;
+        try {
+            decoded = delegate.decode(source);
+        } catch (final DecoderException de) {
+            decoder.release(delegate); // rejected the source; still usable
+            throw de;
+        } catch (final Throwable thrown) {
+            decoder.discard(delegate);
+            throw thrown;
+        }
+        decoder.release(delegate);
+
+        return decoded;
+    }
+
+
+    /**
+     * Returns {@code true}; each thread decodes with its own delegate.
+     *
+     * @return {@code true}
+     */
+    @Override
+    protected boolean isDecoderThreadSafe() {
+
+        return true;
+    }
+
+
+}
+
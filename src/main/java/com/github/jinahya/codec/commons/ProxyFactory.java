@@ -0,0 +1,335 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+
+
+/**
+ * A reusable factory of proxy instances and adapters of a particular proxy
+ * type for a particular delegate type.
+ * <p>
+ * The static {@code newInstance} and {@code newAdapter} methods of the proxy
+ * classes look up the constructor of the proxy type and the generated proxy
+ * class on every call. A factory resolves both once so that each instance
+ * costs only the constructions of the proxy and the proxy instance, which
+ * pays off when creating many proxies, e.g., one per tenant.
+ * <blockquote><pre>
+ * final ProxyFactory&lt;MyEncoderProxy, MyEncoder&gt; factory =
+ *     ProxyFactory.forEncoder(MyEncoderProxy.class, MyEncoder.class);
+ * final BinaryEncoder encoder =
+ *     (BinaryEncoder) factory.newInstance(new MyEncoder(tenant));
+ * </pre></blockquote>
+ * Factories are immutable and safe for concurrent use.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ * @param <P> proxy type parameter
+ * @param <T> delegate type parameter
+ */
+public final class ProxyFactory<P extends InvocationHandler, T> {
+
+
+    /**
+     * The interfaces and the adapter of proxy types extending a base type.
+     */
+    private abstract static class Binding {
+
+
+        Binding(final Class<?> baseType, final ClassLoader loader,
+                final Class<?>[] interfaces) {
+
+            super();
+
+            this.baseType = baseType;
+            this.loader = loader;
+            this.interfaces = interfaces;
+        }
+
+
+        /**
+         * Creates a new adapter for given proxy.
+         *
+         * @param proxy the proxy which is an instance of {@link #baseType}
+         *
+         * @return a new adapter.
+         */
+        abstract Object newAdapter(Object proxy);
+
+
+        final Class<?> baseType;
+
+
+        final ClassLoader loader;
+
+
+        final Class<?>[] interfaces;
+
+
+    }
+
+
+    /**
+     * The bindings of encoder proxy types, most specific first.
+     */
+    private static final Binding[] ENCODER_BINDINGS = {
+        new Binding(BinaryArrayEncoderProxy.class,
+                    BinaryArrayEncoderProxy.class.getClassLoader(),
+                    BinaryArrayEncoderProxy.INTERFACES) {
+            @Override
+            Object newAdapter(final Object proxy) {
+                return BinaryArrayEncoderProxy.newAdapter(
+                    (BinaryArrayEncoderProxy<?>) proxy);
+            }
+        },
+        new Binding(BinaryEncoderProxy.class,
+                    BinaryEncoderProxy.class.getClassLoader(),
+                    BinaryEncoderProxy.INTERFACES) {
+            @Override
+            Object newAdapter(final Object proxy) {
+                return BinaryEncoderProxy.newAdapter(
+                    (BinaryEncoderProxy<?>) proxy);
+            }
+        },
+        new Binding(StringEncoderProxy.class,
+                    StringEncoderProxy.class.getClassLoader(),
+                    StringEncoderProxy.INTERFACES) {
+            @Override
+            Object newAdapter(final Object proxy) {
+                return StringEncoderProxy.newAdapter(
+                    (StringEncoderProxy<?>) proxy);
+            }
+        },
+        new Binding(EncoderProxy.class,
+                    EncoderProxy.INTERFACES[0].getClassLoader(),
+                    EncoderProxy.INTERFACES) {
+            @Override
+            Object newAdapter(final Object proxy) {
+                return EncoderProxy.newAdapter((EncoderProxy<?>) proxy);
+            }
+        }
+    };
+
+
+    /**
+     * The bindings of decoder proxy types, most specific first.
+     */
+    private static final Binding[] DECODER_BINDINGS = {
+        new Binding(BinaryArrayDecoderProxy.class,
+                    BinaryArrayDecoderProxy.class.getClassLoader(),
+                    BinaryArrayDecoderProxy.INTERFACES) {
+            @Override
+            Object newAdapter(final Object proxy) {
+                return BinaryArrayDecoderProxy.newAdapter(
+                    (BinaryArrayDecoderProxy<?>) proxy);
+            }
+        },
+        new Binding(BinaryDecoderProxy.class,
+                    BinaryDecoderProxy.class.getClassLoader(),
+                    BinaryDecoderProxy.INTERFACES) {
+            @Override
+            Object newAdapter(final Object proxy) {
+                return BinaryDecoderProxy.newAdapter(
+                    (BinaryDecoderProxy<?>) proxy);
+            }
+        },
+        new Binding(StringDecoderProxy.class,
+                    StringDecoderProxy.class.getClassLoader(),
+                    StringDecoderProxy.INTERFACES) {
+            @Override
+            Object newAdapter(final Object proxy) {
+                return StringDecoderProxy.newAdapter(
+                    (StringDecoderProxy<?>) proxy);
+            }
+        },
+        new Binding(DecoderProxy.class,
+                    DecoderProxy.INTERFACES[0].getClassLoader(),
+                    DecoderProxy.INTERFACES) {
+            @Override
+            Object newAdapter(final Object proxy) {
+                return DecoderProxy.newAdapter((DecoderProxy<?>) proxy);
+            }
+        }
+    };
+
+
+    /**
+     * Creates a new factory for given encoder proxy type.
+     *
+     * @param <P> proxy type parameter
+     * @param <T> encoder type parameter
+     * @param proxyType the proxy type which must extend one of
+     * {@link EncoderProxy}, {@link StringEncoderProxy},
+     * {@link BinaryEncoderProxy} and {@link BinaryArrayEncoderProxy} and
+     * must declare a constructor taking an {@code encoderType}
+     * @param encoderType the encoder type
+     *
+     * @return a new factory
+     */
+    public static <P extends AbstractEncoderProxy<T>, T> ProxyFactory<P, T>
+        forEncoder(final Class<P> proxyType, final Class<T> encoderType) {
+
+        return new ProxyFactory<P, T>(
+            binding(ENCODER_BINDINGS, proxyType), proxyType, encoderType);
+    }
+
+
+    /**
+     * Creates a new factory for given decoder proxy type.
+     *
+     * @param <P> proxy type parameter
+     * @param <T> decoder type parameter
+     * @param proxyType the proxy type which must extend one of
+     * {@link DecoderProxy}, {@link StringDecoderProxy},
+     * {@link BinaryDecoderProxy} and {@link BinaryArrayDecoderProxy} and
+     * must declare a constructor taking a {@code decoderType}
+     * @param decoderType the decoder type
+     *
+     * @return a new factory
+     */
+    public static <P extends AbstractDecoderProxy<T>, T> ProxyFactory<P, T>
+        forDecoder(final Class<P> proxyType, final Class<T> decoderType) {
+
+        return new ProxyFactory<P, T>(
+            binding(DECODER_BINDINGS, proxyType), proxyType, decoderType);
+    }
+
+
+    private static Binding binding(final Binding[] bindings,
+                                   final Class<?> proxyType) {
+
+        if (proxyType == null) {
+            throw new NullPointerException("proxyType");
+        }
+
+        for (final Binding binding : bindings) {
+            if (binding.baseType.isAssignableFrom(proxyType)) {
+                return binding;
+            }
+        }
+
+        throw new IllegalArgumentException(
+            "proxyType(" + proxyType + ") is not assignable to any of "
+            + bindings[bindings.length - 1].baseType + " and its subclasses");
+    }
+
+
+    private static <C> C newInstance(final Constructor<C> constructor,
+                                     final Object initarg) {
+
+        try {
+            return constructor.newInstance(initarg);
+        } catch (final InstantiationException ie) {
+            throw new RuntimeException(ie);
+        } catch (final IllegalAccessException iae) {
+            throw new RuntimeException(iae);
+        } catch (final InvocationTargetException ite) {
+            final Throwable cause = ite.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+
+    private ProxyFactory(final Binding binding, final Class<P> proxyType,
+                         final Class<T> delegateType) {
+
+        super();
+
+        if (delegateType == null) {
+            throw new NullPointerException("delegateType");
+        }
+
+        this.binding = binding;
+
+        try {
+            proxyConstructor = proxyType.getDeclaredConstructor(delegateType);
+            if (!proxyConstructor.isAccessible()) {
+                proxyConstructor.setAccessible(true);
+            }
+            instanceConstructor = Proxy.getProxyClass(
+                binding.loader, binding.interfaces)
+                .getConstructor(InvocationHandler.class);
+        } catch (final NoSuchMethodException nsme) {
+            throw new IllegalArgumentException(nsme);
+        }
+    }
+
+
+    /**
+     * Creates a new proxy, the invocation handler, for given delegate.
+     *
+     * @param delegate the delegate
+     *
+     * @return a new proxy
+     */
+    public P newProxy(final T delegate) {
+
+        return newInstance(proxyConstructor, delegate);
+    }
+
+
+    /**
+     * Creates a new proxy instance for given delegate. The instance is
+     * equivalent to the one created by the static {@code newInstance} method
+     * of the proxy type.
+     *
+     * @param delegate the delegate
+     *
+     * @return a new proxy instance
+     */
+    public Object newInstance(final T delegate) {
+
+        return newInstance(instanceConstructor, newProxy(delegate));
+    }
+
+
+    /**
+     * Creates a new adapter for given delegate. The adapter is equivalent to
+     * the one created by the static {@code newAdapter} method of the proxy
+     * type.
+     *
+     * @param delegate the delegate
+     *
+     * @return a new adapter
+     */
+    public Object newAdapter(final T delegate) {
+
+        return binding.newAdapter(newProxy(delegate));
+    }
+
+
+    private final Binding binding;
+
+
+    private final Constructor<P> proxyConstructor;
+
+
+    private final Constructor<?> instanceConstructor;
+
+
+}
+
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+/**
+ * A listener notified of the calls of a proxy; e.g. to emit profiler events.
+ * <p>
+ * Calls are notified in the calling thread, around each encoding or decoding
+ * call made through a proxy instance or an adapter. Implementations should be
+ * cheap and must be thread-safe; exceptions they throw are logged and
+ * ignored.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ * @see AbstractEncoderProxy#setEncoderListener(ProxyListener)
+ * @see AbstractDecoderProxy#setDecoderListener(ProxyListener)
+ */
+public interface ProxyListener {
+
+
+    /**
+     * Notified when a call starts.
+     *
+     * @param proxy the proxy; an instance of {@link AbstractEncoderProxy} or
+     * {@link AbstractDecoderProxy}
+     * @param inputUnits the number of units (bytes or chars) given to the call
+     *
+     * @return a context to be passed to
+     * {@link #callFinished(Object, Object, long, Throwable)}; may be
+     * {@code null}
+     */
+    Object callStarted(Object proxy, long inputUnits);
+
+
+    /**
+     * Notified when a call finishes.
+     *
+     * @param proxy the proxy
+     * @param context the value returned by {@link #callStarted(Object, long)}
+     * @param outputUnits the number of units (bytes or chars) returned by the
+     * call; {@code 0L} if failed
+     * @param thrown what the call threw; {@code null} if succeeded
+     */
+    void callFinished(Object proxy, Object context, long outputUnits,
+                      Throwable thrown);
+
+
+}
@@ -0,0 +1,326 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.nio.Buffer;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * Records the calls of one or more proxies; the number of calls and errors,
+ * the units (bytes or chars) in and out, and a histogram of latencies.
+ * <p>
+ * Counters are spread over stripes selected by the id of the calling thread so
+ * that concurrent calls rarely update the same cells, and each update is a
+ * single atomic addition. The histogram has a fixed number of buckets; each
+ * power of two of nanoseconds is split into {@value #SUB_BUCKET_COUNT}
+ * sub-buckets, which bounds the relative error of a reported latency to
+ * {@code 1/}{@value #SUB_BUCKET_COUNT}. The memory taken is fixed on
+ * construction.
+ * <p>
+ * Units are the length of {@code byte[]}s, {@code char[]}s and strings, the
+ * remaining of buffers and the sum of those of arrays and collections. For
+ * the methods which encode or decode a range of an array, the units are the
+ * length of the range in and the number of bytes written out.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ * @see AbstractEncoderProxy#setEncoderMetrics(ProxyMetrics)
+ * @see AbstractDecoderProxy#setDecoderMetrics(ProxyMetrics)
+ */
+public final class ProxyMetrics {
+
+
+    /**
+     * The number of sub-buckets of each power of two.
+     */
+    static final int SUB_BUCKET_COUNT = 8;
+
+
+    private static final int SUB_BUCKET_BITS = 3;
+
+
+    /**
+     * The number of buckets of the histogram; enough for any positive
+     * {@code long} latency.
+     */
+    static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+
+    /**
+     * The maximum number of stripes.
+     */
+    static final int MAXIMUM_STRIPES = 64;
+
+
+    private static final int ERRORS = 0;
+
+
+    private static final int INPUT_UNITS = 1;
+
+
+    private static final int OUTPUT_UNITS = 2;
+
+
+    private static final int TOTAL_NANOS = 3;
+
+
+    /**
+     * The index of the first bucket in a stripe. Counters are padded to a cache
+     * line.
+     */
+    private static final int BUCKETS = 8;
+
+
+    /**
+     * The number of cells of a stripe including the padding at the end.
+     */
+    private static final int STRIDE = BUCKETS + BUCKET_COUNT + 8;
+
+
+    /**
+     * Returns the default number of stripes which is the number of available
+     * processors. The constructor rounds it up to a power of two.
+     *
+     * @return the default number of stripes.
+     */
+    static int defaultStripes() {
+
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+
+    /**
+     * Returns the index of the bucket for given latency.
+     *
+     * @param nanos the latency in nanoseconds; not negative
+     *
+     * @return the index of the bucket
+     */
+    static int bucket(final long nanos) {
+
+        if (nanos < SUB_BUCKET_COUNT) {
+            return (int) nanos;
+        }
+
+        final int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        final int sub = (int) (nanos >>> (exponent - SUB_BUCKET_BITS))
+                        & (SUB_BUCKET_COUNT - 1);
+
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + sub;
+    }
+
+
+    /**
+     * Returns the largest latency which falls into given bucket.
+     *
+     * @param bucket the index of the bucket
+     *
+     * @return the largest latency in nanoseconds.
+     */
+    static long highest(final int bucket) {
+
+        if (bucket < SUB_BUCKET_COUNT) {
+            return bucket;
+        }
+
+        final int shift = bucket / SUB_BUCKET_COUNT - 1;
+        final long lowest =
+            (long) (SUB_BUCKET_COUNT + bucket % SUB_BUCKET_COUNT) << shift;
+
+        return lowest + ((1L << shift) - 1L);
+    }
+
+
+    /**
+     * Returns the number of units of given value. Numbers are values, not
+     * lengths, and count as none.
+     *
+     * @param value the value; may be {@code null}
+     *
+     * @return the number of units; {@code 0L} if not countable
+     */
+    static long units(final Object value) {
+
+        if (value instanceof byte[]) {
+            return ((byte[]) value).length;
+        }
+
+        if (value instanceof char[]) {
+            return ((char[]) value).length;
+        }
+
+        if (value instanceof CharSequence) {
+            return ((CharSequence) value).length();
+        }
+
+        if (value instanceof Buffer) {
+            return ((Buffer) value).remaining();
+        }
+
+        long units = 0L;
+        if (value instanceof Object[]) {
+            for (final Object element : (Object[]) value) {
+                units += units(element);
+            }
+        } else if (value instanceof Iterable) {
+            for (final Object element : (Iterable<?>) value) {
+                units += units(element);
+            }
+        }
+
+        return units;
+    }
+
+
+    /**
+     * Creates a new instance with {@link #defaultStripes()} stripes.
+     */
+    public ProxyMetrics() {
+
+        this(defaultStripes());
+    }
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param stripes the expected number of concurrent callers; rounded up to a
+     * power of two and capped at {@value #MAXIMUM_STRIPES}
+     */
+    public ProxyMetrics(final int stripes) {
+
+        super();
+
+        if (stripes <= 0) {
+            throw new IllegalArgumentException(
+                "stripes(" + stripes + ") <= 0");
+        }
+
+        int count = 1;
+        while (count < stripes && count < MAXIMUM_STRIPES) {
+            count <<= 1;
+        }
+        mask = count - 1;
+        cells = new AtomicLongArray(count * STRIDE);
+    }
+
+
+    /**
+     * Returns the offset of the stripe of the current thread.
+     *
+     * @return the offset of the stripe
+     */
+    private int stripe() {
+
+        final long id = Thread.currentThread().getId();
+
+        return ((int) (id ^ (id >>> 32)) & mask) * STRIDE;
+    }
+
+
+    /**
+     * Records the start of a call.
+     *
+     * @param inputUnits the number of units given to the call
+     */
+    void started(final long inputUnits) {
+
+        if (inputUnits != 0L) {
+            cells.getAndAdd(stripe() + INPUT_UNITS, inputUnits);
+        }
+    }
+
+
+    /**
+     * Records a call which succeeded.
+     *
+     * @param nanos the latency of the call
+     * @param outputUnits the number of units returned by the call
+     */
+    void succeeded(final long nanos, final long outputUnits) {
+
+        final int stripe = stripe();
+        record(stripe, nanos);
+
+        if (outputUnits != 0L) {
+            cells.getAndAdd(stripe + OUTPUT_UNITS, outputUnits);
+        }
+    }
+
+
+    /**
+     * Records a call which failed.
+     *
+     * @param nanos the latency of the call
+     */
+    void failed(final long nanos) {
+
+        final int stripe = stripe();
+        record(stripe, nanos);
+
+        cells.getAndIncrement(stripe + ERRORS);
+    }
+
+
+    private void record(final int stripe, final long nanos) {
+
+        final long positive = nanos < 0L ? 0L : nanos;
+        cells.getAndIncrement(stripe + BUCKETS + bucket(positive));
+        cells.getAndAdd(stripe + TOTAL_NANOS, positive);
+    }
+
+
+    /**
+     * Returns a snapshot of what have been recorded so far. Calls in progress
+     * may or may not be reflected.
+     *
+     * @return a snapshot
+     */
+    public ProxyStats getStats() {
+
+        long errorCount = 0L;
+        long inputUnits = 0L;
+        long outputUnits = 0L;
+        long totalNanos = 0L;
+        final long[] buckets = new long[BUCKET_COUNT];
+        for (int stripe = 0; stripe < cells.length(); stripe += STRIDE) {
+            errorCount += cells.get(stripe + ERRORS);
+            inputUnits += cells.get(stripe + INPUT_UNITS);
+            outputUnits += cells.get(stripe + OUTPUT_UNITS);
+            totalNanos += cells.get(stripe + TOTAL_NANOS);
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] += cells.get(stripe + BUCKETS + i);
+            }
+        }
+
+        return new ProxyStats(errorCount, inputUnits, outputUnits, totalNanos,
+                              buckets);
+    }
+
+
+    private final int mask;
+
+
+    /**
+     * The counters and the buckets of all stripes.
+     */
+    private final AtomicLongArray cells;
+
+
+}
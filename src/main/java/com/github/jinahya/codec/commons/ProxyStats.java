@@ -0,0 +1,221 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+/**
+ * An immutable snapshot of what a {@link ProxyMetrics} has recorded.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public final class ProxyStats {
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param errorCount the number of calls failed
+     * @param inputUnits the number of units given
+     * @param outputUnits the number of units returned
+     * @param totalNanos the sum of the latencies in nanoseconds
+     * @param buckets the counts of the buckets of the latency histogram
+     */
+    ProxyStats(final long errorCount, final long inputUnits,
+               final long outputUnits, final long totalNanos,
+               final long[] buckets) {
+
+        super();
+
+        long callCount = 0L;
+        for (final long count : buckets) {
+            callCount += count;
+        }
+
+        this.callCount = callCount;
+        this.errorCount = errorCount;
+        this.inputUnits = inputUnits;
+        this.outputUnits = outputUnits;
+        this.totalNanos = totalNanos;
+        this.buckets = buckets;
+    }
+
+
+    /**
+     * Returns the number of calls finished, either successfully or not.
+     *
+     * @return the number of calls
+     */
+    public long getCallCount() {
+
+        return callCount;
+    }
+
+
+    /**
+     * Returns the number of calls failed.
+     *
+     * @return the number of errors
+     */
+    public long getErrorCount() {
+
+        return errorCount;
+    }
+
+
+    /**
+     * Returns the number of units (bytes or chars) given to calls.
+     *
+     * @return the number of units in
+     */
+    public long getInputUnits() {
+
+        return inputUnits;
+    }
+
+
+    /**
+     * Returns the number of units (bytes or chars) returned by calls.
+     *
+     * @return the number of units out
+     */
+    public long getOutputUnits() {
+
+        return outputUnits;
+    }
+
+
+    /**
+     * Returns the sum of the latencies of all calls.
+     *
+     * @return the total latency in nanoseconds
+     */
+    public long getTotalLatency() {
+
+        return totalNanos;
+    }
+
+
+    /**
+     * Returns the mean latency of calls.
+     *
+     * @return the mean latency in nanoseconds; {@code 0.0d} if no call has
+     * been made
+     */
+    public double getMeanLatency() {
+
+        if (callCount == 0L) {
+            return 0.0d;
+        }
+
+        return (double) totalNanos / callCount;
+    }
+
+
+    /**
+     * Returns the latency at given quantile. The value returned is the upper
+     * bound of the histogram bucket the quantile falls into.
+     *
+     * @param quantile the quantile between {@code 0.0d} and {@code 1.0d}, both
+     * inclusive; e.g. {@code 0.99d} for the 99th percentile
+     *
+     * @return the latency in nanoseconds; {@code 0L} if no call has been made
+     */
+    public long getLatency(final double quantile) {
+
+        if (!(quantile >= 0.0d && quantile <= 1.0d)) {
+            throw new IllegalArgumentException(
+                "quantile(" + quantile + ") is not between 0.0 and 1.0");
+        }
+
+        if (callCount == 0L) {
+            return 0L;
+        }
+
+        final long rank = Math.max((long) Math.ceil(quantile * callCount), 1L);
+        long seen = 0L;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return ProxyMetrics.highest(i);
+            }
+        }
+
+        return ProxyMetrics.highest(buckets.length - 1);
+    }
+
+
+    /**
+     * Returns what have been recorded since given earlier snapshot of the same
+     * metrics.
+     *
+     * @param earlier the earlier snapshot
+     *
+     * @return the difference between this snapshot and {@code earlier}.
+     */
+    public ProxyStats since(final ProxyStats earlier) {
+
+        if (earlier == null) {
+            throw new NullPointerException("earlier");
+        }
+
+        final long[] difference = new long[buckets.length];
+        for (int i = 0; i < difference.length; i++) {
+            difference[i] = Math.max(buckets[i] - earlier.buckets[i], 0L);
+        }
+
+        return new ProxyStats(
+            Math.max(errorCount - earlier.errorCount, 0L),
+            Math.max(inputUnits - earlier.inputUnits, 0L),
+            Math.max(outputUnits - earlier.outputUnits, 0L),
+            Math.max(totalNanos - earlier.totalNanos, 0L), difference);
+    }
+
+
+    @Override
+    public String toString() {
+
+        return super.toString() + "?callCount=" + callCount
+               + "&errorCount=" + errorCount
+               + "&inputUnits=" + inputUnits
+               + "&outputUnits=" + outputUnits
+               + "&totalLatency=" + totalNanos;
+    }
+
+
+    private final long callCount;
+
+
+    private final long errorCount;
+
+
+    private final long inputUnits;
+
+
+    private final long outputUnits;
+
+
+    private final long totalNanos;
+
+
+    /**
+     * The counts of the buckets of the latency histogram.
+     */
+    private final long[] buckets;
+
+
+}
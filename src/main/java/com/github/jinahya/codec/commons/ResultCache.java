@@ -0,0 +1,67 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+/**
+ * A cache of codec results keyed by their inputs. Implementations must be
+ * safe for concurrent use.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ * @param <K> key (input) type parameter
+ * @param <V> value (output) type parameter
+ */
+public interface ResultCache<K, V> {
+
+
+    /**
+     * Returns the value cached for given key.
+     *
+     * @param key the key
+     *
+     * @return the value cached for {@code key} or {@code null} if absent
+     */
+    V get(K key);
+
+
+    /**
+     * Offers given value for given key. The cache may decline to keep the
+     * value.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    void put(K key, V value);
+
+
+    /**
+     * Removes all entries from this cache. The statistics are kept.
+     */
+    void clear();
+
+
+    /**
+     * Returns a snapshot of the statistics of this cache.
+     *
+     * @return a snapshot of the statistics
+     */
+    ResultCacheStats getStats();
+
+
+}
+
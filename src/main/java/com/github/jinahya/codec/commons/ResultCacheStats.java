@@ -0,0 +1,134 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+/**
+ * An immutable snapshot of the statistics of a {@link ResultCache}.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public final class ResultCacheStats {
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param hitCount the number of lookups which found a value
+     * @param missCount the number of lookups which found no value
+     * @param evictionCount the number of values evicted for new ones
+     * @param rejectionCount the number of values declined by the admission
+     * policy
+     */
+    public ResultCacheStats(final long hitCount, final long missCount,
+                            final long evictionCount,
+                            final long rejectionCount) {
+
+        super();
+
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.rejectionCount = rejectionCount;
+    }
+
+
+    /**
+     * Returns the number of lookups which found a value.
+     *
+     * @return the number of hits
+     */
+    public long getHitCount() {
+
+        return hitCount;
+    }
+
+
+    /**
+     * Returns the number of lookups which found no value.
+     *
+     * @return the number of misses
+     */
+    public long getMissCount() {
+
+        return missCount;
+    }
+
+
+    /**
+     * Returns the number of values evicted to make room for new ones.
+     *
+     * @return the number of evictions
+     */
+    public long getEvictionCount() {
+
+        return evictionCount;
+    }
+
+
+    /**
+     * Returns the number of values declined by the admission policy.
+     *
+     * @return the number of rejections
+     */
+    public long getRejectionCount() {
+
+        return rejectionCount;
+    }
+
+
+    /**
+     * Returns the ratio of hits to lookups.
+     *
+     * @return the hit rate; {@code 0.0d} if no lookup has been made
+     */
+    public double getHitRate() {
+
+        final long requestCount = hitCount + missCount;
+        if (requestCount == 0L) {
+            return 0.0d;
+        }
+
+        return (double) hitCount / requestCount;
+    }
+
+
+    @Override
+    public String toString() {
+
+        return super.toString() + "?hitCount=" + hitCount
+               + "&missCount=" + missCount
+               + "&evictionCount=" + evictionCount
+               + "&rejectionCount=" + rejectionCount;
+    }
+
+
+    private final long hitCount;
+
+
+    private final long missCount;
+
+
+    private final long evictionCount;
+
+
+    private final long rejectionCount;
+
+
+}
+
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.util.List;
+import org.apache.commons.codec.StringDecoder;
+import org.apache.commons.codec.DecoderException;
+
+
+/**
+ * An implementation of {@link StringDecoder} which calls the typed methods of
+ * a {@link StringDecoderProxy} directly.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+final class StringDecoderAdapter extends DecoderAdapter<StringDecoderProxy<?>>
+    implements StringDecoder, BatchStringDecoder {
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param proxy the proxy to adapt.
+     */
+    StringDecoderAdapter(final StringDecoderProxy<?> proxy) {
+
+        super(proxy);
+    }
+
+
+    public String decode(final String source) throws DecoderException {
+
+        final Measurement measurement = measureStart(source);
+        try {
+            return proxy.measureEnd(measurement, proxy.decode(source));
+        } catch (final Throwable thrown) {
+            throw decoderException(proxy.measureFailure(measurement, thrown));
+        }
+    }
+
+
+    public List<String> decodeAll(final List<String> sources)
+        throws DecoderException {
+
+        final Measurement measurement = measureStart(sources);
+        try {
+            return proxy.measureEnd(measurement, proxy.decodeAll(sources));
+        } catch (final Throwable thrown) {
+            throw decoderException(proxy.measureFailure(measurement, thrown));
+        }
+    }
+
+
+}
@@ -19,6 +19,10 @@ package com.github.jinahya.codec.commons;
 
 
 import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 
 /**
@@ -55,15 +59,58 @@ public abstract class StringDecoderProxy<T> extends DecoderProxy<T> {
     private static final Method DECODE;
 
 
+    /**
+     * the method of {@code decodeAll(Ljava/util/List;)Ljava/util/List;}.
+     */
+    private static final Method DECODE_ALL;
+
+
     static {
         try {
             DECODE = DECODER.getMethod("decode", String.class);
+            DECODE_ALL = BatchStringDecoder.class.getMethod(
+                "decodeAll", List.class);
         } catch (final NoSuchMethodException nsme) {
             throw new InstantiationError(nsme.getMessage());
         }
     }
 
 
+    static {
+        @SuppressWarnings("unchecked")
+        final Class<StringDecoderProxy<?>> handlerType =
+            (Class<StringDecoderProxy<?>>) (Class<?>) StringDecoderProxy.class;
+        MethodTable.register(
+            DECODE,
+            new MethodTable.Invoker<StringDecoderProxy<?>>(handlerType) {
+            @Override
+            Object invoke(final StringDecoderProxy<?> handler,
+                          final Object proxy, final Object[] args)
+                throws Throwable {
+                return handler.decode((String) args[0]);
+            }
+        });
+        MethodTable.register(
+            DECODE_ALL,
+            new MethodTable.Invoker<StringDecoderProxy<?>>(handlerType) {
+            @Override
+            Object invoke(final StringDecoderProxy<?> handler,
+                          final Object proxy, final Object[] args)
+                throws Throwable {
+                @SuppressWarnings("unchecked")
+                final List<String> sources = (List<String>) args[0];
+                return handler.decodeAll(sources);
+            }
+        });
+    }
+
+
+    /**
+     * the interfaces which proxy instances implement.
+     */
+    static final Class<?>[] INTERFACES = {DECODER, BatchStringDecoder.class};
+
+
     /**
      * Creates a new proxy instance.
      *
@@ -88,38 +135,102 @@ public abstract class StringDecoderProxy<T> extends DecoderProxy<T> {
                 + StringDecoderProxy.class);
         }
 
-        return newInstance(DECODER.getClassLoader(), new Class<?>[]{DECODER},
-                           proxyType, decoderType, decoder);
+        return newInstance(StringDecoderProxy.class.getClassLoader(),
+                           INTERFACES, proxyType, decoderType, decoder);
     }
 
 
     /**
-     * Creates a new instance.
+     * Creates a new adapter instance which implements
+     * {@link org.apache.commons.codec.StringDecoder} and calls the typed
+     * methods of the proxy directly rather than through
+     * {@link java.lang.reflect.Proxy}.
      *
-     * @param decoder the decoder to use.
+     * @param <P> proxy type parameter
+     * @param <T> decoder type parameter
+     * @param proxyType proxy type
+     * @param decoderType decoder type
+     * @param decoder decoder
+     *
+     * @return a new adapter instance.
      */
-    protected StringDecoderProxy(final T decoder) {
+    protected static <P extends AbstractDecoderProxy<T>, T> Object newAdapter(
+        final Class<P> proxyType, final Class<T> decoderType, final T decoder) {
 
-        super(decoder);
+        if (proxyType == null) {
+            throw new NullPointerException("proxyType");
+        }
+
+        if (!StringDecoderProxy.class.isAssignableFrom(proxyType)) {
+            throw new IllegalArgumentException(
+                "proxyType(" + proxyType + ") is not assignable to "
+                + StringDecoderProxy.class);
+        }
+
+        return new StringDecoderAdapter(
+            (StringDecoderProxy<?>) newProxy(proxyType, decoderType, decoder));
     }
 
 
-    @Override
-    public Object invoke(final Object proxy, final Method method,
-                         final Object[] args)
-        throws Throwable {
+    /**
+     * Creates a new proxy instance which implements
+     * {@link org.apache.commons.codec.StringDecoder}
+     * with given, already constructed, {@code proxy} as its handler. Use
+     * this method for proxies whose constructors take more than the
+     * decoder.
+     *
+     * @param proxy the handler
+     *
+     * @return a new proxy instance.
+     */
+    protected static Object newInstance(final StringDecoderProxy<?> proxy) {
 
-        if (DECODE.equals(method)) {
-            return decode((String) args[0]);
+        if (proxy == null) {
+            throw new NullPointerException("proxy");
         }
 
-        return super.invoke(proxy, method, args);
+        return Proxy.newProxyInstance(
+            StringDecoderProxy.class.getClassLoader(),
+            INTERFACES, proxy);
+    }
+
+
+    /**
+     * Creates a new adapter instance for given, already constructed,
+     * {@code proxy}.
+     *
+     * @param proxy the proxy
+     *
+     * @return a new adapter instance.
+     */
+    protected static Object newAdapter(final StringDecoderProxy<?> proxy) {
+
+        if (proxy == null) {
+            throw new NullPointerException("proxy");
+        }
+
+        return new StringDecoderAdapter(proxy);
+    }
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param decoder the decoder to use.
+     */
+    protected StringDecoderProxy(final T decoder) {
+
+        super(decoder);
     }
 
 
     @Override
     protected Object decode(final Object source) throws Throwable {
 
+        if (source != null && !(source instanceof String)) {
+            throw decoderFailure("source is not an instance of String");
+        }
+
         try {
             return decode((String) source);
         } catch (final ClassCastException cce) {
@@ -139,5 +250,40 @@ public abstract class StringDecoderProxy<T> extends DecoderProxy<T> {
      */
     protected abstract String decode(final String source) throws Throwable;
 
+
+    /**
+     * Decodes each of given {@code sources}. The default implementation
+     * calls {@link #decode(String)} for each source through
+     * {@link #decodeBatch(int, ParallelBatch.Task)}, in parallel if
+     * configured so. Override this method to let the delegate decode the
+     * whole batch natively.
+     *
+     * @param sources the strings to decode
+     *
+     * @return a list of decoded outputs, each at the same index as its source
+     *
+     * @throws Throwable if an error occurs.
+     *
+     * @see BatchStringDecoder#decodeAll(List)
+     */
+    protected List<String> decodeAll(final List<String> sources)
+        throws Throwable {
+
+        if (sources == null) {
+            throw new NullPointerException("sources");
+        }
+
+        final String[] array = sources.toArray(new String[sources.size()]);
+        decodeBatch(array.length, new ParallelBatch.Task() {
+            public void run(final int from, final int to) throws Throwable {
+                for (int i = from; i < to; i++) {
+                    array[i] = decode(array[i]);
+                }
+            }
+        });
+
+        return new ArrayList<String>(Arrays.asList(array));
+    }
+
 }
 
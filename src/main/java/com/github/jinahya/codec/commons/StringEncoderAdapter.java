@@ -0,0 +1,70 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.util.List;
+import org.apache.commons.codec.StringEncoder;
+import org.apache.commons.codec.EncoderException;
+
+
+/**
+ * An implementation of {@link StringEncoder} which calls the typed methods of
+ * a {@link StringEncoderProxy} directly.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+final class StringEncoderAdapter extends EncoderAdapter<StringEncoderProxy<?>>
+    implements StringEncoder, BatchStringEncoder {
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param proxy the proxy to adapt.
+     */
+    StringEncoderAdapter(final StringEncoderProxy<?> proxy) {
+
+        super(proxy);
+    }
+
+
+    public String encode(final String source) throws EncoderException {
+
+        final Measurement measurement = measureStart(source);
+        try {
+            return proxy.measureEnd(measurement, proxy.encode(source));
+        } catch (final Throwable thrown) {
+            throw encoderException(proxy.measureFailure(measurement, thrown));
+        }
+    }
+
+
+    public List<String> encodeAll(final List<String> sources)
+        throws EncoderException {
+
+        final Measurement measurement = measureStart(sources);
+        try {
+            return proxy.measureEnd(measurement, proxy.encodeAll(sources));
+        } catch (final Throwable thrown) {
+            throw encoderException(proxy.measureFailure(measurement, thrown));
+        }
+    }
+
+
+}
@@ -19,6 +19,10 @@ package com.github.jinahya.codec.commons;
 
 
 import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 
 /**
@@ -55,15 +59,58 @@ public abstract class StringEncoderProxy<T> extends EncoderProxy<T> {
     private static final Method ENCODE;
 
 
+    /**
+     * the method of {@code encodeAll(Ljava/util/List;)Ljava/util/List;}.
+     */
+    private static final Method ENCODE_ALL;
+
+
     static {
         try {
             ENCODE = ENCODER.getMethod("encode", String.class);
+            ENCODE_ALL = BatchStringEncoder.class.getMethod(
+                "encodeAll", List.class);
         } catch (final NoSuchMethodException nsme) {
             throw new InstantiationError(nsme.getMessage());
         }
     }
 
 
+    static {
+        @SuppressWarnings("unchecked")
+        final Class<StringEncoderProxy<?>> handlerType =
+            (Class<StringEncoderProxy<?>>) (Class<?>) StringEncoderProxy.class;
+        MethodTable.register(
+            ENCODE,
+            new MethodTable.Invoker<StringEncoderProxy<?>>(handlerType) {
+            @Override
+            Object invoke(final StringEncoderProxy<?> handler,
+                          final Object proxy, final Object[] args)
+                throws Throwable {
+                return handler.encode((String) args[0]);
+            }
+        });
+        MethodTable.register(
+            ENCODE_ALL,
+            new MethodTable.Invoker<StringEncoderProxy<?>>(handlerType) {
+            @Override
+            Object invoke(final StringEncoderProxy<?> handler,
+                          final Object proxy, final Object[] args)
+                throws Throwable {
+                @SuppressWarnings("unchecked")
+                final List<String> sources = (List<String>) args[0];
+                return handler.encodeAll(sources);
+            }
+        });
+    }
+
+
+    /**
+     * the interfaces which proxy instances implement.
+     */
+    static final Class<?>[] INTERFACES = {ENCODER, BatchStringEncoder.class};
+
+
     /**
      * Creates a new proxy instance.
      *
@@ -88,38 +135,102 @@ public abstract class StringEncoderProxy<T> extends EncoderProxy<T> {
                 + StringEncoderProxy.class);
         }
 
-        return newInstance(ENCODER.getClassLoader(), new Class<?>[]{ENCODER},
-                           proxyType, encoderType, encoder);
+        return newInstance(StringEncoderProxy.class.getClassLoader(),
+                           INTERFACES, proxyType, encoderType, encoder);
     }
 
 
     /**
-     * Creates a new instance.
+     * Creates a new adapter instance which implements
+     * {@link org.apache.commons.codec.StringEncoder} and calls the typed
+     * methods of the proxy directly rather than through
+     * {@link java.lang.reflect.Proxy}.
      *
-     * @param encoder encoding delegate
+     * @param <P> proxy type parameter
+     * @param <T> encoder type parameter
+     * @param proxyType proxy type
+     * @param encoderType encoder type
+     * @param encoder encoder
+     *
+     * @return a new adapter instance.
      */
-    protected StringEncoderProxy(final T encoder) {
+    protected static <P extends AbstractEncoderProxy<T>, T> Object newAdapter(
+        final Class<P> proxyType, final Class<T> encoderType, final T encoder) {
 
-        super(encoder);
+        if (proxyType == null) {
+            throw new NullPointerException("proxyType");
+        }
+
+        if (!StringEncoderProxy.class.isAssignableFrom(proxyType)) {
+            throw new IllegalArgumentException(
+                "proxyType(" + proxyType + ") is not assignable to "
+                + StringEncoderProxy.class);
+        }
+
+        return new StringEncoderAdapter(
+            (StringEncoderProxy<?>) newProxy(proxyType, encoderType, encoder));
     }
 
 
-    @Override
-    public Object invoke(final Object proxy, final Method method,
-                         final Object[] args)
-        throws Throwable {
+    /**
+     * Creates a new proxy instance which implements
+     * {@link org.apache.commons.codec.StringEncoder}
+     * with given, already constructed, {@code proxy} as its handler. Use
+     * this method for proxies whose constructors take more than the
+     * encoder.
+     *
+     * @param proxy the handler
+     *
+     * @return a new proxy instance.
+     */
+    protected static Object newInstance(final StringEncoderProxy<?> proxy) {
 
-        if (ENCODE.equals(method)) {
-            return encode((String) args[0]);
+        if (proxy == null) {
+            throw new NullPointerException("proxy");
         }
 
-        return super.invoke(proxy, method, args);
+        return Proxy.newProxyInstance(
+            StringEncoderProxy.class.getClassLoader(),
+            INTERFACES, proxy);
+    }
+
+
+    /**
+     * Creates a new adapter instance for given, already constructed,
+     * {@code proxy}.
+     *
+     * @param proxy the proxy
+     *
+     * @return a new adapter instance.
+     */
+    protected static Object newAdapter(final StringEncoderProxy<?> proxy) {
+
+        if (proxy == null) {
+            throw new NullPointerException("proxy");
+        }
+
+        return new StringEncoderAdapter(proxy);
+    }
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param encoder encoding delegate
+     */
+    protected StringEncoderProxy(final T encoder) {
+
+        super(encoder);
     }
 
 
     @Override
     protected Object encode(final Object source) throws Throwable {
 
+        if (source != null && !(source instanceof String)) {
+            throw encoderFailure("source is not an instance of String");
+        }
+
         try {
             return encode((String) source);
         } catch (final ClassCastException cce) {
@@ -139,5 +250,40 @@ public abstract class StringEncoderProxy<T> extends EncoderProxy<T> {
      */
     protected abstract String encode(final String source) throws Throwable;
 
+
+    /**
+     * Encodes each of given {@code sources}. The default implementation
+     * calls {@link #encode(String)} for each source through
+     * {@link #encodeBatch(int, ParallelBatch.Task)}, in parallel if
+     * configured so. Override this method to let the delegate encode the
+     * whole batch natively.
+     *
+     * @param sources the strings to encode
+     *
+     * @return a list of encoded outputs, each at the same index as its source
+     *
+     * @throws Throwable if an error occurs.
+     *
+     * @see BatchStringEncoder#encodeAll(List)
+     */
+    protected List<String> encodeAll(final List<String> sources)
+        throws Throwable {
+
+        if (sources == null) {
+            throw new NullPointerException("sources");
+        }
+
+        final String[] array = sources.toArray(new String[sources.size()]);
+        encodeBatch(array.length, new ParallelBatch.Task() {
+            public void run(final int from, final int to) throws Throwable {
+                for (int i = from; i < to; i++) {
+                    array[i] = encode(array[i]);
+                }
+            }
+        });
+
+        return new ArrayList<String>(Arrays.asList(array));
+    }
+
 }
 
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+/**
+ * A {@link ResultCache} for {@code String} inputs and outputs which stores
+ * them, as the big-endian bytes of their {@code char}s, in a
+ * {@link ResultCache} for {@code byte[]}s such as
+ * {@link DirectByteArrayResultCache} or {@link MappedByteArrayResultCache}.
+ * Unlike a charset, this conversion is lossless for any string.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class StringResultCache implements ResultCache<String, String> {
+
+
+    /**
+     * Returns the big-endian bytes of the {@code char}s of given string.
+     *
+     * @param string the string
+     *
+     * @return the bytes of {@code string}
+     */
+    static byte[] bytes(final String string) {
+
+        final byte[] bytes = new byte[string.length() * 2];
+        for (int i = 0; i < string.length(); i++) {
+            final char c = string.charAt(i);
+            bytes[i * 2] = (byte) (c >> 8);
+            bytes[i * 2 + 1] = (byte) c;
+        }
+
+        return bytes;
+    }
+
+
+    private static String string(final byte[] bytes) {
+
+        final char[] chars = new char[bytes.length / 2];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) (((bytes[i * 2] & 0xFF) << 8)
+                               | (bytes[i * 2 + 1] & 0xFF));
+        }
+
+        return new String(chars);
+    }
+
+
+    /**
+     * Creates a new instance.
+     *
+     * @param cache the cache to store in
+     */
+    public StringResultCache(final ResultCache<byte[], byte[]> cache) {
+
+        super();
+
+        if (cache == null) {
+            throw new NullPointerException("cache");
+        }
+
+        this.cache = cache;
+    }
+
+
+    public String get(final String key) {
+
+        if (key == null) {
+            throw new NullPointerException("key");
+        }
+
+        final byte[] value = cache.get(bytes(key));
+
+        return value == null ? null : string(value);
+    }
+
+
+    public void put(final String key, final String value) {
+
+        if (key == null) {
+            throw new NullPointerException("key");
+        }
+
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+
+        cache.put(bytes(key), bytes(value));
+    }
+
+
+    public void clear() {
+
+        cache.clear();
+    }
+
+
+    public ResultCacheStats getStats() {
+
+        return cache.getStats();
+    }
+
+
+    private final ResultCache<byte[], byte[]> cache;
+
+
+}
+
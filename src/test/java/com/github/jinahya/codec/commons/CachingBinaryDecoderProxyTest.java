@@ -0,0 +1,129 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.codec.BinaryDecoder;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class CachingBinaryDecoderProxyTest {
+
+
+    /**
+     * A hex decoder counting its invocations.
+     */
+    private static class CountingDecoder implements BinaryDecoder {
+
+
+        @Override
+        public byte[] decode(final byte[] source) throws DecoderException {
+
+            count.incrementAndGet();
+
+            return new Hex().decode(source);
+        }
+
+
+        @Override
+        public Object decode(final Object source) throws DecoderException {
+
+            return decode((byte[]) source);
+        }
+
+
+        private final AtomicInteger count = new AtomicInteger();
+
+
+    }
+
+
+    @Test
+    public void testDecodeByContent() throws DecoderException {
+
+        final CountingDecoder delegate = new CountingDecoder();
+        final ByteArrayResultCache cache = new ByteArrayResultCache(16);
+        final BinaryDecoder decoder = (BinaryDecoder)
+            CachingBinaryDecoderProxy.newInstance(delegate, cache);
+
+        Assert.assertEquals(decoder.decode("0102".getBytes()),
+                            new byte[]{1, 2});
+        Assert.assertEquals(decoder.decode("0102".getBytes()),
+                            new byte[]{1, 2});
+        Assert.assertEquals(decoder.decode("0201".getBytes()),
+                            new byte[]{2, 1});
+        Assert.assertEquals(delegate.count.get(), 2);
+        Assert.assertEquals(cache.getStats().getHitCount(), 1L);
+        Assert.assertEquals(cache.getStats().getMissCount(), 2L);
+        Assert.assertEquals(cache.size(), 2);
+    }
+
+
+    @Test
+    public void testCachedContentIsolated() throws DecoderException {
+
+        final CountingDecoder delegate = new CountingDecoder();
+        final BinaryDecoder decoder = (BinaryDecoder)
+            CachingBinaryDecoderProxy.newAdapter(
+                delegate, new ByteArrayResultCache(16));
+
+        final byte[] source = "0102".getBytes();
+        final byte[] first = decoder.decode(source);
+        first[0] = 0;
+        source[0] = '1';
+
+        final byte[] second = decoder.decode("0102".getBytes());
+        Assert.assertEquals(second, new byte[]{1, 2});
+        second[1] = 0;
+
+        Assert.assertEquals(decoder.decode("0102".getBytes()),
+                            new byte[]{1, 2});
+        Assert.assertEquals(delegate.count.get(), 1);
+    }
+
+
+    @Test
+    public void testFailureNotCached() {
+
+        final CountingDecoder delegate = new CountingDecoder();
+        final ByteArrayResultCache cache = new ByteArrayResultCache(16);
+        final BinaryDecoder decoder = (BinaryDecoder)
+            CachingBinaryDecoderProxy.newAdapter(delegate, cache);
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                decoder.decode("012".getBytes());
+                Assert.fail("decoded an odd number of characters");
+            } catch (final DecoderException de) {
+                // expected
+            }
+        }
+        Assert.assertEquals(delegate.count.get(), 2);
+        Assert.assertEquals(cache.size(), 0);
+    }
+
+
+}
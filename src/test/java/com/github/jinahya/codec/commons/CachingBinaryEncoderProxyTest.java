@@ -0,0 +1,179 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.codec.BinaryEncoder;
+import org.apache.commons.codec.EncoderException;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.binary.Hex;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class CachingBinaryEncoderProxyTest {
+
+
+    /**
+     * A hex encoder counting its invocations.
+     */
+    private static class CountingEncoder implements BinaryEncoder {
+
+
+        @Override
+        public byte[] encode(final byte[] source) throws EncoderException {
+
+            count.incrementAndGet();
+
+            return new Hex().encode(source);
+        }
+
+
+        @Override
+        public Object encode(final Object source) throws EncoderException {
+
+            return encode((byte[]) source);
+        }
+
+
+        private final AtomicInteger count = new AtomicInteger();
+
+
+    }
+
+
+    @Test
+    public void testEncodeByContent() throws EncoderException {
+
+        final CountingEncoder delegate = new CountingEncoder();
+        final ByteArrayResultCache cache = new ByteArrayResultCache(16);
+        final BinaryEncoder encoder = (BinaryEncoder)
+            CachingBinaryEncoderProxy.newInstance(delegate, cache);
+
+        final byte[] expected = "0102".getBytes();
+        Assert.assertEquals(encoder.encode(new byte[]{1, 2}), expected);
+        Assert.assertEquals(encoder.encode(new byte[]{1, 2}), expected);
+        Assert.assertEquals(encoder.encode(new byte[]{2, 1}),
+                            "0201".getBytes());
+        Assert.assertEquals(delegate.count.get(), 2);
+        Assert.assertEquals(cache.getStats().getHitCount(), 1L);
+        Assert.assertEquals(cache.size(), 2);
+    }
+
+
+    @Test
+    public void testCachedContentIsolated() throws EncoderException {
+
+        final CountingEncoder delegate = new CountingEncoder();
+        final BinaryEncoder encoder = (BinaryEncoder)
+            CachingBinaryEncoderProxy.newAdapter(
+                delegate, new ByteArrayResultCache(16));
+
+        final byte[] source = {1, 2};
+        final byte[] first = encoder.encode(source);
+        first[0] = 0;
+        source[0] = 2;
+
+        Assert.assertEquals(encoder.encode(new byte[]{1, 2}),
+                            "0102".getBytes());
+        Assert.assertEquals(delegate.count.get(), 1);
+    }
+
+
+    @Test
+    public void testSwapClearsCache() throws EncoderException {
+
+        final CountingEncoder delegate = new CountingEncoder();
+        final ByteArrayResultCache cache = new ByteArrayResultCache(16);
+        final BinaryEncoder encoder = (BinaryEncoder)
+            CachingBinaryEncoderProxy.newInstance(delegate, cache);
+        final CachingBinaryEncoderProxy proxy =
+            CachingBinaryEncoderProxy.getEncoderProxy(
+                encoder, CachingBinaryEncoderProxy.class);
+
+        Assert.assertEquals(encoder.encode(new byte[]{1, 2}),
+                            "0102".getBytes());
+        final Base64 swapped = new Base64();
+        Assert.assertSame(proxy.swapEncoder(swapped), delegate);
+        Assert.assertEquals(cache.size(), 0);
+        Assert.assertEquals(encoder.encode(new byte[]{1, 2}),
+                            "AQI=".getBytes());
+
+        Assert.assertFalse(proxy.compareAndSwapEncoder(delegate, delegate));
+        Assert.assertEquals(cache.size(), 1);
+        Assert.assertTrue(proxy.compareAndSwapEncoder(swapped, delegate));
+        Assert.assertEquals(cache.size(), 0);
+        Assert.assertEquals(encoder.encode(new byte[]{1, 2}),
+                            "0102".getBytes());
+        Assert.assertEquals(delegate.count.get(), 2);
+    }
+
+
+    @Test
+    public void testSwapBeforePut() throws EncoderException {
+
+        final CountingEncoder delegate = new CountingEncoder();
+        final ByteArrayResultCache cached = new ByteArrayResultCache(16);
+        final CachingBinaryEncoderProxy[] proxy =
+            new CachingBinaryEncoderProxy[1];
+        // swaps, once, after the output is computed and before it is put
+        final ResultCache<byte[], byte[]> cache =
+            new ResultCache<byte[], byte[]>() {
+                @Override
+                public byte[] get(final byte[] key) {
+                    return cached.get(key);
+                }
+                @Override
+                public void put(final byte[] key, final byte[] value) {
+                    if (proxy[0] != null) {
+                        proxy[0].swapEncoder(new Base64());
+                        proxy[0] = null;
+                    }
+                    cached.put(key, value);
+                }
+                @Override
+                public void clear() {
+                    cached.clear();
+                }
+                @Override
+                public ResultCacheStats getStats() {
+                    return cached.getStats();
+                }
+            };
+        final BinaryEncoder encoder = (BinaryEncoder)
+            CachingBinaryEncoderProxy.newInstance(delegate, cache);
+        proxy[0] = CachingBinaryEncoderProxy.getEncoderProxy(
+            encoder, CachingBinaryEncoderProxy.class);
+
+        Assert.assertEquals(encoder.encode(new byte[]{1, 2}),
+                            "0102".getBytes());
+        // the output of the previous encoder is not served
+        Assert.assertEquals(cached.size(), 0);
+        Assert.assertEquals(encoder.encode(new byte[]{1, 2}),
+                            "AQI=".getBytes());
+        Assert.assertEquals(cached.size(), 1);
+        Assert.assertEquals(delegate.count.get(), 1);
+    }
+
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.StringDecoder;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class CachingStringDecoderProxyTest {
+
+
+    /**
+     * A decoder reversing strings, failing on empty ones, and counting its
+     * invocations.
+     */
+    private static class CountingDecoder implements StringDecoder {
+
+
+        @Override
+        public String decode(final String source) throws DecoderException {
+
+            count.incrementAndGet();
+
+            if (source.isEmpty()) {
+                throw new DecoderException("empty");
+            }
+
+            return new StringBuilder(source).reverse().toString();
+        }
+
+
+        @Override
+        public Object decode(final Object source) throws DecoderException {
+
+            return decode((String) source);
+        }
+
+
+        private final AtomicInteger count = new AtomicInteger();
+
+
+    }
+
+
+    @Test
+    public void testDecode() throws DecoderException {
+
+        final CountingDecoder delegate = new CountingDecoder();
+        final ResultCache<String, String> cache =
+            new LfuResultCache<String, String>(16);
+        for (final Object created : new Object[]{
+            CachingStringDecoderProxy.newInstance(delegate, cache),
+            CachingStringDecoderProxy.newAdapter(delegate, cache)}) {
+            final StringDecoder decoder = (StringDecoder) created;
+            Assert.assertEquals(decoder.decode("abc"), "cba");
+            Assert.assertEquals(decoder.decode("abc"), "cba");
+            Assert.assertEquals(decoder.decode((Object) "abc"), "cba");
+        }
+        Assert.assertEquals(delegate.count.get(), 1);
+
+        final ResultCacheStats stats = cache.getStats();
+        Assert.assertEquals(stats.getHitCount(), 5L);
+        Assert.assertEquals(stats.getMissCount(), 1L);
+    }
+
+
+    @Test
+    public void testDecodeAll() throws DecoderException {
+
+        final CountingDecoder delegate = new CountingDecoder();
+        final BatchStringDecoder decoder =
+            (BatchStringDecoder) CachingStringDecoderProxy.newInstance(
+                delegate, new LfuResultCache<String, String>(16));
+
+        final List<String> decoded =
+            decoder.decodeAll(Arrays.asList("ab", "cd", "ab", "ab"));
+        Assert.assertEquals(decoded, Arrays.asList("ba", "dc", "ba", "ba"));
+        Assert.assertEquals(delegate.count.get(), 2);
+    }
+
+
+    @Test
+    public void testFailureNotCached() {
+
+        final CountingDecoder delegate = new CountingDecoder();
+        final ResultCache<String, String> cache =
+            new LfuResultCache<String, String>(16);
+        final StringDecoder decoder = (StringDecoder)
+            CachingStringDecoderProxy.newAdapter(delegate, cache);
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                decoder.decode("");
+                Assert.fail("decoded an empty string");
+            } catch (final DecoderException de) {
+                // expected
+            }
+        }
+        Assert.assertEquals(delegate.count.get(), 2);
+        Assert.assertEquals(cache.getStats().getHitCount(), 0L);
+    }
+
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.codec.EncoderException;
+import org.apache.commons.codec.StringEncoder;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class CachingStringEncoderProxyTest {
+
+
+    /**
+     * An encoder reversing strings and counting its invocations.
+     */
+    private static class CountingEncoder implements StringEncoder {
+
+
+        @Override
+        public String encode(final String source) throws EncoderException {
+
+            count.incrementAndGet();
+
+            return new StringBuilder(source).reverse().toString();
+        }
+
+
+        @Override
+        public Object encode(final Object source) throws EncoderException {
+
+            return encode((String) source);
+        }
+
+
+        private final AtomicInteger count = new AtomicInteger();
+
+
+    }
+
+
+    @Test
+    public void testEncode() throws EncoderException {
+
+        final CountingEncoder delegate = new CountingEncoder();
+        final ResultCache<String, String> cache =
+            new LfuResultCache<String, String>(16);
+        for (final Object created : new Object[]{
+            CachingStringEncoderProxy.newInstance(delegate, cache),
+            CachingStringEncoderProxy.newAdapter(delegate, cache)}) {
+            final StringEncoder encoder = (StringEncoder) created;
+            Assert.assertEquals(encoder.encode("abc"), "cba");
+            Assert.assertEquals(encoder.encode("abc"), "cba");
+            Assert.assertEquals(encoder.encode((Object) "abc"), "cba");
+        }
+        Assert.assertEquals(delegate.count.get(), 1);
+
+        final ResultCacheStats stats = cache.getStats();
+        Assert.assertEquals(stats.getHitCount(), 5L);
+        Assert.assertEquals(stats.getMissCount(), 1L);
+    }
+
+
+    @Test
+    public void testEncodeAll() throws EncoderException {
+
+        final CountingEncoder delegate = new CountingEncoder();
+        final BatchStringEncoder encoder =
+            (BatchStringEncoder) CachingStringEncoderProxy.newInstance(
+                delegate, new LfuResultCache<String, String>(16));
+
+        final List<String> encoded =
+            encoder.encodeAll(Arrays.asList("ab", "cd", "ab", "ab"));
+        Assert.assertEquals(encoded, Arrays.asList("ba", "dc", "ba", "ba"));
+        Assert.assertEquals(delegate.count.get(), 2);
+    }
+
+
+}
+
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import org.apache.commons.codec.binary.Base64;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class DecodingInputStreamTest {
+
+
+    /**
+     * Returns an input stream which returns at most a few bytes per read.
+     */
+    private static InputStream trickle(final InputStream in,
+                                       final Random random) {
+
+        return new FilterInputStream(in) {
+            @Override
+            public int read(final byte[] b, final int off, final int len)
+                throws IOException {
+                return super.read(b, off, Math.min(len, 1 + random.nextInt(7)));
+            }
+        };
+    }
+
+
+    private static byte[] readAll(final InputStream in, final Random random)
+        throws IOException {
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[16];
+        while (true) {
+            if (random.nextBoolean()) {
+                final int b = in.read();
+                if (b == -1) {
+                    break;
+                }
+                out.write(b);
+                continue;
+            }
+            final int read = in.read(buffer, 0, 1 + random.nextInt(16));
+            if (read == -1) {
+                break;
+            }
+            out.write(buffer, 0, read);
+        }
+
+        return out.toByteArray();
+    }
+
+
+    @Test
+    public void testPartialBlocks() throws IOException {
+
+        final Random random = new Random();
+
+        for (int i = 0; i < 16; i++) {
+            final byte[] expected = new byte[random.nextInt(1024)];
+            random.nextBytes(expected);
+            final InputStream source = trickle(new ByteArrayInputStream(
+                Base64.encodeBase64(expected)), random);
+            final InputStream in = new DecodingInputStream(
+                source, new Base64(), 4, 1 + random.nextInt(64));
+            Assert.assertEquals(readAll(in, random), expected);
+            Assert.assertEquals(in.read(), -1);
+            in.close();
+        }
+    }
+
+
+    @Test
+    public void testReadOverflowingRange() throws IOException {
+
+        final InputStream in = new DecodingInputStream(
+            new ByteArrayInputStream("AQID".getBytes()), new Base64(), 4, 4);
+        try {
+            in.read(new byte[4], 2, Integer.MAX_VALUE);
+            Assert.fail("range not checked");
+        } catch (final IndexOutOfBoundsException ioobe) {
+            // rejected by the range check, not by copying
+            Assert.assertEquals(ioobe.getClass(),
+                                IndexOutOfBoundsException.class);
+        }
+        Assert.assertEquals(in.read(), 1);
+    }
+
+
+    @Test
+    public void testInputStream() throws IOException {
+
+        final InputStream in = RareBinaryArrayDecoderProxy.newInputStream(
+            trickle(new ByteArrayInputStream("0001ab7f".getBytes()),
+                    new Random()));
+        Assert.assertEquals(in.skip(1L), 1L);
+        Assert.assertEquals(readAll(in, new Random()),
+                            new byte[]{0x01, (byte) 0xAB, 0x7F});
+        in.close();
+
+        try {
+            in.read();
+            Assert.fail("passed: read after close");
+        } catch (final IOException ioe) {
+            // expected
+        }
+    }
+
+
+}
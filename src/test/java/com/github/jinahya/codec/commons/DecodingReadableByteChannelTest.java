@@ -0,0 +1,105 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Random;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Base64;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class DecodingReadableByteChannelTest {
+
+
+    /**
+     * A {@link ByteBufferDecoder} which decodes with {@link Base64}.
+     */
+    static final ByteBufferDecoder BASE64 = new ByteBufferDecoder() {
+        @Override
+        public ByteBuffer decode(final ByteBuffer source)
+            throws DecoderException {
+            final byte[] array = new byte[source.remaining()];
+            source.get(array);
+            return ByteBuffer.wrap(new Base64().decode(array));
+        }
+    };
+
+
+    private static byte[] readAll(final ReadableByteChannel channel,
+                                  final Random random)
+        throws IOException {
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        while (true) {
+            final ByteBuffer dst = ByteBuffer.allocate(1 + random.nextInt(16));
+            if (channel.read(dst) == -1) {
+                break;
+            }
+            out.write(dst.array(), 0, dst.position());
+        }
+
+        return out.toByteArray();
+    }
+
+
+    @Test
+    public void testPartialBlocks() throws IOException {
+
+        final Random random = new Random();
+
+        for (int i = 0; i < 16; i++) {
+            final byte[] expected = new byte[random.nextInt(1024)];
+            random.nextBytes(expected);
+            final ReadableByteChannel channel =
+                new DecodingReadableByteChannel(
+                    Channels.newChannel(new ByteArrayInputStream(
+                        Base64.encodeBase64(expected))),
+                    BASE64, 4, 1 + random.nextInt(64));
+            Assert.assertEquals(readAll(channel, random), expected);
+            channel.close();
+        }
+    }
+
+
+    @Test
+    public void testReadableByteChannel() throws IOException {
+
+        final ReadableByteChannel channel =
+            RareBinaryArrayDecoderProxy.newReadableByteChannel(
+                Channels.newChannel(
+                    new ByteArrayInputStream("0001ab7f".getBytes())));
+        Assert.assertEquals(readAll(channel, new Random()),
+                            new byte[]{0x00, 0x01, (byte) 0xAB, 0x7F});
+        channel.close();
+        Assert.assertFalse(channel.isOpen());
+    }
+
+
+}
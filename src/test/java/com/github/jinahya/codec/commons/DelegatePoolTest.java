@@ -0,0 +1,174 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class DelegatePoolTest {
+
+
+    private static class CountingFactory
+        implements DelegatePool.Factory<Object> {
+
+
+        @Override
+        public Object create() {
+
+            created.incrementAndGet();
+
+            return new Object();
+        }
+
+
+        @Override
+        public void dispose(final Object delegate) {
+
+            disposed.incrementAndGet();
+        }
+
+
+        private final AtomicInteger created = new AtomicInteger();
+
+
+        private final AtomicInteger disposed = new AtomicInteger();
+
+
+    }
+
+
+    @Test
+    public void testReuse() throws Exception {
+
+        final CountingFactory factory = new CountingFactory();
+        final DelegatePool<Object> pool = new DelegatePool<Object>(factory, 2);
+
+        final Object first = pool.borrow();
+        pool.release(first);
+        Assert.assertSame(pool.borrow(), first);
+        pool.release(first);
+        Assert.assertEquals(factory.created.get(), 1);
+        Assert.assertEquals(pool.getIdleCount(), 1);
+    }
+
+
+    @Test
+    public void testBounded() throws Exception {
+
+        final CountingFactory factory = new CountingFactory();
+        final DelegatePool<Object> pool = new DelegatePool<Object>(factory, 2);
+
+        final List<Object> borrowed = new ArrayList<Object>();
+        for (int i = 0; i < 5; i++) {
+            borrowed.add(pool.borrow());
+        }
+        for (final Object delegate : borrowed) {
+            pool.release(delegate);
+        }
+        Assert.assertEquals(factory.created.get(), 5);
+        Assert.assertEquals(factory.disposed.get(), 3);
+        Assert.assertEquals(pool.getIdleCount(), 2);
+    }
+
+
+    @Test
+    public void testMaximum() throws Exception {
+
+        final CountingFactory factory = new CountingFactory();
+        final DelegatePool<Object> pool =
+            new DelegatePool<Object>(factory, 1, 2);
+
+        final Object first = pool.borrow();
+        final Object second = pool.borrow();
+        Assert.assertEquals(pool.getLiveCount(), 2);
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Object> third = executor.submit(
+                new Callable<Object>() {
+                    @Override
+                    public Object call() throws Exception {
+                        return pool.borrow();
+                    }
+                });
+            try {
+                third.get(100L, TimeUnit.MILLISECONDS);
+                Assert.fail("borrowed beyond the maximum");
+            } catch (final TimeoutException te) {
+                // expected
+            }
+            pool.discard(first);
+            Assert.assertNotNull(third.get(1L, TimeUnit.MINUTES));
+            Assert.assertEquals(factory.created.get(), 3);
+
+            // a released delegate is handed over as is
+            final Future<Object> fourth = executor.submit(
+                new Callable<Object>() {
+                    @Override
+                    public Object call() throws Exception {
+                        return pool.borrow();
+                    }
+                });
+            pool.release(second);
+            Assert.assertSame(fourth.get(1L, TimeUnit.MINUTES), second);
+            Assert.assertEquals(factory.created.get(), 3);
+            Assert.assertEquals(pool.getLiveCount(), 2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+
+    @Test
+    public void testClose() throws Exception {
+
+        final CountingFactory factory = new CountingFactory();
+        final DelegatePool<Object> pool = new DelegatePool<Object>(factory, 2);
+
+        final Object first = pool.borrow();
+        final Object second = pool.borrow();
+        pool.release(first);
+        pool.close();
+        Assert.assertEquals(factory.disposed.get(), 1);
+
+        pool.release(second);
+        Assert.assertEquals(factory.disposed.get(), 2);
+        Assert.assertEquals(pool.getIdleCount(), 0);
+
+        pool.discard(pool.borrow());
+        Assert.assertEquals(factory.disposed.get(), 3);
+    }
+
+
+}
+
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.apache.commons.codec.BinaryEncoder;
+import org.apache.commons.codec.EncoderException;
+import org.apache.commons.codec.binary.Hex;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class DirectByteArrayResultCacheTest {
+
+
+    @Test
+    public void testGetPut() {
+
+        final DirectByteArrayResultCache cache =
+            new DirectByteArrayResultCache(1024L * 1024L);
+
+        Assert.assertNull(cache.get(new byte[]{1, 2, 3}));
+        cache.put(new byte[]{1, 2, 3}, new byte[]{4, 5});
+        Assert.assertEquals(cache.get(new byte[]{1, 2, 3}), new byte[]{4, 5});
+        Assert.assertNull(cache.get(new byte[]{1, 2}));
+        cache.put(new byte[0], new byte[0]);
+        Assert.assertEquals(cache.get(new byte[0]), new byte[0]);
+
+        final ResultCacheStats stats = cache.getStats();
+        Assert.assertEquals(stats.getHitCount(), 2L);
+        Assert.assertEquals(stats.getMissCount(), 2L);
+        Assert.assertEquals(cache.size(), 2);
+    }
+
+
+    @Test
+    public void testClear() {
+
+        final DirectByteArrayResultCache cache =
+            new DirectByteArrayResultCache(65536L, 1);
+
+        cache.put(new byte[]{1}, new byte[]{2});
+        cache.put(new byte[]{3}, new byte[]{4});
+        cache.clear();
+        Assert.assertEquals(cache.size(), 0);
+        Assert.assertNull(cache.get(new byte[]{1}));
+
+        cache.put(new byte[]{3}, new byte[]{5});
+        Assert.assertEquals(cache.get(new byte[]{3}), new byte[]{5});
+        Assert.assertEquals(cache.size(), 1);
+    }
+
+
+    @Test
+    public void testRejectTooLarge() {
+
+        final DirectByteArrayResultCache cache =
+            new DirectByteArrayResultCache(65536L, 1);
+
+        cache.put(new byte[]{1}, new byte[65536]);
+        Assert.assertNull(cache.get(new byte[]{1}));
+        Assert.assertEquals(cache.getStats().getRejectionCount(), 1L);
+    }
+
+
+    @Test
+    public void testEviction() {
+
+        final DirectByteArrayResultCache cache =
+            new DirectByteArrayResultCache(65536L, 1);
+        final Random random = new Random(0L);
+        final Map<Integer, byte[]> values = new HashMap<Integer, byte[]>();
+
+        for (int i = 0; i < 20000; i++) {
+            final Integer key = random.nextInt(4096);
+            final byte[] k = key.toString().getBytes();
+            final byte[] cached = cache.get(k);
+            if (cached != null) {
+                Assert.assertEquals(cached, values.get(key));
+                continue;
+            }
+            byte[] value = values.get(key);
+            if (value == null) {
+                value = new byte[random.nextInt(512)];
+                random.nextBytes(value);
+                values.put(key, value);
+            }
+            cache.put(k, value);
+            Assert.assertEquals(cache.get(k), value);
+        }
+
+        final ResultCacheStats stats = cache.getStats();
+        Assert.assertTrue(stats.getEvictionCount() > 0L);
+        Assert.assertTrue(stats.getHitCount() > 0L);
+        Assert.assertTrue(cache.size() < values.size());
+    }
+
+
+    @Test
+    public void testCachingProxy() throws EncoderException {
+
+        final BinaryEncoder encoder = (BinaryEncoder)
+            CachingBinaryEncoderProxy.newInstance(
+                new Hex(), new DirectByteArrayResultCache(65536L));
+
+        for (int i = 0; i < 2; i++) {
+            Assert.assertEquals(encoder.encode(new byte[]{1, 2}),
+                                "0102".getBytes());
+        }
+    }
+
+
+}
+
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+import org.apache.commons.codec.binary.Base64;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class EncodingOutputStreamTest {
+
+
+    @Test
+    public void testPartialBlocks() throws IOException {
+
+        final Random random = new Random();
+
+        for (int i = 0; i < 16; i++) {
+            final byte[] source = new byte[random.nextInt(1024)];
+            random.nextBytes(source);
+            final ByteArrayOutputStream target = new ByteArrayOutputStream();
+            final OutputStream out = new EncodingOutputStream(
+                target, new Base64(), 3, 1 + random.nextInt(64));
+            for (int off = 0; off < source.length;) {
+                final int len = Math.min(source.length - off,
+                                         random.nextInt(16));
+                if (len == 1) {
+                    out.write(source[off]);
+                } else {
+                    out.write(source, off, len);
+                }
+                off += len;
+                if (random.nextInt(8) == 0) {
+                    out.flush();
+                }
+            }
+            out.close();
+            Assert.assertEquals(new String(target.toByteArray(), "US-ASCII"),
+                                Base64.encodeBase64String(source));
+        }
+    }
+
+
+    @Test
+    public void testWriteOverflowingRange() throws IOException {
+
+        final OutputStream out = new EncodingOutputStream(
+            new ByteArrayOutputStream(), new Base64(), 3, 3);
+        try {
+            out.write(new byte[4], 2, Integer.MAX_VALUE);
+            Assert.fail("range not checked");
+        } catch (final IndexOutOfBoundsException ioobe) {
+            // rejected by the range check, not by copying
+            Assert.assertEquals(ioobe.getClass(),
+                                IndexOutOfBoundsException.class);
+        }
+    }
+
+
+    @Test
+    public void testOutputStream() throws IOException {
+
+        final ByteArrayOutputStream target = new ByteArrayOutputStream();
+        final OutputStream out =
+            RareBinaryArrayEncoderProxy.newOutputStream(target);
+        out.write(new byte[]{0x00, 0x01});
+        out.write(0xAB);
+        out.close();
+        out.close();
+        Assert.assertEquals(new String(target.toByteArray(), "US-ASCII"),
+                            "0001ab");
+
+        try {
+            out.write(0);
+            Assert.fail("passed: write after close");
+        } catch (final IOException ioe) {
+            // expected
+        }
+    }
+
+
+}
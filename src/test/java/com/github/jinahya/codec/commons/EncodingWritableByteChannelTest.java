@@ -0,0 +1,108 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+import java.util.Random;
+import org.apache.commons.codec.EncoderException;
+import org.apache.commons.codec.binary.Base64;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class EncodingWritableByteChannelTest {
+
+
+    /**
+     * A {@link ByteBufferEncoder} which encodes with {@link Base64}.
+     */
+    static final ByteBufferEncoder BASE64 = new ByteBufferEncoder() {
+        @Override
+        public ByteBuffer encode(final ByteBuffer source)
+            throws EncoderException {
+            final byte[] array = new byte[source.remaining()];
+            source.get(array);
+            return ByteBuffer.wrap(new Base64().encode(array));
+        }
+    };
+
+
+    @Test
+    public void testPartialBlocks() throws IOException {
+
+        final Random random = new Random();
+
+        for (int i = 0; i < 16; i++) {
+            final byte[] source = new byte[random.nextInt(1024)];
+            random.nextBytes(source);
+            final ByteArrayOutputStream target = new ByteArrayOutputStream();
+            final WritableByteChannel channel =
+                new EncodingWritableByteChannel(
+                    Channels.newChannel(target), BASE64, 3,
+                    1 + random.nextInt(64));
+            for (int off = 0; off < source.length;) {
+                final int len = Math.min(source.length - off,
+                                         random.nextInt(16));
+                final ByteBuffer src = random.nextBoolean()
+                                       ? ByteBuffer.allocateDirect(len)
+                                       : ByteBuffer.allocate(len);
+                src.put(source, off, len).flip();
+                Assert.assertEquals(channel.write(src), len);
+                Assert.assertFalse(src.hasRemaining());
+                off += len;
+            }
+            channel.close();
+            Assert.assertEquals(new String(target.toByteArray(), "US-ASCII"),
+                                Base64.encodeBase64String(source));
+        }
+    }
+
+
+    @Test
+    public void testWritableByteChannel() throws IOException {
+
+        final ByteArrayOutputStream target = new ByteArrayOutputStream();
+        final WritableByteChannel channel =
+            RareBinaryArrayEncoderProxy.newWritableByteChannel(
+                Channels.newChannel(target));
+        channel.write(ByteBuffer.wrap(new byte[]{0x00, 0x01, (byte) 0xAB}));
+        channel.close();
+        Assert.assertFalse(channel.isOpen());
+        Assert.assertEquals(new String(target.toByteArray(), "US-ASCII"),
+                            "0001ab");
+
+        try {
+            channel.write(ByteBuffer.allocate(1));
+            Assert.fail("passed: write after close");
+        } catch (final ClosedChannelException cce) {
+            // expected
+        }
+    }
+
+
+}
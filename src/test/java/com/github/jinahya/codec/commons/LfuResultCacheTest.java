@@ -0,0 +1,148 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class LfuResultCacheTest {
+
+
+    private static String lookUp(final LfuResultCache<String, String> cache,
+                                 final String key) {
+
+        final String value = cache.get(key);
+        if (value == null) {
+            cache.put(key, key.toUpperCase());
+        }
+
+        return value;
+    }
+
+
+    @Test
+    public void testHitsAndMisses() {
+
+        final LfuResultCache<String, String> cache =
+            new LfuResultCache<String, String>(4, 1);
+
+        Assert.assertNull(lookUp(cache, "a"));
+        Assert.assertEquals(lookUp(cache, "a"), "A");
+        Assert.assertEquals(lookUp(cache, "a"), "A");
+        Assert.assertNull(lookUp(cache, "b"));
+
+        final ResultCacheStats stats = cache.getStats();
+        Assert.assertEquals(stats.getHitCount(), 2L);
+        Assert.assertEquals(stats.getMissCount(), 2L);
+        Assert.assertEquals(stats.getEvictionCount(), 0L);
+        Assert.assertEquals(stats.getHitRate(), .5d);
+        Assert.assertEquals(cache.size(), 2);
+    }
+
+
+    @Test
+    public void testClear() {
+
+        final LfuResultCache<String, String> cache =
+            new LfuResultCache<String, String>(4, 2);
+
+        lookUp(cache, "a");
+        lookUp(cache, "b");
+        cache.clear();
+        Assert.assertEquals(cache.size(), 0);
+        Assert.assertNull(lookUp(cache, "a"));
+        Assert.assertEquals(lookUp(cache, "a"), "A");
+        Assert.assertEquals(cache.getStats().getMissCount(), 3L);
+    }
+
+
+    @Test
+    public void testAdmission() {
+
+        final LfuResultCache<String, String> cache =
+            new LfuResultCache<String, String>(2, 1);
+
+        for (int i = 0; i < 4; i++) {
+            lookUp(cache, "a");
+            lookUp(cache, "b");
+        }
+        Assert.assertEquals(cache.size(), 2);
+
+        // a one-off key can't push out frequently used ones
+        Assert.assertNull(lookUp(cache, "c"));
+        Assert.assertEquals(cache.getStats().getRejectionCount(), 1L);
+        Assert.assertEquals(lookUp(cache, "a"), "A");
+        Assert.assertEquals(lookUp(cache, "b"), "B");
+
+        // a key which becomes popular replaces the least recently used one
+        for (int i = 0; i < 8; i++) {
+            lookUp(cache, "c");
+        }
+        Assert.assertEquals(lookUp(cache, "c"), "C");
+        Assert.assertEquals(lookUp(cache, "b"), "B");
+        Assert.assertEquals(cache.getStats().getEvictionCount(), 1L);
+        Assert.assertEquals(cache.size(), 2);
+    }
+
+
+    @Test
+    public void testConcurrent() throws InterruptedException {
+
+        final LfuResultCache<String, String> cache =
+            new LfuResultCache<String, String>(64, 8);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int t = 0; t < 8; t++) {
+                final int seed = t;
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (int i = 0; i < 10000; i++) {
+                            final String key =
+                                Integer.toString((i * 31 + seed) % 256);
+                            final String value = lookUp(cache, key);
+                            if (value != null) {
+                                Assert.assertEquals(value, key.toUpperCase());
+                            }
+                        }
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertTrue(executor.awaitTermination(1L, TimeUnit.MINUTES));
+
+        Assert.assertTrue(cache.size() <= cache.getCapacity());
+        final ResultCacheStats stats = cache.getStats();
+        Assert.assertEquals(stats.getHitCount() + stats.getMissCount(),
+                            80000L);
+    }
+
+
+}
+
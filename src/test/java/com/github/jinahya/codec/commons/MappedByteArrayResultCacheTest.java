@@ -0,0 +1,277 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.codec.EncoderException;
+import org.apache.commons.codec.StringEncoder;
+import org.apache.commons.codec.binary.Hex;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class MappedByteArrayResultCacheTest {
+
+
+    private static File file() throws IOException {
+
+        final File file = File.createTempFile("cache", null);
+        file.deleteOnExit();
+
+        return file;
+    }
+
+
+    private static byte[] value(final int key) {
+
+        final byte[] value = new byte[key % 300];
+        new Random(key).nextBytes(value);
+
+        return value;
+    }
+
+
+    @Test
+    public void testReopen() throws IOException {
+
+        final File file = file();
+        final Random random = new Random(0L);
+
+        MappedByteArrayResultCache cache =
+            new MappedByteArrayResultCache(file, 131072L, 2, "v1");
+        try {
+            for (int i = 0; i < 5000; i++) {
+                final int key = random.nextInt(2000);
+                cache.put(Integer.toString(key).getBytes(), value(key));
+            }
+        } finally {
+            cache.close();
+        }
+        Assert.assertTrue(cache.getStats().getEvictionCount() > 0L);
+        final int size = cache.size();
+        Assert.assertTrue(size > 0);
+
+        cache = new MappedByteArrayResultCache(file, 131072L, 2, "v1");
+        try {
+            Assert.assertEquals(cache.size(), size);
+            int hits = 0;
+            for (int key = 0; key < 2000; key++) {
+                final byte[] value =
+                    cache.get(Integer.toString(key).getBytes());
+                if (value != null) {
+                    Assert.assertEquals(value, value(key));
+                    hits++;
+                }
+            }
+            Assert.assertEquals(hits, size);
+
+            // the recovered log keeps working
+            for (int i = 0; i < 5000; i++) {
+                final int key = random.nextInt(2000);
+                cache.put(Integer.toString(key).getBytes(), value(key));
+                Assert.assertEquals(
+                    cache.get(Integer.toString(key).getBytes()), value(key));
+            }
+        } finally {
+            cache.close();
+        }
+    }
+
+
+    @Test
+    public void testLocked() throws IOException {
+
+        final File file = file();
+
+        final MappedByteArrayResultCache cache =
+            new MappedByteArrayResultCache(file, 65536L, 1, "v1");
+        try {
+            cache.put(new byte[]{1}, new byte[]{2});
+            try {
+                new MappedByteArrayResultCache(file, 65536L, 1, "v1");
+                Assert.fail("opened a locked file");
+            } catch (final IOException ioe) {
+                // expected
+            }
+            Assert.assertEquals(cache.get(new byte[]{1}), new byte[]{2});
+        } finally {
+            cache.close();
+        }
+
+        final MappedByteArrayResultCache reopened =
+            new MappedByteArrayResultCache(file, 65536L, 1, "v1");
+        try {
+            Assert.assertEquals(reopened.get(new byte[]{1}), new byte[]{2});
+        } finally {
+            reopened.close();
+        }
+    }
+
+
+    @Test
+    public void testInvalidation() throws IOException {
+
+        final File file = file();
+        final byte[] key = {1, 2, 3};
+
+        MappedByteArrayResultCache cache =
+            new MappedByteArrayResultCache(file, 65536L, "v1");
+        cache.put(key, new byte[]{4});
+        cache.close();
+
+        // another version
+        cache = new MappedByteArrayResultCache(file, 65536L, "v2");
+        Assert.assertNull(cache.get(key));
+        cache.put(key, new byte[]{5});
+        cache.close();
+
+        // another layout
+        cache = new MappedByteArrayResultCache(file, 131072L, "v2");
+        Assert.assertNull(cache.get(key));
+        cache.put(key, new byte[]{6});
+        cache.close();
+
+        cache = new MappedByteArrayResultCache(file, 131072L, "v2");
+        Assert.assertEquals(cache.get(key), new byte[]{6});
+        cache.close();
+    }
+
+
+    @Test
+    public void testCorrupted() throws IOException {
+
+        final File file = file();
+        final byte[] key = {1, 2, 3};
+
+        MappedByteArrayResultCache cache =
+            new MappedByteArrayResultCache(file, 65536L, "v1");
+        cache.put(key, new byte[]{4});
+        cache.close();
+
+        final RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.seek(file.length() - 65536L + ByteArrayLog.STATE_SIZE
+                     + ByteArrayLog.HEADER_SIZE);
+            raf.write(0xFF); // the key
+        } finally {
+            raf.close();
+        }
+
+        cache = new MappedByteArrayResultCache(file, 65536L, "v1");
+        try {
+            Assert.assertEquals(cache.size(), 0);
+            Assert.assertNull(cache.get(key));
+        } finally {
+            cache.close();
+        }
+    }
+
+
+    @Test
+    public void testTornValue() throws IOException {
+
+        final File file = file();
+        final byte[] torn = {1, 2, 3};
+        final byte[] intact = {5, 6};
+
+        MappedByteArrayResultCache cache =
+            new MappedByteArrayResultCache(file, 65536L, "v1");
+        cache.put(torn, new byte[]{4});
+        cache.put(intact, new byte[]{7});
+        cache.close();
+
+        final RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.seek(file.length() - 65536L + ByteArrayLog.STATE_SIZE
+                     + ByteArrayLog.HEADER_SIZE + torn.length);
+            raf.write(0xFF); // the value, as if its page were not written
+        } finally {
+            raf.close();
+        }
+
+        cache = new MappedByteArrayResultCache(file, 65536L, "v1");
+        try {
+            Assert.assertNull(cache.get(torn));
+            Assert.assertEquals(cache.get(intact), new byte[]{7});
+            Assert.assertEquals(cache.size(), 1);
+            cache.put(torn, new byte[]{4});
+            Assert.assertEquals(cache.get(torn), new byte[]{4});
+        } finally {
+            cache.close();
+        }
+    }
+
+
+    @Test
+    public void testVersion() {
+
+        final String version = MappedByteArrayResultCache.version(Hex.class);
+        Assert.assertEquals(MappedByteArrayResultCache.version(Hex.class),
+                            version);
+        Assert.assertTrue(version.startsWith(Hex.class.getName() + "@"));
+        Assert.assertFalse(
+            MappedByteArrayResultCache.version(String.class).equals(version));
+    }
+
+
+    @Test
+    public void testWarmStart() throws IOException, EncoderException {
+
+        final File file = file();
+        final AtomicInteger count = new AtomicInteger();
+        final StringEncoder delegate = new StringEncoder() {
+            @Override
+            public String encode(final String source) {
+                count.incrementAndGet();
+                return source.toUpperCase();
+            }
+            @Override
+            public Object encode(final Object source) {
+                return encode((String) source);
+            }
+        };
+
+        for (int i = 0; i < 2; i++) {
+            final MappedByteArrayResultCache cache =
+                MappedByteArrayResultCache.open(
+                    file, 65536L, delegate.getClass());
+            try {
+                final StringEncoder encoder = (StringEncoder)
+                    CachingStringEncoderProxy.newInstance(
+                        delegate, new StringResultCache(cache));
+                Assert.assertEquals(encoder.encode("a\uD800b"), "A\uD800B");
+                Assert.assertEquals(encoder.encode("a\uD800b"), "A\uD800B");
+            } finally {
+                cache.close();
+            }
+        }
+        Assert.assertEquals(count.get(), 1);
+    }
+
+
+}
+
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.Random;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.EncoderException;
+import org.apache.commons.codec.binary.Base64;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class MappedFilesTest {
+
+
+    private static File write(final byte[] content) throws IOException {
+
+        final File file = File.createTempFile("mapped", null);
+        file.deleteOnExit();
+
+        final FileOutputStream output = new FileOutputStream(file);
+        try {
+            output.write(content);
+        } finally {
+            output.close();
+        }
+
+        return file;
+    }
+
+
+    private static byte[] read(final File file) throws IOException {
+
+        final byte[] content = new byte[(int) file.length()];
+
+        final FileInputStream input = new FileInputStream(file);
+        try {
+            for (int off = 0; off < content.length;) {
+                off += input.read(content, off, content.length - off);
+            }
+        } finally {
+            input.close();
+        }
+
+        return content;
+    }
+
+
+    @Test
+    public void testEncodeAndDecode()
+        throws IOException, EncoderException, DecoderException {
+
+        final Random random = new Random();
+
+        final byte[] expected = new byte[random.nextInt(65536)];
+        random.nextBytes(expected);
+
+        final File decoded = write(expected);
+        final File encoded = File.createTempFile("mapped", null);
+        encoded.deleteOnExit();
+        final File redecoded = File.createTempFile("mapped", null);
+        redecoded.deleteOnExit();
+
+        FileChannel source = new FileInputStream(decoded).getChannel();
+        FileChannel target = new FileOutputStream(encoded).getChannel();
+        try {
+            final long written = MappedFiles.encode(
+                source, target, EncodingWritableByteChannelTest.BASE64, 3,
+                1 + random.nextInt(8192));
+            Assert.assertEquals(written, encoded.length());
+        } finally {
+            target.close();
+            source.close();
+        }
+        Assert.assertEquals(new String(read(encoded), "US-ASCII"),
+                            Base64.encodeBase64String(expected));
+
+        source = new FileInputStream(encoded).getChannel();
+        target = new FileOutputStream(redecoded).getChannel();
+        try {
+            MappedFiles.decode(
+                source, target, DecodingReadableByteChannelTest.BASE64, 4,
+                1 + random.nextInt(8192));
+        } finally {
+            target.close();
+            source.close();
+        }
+        Assert.assertEquals(read(redecoded), expected);
+    }
+
+
+}
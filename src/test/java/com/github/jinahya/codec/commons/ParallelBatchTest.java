@@ -0,0 +1,144 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class ParallelBatchTest {
+
+
+    private static int[] squares(final Executor executor, final int length,
+                                 final int threshold)
+        throws Throwable {
+
+        final int[] squares = new int[length];
+        ParallelBatch.run(executor, length, threshold,
+                          new ParallelBatch.Task() {
+            @Override
+            public void run(final int from, final int to) {
+                for (int i = from; i < to; i++) {
+                    squares[i] = i * i;
+                }
+            }
+        });
+
+        return squares;
+    }
+
+
+    @BeforeClass
+    public void startExecutor() {
+
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+
+    @AfterClass
+    public void stopExecutor() {
+
+        executor.shutdown();
+    }
+
+
+    @Test
+    public void testOrder() throws Throwable {
+
+        for (final Executor e : new Executor[]{null, executor}) {
+            for (final int length : new int[]{0, 1, 7, 100, 10007}) {
+                final int[] squares = squares(e, length, 3);
+                for (int i = 0; i < length; i++) {
+                    Assert.assertEquals(squares[i], i * i);
+                }
+            }
+        }
+    }
+
+
+    @Test
+    public void testRejected() throws Throwable {
+
+        final int[] squares = squares(new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        }, 1000, 1);
+
+        for (int i = 0; i < squares.length; i++) {
+            Assert.assertEquals(squares[i], i * i);
+        }
+    }
+
+
+    @Test
+    public void testPartitions() throws Throwable {
+
+        final Set<Integer> froms =
+            Collections.synchronizedSet(new HashSet<Integer>());
+        ParallelBatch.run(executor, 100, 30, new ParallelBatch.Task() {
+            @Override
+            public void run(final int from, final int to) {
+                Assert.assertTrue(to - from >= 30);
+                froms.add(from);
+            }
+        });
+        Assert.assertTrue(froms.contains(0));
+    }
+
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testFailure() throws Throwable {
+
+        ParallelBatch.run(executor, 1000, 1, new ParallelBatch.Task() {
+            @Override
+            public void run(final int from, final int to) {
+                if (from <= 500 && 500 < to) {
+                    throw new IllegalStateException();
+                }
+            }
+        });
+    }
+
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNonPositiveThreshold() throws Throwable {
+
+        squares(null, 1, 0);
+    }
+
+
+    private ExecutorService executor;
+
+
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.codec.BinaryDecoder;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class PooledBinaryDecoderProxyTest {
+
+
+    /**
+     * A hex decoder which fails for odd-length sources and, if given a
+     * barrier, waits on it so that concurrent calls hold distinct delegates.
+     */
+    private static class HexDecoder implements BinaryDecoder {
+
+
+        HexDecoder(final CyclicBarrier barrier) {
+
+            super();
+
+            this.barrier = barrier;
+        }
+
+
+        @Override
+        public byte[] decode(final byte[] source) throws DecoderException {
+
+            if (barrier != null) {
+                try {
+                    barrier.await(1L, TimeUnit.MINUTES);
+                } catch (final Exception e) {
+                    throw new DecoderException(e);
+                }
+            }
+
+            return new Hex().decode(source);
+        }
+
+
+        @Override
+        public Object decode(final Object source) throws DecoderException {
+
+            return decode((byte[]) source);
+        }
+
+
+        private final CyclicBarrier barrier;
+
+
+    }
+
+
+    private static class HexFactory
+        implements DelegatePool.Factory<BinaryDecoder> {
+
+
+        HexFactory(final CyclicBarrier barrier) {
+
+            super();
+
+            this.barrier = barrier;
+        }
+
+
+        @Override
+        public BinaryDecoder create() {
+
+            created.incrementAndGet();
+
+            return new HexDecoder(barrier);
+        }
+
+
+        @Override
+        public void dispose(final BinaryDecoder delegate) {
+
+            disposed.incrementAndGet();
+        }
+
+
+        private final CyclicBarrier barrier;
+
+
+        private final AtomicInteger created = new AtomicInteger();
+
+
+        private final AtomicInteger disposed = new AtomicInteger();
+
+
+    }
+
+
+    @Test
+    public void testBorrowAndReturn() throws DecoderException {
+
+        final HexFactory factory = new HexFactory(null);
+        final BinaryDecoder decoder = (BinaryDecoder)
+            PooledBinaryDecoderProxy.newInstance(
+                new DelegatePool<BinaryDecoder>(factory, 2));
+
+        for (int i = 0; i < 16; i++) {
+            Assert.assertEquals(decoder.decode(new byte[]{'0', '1'}),
+                                new byte[]{1});
+        }
+        Assert.assertEquals(factory.created.get(), 1);
+        Assert.assertEquals(factory.disposed.get(), 0);
+    }
+
+
+    @Test
+    public void testDiscardFailed() throws DecoderException {
+
+        final HexFactory factory = new HexFactory(null);
+        final BinaryDecoder decoder = (BinaryDecoder)
+            PooledBinaryDecoderProxy.newAdapter(
+                new DelegatePool<BinaryDecoder>(factory, 2));
+
+        Assert.assertEquals(decoder.decode("0a".getBytes()), new byte[]{10});
+        try {
+            decoder.decode("0".getBytes());
+            Assert.fail("failed to fail");
+        } catch (final DecoderException de) {
+            // expected
+        }
+        // a rejected source doesn't cost the delegate
+        Assert.assertEquals(factory.disposed.get(), 0);
+        try {
+            decoder.decode((byte[]) null);
+            Assert.fail("failed to fail");
+        } catch (final RuntimeException re) {
+            // expected
+        }
+        Assert.assertEquals(factory.disposed.get(), 1);
+        Assert.assertEquals(decoder.decode("0a".getBytes()), new byte[]{10});
+        Assert.assertEquals(factory.created.get(), 2);
+    }
+
+
+    @Test
+    public void testIdleBound() throws Exception {
+
+        final int parties = 4;
+        final HexFactory factory = new HexFactory(new CyclicBarrier(parties));
+        final BinaryDecoder decoder = (BinaryDecoder)
+            PooledBinaryDecoderProxy.newInstance(
+                new DelegatePool<BinaryDecoder>(factory, 2));
+        final AtomicInteger failures = new AtomicInteger();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(parties);
+        try {
+            for (int t = 0; t < parties; t++) {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            Assert.assertEquals(
+                                decoder.decode("0a".getBytes()),
+                                new byte[]{10});
+                        } catch (final DecoderException de) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertTrue(executor.awaitTermination(1L, TimeUnit.MINUTES));
+
+        Assert.assertEquals(failures.get(), 0);
+        Assert.assertEquals(factory.created.get(), parties);
+        // only as many as the capacity are kept idle
+        Assert.assertEquals(factory.disposed.get(), parties - 2);
+    }
+
+
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.codec.BinaryEncoder;
+import org.apache.commons.codec.EncoderException;
+import org.apache.commons.codec.binary.Hex;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class PooledBinaryEncoderProxyTest {
+
+
+    /**
+     * A hex encoder which fails when used by more than one thread at once.
+     */
+    private static class ConfinedEncoder implements BinaryEncoder {
+
+
+        @Override
+        public byte[] encode(final byte[] source) throws EncoderException {
+
+            if (!busy.compareAndSet(false, true)) {
+                throw new EncoderException("used concurrently");
+            }
+            try {
+                if (source.length == 0) {
+                    throw new EncoderException("empty");
+                }
+                Thread.yield();
+                return new Hex().encode(source);
+            } finally {
+                busy.set(false);
+            }
+        }
+
+
+        @Override
+        public Object encode(final Object source) throws EncoderException {
+
+            return encode((byte[]) source);
+        }
+
+
+        private final AtomicBoolean busy = new AtomicBoolean();
+
+
+    }
+
+
+    private static class ConfinedFactory
+        implements DelegatePool.Factory<BinaryEncoder> {
+
+
+        @Override
+        public BinaryEncoder create() {
+
+            created.incrementAndGet();
+
+            return new ConfinedEncoder();
+        }
+
+
+        @Override
+        public void dispose(final BinaryEncoder delegate) {
+
+            disposed.incrementAndGet();
+        }
+
+
+        private final AtomicInteger created = new AtomicInteger();
+
+
+        private final AtomicInteger disposed = new AtomicInteger();
+
+
+    }
+
+
+    @Test
+    public void testConcurrent() throws InterruptedException {
+
+        final ConfinedFactory factory = new ConfinedFactory();
+        final BinaryEncoder encoder = (BinaryEncoder)
+            PooledBinaryEncoderProxy.newInstance(
+                new DelegatePool<BinaryEncoder>(factory, 8));
+        final AtomicInteger failures = new AtomicInteger();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int t = 0; t < 8; t++) {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (int i = 0; i < 2000; i++) {
+                            try {
+                                final byte[] encoded =
+                                    encoder.encode(new byte[]{(byte) i});
+                                Assert.assertEquals(encoded.length, 2);
+                            } catch (final EncoderException ee) {
+                                failures.incrementAndGet();
+                            }
+                        }
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertTrue(executor.awaitTermination(1L, TimeUnit.MINUTES));
+
+        Assert.assertEquals(failures.get(), 0);
+        Assert.assertTrue(factory.created.get() >= 1);
+        Assert.assertTrue(
+            factory.created.get() - factory.disposed.get() <= 8);
+    }
+
+
+    @Test
+    public void testDiscardFailed() throws EncoderException {
+
+        final ConfinedFactory factory = new ConfinedFactory();
+        final BinaryEncoder encoder = (BinaryEncoder)
+            PooledBinaryEncoderProxy.newAdapter(
+                new DelegatePool<BinaryEncoder>(factory, 2));
+
+        encoder.encode(new byte[]{1});
+        try {
+            encoder.encode(new byte[0]);
+            Assert.fail("failed to fail");
+        } catch (final EncoderException ee) {
+            // expected
+        }
+        // a rejected source doesn't cost the delegate
+        Assert.assertEquals(factory.disposed.get(), 0);
+        try {
+            encoder.encode((byte[]) null);
+            Assert.fail("failed to fail");
+        } catch (final RuntimeException re) {
+            // expected
+        }
+        encoder.encode(new byte[]{1});
+        Assert.assertEquals(factory.created.get(), 2);
+        Assert.assertEquals(factory.disposed.get(), 1);
+    }
+
+
+}
+
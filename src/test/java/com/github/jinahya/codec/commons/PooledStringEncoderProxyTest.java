@@ -0,0 +1,208 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.codec.EncoderException;
+import org.apache.commons.codec.StringEncoder;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class PooledStringEncoderProxyTest {
+
+
+    /**
+     * An upper-casing encoder which fails for empty strings and, if given a
+     * barrier, waits on it so that concurrent calls hold distinct delegates.
+     */
+    private static class UpperCaseEncoder implements StringEncoder {
+
+
+        UpperCaseEncoder(final CyclicBarrier barrier) {
+
+            super();
+
+            this.barrier = barrier;
+        }
+
+
+        @Override
+        public String encode(final String source) throws EncoderException {
+
+            if (source.isEmpty()) {
+                throw new EncoderException("empty");
+            }
+
+            if (barrier != null) {
+                try {
+                    barrier.await(1L, TimeUnit.MINUTES);
+                } catch (final Exception e) {
+                    throw new EncoderException(e);
+                }
+            }
+
+            return source.toUpperCase();
+        }
+
+
+        @Override
+        public Object encode(final Object source) throws EncoderException {
+
+            return encode((String) source);
+        }
+
+
+        private final CyclicBarrier barrier;
+
+
+    }
+
+
+    private static class UpperCaseFactory
+        implements DelegatePool.Factory<StringEncoder> {
+
+
+        UpperCaseFactory(final CyclicBarrier barrier) {
+
+            super();
+
+            this.barrier = barrier;
+        }
+
+
+        @Override
+        public StringEncoder create() {
+
+            created.incrementAndGet();
+
+            return new UpperCaseEncoder(barrier);
+        }
+
+
+        @Override
+        public void dispose(final StringEncoder delegate) {
+
+            disposed.incrementAndGet();
+        }
+
+
+        private final CyclicBarrier barrier;
+
+
+        private final AtomicInteger created = new AtomicInteger();
+
+
+        private final AtomicInteger disposed = new AtomicInteger();
+
+
+    }
+
+
+    @Test
+    public void testBorrowAndReturn() throws EncoderException {
+
+        final UpperCaseFactory factory = new UpperCaseFactory(null);
+        final StringEncoder encoder = (StringEncoder)
+            PooledStringEncoderProxy.newInstance(
+                new DelegatePool<StringEncoder>(factory, 2));
+
+        for (int i = 0; i < 16; i++) {
+            Assert.assertEquals(encoder.encode("abc" + i), "ABC" + i);
+        }
+        Assert.assertEquals(factory.created.get(), 1);
+        Assert.assertEquals(factory.disposed.get(), 0);
+    }
+
+
+    @Test
+    public void testDiscardFailed() throws EncoderException {
+
+        final UpperCaseFactory factory = new UpperCaseFactory(null);
+        final StringEncoder encoder = (StringEncoder)
+            PooledStringEncoderProxy.newAdapter(
+                new DelegatePool<StringEncoder>(factory, 2));
+
+        Assert.assertEquals(encoder.encode("a"), "A");
+        try {
+            encoder.encode("");
+            Assert.fail("failed to fail");
+        } catch (final EncoderException ee) {
+            // expected
+        }
+        // a rejected source doesn't cost the delegate
+        Assert.assertEquals(factory.disposed.get(), 0);
+        try {
+            encoder.encode((String) null);
+            Assert.fail("failed to fail");
+        } catch (final RuntimeException re) {
+            // expected
+        }
+        Assert.assertEquals(factory.disposed.get(), 1);
+        Assert.assertEquals(encoder.encode("a"), "A");
+        Assert.assertEquals(factory.created.get(), 2);
+    }
+
+
+    @Test
+    public void testIdleBound() throws Exception {
+
+        final int parties = 4;
+        final UpperCaseFactory factory =
+            new UpperCaseFactory(new CyclicBarrier(parties));
+        final StringEncoder encoder = (StringEncoder)
+            PooledStringEncoderProxy.newInstance(
+                new DelegatePool<StringEncoder>(factory, 2));
+        final AtomicInteger failures = new AtomicInteger();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(parties);
+        try {
+            for (int t = 0; t < parties; t++) {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            Assert.assertEquals(encoder.encode("a"), "A");
+                        } catch (final EncoderException ee) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertTrue(executor.awaitTermination(1L, TimeUnit.MINUTES));
+
+        Assert.assertEquals(failures.get(), 0);
+        Assert.assertEquals(factory.created.get(), parties);
+        // only as many as the capacity are kept idle
+        Assert.assertEquals(factory.disposed.get(), parties - 2);
+    }
+
+
+}
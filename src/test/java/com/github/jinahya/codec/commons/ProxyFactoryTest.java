@@ -0,0 +1,105 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.lang.reflect.Proxy;
+import org.apache.commons.codec.BinaryEncoder;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.Encoder;
+import org.apache.commons.codec.EncoderException;
+import org.apache.commons.codec.StringDecoder;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class ProxyFactoryTest {
+
+
+    @Test
+    public void testForEncoder() throws EncoderException {
+
+        final ProxyFactory<RareBinaryArrayEncoderProxy, RareBinaryArrayEncoder>
+            factory = ProxyFactory.forEncoder(
+                RareBinaryArrayEncoderProxy.class,
+                RareBinaryArrayEncoder.class);
+
+        final Object instance =
+            factory.newInstance(new RareBinaryArrayEncoder());
+        Assert.assertTrue(Proxy.isProxyClass(instance.getClass()));
+        Assert.assertSame(
+            instance.getClass(),
+            RareBinaryArrayEncoderProxy.newInstance().getClass());
+        Assert.assertEquals(((BinaryEncoder) instance).encode(new byte[]{1}),
+                            "01".getBytes());
+
+        final Object adapter = factory.newAdapter(new RareBinaryArrayEncoder());
+        Assert.assertFalse(Proxy.isProxyClass(adapter.getClass()));
+        Assert.assertTrue(adapter instanceof BinaryArrayEncoder);
+        Assert.assertEquals(((BinaryEncoder) adapter).encode(new byte[]{1}),
+                            "01".getBytes());
+
+        Assert.assertNotSame(factory.newInstance(new RareBinaryArrayEncoder()),
+                             instance);
+    }
+
+
+    @Test
+    public void testForPlainEncoder() throws EncoderException {
+
+        final ProxyFactory<RareEncoderProxy, RareEncoder> factory =
+            ProxyFactory.forEncoder(RareEncoderProxy.class, RareEncoder.class);
+
+        for (final Object instance : new Object[]{
+            factory.newInstance(new RareEncoder()),
+            factory.newAdapter(new RareEncoder())}) {
+            Assert.assertEquals(((Encoder) instance).encode("a"), "a");
+        }
+    }
+
+
+    @Test
+    public void testForDecoder() throws DecoderException {
+
+        final ProxyFactory<RareStringDecoderProxy, RareStringDecoder> factory =
+            ProxyFactory.forDecoder(
+                RareStringDecoderProxy.class, RareStringDecoder.class);
+
+        for (final Object instance : new Object[]{
+            factory.newInstance(new RareStringDecoder()),
+            factory.newAdapter(new RareStringDecoder())}) {
+            Assert.assertEquals(((StringDecoder) instance).decode("a"), "a");
+            Assert.assertTrue(instance instanceof BatchStringDecoder);
+        }
+    }
+
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testWithoutConstructor() {
+
+        ProxyFactory.forEncoder(
+            CachingBinaryEncoderProxy.class, BinaryEncoder.class);
+    }
+
+
+}
+
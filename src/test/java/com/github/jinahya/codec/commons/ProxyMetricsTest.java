@@ -0,0 +1,301 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.codec.BinaryEncoder;
+import org.apache.commons.codec.Encoder;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class ProxyMetricsTest {
+
+
+    @Test
+    public void testBucket() {
+
+        int previous = 0;
+        for (long nanos = 0L; nanos < 1L << 20; nanos++) {
+            final int bucket = ProxyMetrics.bucket(nanos);
+            Assert.assertTrue(bucket >= previous);
+            Assert.assertTrue(ProxyMetrics.highest(bucket) >= nanos);
+            Assert.assertTrue(ProxyMetrics.highest(bucket) - nanos
+                              <= nanos / ProxyMetrics.SUB_BUCKET_COUNT);
+            previous = bucket;
+        }
+
+        Assert.assertEquals(ProxyMetrics.bucket(Long.MAX_VALUE),
+                            ProxyMetrics.BUCKET_COUNT - 1);
+        Assert.assertEquals(
+            ProxyMetrics.highest(ProxyMetrics.BUCKET_COUNT - 1),
+            Long.MAX_VALUE);
+    }
+
+
+    @Test
+    public void testUnits() {
+
+        Assert.assertEquals(ProxyMetrics.units(null), 0L);
+        Assert.assertEquals(ProxyMetrics.units(new Object()), 0L);
+        Assert.assertEquals(ProxyMetrics.units(new byte[3]), 3L);
+        Assert.assertEquals(ProxyMetrics.units(new char[4]), 4L);
+        Assert.assertEquals(ProxyMetrics.units("abcde"), 5L);
+        Assert.assertEquals(ProxyMetrics.units(ByteBuffer.allocate(6)), 6L);
+        Assert.assertEquals(ProxyMetrics.units(7), 0L); // a value
+        Assert.assertEquals(
+            ProxyMetrics.units(new byte[][]{new byte[1], null, new byte[2]}),
+            3L);
+        Assert.assertEquals(ProxyMetrics.units(Arrays.asList("ab", "cd")), 4L);
+    }
+
+
+    @Test
+    public void testLatency() {
+
+        final long[] buckets = new long[ProxyMetrics.BUCKET_COUNT];
+        buckets[ProxyMetrics.bucket(100L)] = 90L;
+        buckets[ProxyMetrics.bucket(1000L)] = 9L;
+        buckets[ProxyMetrics.bucket(10000L)] = 1L;
+        final ProxyStats stats = new ProxyStats(0L, 0L, 0L, 20000L, buckets);
+
+        Assert.assertEquals(stats.getCallCount(), 100L);
+        Assert.assertEquals(stats.getMeanLatency(), 200.0d);
+        Assert.assertEquals(stats.getLatency(0.0d),
+                            ProxyMetrics.highest(ProxyMetrics.bucket(100L)));
+        Assert.assertEquals(stats.getLatency(0.9d),
+                            ProxyMetrics.highest(ProxyMetrics.bucket(100L)));
+        Assert.assertEquals(stats.getLatency(0.99d),
+                            ProxyMetrics.highest(ProxyMetrics.bucket(1000L)));
+        Assert.assertEquals(stats.getLatency(1.0d),
+                            ProxyMetrics.highest(ProxyMetrics.bucket(10000L)));
+
+        final ProxyStats empty = new ProxyMetrics(1).getStats();
+        Assert.assertEquals(empty.getCallCount(), 0L);
+        Assert.assertEquals(empty.getMeanLatency(), 0.0d);
+        Assert.assertEquals(empty.getLatency(0.5d), 0L);
+    }
+
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testLatencyWithIllegalQuantile() {
+
+        new ProxyMetrics(1).getStats().getLatency(1.5d);
+    }
+
+
+    @Test
+    public void testSince() {
+
+        final ProxyMetrics metrics = new ProxyMetrics(1);
+        metrics.started(3L);
+        metrics.succeeded(10L, 4L);
+        final ProxyStats earlier = metrics.getStats();
+        metrics.started(5L);
+        metrics.failed(20L);
+        metrics.started(6L);
+        metrics.succeeded(30L, 7L);
+
+        final ProxyStats since = metrics.getStats().since(earlier);
+        Assert.assertEquals(since.getCallCount(), 2L);
+        Assert.assertEquals(since.getErrorCount(), 1L);
+        Assert.assertEquals(since.getInputUnits(), 11L);
+        Assert.assertEquals(since.getOutputUnits(), 7L);
+        Assert.assertEquals(since.getTotalLatency(), 50L);
+        Assert.assertEquals(earlier.since(earlier).getCallCount(), 0L);
+    }
+
+
+    private static void record(final BinaryEncoder encoder) throws Exception {
+
+        final RareBinaryEncoderProxy proxy = AbstractEncoderProxy
+            .getEncoderProxy(encoder, RareBinaryEncoderProxy.class);
+        Assert.assertNull(proxy.getEncoderMetrics());
+
+        encoder.encode(new byte[10]);
+        Assert.assertNull(proxy.getEncoderMetrics());
+
+        final ProxyMetrics metrics = new ProxyMetrics();
+        proxy.setEncoderMetrics(metrics);
+        for (int i = 0; i < 3; i++) {
+            encoder.encode(new byte[10]);
+        }
+        try {
+            encoder.encode((byte[]) null);
+            Assert.fail("passed: encode(null)");
+        } catch (final NullPointerException npe) {
+            // expected
+        }
+        encoder.hashCode();
+        encoder.toString();
+
+        proxy.setEncoderMetrics(null);
+        encoder.encode(new byte[10]);
+
+        final ProxyStats stats = metrics.getStats();
+        Assert.assertEquals(stats.getCallCount(), 4L);
+        Assert.assertEquals(stats.getErrorCount(), 1L);
+        Assert.assertEquals(stats.getInputUnits(), 30L);
+        Assert.assertEquals(stats.getOutputUnits(), 30L);
+        Assert.assertTrue(stats.getLatency(1.0d) >= stats.getLatency(0.5d));
+    }
+
+
+    @Test
+    public void testInstance() throws Exception {
+
+        record((BinaryEncoder) RareBinaryEncoderProxy.newInstance());
+    }
+
+
+    @Test
+    public void testAdapter() throws Exception {
+
+        record((BinaryEncoder) RareBinaryEncoderProxy.newAdapter());
+    }
+
+
+    @Test
+    public void testExplicitUnits() throws Exception {
+
+        final ProxyMetrics metrics = new ProxyMetrics();
+
+        // an integer given to encode(Object) is a value, not a length
+        for (final Object instance : new Object[]{
+            RareEncoderProxy.newInstance(), RareEncoderProxy.newAdapter()}) {
+            AbstractEncoderProxy.getEncoderProxy(
+                instance, RareEncoderProxy.class).setEncoderMetrics(metrics);
+            Assert.assertEquals(((Encoder) instance).encode(7), 7);
+        }
+        Assert.assertEquals(metrics.getStats().getCallCount(), 2L);
+        Assert.assertEquals(metrics.getStats().getInputUnits(), 0L);
+        Assert.assertEquals(metrics.getStats().getOutputUnits(), 0L);
+
+        // ranges count the length in and the number of bytes written out
+        for (final Object instance : new Object[]{
+            RareBinaryArrayEncoderProxy.newInstance(),
+            RareBinaryArrayEncoderProxy.newAdapter()}) {
+            AbstractEncoderProxy.getEncoderProxy(
+                instance, RareBinaryArrayEncoderProxy.class)
+                .setEncoderMetrics(metrics);
+            Assert.assertEquals(((BinaryArrayEncoder) instance).encode(
+                new byte[8], 2, 3, new byte[6], 0), 6);
+        }
+        Assert.assertEquals(metrics.getStats().getCallCount(), 4L);
+        Assert.assertEquals(metrics.getStats().getInputUnits(), 6L);
+        Assert.assertEquals(metrics.getStats().getOutputUnits(), 12L);
+    }
+
+
+    @Test
+    public void testListener() throws Exception {
+
+        final BinaryEncoder encoder =
+            (BinaryEncoder) RareBinaryEncoderProxy.newAdapter();
+        final RareBinaryEncoderProxy proxy = AbstractEncoderProxy
+            .getEncoderProxy(encoder, RareBinaryEncoderProxy.class);
+        final List<String> notified = new ArrayList<String>();
+        proxy.setEncoderListener(new ProxyListener() {
+            @Override
+            public Object callStarted(final Object proxy,
+                                      final long inputUnits) {
+                notified.add("started:" + inputUnits);
+                return "context";
+            }
+
+            @Override
+            public void callFinished(final Object proxy, final Object context,
+                                     final long outputUnits,
+                                     final Throwable thrown) {
+                Assert.assertEquals(context, "context");
+                notified.add("finished:" + outputUnits + ":"
+                             + (thrown == null ? null
+                                : thrown.getClass().getSimpleName()));
+                throw new RuntimeException("ignored");
+            }
+        });
+        Assert.assertNull(proxy.getEncoderMetrics());
+
+        encoder.encode(new byte[3]);
+        try {
+            encoder.encode((byte[]) null);
+            Assert.fail("passed: encode(null)");
+        } catch (final NullPointerException npe) {
+            // expected
+        }
+        proxy.setEncoderListener(null);
+        encoder.encode(new byte[3]);
+
+        Assert.assertEquals(notified, Arrays.asList(
+            "started:3", "finished:3:null",
+            "started:0", "finished:0:NullPointerException"));
+    }
+
+
+    @Test
+    public void testConcurrent() throws Exception {
+
+        final BinaryEncoder encoder =
+            (BinaryEncoder) RareBinaryEncoderProxy.newAdapter();
+        final ProxyMetrics metrics = new ProxyMetrics();
+        AbstractEncoderProxy.getEncoderProxy(
+            encoder, RareBinaryEncoderProxy.class).setEncoderMetrics(metrics);
+
+        final int threads = 8;
+        final int calls = 1000;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            for (int j = 0; j < calls; j++) {
+                                encoder.encode(new byte[2]);
+                            }
+                        } catch (final Exception e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertTrue(executor.awaitTermination(1L, TimeUnit.MINUTES));
+
+        final ProxyStats stats = metrics.getStats();
+        Assert.assertEquals(stats.getCallCount(), (long) threads * calls);
+        Assert.assertEquals(stats.getErrorCount(), 0L);
+        Assert.assertEquals(stats.getInputUnits(), 2L * threads * calls);
+        Assert.assertEquals(stats.getOutputUnits(), 2L * threads * calls);
+    }
+
+
+}
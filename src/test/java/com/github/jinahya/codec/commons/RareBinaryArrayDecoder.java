@@ -0,0 +1,66 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+/**
+ * Decodes each two hexadecimal digits into a byte.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class RareBinaryArrayDecoder {
+
+
+    private static int digit(final byte digit) {
+
+        final int value = Character.digit((char) digit, 16);
+        if (value == -1) {
+            throw new IllegalArgumentException("not a digit: " + digit);
+        }
+
+        return value;
+    }
+
+
+    public int decode(final byte[] source, int sourceOffset,
+                      final int sourceLength, final byte[] target,
+                      int targetOffset) {
+
+        if (sourceLength % 2 != 0) {
+            throw new IllegalArgumentException(
+                "sourceLength(" + sourceLength + ") % 2 != 0");
+        }
+
+        if (sourceOffset < 0 || sourceLength < 0
+            || sourceOffset + sourceLength > source.length
+            || targetOffset < 0
+            || targetOffset + sourceLength / 2 > target.length) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        for (int i = 0; i < sourceLength / 2; i++) {
+            final int high = digit(source[sourceOffset++]);
+            final int low = digit(source[sourceOffset++]);
+            target[targetOffset++] = (byte) ((high << 4) | low);
+        }
+
+        return sourceLength / 2;
+    }
+
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.io.InputStream;
+import java.nio.channels.ReadableByteChannel;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class RareBinaryArrayDecoderProxy
+    extends BinaryArrayDecoderProxy<RareBinaryArrayDecoder> {
+
+
+    public static Object newInstance(final RareBinaryArrayDecoder decoder) {
+
+        if (decoder == null) {
+            throw new NullPointerException("decoder");
+        }
+
+        return newInstance(RareBinaryArrayDecoderProxy.class,
+                           RareBinaryArrayDecoder.class, decoder);
+    }
+
+
+    public static Object newInstance() {
+
+        return newInstance(new RareBinaryArrayDecoder());
+    }
+
+
+    public static Object newAdapter(final RareBinaryArrayDecoder decoder) {
+
+        if (decoder == null) {
+            throw new NullPointerException("decoder");
+        }
+
+        return newAdapter(RareBinaryArrayDecoderProxy.class,
+                          RareBinaryArrayDecoder.class, decoder);
+    }
+
+
+    public static Object newAdapter() {
+
+        return newAdapter(new RareBinaryArrayDecoder());
+    }
+
+
+    public static InputStream newInputStream(final InputStream in) {
+
+        return newInputStream(RareBinaryArrayDecoderProxy.class,
+                              RareBinaryArrayDecoder.class,
+                              new RareBinaryArrayDecoder(), in);
+    }
+
+
+    public static ReadableByteChannel newReadableByteChannel(
+        final ReadableByteChannel channel) {
+
+        return newReadableByteChannel(RareBinaryArrayDecoderProxy.class,
+                                      RareBinaryArrayDecoder.class,
+                                      new RareBinaryArrayDecoder(), channel);
+    }
+
+
+    protected RareBinaryArrayDecoderProxy(
+        final RareBinaryArrayDecoder decoder) {
+
+        super(decoder);
+    }
+
+
+    @Override
+    protected int decode(final byte[] source, final int sourceOffset,
+                         final int sourceLength, final byte[] target,
+                         final int targetOffset)
+        throws Throwable {
+
+        return decoder.decode(source, sourceOffset, sourceLength, target,
+                              targetOffset);
+    }
+
+
+    @Override
+    protected int maxDecodedLength(final int sourceLength) {
+
+        return sourceLength / 2;
+    }
+
+
+    @Override
+    protected int decodingBlockSize() {
+
+        return 2;
+    }
+
+
+    @Override
+    protected int decodedBlockSize() {
+
+        return 1;
+    }
+
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.nio.ByteBuffer;
+import org.apache.commons.codec.BinaryDecoder;
+import org.apache.commons.codec.DecoderException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class RareBinaryArrayDecoderProxyTest {
+
+
+    private static void testAsBinaryArrayDecoder(
+        final BinaryArrayDecoder decoder)
+        throws DecoderException {
+
+        final byte[] source = "--0001ab7f".getBytes();
+
+        Assert.assertEquals(decoder.maxDecodedLength(8), 4);
+
+        final byte[] target = new byte[6];
+        final int length = decoder.decode(source, 2, 8, target, 1);
+        Assert.assertEquals(length, 4);
+        Assert.assertEquals(
+            target, new byte[]{0x00, 0x00, 0x01, (byte) 0xAB, 0x7F, 0x00});
+
+        try {
+            decoder.decode(source, 0, 4, target, 0);
+            Assert.fail("passed: decode non-digits");
+        } catch (final IllegalArgumentException iae) {
+            // expected
+        }
+    }
+
+
+    private static void testAsBinaryDecoder(final BinaryDecoder decoder)
+        throws DecoderException {
+
+        Assert.assertEquals(decoder.decode("0001ab7f".getBytes()),
+                            new byte[]{0x00, 0x01, (byte) 0xAB, 0x7F});
+    }
+
+
+    @Test
+    public void testAsBinaryArrayDecoder() throws DecoderException {
+
+        testAsBinaryArrayDecoder(
+            (BinaryArrayDecoder) RareBinaryArrayDecoderProxy.newInstance());
+    }
+
+
+    @Test
+    public void testAsBinaryDecoder() throws DecoderException {
+
+        testAsBinaryDecoder(
+            (BinaryDecoder) RareBinaryArrayDecoderProxy.newInstance());
+    }
+
+
+    @Test
+    public void testAdapterAsBinaryArrayDecoder() throws DecoderException {
+
+        testAsBinaryArrayDecoder(
+            (BinaryArrayDecoder) RareBinaryArrayDecoderProxy.newAdapter());
+    }
+
+
+    @Test
+    public void testAdapterAsBinaryDecoder() throws DecoderException {
+
+        testAsBinaryDecoder(
+            (BinaryDecoder) RareBinaryArrayDecoderProxy.newAdapter());
+    }
+
+
+    private static void testAsByteBufferDecoder(
+        final ByteBufferDecoder decoder)
+        throws DecoderException {
+
+        final byte[] expected = new byte[]{0x00, 0x01, (byte) 0xAB, 0x7F};
+
+        final ByteBuffer heap =
+            ByteBuffer.wrap("--0001ab7f".getBytes(), 2, 8).slice();
+        final ByteBuffer fromHeap = decoder.decode(heap);
+        Assert.assertFalse(heap.hasRemaining());
+        Assert.assertEquals(fromHeap, ByteBuffer.wrap(expected));
+
+        final ByteBuffer direct = ByteBuffer.allocateDirect(8);
+        direct.put("0001ab7f".getBytes()).flip();
+        final ByteBuffer fromDirect = decoder.decode(direct);
+        Assert.assertFalse(direct.hasRemaining());
+        Assert.assertEquals(fromDirect, ByteBuffer.wrap(expected));
+    }
+
+
+    @Test
+    public void testAsByteBufferDecoder() throws DecoderException {
+
+        testAsByteBufferDecoder(
+            (ByteBufferDecoder) RareBinaryArrayDecoderProxy.newInstance());
+    }
+
+
+    @Test
+    public void testAdapterAsByteBufferDecoder() throws DecoderException {
+
+        testAsByteBufferDecoder(
+            (ByteBufferDecoder) RareBinaryArrayDecoderProxy.newAdapter());
+    }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+/**
+ * Encodes each byte into two hexadecimal digits.
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class RareBinaryArrayEncoder {
+
+
+    private static final byte[] DIGITS = "0123456789abcdef".getBytes();
+
+
+    public int encode(final byte[] source, int sourceOffset,
+                      final int sourceLength, final byte[] target,
+                      int targetOffset) {
+
+        if (sourceOffset < 0 || sourceLength < 0
+            || sourceOffset + sourceLength > source.length
+            || targetOffset < 0
+            || targetOffset + sourceLength * 2 > target.length) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        for (int i = 0; i < sourceLength; i++) {
+            final int b = source[sourceOffset++] & 0xFF;
+            target[targetOffset++] = DIGITS[b >> 4];
+            target[targetOffset++] = DIGITS[b & 0x0F];
+        }
+
+        return sourceLength * 2;
+    }
+
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class RareBinaryArrayEncoderProxy
+    extends BinaryArrayEncoderProxy<RareBinaryArrayEncoder> {
+
+
+    public static Object newInstance(final RareBinaryArrayEncoder encoder) {
+
+        if (encoder == null) {
+            throw new NullPointerException("encoder");
+        }
+
+        return newInstance(RareBinaryArrayEncoderProxy.class,
+                           RareBinaryArrayEncoder.class, encoder);
+    }
+
+
+    public static Object newInstance() {
+
+        return newInstance(new RareBinaryArrayEncoder());
+    }
+
+
+    public static Object newAdapter(final RareBinaryArrayEncoder encoder) {
+
+        if (encoder == null) {
+            throw new NullPointerException("encoder");
+        }
+
+        return newAdapter(RareBinaryArrayEncoderProxy.class,
+                          RareBinaryArrayEncoder.class, encoder);
+    }
+
+
+    public static Object newAdapter() {
+
+        return newAdapter(new RareBinaryArrayEncoder());
+    }
+
+
+    public static OutputStream newOutputStream(final OutputStream out) {
+
+        return newOutputStream(RareBinaryArrayEncoderProxy.class,
+                               RareBinaryArrayEncoder.class,
+                               new RareBinaryArrayEncoder(), out);
+    }
+
+
+    public static WritableByteChannel newWritableByteChannel(
+        final WritableByteChannel channel) {
+
+        return newWritableByteChannel(RareBinaryArrayEncoderProxy.class,
+                                      RareBinaryArrayEncoder.class,
+                                      new RareBinaryArrayEncoder(), channel);
+    }
+
+
+    protected RareBinaryArrayEncoderProxy(
+        final RareBinaryArrayEncoder encoder) {
+
+        super(encoder);
+    }
+
+
+    @Override
+    protected int encode(final byte[] source, final int sourceOffset,
+                         final int sourceLength, final byte[] target,
+                         final int targetOffset)
+        throws Throwable {
+
+        return encoder.encode(source, sourceOffset, sourceLength, target,
+                              targetOffset);
+    }
+
+
+    @Override
+    protected int maxEncodedLength(final int sourceLength) {
+
+        return sourceLength * 2;
+    }
+
+
+    @Override
+    protected int encodingBlockSize() {
+
+        return 1;
+    }
+
+
+    @Override
+    protected int encodedBlockSize() {
+
+        return 2;
+    }
+
+
+}
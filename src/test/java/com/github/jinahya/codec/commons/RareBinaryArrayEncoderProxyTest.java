@@ -0,0 +1,131 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.nio.ByteBuffer;
+import org.apache.commons.codec.BinaryEncoder;
+import org.apache.commons.codec.EncoderException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class RareBinaryArrayEncoderProxyTest {
+
+
+    private static void testAsBinaryArrayEncoder(
+        final BinaryArrayEncoder encoder)
+        throws EncoderException {
+
+        final byte[] source = new byte[]{0x00, 0x01, (byte) 0xAB, 0x7F};
+
+        Assert.assertEquals(encoder.maxEncodedLength(2), 4);
+
+        final byte[] target = new byte[8];
+        final int length = encoder.encode(source, 1, 2, target, 3);
+        Assert.assertEquals(length, 4);
+        Assert.assertEquals(new String(target, 3, length), "01ab");
+
+        try {
+            encoder.encode(source, 1, 2, target, 6);
+            Assert.fail("passed: encode into a short target");
+        } catch (final IndexOutOfBoundsException ioobe) {
+            // expected
+        }
+    }
+
+
+    private static void testAsBinaryEncoder(final BinaryEncoder encoder)
+        throws EncoderException {
+
+        final byte[] source = new byte[]{0x00, 0x01, (byte) 0xAB, 0x7F};
+        Assert.assertEquals(new String(encoder.encode(source)), "0001ab7f");
+    }
+
+
+    @Test
+    public void testAsBinaryArrayEncoder() throws EncoderException {
+
+        testAsBinaryArrayEncoder(
+            (BinaryArrayEncoder) RareBinaryArrayEncoderProxy.newInstance());
+    }
+
+
+    @Test
+    public void testAsBinaryEncoder() throws EncoderException {
+
+        testAsBinaryEncoder(
+            (BinaryEncoder) RareBinaryArrayEncoderProxy.newInstance());
+    }
+
+
+    @Test
+    public void testAdapterAsBinaryArrayEncoder() throws EncoderException {
+
+        testAsBinaryArrayEncoder(
+            (BinaryArrayEncoder) RareBinaryArrayEncoderProxy.newAdapter());
+    }
+
+
+    @Test
+    public void testAdapterAsBinaryEncoder() throws EncoderException {
+
+        testAsBinaryEncoder(
+            (BinaryEncoder) RareBinaryArrayEncoderProxy.newAdapter());
+    }
+
+
+    private static void testAsByteBufferEncoder(
+        final ByteBufferEncoder encoder)
+        throws EncoderException {
+
+        final byte[] array = new byte[]{0x00, 0x01, (byte) 0xAB, 0x7F};
+
+        final ByteBuffer heap = ByteBuffer.wrap(array, 1, 2).slice();
+        final ByteBuffer fromHeap = encoder.encode(heap);
+        Assert.assertFalse(heap.hasRemaining());
+        Assert.assertEquals(fromHeap, ByteBuffer.wrap("01ab".getBytes()));
+
+        final ByteBuffer direct = ByteBuffer.allocateDirect(array.length);
+        direct.put(array).flip();
+        final ByteBuffer fromDirect = encoder.encode(direct);
+        Assert.assertFalse(direct.hasRemaining());
+        Assert.assertEquals(fromDirect, ByteBuffer.wrap("0001ab7f".getBytes()));
+    }
+
+
+    @Test
+    public void testAsByteBufferEncoder() throws EncoderException {
+
+        testAsByteBufferEncoder(
+            (ByteBufferEncoder) RareBinaryArrayEncoderProxy.newInstance());
+    }
+
+
+    @Test
+    public void testAdapterAsByteBufferEncoder() throws EncoderException {
+
+        testAsByteBufferEncoder(
+            (ByteBufferEncoder) RareBinaryArrayEncoderProxy.newAdapter());
+    }
+
+}
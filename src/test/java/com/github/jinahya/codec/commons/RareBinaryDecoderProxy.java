@@ -51,6 +51,23 @@ public class RareBinaryDecoderProxy
     }
 
 
+    public static Object newAdapter(final RareBinaryDecoder decoder) {
+
+        if (decoder == null) {
+            throw new NullPointerException("decoder");
+        }
+
+        return newAdapter(
+            RareBinaryDecoderProxy.class, RareBinaryDecoder.class, decoder);
+    }
+
+
+    public static Object newAdapter() {
+
+        return newAdapter(new RareBinaryDecoder());
+    }
+
+
     protected RareBinaryDecoderProxy(final RareBinaryDecoder decoder) {
 
         super(decoder);
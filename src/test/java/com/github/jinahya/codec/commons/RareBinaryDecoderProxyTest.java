@@ -18,6 +18,7 @@
 package com.github.jinahya.codec.commons;
 
 
+import java.nio.ByteBuffer;
 import org.apache.commons.codec.BinaryDecoder;
 import org.apache.commons.codec.Decoder;
 import org.apache.commons.codec.DecoderException;
@@ -44,6 +45,13 @@ public class RareBinaryDecoderProxyTest {
             // expected
         }
 
+        try {
+            decoder.decode(new Object());
+            Assert.fail("passed: decode(new Object())");
+        } catch (final DecoderException de) {
+            // expected
+        }
+
         final Object expected = new byte[0];
         final Object actual = decoder.decode(expected);
         Assert.assertEquals(actual, expected);
@@ -69,4 +77,120 @@ public class RareBinaryDecoderProxyTest {
     }
 
 
+    @Test
+    public void testAdapterAsDecoder() throws DecoderException {
+
+        final Decoder decoder = (Decoder) RareBinaryDecoderProxy.newAdapter();
+
+        try {
+            decoder.decode(null);
+            Assert.fail("passed.<Object>decode(null)");
+        } catch (final NullPointerException npe) {
+            // expected
+        }
+
+        try {
+            decoder.decode(new Object());
+            Assert.fail("passed: decode(new Object())");
+        } catch (final DecoderException de) {
+            // expected
+        }
+
+        final Object expected = new byte[0];
+        final Object actual = decoder.decode(expected);
+        Assert.assertEquals(actual, expected);
+    }
+
+
+    @Test
+    public void testAdapterAsBinaryDecoder() throws DecoderException {
+
+        final BinaryDecoder decoder =
+            (BinaryDecoder) RareBinaryDecoderProxy.newAdapter();
+
+        try {
+            decoder.decode((byte[]) null);
+            Assert.fail("passed.decode((byte[]) null)");
+        } catch (final NullPointerException npe) {
+            // expected
+        }
+
+        final byte[] expected = new byte[0];
+        final byte[] actual = decoder.decode(expected);
+        Assert.assertEquals(actual, expected);
+    }
+
+
+    private static void testAsByteBufferDecoder(
+        final ByteBufferDecoder decoder)
+        throws DecoderException {
+
+        final ByteBuffer source = ByteBuffer.allocateDirect(4);
+        source.put(new byte[]{0x00, 0x01, 0x02, 0x03}).flip();
+        source.position(1);
+
+        final ByteBuffer target = decoder.decode(source);
+        Assert.assertFalse(source.hasRemaining());
+        Assert.assertEquals(target.position(), 0);
+        Assert.assertEquals(target, ByteBuffer.wrap(new byte[]{1, 2, 3}));
+    }
+
+
+    @Test
+    public void testAsByteBufferDecoder() throws DecoderException {
+
+        testAsByteBufferDecoder(
+            (ByteBufferDecoder) RareBinaryDecoderProxy.newInstance());
+
+        final Decoder decoder = (Decoder) RareBinaryDecoderProxy.newInstance();
+        final ByteBuffer source = ByteBuffer.wrap(new byte[]{0x00, 0x01});
+        Assert.assertEquals(decoder.decode(source),
+                            ByteBuffer.wrap(new byte[]{0x00, 0x01}));
+    }
+
+
+    @Test
+    public void testAdapterAsByteBufferDecoder() throws DecoderException {
+
+        testAsByteBufferDecoder(
+            (ByteBufferDecoder) RareBinaryDecoderProxy.newAdapter());
+    }
+
+
+    private static void testAsBatchBinaryDecoder(
+        final BatchBinaryDecoder decoder)
+        throws DecoderException {
+
+        try {
+            decoder.decodeAll(null);
+            Assert.fail("passed: decodeAll(null)");
+        } catch (final NullPointerException npe) {
+            // expected
+        }
+
+        final byte[][] sources = new byte[][]{
+            new byte[0], new byte[]{0x00}, new byte[]{0x01, 0x02}};
+        final byte[][] targets = decoder.decodeAll(sources);
+        Assert.assertEquals(targets.length, sources.length);
+        for (int i = 0; i < sources.length; i++) {
+            Assert.assertEquals(targets[i], sources[i]);
+        }
+    }
+
+
+    @Test
+    public void testAsBatchBinaryDecoder() throws DecoderException {
+
+        testAsBatchBinaryDecoder(
+            (BatchBinaryDecoder) RareBinaryDecoderProxy.newInstance());
+    }
+
+
+    @Test
+    public void testAdapterAsBatchBinaryDecoder() throws DecoderException {
+
+        testAsBatchBinaryDecoder(
+            (BatchBinaryDecoder) RareBinaryDecoderProxy.newAdapter());
+    }
+
 }
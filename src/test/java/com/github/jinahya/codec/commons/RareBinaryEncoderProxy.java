@@ -18,6 +18,7 @@
 package com.github.jinahya.codec.commons;
 
 
+import java.util.concurrent.Callable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -54,6 +55,39 @@ public class RareBinaryEncoderProxy
     }
 
 
+    public static Object newAdapter(final RareBinaryEncoder encoder) {
+
+        if (encoder == null) {
+            throw new NullPointerException("encoder");
+        }
+
+        return newAdapter(
+            RareBinaryEncoderProxy.class, RareBinaryEncoder.class, encoder);
+    }
+
+
+    public static Object newAdapter() {
+
+        return newAdapter(new RareBinaryEncoder());
+    }
+
+
+    public static Object newLazyInstance(
+        final Callable<? extends RareBinaryEncoder> supplier) {
+
+        return newInstance((RareBinaryEncoderProxy) newLazyProxy(
+            RareBinaryEncoderProxy.class, RareBinaryEncoder.class, supplier));
+    }
+
+
+    public static Object newLazyAdapter(
+        final Callable<? extends RareBinaryEncoder> supplier) {
+
+        return newAdapter((RareBinaryEncoderProxy) newLazyProxy(
+            RareBinaryEncoderProxy.class, RareBinaryEncoder.class, supplier));
+    }
+
+
     protected RareBinaryEncoderProxy(final RareBinaryEncoder encoder) {
 
         super(encoder);
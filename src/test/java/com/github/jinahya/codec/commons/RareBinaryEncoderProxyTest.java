@@ -18,6 +18,16 @@
 package com.github.jinahya.codec.commons;
 
 
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.commons.codec.BinaryEncoder;
 import org.apache.commons.codec.Encoder;
 import org.apache.commons.codec.EncoderException;
@@ -54,6 +64,13 @@ public class RareBinaryEncoderProxyTest {
             // expected
         }
 
+        try {
+            encoder.encode(new Object());
+            Assert.fail("passed: encode(new Object())");
+        } catch (final EncoderException ee) {
+            // expected
+        }
+
         final Object expected = new byte[0];
         final Object actual = encoder.encode(expected);
         Assert.assertEquals(actual, expected);
@@ -79,4 +96,437 @@ public class RareBinaryEncoderProxyTest {
     }
 
 
+    @Test
+    public void testAdapterAsEncoder() throws EncoderException {
+
+        final Encoder encoder =
+            (Encoder) RareBinaryEncoderProxy.newAdapter();
+
+        try {
+            encoder.encode(null);
+            Assert.fail("passed: <Object>encode(null)");
+        } catch (final NullPointerException npe) {
+            // expected
+        }
+
+        try {
+            encoder.encode(new Object());
+            Assert.fail("passed: encode(new Object())");
+        } catch (final EncoderException ee) {
+            // expected
+        }
+
+        final Object expected = new byte[0];
+        final Object actual = encoder.encode(expected);
+        Assert.assertEquals(actual, expected);
+    }
+
+
+    @Test
+    public void testAdapterAsBinaryEncoder() throws EncoderException {
+
+        final BinaryEncoder encoder =
+            (BinaryEncoder) RareBinaryEncoderProxy.newAdapter();
+
+        try {
+            encoder.encode((byte[]) null);
+            Assert.fail("passed: encode((byte[]) null)");
+        } catch (final NullPointerException npe) {
+            // expected
+        }
+
+        final byte[] expected = new byte[0];
+        final byte[] actual = encoder.encode(expected);
+        Assert.assertEquals(actual, expected);
+    }
+
+
+    @Test
+    public void testObjectMethods() {
+
+        final Object first = RareBinaryEncoderProxy.newInstance();
+        final Object second = RareBinaryEncoderProxy.newInstance();
+
+        Assert.assertEquals(first, first);
+        Assert.assertNotEquals(first, second);
+        Assert.assertEquals(first.hashCode(), System.identityHashCode(first));
+        final String name = RareBinaryEncoderProxy.class.getName();
+        Assert.assertTrue(first.toString().startsWith(name));
+
+        final Map<Object, String> map = new HashMap<Object, String>();
+        map.put(first, "first");
+        map.put(second, "second");
+        Assert.assertEquals(map.get(first), "first");
+        Assert.assertEquals(map.get(second), "second");
+    }
+
+
+    private static void testAsByteBufferEncoder(
+        final ByteBufferEncoder encoder)
+        throws EncoderException {
+
+        final ByteBuffer source = ByteBuffer.allocateDirect(4);
+        source.put(new byte[]{0x00, 0x01, 0x02, 0x03}).flip();
+        source.position(1);
+
+        final ByteBuffer target = encoder.encode(source);
+        Assert.assertFalse(source.hasRemaining());
+        Assert.assertEquals(target.position(), 0);
+        Assert.assertEquals(target, ByteBuffer.wrap(new byte[]{1, 2, 3}));
+    }
+
+
+    @Test
+    public void testAsByteBufferEncoder() throws EncoderException {
+
+        testAsByteBufferEncoder(
+            (ByteBufferEncoder) RareBinaryEncoderProxy.newInstance());
+
+        final Encoder encoder = (Encoder) RareBinaryEncoderProxy.newInstance();
+        final ByteBuffer source = ByteBuffer.wrap(new byte[]{0x00, 0x01});
+        Assert.assertEquals(encoder.encode(source),
+                            ByteBuffer.wrap(new byte[]{0x00, 0x01}));
+    }
+
+
+    @Test
+    public void testAdapterAsByteBufferEncoder() throws EncoderException {
+
+        testAsByteBufferEncoder(
+            (ByteBufferEncoder) RareBinaryEncoderProxy.newAdapter());
+    }
+
+
+    private static void testAsBatchBinaryEncoder(
+        final BatchBinaryEncoder encoder)
+        throws EncoderException {
+
+        try {
+            encoder.encodeAll(null);
+            Assert.fail("passed: encodeAll(null)");
+        } catch (final NullPointerException npe) {
+            // expected
+        }
+
+        final byte[][] sources = new byte[][]{
+            new byte[0], new byte[]{0x00}, new byte[]{0x01, 0x02}};
+        final byte[][] targets = encoder.encodeAll(sources);
+        Assert.assertEquals(targets.length, sources.length);
+        for (int i = 0; i < sources.length; i++) {
+            Assert.assertEquals(targets[i], sources[i]);
+        }
+    }
+
+
+    @Test
+    public void testAsBatchBinaryEncoder() throws EncoderException {
+
+        testAsBatchBinaryEncoder(
+            (BatchBinaryEncoder) RareBinaryEncoderProxy.newInstance());
+    }
+
+
+    @Test
+    public void testAdapterAsBatchBinaryEncoder() throws EncoderException {
+
+        testAsBatchBinaryEncoder(
+            (BatchBinaryEncoder) RareBinaryEncoderProxy.newAdapter());
+    }
+
+
+
+    @Test
+    public void testLazy() throws EncoderException {
+
+        final AtomicInteger created = new AtomicInteger();
+        final Callable<RareBinaryEncoder> supplier =
+            new Callable<RareBinaryEncoder>() {
+            @Override
+            public RareBinaryEncoder call() {
+                created.incrementAndGet();
+                return new RareBinaryEncoder();
+            }
+        };
+
+        for (final Object lazy : new Object[]{
+            RareBinaryEncoderProxy.newLazyInstance(supplier),
+            RareBinaryEncoderProxy.newLazyAdapter(supplier)}) {
+            created.set(0);
+            final BinaryEncoder encoder = (BinaryEncoder) lazy;
+            Assert.assertEquals(created.get(), 0);
+            Assert.assertEquals(encoder.encode(new byte[]{1}), new byte[]{1});
+            Assert.assertEquals(encoder.encode(new byte[]{2}), new byte[]{2});
+            Assert.assertEquals(created.get(), 1);
+        }
+    }
+
+
+    @Test
+    public void testLazyFailure() throws EncoderException {
+
+        final AtomicInteger attempts = new AtomicInteger();
+        final BinaryEncoder encoder = (BinaryEncoder)
+            RareBinaryEncoderProxy.newLazyInstance(
+                new Callable<RareBinaryEncoder>() {
+                @Override
+                public RareBinaryEncoder call() throws Exception {
+                    if (attempts.incrementAndGet() == 1) {
+                        throw new Exception("not yet");
+                    }
+                    return new RareBinaryEncoder();
+                }
+            });
+
+        try {
+            encoder.encode(new byte[0]);
+            Assert.fail("failed to fail");
+        } catch (final EncoderException ee) {
+            Assert.assertEquals(ee.getCause().getMessage(), "not yet");
+        }
+        Assert.assertEquals(encoder.encode(new byte[0]), new byte[0]);
+        Assert.assertEquals(attempts.get(), 2);
+    }
+
+
+    @Test
+    public void testLazyFailureNotMeasured() throws EncoderException {
+
+        final AtomicInteger attempts = new AtomicInteger();
+        final Callable<RareBinaryEncoder> supplier =
+            new Callable<RareBinaryEncoder>() {
+            @Override
+            public RareBinaryEncoder call() throws Exception {
+                if (attempts.incrementAndGet() % 2 == 1) {
+                    throw new Exception("not yet");
+                }
+                return new RareBinaryEncoder();
+            }
+        };
+
+        for (final Object lazy : new Object[]{
+            RareBinaryEncoderProxy.newLazyInstance(supplier),
+            RareBinaryEncoderProxy.newLazyAdapter(supplier)}) {
+            final RareBinaryEncoderProxy proxy = AbstractEncoderProxy
+                .getEncoderProxy(lazy, RareBinaryEncoderProxy.class);
+            final ProxyMetrics metrics = new ProxyMetrics();
+            proxy.setEncoderMetrics(metrics);
+            final AtomicInteger started = new AtomicInteger();
+            proxy.setEncoderListener(new ProxyListener() {
+                @Override
+                public Object callStarted(final Object proxy,
+                                          final long inputUnits) {
+                    started.incrementAndGet();
+                    return null;
+                }
+
+                @Override
+                public void callFinished(final Object proxy,
+                                         final Object context,
+                                         final long outputUnits,
+                                         final Throwable thrown) {
+                }
+            });
+            final BinaryEncoder encoder = (BinaryEncoder) lazy;
+            try {
+                encoder.encode(new byte[1]);
+                Assert.fail("failed to fail");
+            } catch (final EncoderException ee) {
+                // expected
+            }
+            Assert.assertEquals(encoder.encode(new byte[1]), new byte[1]);
+            // creating the encoder is neither a call nor an error
+            Assert.assertEquals(metrics.getStats().getCallCount(), 1L);
+            Assert.assertEquals(metrics.getStats().getErrorCount(), 0L);
+            Assert.assertEquals(started.get(), 1);
+        }
+    }
+
+
+    @Test
+    public void testLazyObjectMethods() {
+
+        final AtomicInteger attempts = new AtomicInteger();
+        final Object encoder = RareBinaryEncoderProxy.newLazyInstance(
+            new Callable<RareBinaryEncoder>() {
+            @Override
+            public RareBinaryEncoder call() throws Exception {
+                attempts.incrementAndGet();
+                throw new Exception("never");
+            }
+        });
+
+        Assert.assertEquals(encoder.hashCode(),
+                            System.identityHashCode(encoder));
+        Assert.assertTrue(encoder.equals(encoder));
+        Assert.assertFalse(encoder.equals(new Object()));
+        Assert.assertNotNull(encoder.toString());
+        Assert.assertEquals(attempts.get(), 0);
+    }
+
+
+    @Test
+    public void testLazyConcurrent() throws InterruptedException {
+
+        final AtomicInteger created = new AtomicInteger();
+        final BinaryEncoder encoder = (BinaryEncoder)
+            RareBinaryEncoderProxy.newLazyAdapter(
+                new Callable<RareBinaryEncoder>() {
+                @Override
+                public RareBinaryEncoder call() throws Exception {
+                    created.incrementAndGet();
+                    Thread.sleep(10L);
+                    return new RareBinaryEncoder();
+                }
+            });
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicInteger failures = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int i = 0; i < 8; i++) {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            start.await();
+                            encoder.encode(new byte[]{1});
+                        } catch (final Exception e) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertTrue(executor.awaitTermination(1L, TimeUnit.MINUTES));
+
+        Assert.assertEquals(failures.get(), 0);
+        Assert.assertEquals(created.get(), 1);
+    }
+
+
+
+
+    /**
+     * An encoder which negates each byte.
+     */
+    private static class NegatingEncoder extends RareBinaryEncoder {
+
+
+        @Override
+        public byte[] encode(final byte[] source) {
+
+            final byte[] encoded = new byte[source.length];
+            for (int i = 0; i < encoded.length; i++) {
+                encoded[i] = (byte) -source[i];
+            }
+
+            return encoded;
+        }
+
+
+    }
+
+
+    @Test
+    public void testSwapEncoder() throws EncoderException {
+
+        for (final Object instance : new Object[]{
+            RareBinaryEncoderProxy.newInstance(),
+            RareBinaryEncoderProxy.newAdapter()}) {
+            final BinaryEncoder encoder = (BinaryEncoder) instance;
+            final RareBinaryEncoderProxy proxy =
+                AbstractEncoderProxy.getEncoderProxy(
+                    instance, RareBinaryEncoderProxy.class);
+            Assert.assertEquals(encoder.encode(new byte[]{1}), new byte[]{1});
+
+            final RareBinaryEncoder negating = new NegatingEncoder();
+            final RareBinaryEncoder previous = proxy.swapEncoder(negating);
+            Assert.assertNotNull(previous);
+            Assert.assertEquals(encoder.encode(new byte[]{1}),
+                                new byte[]{-1});
+
+            Assert.assertFalse(proxy.compareAndSwapEncoder(previous, previous));
+            Assert.assertTrue(proxy.compareAndSwapEncoder(negating, previous));
+            Assert.assertEquals(encoder.encode(new byte[]{1}), new byte[]{1});
+        }
+
+        try {
+            AbstractEncoderProxy.getEncoderProxy(
+                new Object(), RareBinaryEncoderProxy.class);
+            Assert.fail("failed to fail");
+        } catch (final IllegalArgumentException iae) {
+            // expected
+        }
+    }
+
+
+    @Test
+    public void testSwapLazyEncoder() throws EncoderException {
+
+        final Object instance = RareBinaryEncoderProxy.newLazyInstance(
+            new Callable<RareBinaryEncoder>() {
+            @Override
+            public RareBinaryEncoder call() {
+                throw new AssertionError("shouldn't be created");
+            }
+        });
+
+        final RareBinaryEncoderProxy proxy =
+            AbstractEncoderProxy.getEncoderProxy(
+                instance, RareBinaryEncoderProxy.class);
+        Assert.assertNull(proxy.swapEncoder(new NegatingEncoder()));
+        Assert.assertEquals(((BinaryEncoder) instance).encode(new byte[]{2}),
+                            new byte[]{-2});
+    }
+
+
+    @Test
+    public void testSwapEncoderConcurrently() throws InterruptedException {
+
+        final BinaryEncoder encoder =
+            (BinaryEncoder) RareBinaryEncoderProxy.newAdapter();
+        final RareBinaryEncoderProxy proxy =
+            AbstractEncoderProxy.getEncoderProxy(
+                encoder, RareBinaryEncoderProxy.class);
+        final RareBinaryEncoder[] encoders = new RareBinaryEncoder[]{
+            new RareBinaryEncoder(), new NegatingEncoder()};
+
+        final AtomicBoolean done = new AtomicBoolean();
+        final AtomicInteger failures = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 4; i++) {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        while (!done.get()) {
+                            try {
+                                final byte b = encoder.encode(
+                                    new byte[]{3})[0];
+                                if (b != 3 && b != -3) {
+                                    failures.incrementAndGet();
+                                }
+                            } catch (final Exception e) {
+                                failures.incrementAndGet();
+                            }
+                        }
+                    }
+                });
+            }
+            for (int i = 0; i < 10000; i++) {
+                proxy.swapEncoder(encoders[i % 2]);
+            }
+            done.set(true);
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertTrue(executor.awaitTermination(1L, TimeUnit.MINUTES));
+
+        Assert.assertEquals(failures.get(), 0);
+    }
+
+
 }
@@ -52,6 +52,22 @@ public class RareDecoderProxy extends DecoderProxy<RareDecoder> {
     }
 
 
+    protected static Object newAdapter(final RareDecoder decoder) {
+
+        if (decoder == null) {
+            throw new NullPointerException("decoder");
+        }
+
+        return newAdapter(RareDecoderProxy.class, RareDecoder.class, decoder);
+    }
+
+
+    protected static Object newAdapter() {
+
+        return newAdapter(new RareDecoder());
+    }
+
+
     protected RareDecoderProxy(final RareDecoder decoder) {
 
         super(decoder);
@@ -58,4 +58,22 @@ public class RareDecoderProxyTest {
     }
 
 
+    @Test
+    public void testAdapterAsDecoder() throws DecoderException {
+
+        final Decoder decoder = (Decoder) RareDecoderProxy.newAdapter();
+
+        try {
+            decoder.decode(null);
+            Assert.fail("passed: <Object>decode(null)");
+        } catch (final NullPointerException npe) {
+            // expected
+        }
+
+        final Object expected = new Object();
+        final Object actual = decoder.decode(expected);
+        Assert.assertEquals(actual, expected);
+    }
+
+
 }
@@ -52,6 +52,22 @@ public class RareEncoderProxy extends EncoderProxy<RareEncoder> {
     }
 
 
+    protected static Object newAdapter(final RareEncoder encoder) {
+
+        if (encoder == null) {
+            throw new NullPointerException("encoder");
+        }
+
+        return newAdapter(RareEncoderProxy.class, RareEncoder.class, encoder);
+    }
+
+
+    protected static Object newAdapter() {
+
+        return newAdapter(new RareEncoder());
+    }
+
+
     protected RareEncoderProxy(final RareEncoder encoder) {
 
         super(encoder);
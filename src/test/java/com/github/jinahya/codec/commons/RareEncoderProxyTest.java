@@ -49,4 +49,22 @@ public class RareEncoderProxyTest {
     }
 
 
+    @Test
+    public void testAdapterAsEncoder() throws EncoderException {
+
+        final Encoder encoder = (Encoder) RareEncoderProxy.newAdapter();
+
+        try {
+            encoder.encode(null);
+            Assert.fail("passed: <Object>encode(null)");
+        } catch (final NullPointerException npe) {
+            //expected
+        }
+
+        final Object expected = new Object();
+        final Object actual = encoder.encode(expected);
+        Assert.assertEquals(actual, expected);
+    }
+
+
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.util.Random;
+import org.apache.commons.codec.BinaryDecoder;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class RareParallelBinaryArrayDecoderProxyTest {
+
+
+    @Test
+    public void testDecode() throws DecoderException {
+
+        final BinaryDecoder decoder =
+            (BinaryDecoder) RareParallelBinaryArrayDecoderProxy.newInstance();
+
+        final Random random = new Random();
+        for (final int length : new int[]{0, 1, 15, 16, 17, 1000, 65537}) {
+            final byte[] expected = new byte[length];
+            random.nextBytes(expected);
+            final byte[] source = new String(Hex.encodeHex(expected))
+                .getBytes();
+            Assert.assertEquals(decoder.decode(source), expected);
+        }
+
+        try {
+            decoder.decode("0001ab7".getBytes());
+            Assert.fail("passed: decode an odd number of digits");
+        } catch (final IllegalArgumentException iae) {
+            // expected
+        }
+    }
+
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class RareParallelBinaryEncoderProxy extends RareBinaryEncoderProxy {
+
+
+    private static final ExecutorService EXECUTOR =
+        Executors.newFixedThreadPool(4, new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable r) {
+                final Thread thread = new Thread(r);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+
+    public static Object newInstance(final RareBinaryEncoder encoder) {
+
+        if (encoder == null) {
+            throw new NullPointerException("encoder");
+        }
+
+        return newInstance(RareParallelBinaryEncoderProxy.class,
+                           RareBinaryEncoder.class, encoder);
+    }
+
+
+    public static Object newInstance() {
+
+        return newInstance(new RareBinaryEncoder());
+    }
+
+
+    protected RareParallelBinaryEncoderProxy(final RareBinaryEncoder encoder) {
+
+        super(encoder);
+    }
+
+
+    @Override
+    protected boolean isEncoderThreadSafe() {
+
+        return true;
+    }
+
+
+    @Override
+    protected Executor getEncoderExecutor() {
+
+        return EXECUTOR;
+    }
+
+
+    @Override
+    protected int getEncoderBatchThreshold() {
+
+        return 4;
+    }
+
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import org.apache.commons.codec.EncoderException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class RareParallelBinaryEncoderProxyTest {
+
+
+    @Test
+    public void testEncodeAll() throws EncoderException {
+
+        final BatchBinaryEncoder encoder =
+            (BatchBinaryEncoder) RareParallelBinaryEncoderProxy.newInstance();
+
+        final byte[][] sources = new byte[1024][];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = new byte[]{(byte) i, (byte) (i >> 8)};
+        }
+
+        final byte[][] targets = encoder.encodeAll(sources);
+        Assert.assertEquals(targets.length, sources.length);
+        for (int i = 0; i < sources.length; i++) {
+            Assert.assertEquals(targets[i], sources[i]);
+        }
+
+        sources[sources.length - 1] = null;
+        try {
+            encoder.encodeAll(sources);
+            Assert.fail("passed: encodeAll with a null element");
+        } catch (final NullPointerException npe) {
+            // expected
+        }
+    }
+
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class RareStacklessBinaryDecoderProxy extends RareBinaryDecoderProxy {
+
+
+    public static Object newInstance(final RareBinaryDecoder decoder) {
+
+        if (decoder == null) {
+            throw new NullPointerException("decoder");
+        }
+
+        return newInstance(RareStacklessBinaryDecoderProxy.class,
+                           RareBinaryDecoder.class, decoder);
+    }
+
+
+    public static Object newInstance() {
+
+        return newInstance(new RareBinaryDecoder());
+    }
+
+
+    protected RareStacklessBinaryDecoderProxy(final RareBinaryDecoder decoder) {
+
+        super(decoder);
+    }
+
+
+    @Override
+    protected boolean isStackless() {
+
+        return true;
+    }
+
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2013 Jin Kwon <jinahya at gmail.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.jinahya.codec.commons;
+
+
+import org.apache.commons.codec.Decoder;
+import org.apache.commons.codec.DecoderException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ *
+ * @author Jin Kwon <jinahya at gmail.com>
+ */
+public class RareStacklessBinaryDecoderProxyTest {
+
+
+    private static DecoderException fail(final Decoder decoder) {
+
+        try {
+            decoder.decode(new Object());
+            Assert.fail("passed: decode(new Object())");
+            throw new AssertionError();
+        } catch (final DecoderException de) {
+            return de;
+        }
+    }
+
+
+    @Test
+    public void testStacklessFailures() {
+
+        final Decoder decoder =
+            (Decoder) RareStacklessBinaryDecoderProxy.newInstance();
+
+        final DecoderException first = fail(decoder);
+        Assert.assertEquals(first.getStackTrace().length, 0);
+
+        final DecoderException second = fail(decoder);
+        Assert.assertSame(second, first);
+    }
+
+
+    @Test
+    public void testStackfulFailures() {
+
+        final Decoder decoder = (Decoder) RareBinaryDecoderProxy.newInstance();
+
+        final DecoderException first = fail(decoder);
+        Assert.assertTrue(first.getStackTrace().length > 0);
+
+        final DecoderException second = fail(decoder);
+        Assert.assertNotSame(second, first);
+    }
+
+
+}
@@ -54,6 +54,23 @@ public class RareStringDecoderProxy
     }
 
 
+    public static Object newAdapter(final RareStringDecoder decoder) {
+
+        if (decoder == null) {
+            throw new NullPointerException("decoder");
+        }
+
+        return newAdapter(
+            RareStringDecoderProxy.class, RareStringDecoder.class, decoder);
+    }
+
+
+    public static Object newAdapter() {
+
+        return newAdapter(new RareStringDecoder());
+    }
+
+
     protected RareStringDecoderProxy(final RareStringDecoder decoder) {
 
         super(decoder);
@@ -18,6 +18,10 @@
 package com.github.jinahya.codec.commons;
 
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.apache.commons.codec.Decoder;
 import org.apache.commons.codec.DecoderException;
 import org.apache.commons.codec.StringDecoder;
@@ -76,4 +80,100 @@ public class RareStringDecoderProxyTest {
     }
 
 
+    @Test
+    public void testAdapterAsDecoder() throws DecoderException {
+
+        final Decoder decoder = (Decoder) RareStringDecoderProxy.newAdapter();
+
+        try {
+            decoder.decode((Object) null);
+            Assert.fail("passed: decode((Object) null)");
+        } catch (final NullPointerException npe) {
+            // expected
+        }
+
+        try {
+            decoder.decode(new Object());
+            Assert.fail("passed: decode(new Object())");
+        } catch (final DecoderException de) {
+            // expected;
+        }
+
+        final Object expected = "";
+        final Object actual = decoder.decode(expected);
+        Assert.assertEquals(actual, expected);
+    }
+
+
+    @Test
+    public void testAdapterAsStringDecoder() throws DecoderException {
+
+        final StringDecoder decoder =
+            (StringDecoder) RareStringDecoderProxy.newAdapter();
+
+        try {
+            decoder.decode((String) null);
+            Assert.fail("passed: decode((String) null)");
+        } catch (final NullPointerException npe) {
+            // expected
+        }
+
+        final String expected = "";
+        final String actual = decoder.decode(expected);
+        Assert.assertEquals(actual, expected);
+    }
+
+
+    @Test
+    public void testObjectMethods() {
+
+        final Object first = RareStringDecoderProxy.newInstance();
+        final Object second = RareStringDecoderProxy.newInstance();
+
+        Assert.assertEquals(first, first);
+        Assert.assertNotEquals(first, second);
+        Assert.assertEquals(first.hashCode(), System.identityHashCode(first));
+        final String name = RareStringDecoderProxy.class.getName();
+        Assert.assertTrue(first.toString().startsWith(name));
+
+        final Map<Object, String> map = new HashMap<Object, String>();
+        map.put(first, "first");
+        map.put(second, "second");
+        Assert.assertEquals(map.get(first), "first");
+        Assert.assertEquals(map.get(second), "second");
+    }
+
+
+    private static void testAsBatchStringDecoder(
+        final BatchStringDecoder decoder)
+        throws DecoderException {
+
+        final List<String> sources = Arrays.asList("", "a", "bc");
+        final List<String> targets = decoder.decodeAll(sources);
+        Assert.assertEquals(targets, sources);
+
+        try {
+            decoder.decodeAll(Arrays.asList("a", null));
+            Assert.fail("passed: decodeAll([a, null])");
+        } catch (final NullPointerException npe) {
+            // expected
+        }
+    }
+
+
+    @Test
+    public void testAsBatchStringDecoder() throws DecoderException {
+
+        testAsBatchStringDecoder(
+            (BatchStringDecoder) RareStringDecoderProxy.newInstance());
+    }
+
+
+    @Test
+    public void testAdapterAsBatchStringDecoder() throws DecoderException {
+
+        testAsBatchStringDecoder(
+            (BatchStringDecoder) RareStringDecoderProxy.newAdapter());
+    }
+
 }
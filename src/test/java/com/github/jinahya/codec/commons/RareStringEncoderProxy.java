@@ -43,6 +43,23 @@ public class RareStringEncoderProxy
     }
 
 
+    public static Object newAdapter(final RareStringEncoder encoder) {
+
+        if (encoder == null) {
+            throw new NullPointerException("encoder");
+        }
+
+        return newAdapter(
+            RareStringEncoderProxy.class, RareStringEncoder.class, encoder);
+    }
+
+
+    public static Object newAdapter() {
+
+        return newAdapter(new RareStringEncoder());
+    }
+
+
     protected RareStringEncoderProxy(final RareStringEncoder encoder) {
 
         super(encoder);
@@ -18,6 +18,8 @@
 package com.github.jinahya.codec.commons;
 
 
+import java.util.Arrays;
+import java.util.List;
 import org.apache.commons.codec.Encoder;
 import org.apache.commons.codec.EncoderException;
 import org.apache.commons.codec.StringEncoder;
@@ -77,4 +79,81 @@ public class RareStringEncoderProxyTest {
     }
 
 
+    @Test
+    public void testAdapterAsEncoder() throws EncoderException {
+
+        final Encoder encoder =
+            (Encoder) RareStringEncoderProxy.newAdapter();
+
+        try {
+            encoder.encode(null);
+            Assert.fail("passed: <Object>encode(null)");
+        } catch (final NullPointerException npe) {
+            // expected
+        }
+
+        try {
+            encoder.encode(new Object());
+            Assert.fail("passed: encode(new Object())");
+        } catch (final EncoderException en) {
+            // expected;
+        }
+
+        final Object expected = "";
+        final Object actual = encoder.encode(expected);
+        Assert.assertEquals(actual, expected);
+    }
+
+
+    @Test
+    public void testAdapterAsStringEncoder() throws EncoderException {
+
+        final StringEncoder encoder =
+            (StringEncoder) RareStringEncoderProxy.newAdapter();
+
+        try {
+            encoder.encode((String) null);
+            Assert.fail("passed: encode((String) null)");
+        } catch (final NullPointerException npe) {
+            // expected
+        }
+
+        final String expected = "";
+        final String actual = encoder.encode(expected);
+        Assert.assertEquals(actual, expected);
+    }
+
+
+    private static void testAsBatchStringEncoder(
+        final BatchStringEncoder encoder)
+        throws EncoderException {
+
+        final List<String> sources = Arrays.asList("", "a", "bc");
+        final List<String> targets = encoder.encodeAll(sources);
+        Assert.assertEquals(targets, sources);
+
+        try {
+            encoder.encodeAll(Arrays.asList("a", null));
+            Assert.fail("passed: encodeAll([a, null])");
+        } catch (final NullPointerException npe) {
+            // expected
+        }
+    }
+
+
+    @Test
+    public void testAsBatchStringEncoder() throws EncoderException {
+
+        testAsBatchStringEncoder(
+            (BatchStringEncoder) RareStringEncoderProxy.newInstance());
+    }
+
+
+    @Test
+    public void testAdapterAsBatchStringEncoder() throws EncoderException {
+
+        testAsBatchStringEncoder(
+            (BatchStringEncoder) RareStringEncoderProxy.newAdapter());
+    }
+
 }